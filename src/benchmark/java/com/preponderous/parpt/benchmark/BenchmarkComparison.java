@@ -0,0 +1,86 @@
+package com.preponderous.parpt.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH result files written with {@code -rf json} and prints the change of
+ * every benchmark present in both. A change is reported as a regression when it is worse
+ * than the threshold and larger than the combined error of the two measurements.
+ * <p>
+ * Usage: {@code BenchmarkComparison <baseline.json> <current.json> [threshold percent]}.
+ * Exits with status 1 if any benchmark regressed.
+ */
+public final class BenchmarkComparison {
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10;
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json> [threshold percent]");
+            System.exit(2);
+        }
+        Map<String, Result> baseline = read(Path.of(args[0]));
+        Map<String, Result> current = read(Path.of(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %9s%n", entry.getKey(), "-", entry.getValue().score, "new");
+                continue;
+            }
+            Result after = entry.getValue();
+            double change = (after.score - before.score) / before.score * 100;
+            // Higher is better for throughput, lower is better for the time based modes
+            double worse = after.higherIsBetter() ? -change : change;
+            boolean regressed = worse > threshold
+                    && Math.abs(after.score - before.score) > before.error + after.error;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%% %s%s%n", entry.getKey(), before.score, after.score,
+                    change, after.unit, regressed ? "  REGRESSION" : "");
+        }
+        System.out.printf("%d regression(s) worse than %.1f%%%n", regressions, threshold);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Result> read(Path file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            // Sorted, so the key does not depend on the order JMH lists parameters in
+            Map<String, String> params = new TreeMap<>();
+            run.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            params.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+            JsonNode metric = run.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            results.put(key.toString(), new Result(
+                    run.path("mode").asText(),
+                    metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error,
+                    metric.path("scoreUnit").asText()));
+        }
+        return results;
+    }
+
+    private record Result(String mode, double score, double error, String unit) {
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+}
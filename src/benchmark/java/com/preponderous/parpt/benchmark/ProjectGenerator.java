@@ -0,0 +1,108 @@
+package com.preponderous.parpt.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.repo.ProjectBinaryReaderWriterImpl;
+import com.preponderous.parpt.repo.ProjectJsonReaderWriterImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Synthetic portfolios for benchmarks. Projects are derived from their index and a seed
+ * alone, so the same seed always yields the same portfolio and large portfolios can be
+ * written without being held in memory.
+ */
+public final class ProjectGenerator {
+
+    public static final long DEFAULT_SEED = 42;
+
+    private static final String[] WORDS = {
+            "billing", "search", "onboarding", "export", "audit", "mobile", "reporting", "sync",
+            "cache", "pricing", "alerts", "import", "dashboard", "api", "migration", "support"
+    };
+
+    private ProjectGenerator() {
+    }
+
+    /**
+     * Returns a lazy view of {@code size} generated projects with unique names.
+     */
+    public static List<Project> projects(int size, long seed) {
+        return new GeneratedProjects(size, seed);
+    }
+
+    public static List<Project> projects(int size) {
+        return projects(size, DEFAULT_SEED);
+    }
+
+    public static String name(int index) {
+        return "Project " + index;
+    }
+
+    public static Project project(int index, long seed) {
+        long bits = mix(seed * 0x9E3779B97F4A7C15L + index);
+        StringBuilder description = new StringBuilder("Improve");
+        // Between two and nine words, so descriptions vary in length like real input does
+        int words = 2 + (int) ((bits >>> 40) & 7);
+        for (int i = 0; i < words; i++) {
+            description.append(' ').append(WORDS[(int) ((bits >>> (4 * i)) & 15)]);
+        }
+        return Project.builder()
+                .name(name(index))
+                .description(description.toString())
+                .impact(score(bits, 0))
+                .confidence(score(bits, 1))
+                .ease(score(bits, 2))
+                .reach(score(bits, 3))
+                .effort(score(bits, 4))
+                .build();
+    }
+
+    /**
+     * Writes both snapshots, as a compaction would, so a repository opened on the file
+     * starts from the memory-mapped binary snapshot like it does in steady state.
+     */
+    public static void writeSnapshots(Path projectsFile, int size, long seed) {
+        List<Project> projects = projects(size, seed);
+        new ProjectJsonReaderWriterImpl(projectsFile.toString(), new ObjectMapper(), new SimpleMeterRegistry()).writeJson(projects);
+        new ProjectBinaryReaderWriterImpl(projectsFile + ".bin", projectsFile.toString()).writeBinary(projects);
+    }
+
+    private static int score(long bits, int index) {
+        return (int) Long.remainderUnsigned(bits >>> (8 + 6 * index), 5) + 1;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class GeneratedProjects extends AbstractList<Project> implements RandomAccess {
+        private final int size;
+        private final long seed;
+
+        GeneratedProjects(int size, long seed) {
+            this.size = size;
+            this.seed = seed;
+        }
+
+        @Override
+        public Project get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return project(index, seed);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.preponderous.parpt.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.repo.ProjectJsonReaderWriterImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes and reads whole JSON snapshots. Writes include the forced, atomic replace the
+ * application performs on every compaction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ProjectJsonCodecBenchmark {
+
+    @Param({"1000", "100000"})
+    int size;
+
+    private Path directory;
+    private List<Project> projects;
+    private ProjectJsonReaderWriterImpl writer;
+    private ProjectJsonReaderWriterImpl reader;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("parpt-bench");
+        projects = new ArrayList<>(ProjectGenerator.projects(size));
+        ObjectMapper objectMapper = new ObjectMapper();
+        writer = new ProjectJsonReaderWriterImpl(directory.resolve("written.json").toString(), objectMapper, new SimpleMeterRegistry());
+        reader = new ProjectJsonReaderWriterImpl(directory.resolve("read.json").toString(), objectMapper, new SimpleMeterRegistry());
+        reader.writeJson(projects);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(directory.resolve("written.json"));
+        Files.deleteIfExists(directory.resolve("read.json"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public void write() {
+        writer.writeJson(projects);
+    }
+
+    @Benchmark
+    public void read(Blackhole blackhole) {
+        reader.readJson(blackhole::consume);
+    }
+}
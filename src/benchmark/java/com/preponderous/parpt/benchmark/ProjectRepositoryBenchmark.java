@@ -0,0 +1,116 @@
+package com.preponderous.parpt.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.preponderous.parpt.config.ProjectStoreConfig;
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.repo.FlushScheduler;
+import com.preponderous.parpt.repo.ProjectBinaryReaderWriterImpl;
+import com.preponderous.parpt.repo.ProjectFileLockImpl;
+import com.preponderous.parpt.repo.ProjectJournalImpl;
+import com.preponderous.parpt.repo.ProjectJsonReaderWriterImpl;
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.repo.ScoreHistoryImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Adds and looks up projects in a repository opened on a generated portfolio, with the
+ * same journal, flush and compaction settings the application uses by default. Every
+ * iteration starts from freshly written files so adds do not accumulate across iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ProjectRepositoryBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    @Param({"objects", "compact"})
+    String store;
+
+    private Path directory;
+    private FlushScheduler flushScheduler;
+    private ProjectRepository repository;
+    private SplittableRandom random;
+    private int nextIndex;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("parpt-bench");
+        Path projectsFile = directory.resolve("projects.json");
+        ProjectGenerator.writeSnapshots(projectsFile, size, ProjectGenerator.DEFAULT_SEED);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        flushScheduler = new FlushScheduler(100);
+        repository = new ProjectRepository(
+                new ProjectJsonReaderWriterImpl(projectsFile.toString(), objectMapper, new SimpleMeterRegistry()),
+                new ProjectBinaryReaderWriterImpl(projectsFile + ".bin", projectsFile.toString()),
+                new ProjectJournalImpl(projectsFile + ".journal", objectMapper),
+                new ScoreHistoryImpl(projectsFile + ".history"),
+                new ProjectFileLockImpl(projectsFile + ".lock"),
+                flushScheduler,
+                new ProjectStoreConfig().projectStoreFactory(store),
+                new SimpleMeterRegistry(),
+                1000,
+                false);
+        random = new SplittableRandom(ProjectGenerator.DEFAULT_SEED);
+        nextIndex = size;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        flushScheduler.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> {
+                try {
+                    Files.delete(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public void add() throws ProjectRepository.NameTakenException {
+        repository.add(ProjectGenerator.project(nextIndex++, ProjectGenerator.DEFAULT_SEED));
+    }
+
+    @Benchmark
+    public Project findByName() throws ProjectRepository.ProjectNotFoundException {
+        return repository.findByName(ProjectGenerator.name(random.nextInt(size)));
+    }
+
+    @Benchmark
+    public void findAll(Blackhole blackhole) {
+        for (Project project : repository.findAll()) {
+            blackhole.consume(project);
+        }
+    }
+}
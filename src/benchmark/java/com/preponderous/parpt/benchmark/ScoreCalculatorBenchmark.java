@@ -0,0 +1,77 @@
+package com.preponderous.parpt.benchmark;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ScoreColumns;
+import com.preponderous.parpt.score.ScoreCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores a portfolio one project at a time and as score columns in one batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ScoreCalculatorBenchmark {
+
+    @Param({"1000", "100000"})
+    int size;
+
+    private final ScoreCalculator scoreCalculator = new ScoreCalculator();
+    private Project[] projects;
+    private ScoreColumns columns;
+    private double[] scores;
+
+    @Setup
+    public void setUp() {
+        List<Project> generated = ProjectGenerator.projects(size);
+        projects = generated.toArray(new Project[0]);
+        columns = new ScoreColumns(size);
+        for (int row = 0; row < size; row++) {
+            columns.set(row, projects[row]);
+        }
+        scores = new double[size];
+    }
+
+    @Benchmark
+    public void iceSingle(Blackhole blackhole) {
+        for (Project project : projects) {
+            blackhole.consume(scoreCalculator.ice(project));
+        }
+    }
+
+    @Benchmark
+    public void riceSingle(Blackhole blackhole) {
+        for (Project project : projects) {
+            blackhole.consume(scoreCalculator.rice(project));
+        }
+    }
+
+    @Benchmark
+    public double[] iceBatch() {
+        scoreCalculator.score(ScoreCalculator.ICE, columns, scores);
+        return scores;
+    }
+
+    @Benchmark
+    public double[] riceBatch() {
+        scoreCalculator.score(ScoreCalculator.RICE, columns, scores);
+        return scores;
+    }
+}
@@ -0,0 +1,115 @@
+package com.preponderous.parpt.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the packaged application against project files of increasing size and reports
+ * the median time until the shell prompt appears and until a first {@code list} answers.
+ * <p>
+ * Usage: {@code StartupBenchmark <java> <jar> [jvm options...]}
+ */
+public final class StartupBenchmark {
+
+    private static final int[] SIZES = {0, 10_000, 1_000_000};
+    private static final int RUNS = 5;
+    private static final String PROMPT = "shell:>";
+    private static final List<String> LIST_OUTPUT = List.of("Projects:", "No projects found.");
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: StartupBenchmark <java> <jar> [jvm options...]");
+            System.exit(2);
+        }
+        String java = args[0];
+        Path jar = Path.of(args[1]);
+        List<String> jvmOptions = Arrays.asList(args).subList(2, args.length);
+        Path workDir = Files.createTempDirectory("parpt-startup");
+
+        System.out.printf("%-12s %18s %22s%n", "projects", "time to prompt", "time to first list");
+        for (int size : SIZES) {
+            Path projectsFile = workDir.resolve("projects-" + size + ".json");
+            ProjectGenerator.writeSnapshots(projectsFile, size, ProjectGenerator.DEFAULT_SEED);
+
+            long[] prompt = new long[RUNS];
+            long[] firstList = new long[RUNS];
+            for (int run = 0; run < RUNS; run++) {
+                long[] timings = measure(java, jar, jvmOptions, projectsFile);
+                prompt[run] = timings[0];
+                firstList[run] = timings[1];
+            }
+            System.out.printf("%-12d %15d ms %19d ms%n", size, median(prompt), median(firstList));
+        }
+    }
+
+    /**
+     * @return the milliseconds until the prompt appeared and until the first list answered
+     */
+    private static long[] measure(String java, Path jar, List<String> jvmOptions, Path projectsFile)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(jvmOptions);
+        command.addAll(List.of("--add-modules", "jdk.incubator.vector", "-jar", jar.toString(),
+                "--app.projects.file=" + projectsFile,
+                "--app.projects.watch.enabled=false",
+                "--spring.shell.history.enabled=false"));
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(projectsFile.getParent().toFile())
+                .redirectErrorStream(true)
+                .start();
+        try {
+            InputStream output = process.getInputStream();
+            OutputStream input = process.getOutputStream();
+            awaitOutput(output, List.of(PROMPT));
+            long prompt = System.nanoTime();
+            input.write("list --top 1\n".getBytes(StandardCharsets.UTF_8));
+            input.flush();
+            awaitOutput(output, LIST_OUTPUT);
+            long firstList = System.nanoTime();
+            input.write("exit\n".getBytes(StandardCharsets.UTF_8));
+            input.flush();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroy();
+            }
+            return new long[]{
+                    TimeUnit.NANOSECONDS.toMillis(prompt - start),
+                    TimeUnit.NANOSECONDS.toMillis(firstList - start)};
+        } finally {
+            process.destroyForcibly();
+        }
+    }
+
+    private static void awaitOutput(InputStream output, List<String> markers) throws IOException {
+        StringBuilder seen = new StringBuilder();
+        int b;
+        while ((b = output.read()) != -1) {
+            seen.append((char) b);
+            for (String marker : markers) {
+                if (seen.indexOf(marker, Math.max(0, seen.length() - marker.length())) >= 0) {
+                    return;
+                }
+            }
+        }
+        throw new IOException("Application exited before printing any of " + markers + ":\n" + seen);
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,21 @@
+package com.preponderous.parpt.command;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+final class CommandMetrics {
+
+    private CommandMetrics() {
+    }
+
+    /**
+     * Returns the timer of a shell command. Interactive commands include the time spent
+     * waiting for input.
+     */
+    static Timer timer(MeterRegistry meterRegistry, String command) {
+        return Timer.builder("parpt.command")
+                .description("Time spent running shell commands")
+                .tag("command", command)
+                .register(meterRegistry);
+    }
+}
@@ -2,10 +2,13 @@ package com.preponderous.parpt.command;
 
 import com.preponderous.parpt.config.PromptProperties;
 import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ProjectAnswers;
 import com.preponderous.parpt.repo.ProjectRepository;
 import com.preponderous.parpt.score.ScoreCalculator;
 import com.preponderous.parpt.service.ProjectService;
 import com.preponderous.parpt.util.ConsoleInputProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
 import org.springframework.shell.standard.ShellOption;
@@ -16,35 +19,54 @@ public class CreateProjectCommand {
     private final ConsoleInputProvider inputProvider;
     private final ScoreCalculator scoreCalculator;
     private final PromptProperties promptProperties;
+    private final Timer timer;
 
     public CreateProjectCommand(
             ProjectService projectService,
             ConsoleInputProvider inputProvider,
             ScoreCalculator scoreCalculator,
-            PromptProperties promptProperties) {
+            PromptProperties promptProperties,
+            MeterRegistry meterRegistry) {
         this.projectService = projectService;
         this.inputProvider = inputProvider;
         this.scoreCalculator = scoreCalculator;
         this.promptProperties = promptProperties;
+        this.timer = CommandMetrics.timer(meterRegistry, "create");
     }
 
 
-    private int getAverageScore(String[] prompts) throws InvalidScoreException {
+    private int getAverageScore(String[] prompts, int[][] answers, int dimension) throws InvalidScoreException {
+        int[] given = new int[prompts.length];
         int total = 0;
-        for (String prompt : prompts) {
+        for (int question = 0; question < prompts.length; question++) {
             try {
-                int score = Integer.parseInt(inputProvider.readLine(prompt));
+                int score = Integer.parseInt(inputProvider.readLine(prompts[question]));
                 if (score < 1 || score > 5) {
                     throw new InvalidScoreException("Invalid score. Must be between 1 and 5.");
                 }
+                given[question] = score;
                 total += score;
             } catch (NumberFormatException e) {
                 throw new InvalidScoreException("Invalid score. Must be a number between 1 and 5.");
             }
         }
+        answers[dimension] = given;
         return Math.round((float) total / prompts.length);
     }
 
+    /**
+     * Packs the answers given to the prompts, or returns no answers if a prompt set has
+     * more questions than can be stored.
+     */
+    private static long packAnswers(int[][] answers) {
+        for (int[] given : answers) {
+            if (given != null && given.length > ProjectAnswers.QUESTIONS_PER_DIMENSION) {
+                return ProjectAnswers.NONE;
+            }
+        }
+        return ProjectAnswers.encode(answers);
+    }
+
 
     @ShellMethod(key = "create", value = "Creates a new project with the given parameters.")
     public String execute(
@@ -56,6 +78,11 @@ public class CreateProjectCommand {
             @ShellOption(value = {"-r", "--reach"}, help = "Reach score (1-5)", defaultValue = ShellOption.NULL) Integer reach,
             @ShellOption(value = {"-f", "--effort"}, help = "Effort score (1-5)", defaultValue = ShellOption.NULL) Integer effort
     ) {
+        return timer.record(() -> create(projectName, projectDescription, impact, confidence, ease, reach, effort));
+    }
+
+    private String create(String projectName, String projectDescription, Integer impact, Integer confidence,
+                          Integer ease, Integer reach, Integer effort) {
         // Interactive input if parameters are not provided
         if (projectName == null) {
             projectName = inputProvider.readLine(promptProperties.getProjectName());
@@ -72,11 +99,13 @@ public class CreateProjectCommand {
         if (projectDescription == null || projectDescription.isEmpty()) {
             return "Project description cannot be empty.";
         }
+        // Answers to whichever dimensions are prompted for, kept so the project can be re-scored
+        int[][] answers = new int[ProjectAnswers.DIMENSIONS][];
         if (impact == null) {
             boolean continueLoop = true;
             while (continueLoop) {
                 try {
-                    impact = getAverageScore(promptProperties.getImpact());
+                    impact = getAverageScore(promptProperties.getImpact(), answers, ProjectAnswers.IMPACT);
                     continueLoop = false;
                 } catch (InvalidScoreException e) {
                     System.out.println(e.getMessage());
@@ -87,7 +116,7 @@ public class CreateProjectCommand {
             boolean continueLoop = true;
             while (continueLoop) {
                 try {
-                    confidence = getAverageScore(promptProperties.getConfidence());
+                    confidence = getAverageScore(promptProperties.getConfidence(), answers, ProjectAnswers.CONFIDENCE);
                     continueLoop = false;
                 } catch (InvalidScoreException e) {
                     System.out.println(e.getMessage());
@@ -98,7 +127,7 @@ public class CreateProjectCommand {
             boolean continueLoop = true;
             while (continueLoop) {
                 try {
-                    ease = getAverageScore(promptProperties.getEase());
+                    ease = getAverageScore(promptProperties.getEase(), answers, ProjectAnswers.EASE);
                     continueLoop = false;
                 } catch (InvalidScoreException e) {
                     System.out.println(e.getMessage());
@@ -109,7 +138,7 @@ public class CreateProjectCommand {
             boolean continueLoop = true;
             while (continueLoop) {
                 try {
-                    reach = getAverageScore(promptProperties.getReach());
+                    reach = getAverageScore(promptProperties.getReach(), answers, ProjectAnswers.REACH);
                     continueLoop = false;
                 } catch (InvalidScoreException e) {
                     System.out.println(e.getMessage());
@@ -120,7 +149,7 @@ public class CreateProjectCommand {
             boolean continueLoop = true;
             while (continueLoop) {
                 try {
-                    effort = getAverageScore(promptProperties.getEffort());
+                    effort = getAverageScore(promptProperties.getEffort(), answers, ProjectAnswers.EFFORT);
                     continueLoop = false;
                 } catch (InvalidScoreException e) {
                     System.out.println(e.getMessage());
@@ -133,10 +162,14 @@ public class CreateProjectCommand {
             return "All scores must be between 1 and 5.";
         }
 
+        long packedAnswers = packAnswers(answers);
+        int promptSetVersion = packedAnswers == ProjectAnswers.NONE ? 0 : promptProperties.getVersion();
+
         // Create the project using the service
         Project project;
         try {
-            project = projectService.createProject(projectName, projectDescription, impact, confidence, ease, reach, effort);
+            project = projectService.createProject(projectName, projectDescription, impact, confidence, ease, reach, effort,
+                    packedAnswers, promptSetVersion);
         } catch (ProjectRepository.NameTakenException e) {
             return "Project name '" + projectName + "' is already taken. Please choose a different name.";
         } catch (Exception e) {
@@ -0,0 +1,43 @@
+package com.preponderous.parpt.command;
+
+import com.preponderous.parpt.service.ProjectExportService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@ShellComponent
+public class ExportProjectsCommand {
+
+    private final ProjectExportService projectExportService;
+    private final Timer timer;
+
+    public ExportProjectsCommand(ProjectExportService projectExportService, MeterRegistry meterRegistry) {
+        this.projectExportService = projectExportService;
+        this.timer = CommandMetrics.timer(meterRegistry, "export");
+    }
+
+    @ShellMethod(key = "export", value = "Exports projects as Markdown notes into an Obsidian vault, rewriting only changed notes.")
+    public String execute(
+            @ShellOption(value = {"-p", "--path"}, help = "Vault directory to export to; app.export.vault by default", defaultValue = ShellOption.NULL) String path,
+            @ShellOption(value = {"--full"}, help = "Rewrite every note, repairing notes edited by hand", defaultValue = "false") boolean full
+    ) {
+        return timer.record(() -> export(path, full));
+    }
+
+    private String export(String path, boolean full) {
+        Path vault = path == null ? projectExportService.defaultVault() : Path.of(path);
+        ProjectExportService.ExportResult result;
+        try {
+            result = projectExportService.export(vault, full);
+        } catch (IOException e) {
+            return "An error occurred while exporting to " + vault + ": " + e.getMessage();
+        }
+        return String.format("Exported %d projects to %s: %d notes written, %d unchanged, %d removed.",
+                result.projects(), vault, result.written(), result.unchanged(), result.deleted());
+    }
+}
@@ -0,0 +1,66 @@
+package com.preponderous.parpt.command;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.score.ScoreCalculator;
+import com.preponderous.parpt.service.ProjectService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.util.List;
+
+@ShellComponent
+public class FrontierCommand {
+
+    private final ProjectService projectService;
+    private final ScoreCalculator scoreCalculator;
+    private final Timer timer;
+
+    public FrontierCommand(ProjectService projectService, ScoreCalculator scoreCalculator, MeterRegistry meterRegistry) {
+        this.projectService = projectService;
+        this.scoreCalculator = scoreCalculator;
+        this.timer = CommandMetrics.timer(meterRegistry, "frontier");
+    }
+
+    @ShellMethod(key = "frontier", value = "Lists the projects no other project beats on every score.")
+    public String execute(
+            @ShellOption(value = {"-t", "--tiers"}, help = "Also show the next frontiers once the better ones are set aside", defaultValue = "1") int tiers,
+            @ShellOption(value = {"-l", "--limit"}, help = "Show at most this many projects per tier", defaultValue = ShellOption.NULL) Integer limit
+    ) {
+        return timer.record(() -> frontier(tiers, limit));
+    }
+
+    private String frontier(int tiers, Integer limit) {
+        if (tiers < 1) {
+            return "Tiers must be at least 1.";
+        }
+        if (limit != null && limit < 1) {
+            return "Limit must be at least 1.";
+        }
+        List<List<Project>> frontier = projectService.getFrontier(tiers);
+        if (frontier.isEmpty()) {
+            return "No projects found.";
+        }
+
+        StringBuilder output = new StringBuilder();
+        for (int tier = 0; tier < frontier.size(); tier++) {
+            List<Project> projects = frontier.get(tier);
+            if (tier > 0) {
+                output.append('\n');
+            }
+            output.append("Tier ").append(tier + 1).append(':');
+            int shown = limit == null ? projects.size() : Math.min(limit, projects.size());
+            for (Project project : projects.subList(0, shown)) {
+                output.append(String.format("\n- %s: %s (ICE: %s | RICE: %s)",
+                        project.getName(), project.getDescription(),
+                        scoreCalculator.ice(project), scoreCalculator.rice(project)));
+            }
+            if (shown < projects.size()) {
+                output.append("\n... and ").append(projects.size() - shown).append(" more");
+            }
+        }
+        return output.toString();
+    }
+}
@@ -0,0 +1,61 @@
+package com.preponderous.parpt.command;
+
+import com.preponderous.parpt.service.ProjectImportService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@ShellComponent
+public class ImportProjectsCommand {
+
+    private final ProjectImportService projectImportService;
+    private final Timer timer;
+
+    public ImportProjectsCommand(ProjectImportService projectImportService, MeterRegistry meterRegistry) {
+        this.projectImportService = projectImportService;
+        this.timer = CommandMetrics.timer(meterRegistry, "import");
+    }
+
+    @ShellMethod(key = "import", value = "Imports projects from a CSV or JSON Lines file.")
+    public String execute(
+            @ShellOption(value = {"-p", "--path"}, help = "Path to the file to import") String path,
+            @ShellOption(value = {"--format"}, help = "File format (csv or jsonl); detected from the extension by default", defaultValue = ShellOption.NULL) String format,
+            @ShellOption(value = {"--max-errors"}, help = "Maximum number of line errors to print", defaultValue = "50") int maxErrors
+    ) {
+        return timer.record(() -> importFile(path, format, maxErrors));
+    }
+
+    private String importFile(String path, String format, int maxErrors) {
+        Path file = Path.of(path);
+        if (!Files.isRegularFile(file)) {
+            return "File not found: " + path;
+        }
+
+        ProjectImportService.ImportResult result;
+        try {
+            result = projectImportService.importFile(file, ProjectImportService.Format.of(format, file));
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        } catch (IOException e) {
+            return "An error occurred while reading " + path + ": " + e.getMessage();
+        }
+
+        StringBuilder output = new StringBuilder(String.format("Imported %d projects from %s.", result.getImported(), path));
+        if (!result.getErrors().isEmpty()) {
+            output.append(String.format("\n%d lines were skipped:", result.getErrors().size()));
+            result.getErrors().stream()
+                    .limit(maxErrors)
+                    .forEach(error -> output.append(String.format("\n  line %d: %s", error.getLineNumber(), error.getMessage())));
+            if (result.getErrors().size() > maxErrors) {
+                output.append(String.format("\n  ... and %d more", result.getErrors().size() - maxErrors));
+            }
+        }
+        return output.toString();
+    }
+}
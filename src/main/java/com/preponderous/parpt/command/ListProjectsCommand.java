@@ -1,37 +1,204 @@
 package com.preponderous.parpt.command;
 
 import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.filter.ProjectFilter;
 import com.preponderous.parpt.score.ScoreCalculator;
 import com.preponderous.parpt.service.ProjectService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jline.terminal.Attributes;
+import org.jline.terminal.Terminal;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
 
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Locale;
 
+/**
+ * Streams projects to the terminal a chunk at a time, so the first rows appear right
+ * away and memory use is bounded by the chunk size rather than the number of projects.
+ * With {@code --page} the output pauses after every page until a key is pressed.
+ * {@code --where} keeps only the projects passing a filter such as
+ * {@code impact>=4 and effort<=2 and rice>10}, evaluated once before the first chunk.
+ * {@code --as-of} shows the projects with the scores they had at a past date or time,
+ * worked out once before the first chunk as well.
+ */
 @ShellComponent
 public class ListProjectsCommand {
 
+    static final int CHUNK_SIZE = 256;
+    private static final String PAGER_PROMPT = "-- More -- (press any key to continue, q to quit)";
+
     private final ProjectService projectService;
     private final ScoreCalculator scoreCalculator;
+    private final Terminal terminal;
+    private final Timer timer;
 
-    public ListProjectsCommand(ProjectService projectService, ScoreCalculator scoreCalculator) {
+    public ListProjectsCommand(ProjectService projectService, ScoreCalculator scoreCalculator, Terminal terminal,
+                               MeterRegistry meterRegistry) {
         this.projectService = projectService;
         this.scoreCalculator = scoreCalculator;
+        this.terminal = terminal;
+        this.timer = CommandMetrics.timer(meterRegistry, "list");
     }
 
     @ShellMethod(key = "list", value = "Lists all projects.")
-    public String execute() {
-        List<Project> projects = projectService.getProjects();
+    public String execute(
+            @ShellOption(value = {"-s", "--sort"}, help = "Sort by scoring model (ice, rice or a configured model), highest first", defaultValue = ShellOption.NULL) String sort,
+            @ShellOption(value = {"-t", "--top", "-l", "--limit"}, help = "Only show the first K projects", defaultValue = ShellOption.NULL) Integer top,
+            @ShellOption(value = {"-o", "--offset"}, help = "Skip the first N projects", defaultValue = "0") int offset,
+            @ShellOption(value = {"-p", "--page"}, help = "Pause after every N projects", defaultValue = ShellOption.NULL) Integer page,
+            @ShellOption(value = {"-w", "--where"}, help = "Only show projects passing a filter, e.g. \"impact>=4 and rice>10\"", defaultValue = ShellOption.NULL) String where,
+            @ShellOption(value = {"-a", "--as-of"}, help = "Show the projects as they were at a date or time, e.g. 2026-03-01 or 2026-03-01T12:00", defaultValue = ShellOption.NULL) String asOf
+    ) {
+        return timer.record(() -> list(sort, top, offset, page, where, asOf));
+    }
+
+    private String list(String sort, Integer top, int offset, Integer page, String where, String asOf) {
+        if (top != null && top < 1) {
+            return "Top must be at least 1.";
+        }
+        if (offset < 0) {
+            return "Offset cannot be negative.";
+        }
+        if (page != null && page < 1) {
+            return "Page size must be at least 1.";
+        }
+        if (sort != null && !scoreCalculator.models().contains(sort)) {
+            return "Unknown scoring model: " + sort + ". Available models: " + String.join(", ", scoreCalculator.models());
+        }
+        List<Project> past = null;
+        if (asOf != null) {
+            if (where != null) {
+                return "--where cannot be combined with --as-of.";
+            }
+            Instant instant = parseMoment(asOf);
+            if (instant == null) {
+                return "Invalid date: " + asOf + ". Use a date such as 2026-03-01 or a time such as 2026-03-01T12:00.";
+            }
+            past = projectService.getProjectsAsOf(instant, sort);
+        }
+        int[] matches = null;
+        if (where != null) {
+            ProjectFilter filter;
+            try {
+                filter = projectService.compileFilter(where);
+            } catch (IllegalArgumentException e) {
+                return "Invalid filter: " + e.getMessage();
+            }
+            matches = projectService.filterProjects(filter, sort);
+        }
+        int limit = top == null ? Integer.MAX_VALUE : top;
+        int chunkSize = page == null ? CHUNK_SIZE : page;
 
-        if (projects.isEmpty()) {
+        List<Project> chunk = fetch(sort, matches, past, offset, Math.min(chunkSize, limit));
+        if (chunk.isEmpty()) {
             return "No projects found.";
         }
 
-        StringBuilder result = new StringBuilder("Projects:\n");
-        for (Project project : projects) {
-            result.append(String.format("- %s: %s (ICE: %s | RICE: %s)\n", project.getName(), project.getDescription(), scoreCalculator.ice(project), scoreCalculator.rice(project)));
+        PrintWriter writer = terminal.writer();
+        writer.println("Projects:");
+        int shown = 0;
+        while (true) {
+            for (Project project : chunk) {
+                writeRow(writer, project);
+            }
+            writer.flush();
+            shown += chunk.size();
+            if (shown >= limit) {
+                break;
+            }
+            // Fetch ahead so the pager never prompts when there is nothing left to show
+            chunk = fetch(sort, matches, past, offset + shown, Math.min(chunkSize, limit - shown));
+            if (chunk.isEmpty() || (page != null && !awaitNextPage(writer))) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    private List<Project> fetch(String sort, int[] matches, List<Project> past, int offset, int limit) {
+        if (past != null) {
+            int from = Math.min(offset, past.size());
+            return past.subList(from, (int) Math.min((long) from + limit, past.size()));
+        }
+        if (matches != null) {
+            return projectService.getProjects(matches, offset, limit);
+        }
+        return sort == null
+                ? projectService.getProjects(offset, limit)
+                : projectService.getTopProjects(sort, offset, limit);
+    }
+
+    /**
+     * Parses a moment given as an ISO date, meaning the end of that day, a local date and
+     * time, or a date and time with an offset. Local dates and times are in the system
+     * time zone.
+     *
+     * @return the moment, or null if the text is none of these
+     */
+    static Instant parseMoment(String text) {
+        ZoneId zone = ZoneId.systemDefault();
+        try {
+            return LocalDate.parse(text).plusDays(1).atStartOfDay(zone).toInstant().minusMillis(1);
+        } catch (DateTimeParseException e) {
+            // Not a plain date
+        }
+        try {
+            return LocalDateTime.parse(text).atZone(zone).toInstant();
+        } catch (DateTimeParseException e) {
+            // Not a local date and time
+        }
+        try {
+            return OffsetDateTime.parse(text).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private void writeRow(PrintWriter writer, Project project) {
+        writer.append("- ").append(project.getName())
+                .append(": ").append(project.getDescription())
+                .append(" (ICE: ").append(String.valueOf(scoreCalculator.ice(project)))
+                .append(" | RICE: ").append(String.valueOf(scoreCalculator.rice(project)));
+        for (String model : scoreCalculator.customModels()) {
+            writer.append(" | ").append(model.toUpperCase(Locale.ROOT))
+                    .append(": ").append(String.valueOf(scoreCalculator.score(model, project)));
         }
+        writer.append(")\n");
+    }
 
-        return result.toString();
+    /**
+     * Shows the pager prompt and waits for a key. Dumb terminals, such as redirected
+     * output, cannot read single keys and are never paused.
+     *
+     * @return false if the user asked to stop listing
+     */
+    private boolean awaitNextPage(PrintWriter writer) {
+        if (terminal.getType().startsWith(Terminal.TYPE_DUMB)) {
+            return true;
+        }
+        writer.print(PAGER_PROMPT);
+        writer.flush();
+        Attributes attributes = terminal.enterRawMode();
+        try {
+            int key = terminal.reader().read();
+            return key != 'q' && key != 'Q' && key >= 0;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            terminal.setAttributes(attributes);
+            writer.print("\r" + " ".repeat(PAGER_PROMPT.length()) + "\r");
+            writer.flush();
+        }
     }
 }
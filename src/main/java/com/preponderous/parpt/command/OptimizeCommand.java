@@ -0,0 +1,58 @@
+package com.preponderous.parpt.command;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.score.PortfolioOptimizer;
+import com.preponderous.parpt.score.ScoreCalculator;
+import com.preponderous.parpt.service.ProjectService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.util.Locale;
+
+@ShellComponent
+public class OptimizeCommand {
+
+    private final ProjectService projectService;
+    private final ScoreCalculator scoreCalculator;
+    private final Timer timer;
+
+    public OptimizeCommand(ProjectService projectService, ScoreCalculator scoreCalculator, MeterRegistry meterRegistry) {
+        this.projectService = projectService;
+        this.scoreCalculator = scoreCalculator;
+        this.timer = CommandMetrics.timer(meterRegistry, "optimize");
+    }
+
+    @ShellMethod(key = "optimize", value = "Picks the projects with the highest total score within an effort budget.")
+    public String execute(
+            @ShellOption(value = {"-b", "--budget"}, help = "The total effort the chosen projects may take") int budget,
+            @ShellOption(value = {"-m", "--model"}, help = "Maximize this scoring model (ice or rice)", defaultValue = ScoreCalculator.RICE) String model
+    ) {
+        return timer.record(() -> optimize(budget, model));
+    }
+
+    private String optimize(int budget, String model) {
+        if (budget < 1) {
+            return "Budget must be at least 1.";
+        }
+        if (!scoreCalculator.models().contains(model)) {
+            return "Unknown scoring model: " + model + ". Available models: " + String.join(", ", scoreCalculator.models());
+        }
+        PortfolioOptimizer.Portfolio portfolio = projectService.optimizePortfolio(model, budget);
+        if (portfolio.projects().isEmpty()) {
+            return "No projects fit within an effort budget of " + budget + ".";
+        }
+
+        StringBuilder output = new StringBuilder(String.format("Selected %d projects using %d of %d effort for a total %s of %.2f%s:",
+                portfolio.projects().size(), portfolio.effort(), budget, model.toUpperCase(Locale.ROOT), portfolio.value(),
+                portfolio.exact() ? "" : " (approximate: the budget is too large to solve exactly)"));
+        for (Project project : portfolio.projects()) {
+            output.append(String.format("\n- %s: %s (Effort: %d | ICE: %s | RICE: %s)",
+                    project.getName(), project.getDescription(), project.getEffort(),
+                    scoreCalculator.ice(project), scoreCalculator.rice(project)));
+        }
+        return output.toString();
+    }
+}
@@ -0,0 +1,71 @@
+package com.preponderous.parpt.command;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.score.ScoreCalculator;
+import com.preponderous.parpt.score.ScoreTimeline;
+import com.preponderous.parpt.service.ProjectService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+
+/**
+ * Shows every recorded change of a project's scores. This replaces Spring Shell's own
+ * {@code history} command, which is switched off in the configuration.
+ */
+@ShellComponent
+public class ProjectHistoryCommand {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+            .withZone(ZoneId.systemDefault());
+
+    private final ProjectService projectService;
+    private final ScoreCalculator scoreCalculator;
+    private final Timer timer;
+
+    public ProjectHistoryCommand(ProjectService projectService, ScoreCalculator scoreCalculator, MeterRegistry meterRegistry) {
+        this.projectService = projectService;
+        this.scoreCalculator = scoreCalculator;
+        this.timer = CommandMetrics.timer(meterRegistry, "history");
+    }
+
+    @ShellMethod(key = "history", value = "Shows how the scores of a project changed over time.")
+    public String execute(
+            @ShellOption(help = "The name of the project", valueProvider = ProjectNameValueProvider.class) String projectName
+    ) {
+        return timer.record(() -> history(projectName));
+    }
+
+    private String history(String projectName) {
+        Optional<Project> found = projectService.findProject(projectName);
+        if (found.isEmpty()) {
+            return "Project not found: " + projectName;
+        }
+        ScoreTimeline.ProjectHistory history;
+        try {
+            history = projectService.getHistory(found.get().getName());
+        } catch (ProjectRepository.ProjectNotFoundException e) {
+            return "Project not found: " + projectName;
+        }
+
+        Project initial = history.initial();
+        StringBuilder output = new StringBuilder("History of ").append(initial.getName()).append(':');
+        output.append(String.format("\n- %s: Impact %d, Confidence %d, Ease %d, Reach %d, Effort %d (ICE: %s | RICE: %s)",
+                history.added() == null ? "Before history was kept" : "Created " + TIMESTAMP.format(history.added()),
+                initial.getImpact(), initial.getConfidence(), initial.getEase(), initial.getReach(), initial.getEffort(),
+                scoreCalculator.ice(initial), scoreCalculator.rice(initial)));
+        for (ScoreTimeline.Change change : history.changes()) {
+            output.append(String.format("\n- %s: %s (ICE: %s | RICE: %s)",
+                    TIMESTAMP.format(change.timestamp()),
+                    UpdateProjectCommand.describeChanges(change.before(), change.after()),
+                    scoreCalculator.ice(change.after()), scoreCalculator.rice(change.after())));
+        }
+        return output.toString();
+    }
+}
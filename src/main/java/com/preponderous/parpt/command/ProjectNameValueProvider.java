@@ -0,0 +1,31 @@
+package com.preponderous.parpt.command;
+
+import com.preponderous.parpt.search.ProjectNameIndex;
+import org.springframework.shell.CompletionContext;
+import org.springframework.shell.CompletionProposal;
+import org.springframework.shell.standard.ValueProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Tab completion for arguments that name an existing project.
+ */
+@Component
+public class ProjectNameValueProvider implements ValueProvider {
+
+    static final int MAX_PROPOSALS = 50;
+
+    private final ProjectNameIndex projectNameIndex;
+
+    public ProjectNameValueProvider(ProjectNameIndex projectNameIndex) {
+        this.projectNameIndex = projectNameIndex;
+    }
+
+    @Override
+    public List<CompletionProposal> complete(CompletionContext completionContext) {
+        return projectNameIndex.complete(completionContext.currentWordUpToCursor(), MAX_PROPOSALS).stream()
+                .map(CompletionProposal::new)
+                .toList();
+    }
+}
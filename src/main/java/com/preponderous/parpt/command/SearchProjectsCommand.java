@@ -0,0 +1,52 @@
+package com.preponderous.parpt.command;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.score.ScoreCalculator;
+import com.preponderous.parpt.service.ProjectService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.util.List;
+
+@ShellComponent
+public class SearchProjectsCommand {
+
+    private final ProjectService projectService;
+    private final ScoreCalculator scoreCalculator;
+    private final Timer timer;
+
+    public SearchProjectsCommand(ProjectService projectService, ScoreCalculator scoreCalculator, MeterRegistry meterRegistry) {
+        this.projectService = projectService;
+        this.scoreCalculator = scoreCalculator;
+        this.timer = CommandMetrics.timer(meterRegistry, "search");
+    }
+
+    @ShellMethod(key = "search", value = "Searches project names and descriptions.")
+    public String execute(
+            @ShellOption(value = {"-q", "--query"}, help = "Words to search for; each may be the start of a longer word") String query,
+            @ShellOption(value = {"-l", "--limit"}, help = "Show at most this many matches", defaultValue = "20") int limit
+    ) {
+        return timer.record(() -> search(query, limit));
+    }
+
+    private String search(String query, int limit) {
+        if (limit < 1) {
+            return "Limit must be at least 1.";
+        }
+        List<Project> hits = projectService.searchProjects(query, limit);
+        if (hits.isEmpty()) {
+            return "No projects match: " + query;
+        }
+
+        StringBuilder output = new StringBuilder("Matches:");
+        for (Project project : hits) {
+            output.append(String.format("\n- %s: %s (ICE: %s | RICE: %s)",
+                    project.getName(), project.getDescription(),
+                    scoreCalculator.ice(project), scoreCalculator.rice(project)));
+        }
+        return output.toString();
+    }
+}
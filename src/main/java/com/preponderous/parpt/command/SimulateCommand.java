@@ -0,0 +1,68 @@
+package com.preponderous.parpt.command;
+
+import com.preponderous.parpt.score.RankSimulator;
+import com.preponderous.parpt.score.ScoreCalculator;
+import com.preponderous.parpt.service.ProjectService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+@ShellComponent
+public class SimulateCommand {
+
+    private final ProjectService projectService;
+    private final ScoreCalculator scoreCalculator;
+    private final Timer timer;
+
+    public SimulateCommand(ProjectService projectService, ScoreCalculator scoreCalculator, MeterRegistry meterRegistry) {
+        this.projectService = projectService;
+        this.scoreCalculator = scoreCalculator;
+        this.timer = CommandMetrics.timer(meterRegistry, "simulate");
+    }
+
+    @ShellMethod(key = "simulate", value = "Estimates how certain the ranking is by scoring random draws of every project.")
+    public String execute(
+            @ShellOption(value = {"-m", "--model"}, help = "Rank by this scoring model (ice or rice)", defaultValue = ScoreCalculator.RICE) String model,
+            @ShellOption(value = {"-n", "--samples"}, help = "How many draws to rank", defaultValue = "10000") int samples,
+            @ShellOption(value = {"-k", "--top"}, help = "Report the chance of ranking within the top K", defaultValue = "10") int top,
+            @ShellOption(value = {"-l", "--limit"}, help = "Show at most this many projects", defaultValue = "20") int limit,
+            @ShellOption(value = {"--seed"}, help = "Seed for reproducible draws", defaultValue = ShellOption.NULL) Long seed
+    ) {
+        return timer.record(() -> simulate(model, samples, top, limit, seed));
+    }
+
+    private String simulate(String model, int samples, int top, int limit, Long seed) {
+        if (samples < 1) {
+            return "Samples must be at least 1.";
+        }
+        if (top < 1) {
+            return "Top must be at least 1.";
+        }
+        if (limit < 1) {
+            return "Limit must be at least 1.";
+        }
+        if (!scoreCalculator.models().contains(model)) {
+            return "Unknown scoring model: " + model + ". Available models: " + String.join(", ", scoreCalculator.models());
+        }
+        long drawSeed = seed == null ? ThreadLocalRandom.current().nextLong() : seed;
+        List<RankSimulator.RankEstimate> estimates = projectService.simulateRanks(model, samples, top, drawSeed);
+        if (estimates.isEmpty()) {
+            return "No projects found.";
+        }
+
+        String name = model.toUpperCase(Locale.ROOT);
+        StringBuilder output = new StringBuilder(String.format("Ranked %d draws by %s (seed %d):", samples, name, drawSeed));
+        for (RankSimulator.RankEstimate estimate : estimates.subList(0, Math.min(limit, estimates.size()))) {
+            output.append(String.format("\n- %s (%s: %s): expected rank %.1f, 90%% between %d and %d, top %d in %.1f%% of draws",
+                    estimate.project().getName(), name, estimate.score(), estimate.expectedRank(),
+                    estimate.rankLow(), estimate.rankHigh(), top, estimate.topProbability() * 100));
+        }
+        return output.toString();
+    }
+}
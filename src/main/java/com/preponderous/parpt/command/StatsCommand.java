@@ -0,0 +1,120 @@
+package com.preponderous.parpt.command;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Prints the timings and sizes recorded since startup: how often every command, repository
+ * operation and JSON snapshot read or write ran, and how long or large it was. Timers are
+ * shown in milliseconds; meters that have not recorded anything yet are left out.
+ */
+@ShellComponent
+public class StatsCommand {
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    public StatsCommand(MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    @ShellMethod(key = "stats", value = "Shows timings of commands, repository operations and JSON snapshots.")
+    public String execute(
+            @ShellOption(value = {"-e", "--export"}, help = "Also write the statistics as JSON to this file", defaultValue = ShellOption.NULL) String export
+    ) {
+        List<Stat> stats = collect();
+        if (stats.isEmpty()) {
+            return "No statistics recorded yet.";
+        }
+
+        int width = stats.stream().mapToInt(stat -> stat.meter().length()).max().orElse(0);
+        StringBuilder output = new StringBuilder("Statistics since startup:");
+        for (Stat stat : stats) {
+            output.append(String.format("\n%-" + width + "s  count=%d  mean=%s  max=%s", stat.meter(), stat.count(),
+                    format(stat.mean(), stat.unit()), format(stat.max(), stat.unit())));
+            stat.percentiles().forEach((percentile, value) ->
+                    output.append(String.format("  %s=%s", percentile, format(value, stat.unit()))));
+        }
+
+        if (export != null) {
+            try {
+                objectMapper.writerWithDefaultPrettyPrinter().writeValue(Path.of(export).toFile(), stats);
+            } catch (IOException e) {
+                return output + "\nAn error occurred while exporting to " + export + ": " + e.getMessage();
+            }
+            output.append("\nExported to ").append(export).append('.');
+        }
+        return output.toString();
+    }
+
+    private List<Stat> collect() {
+        List<Stat> stats = new ArrayList<>();
+        for (Meter meter : meterRegistry.getMeters()) {
+            Stat stat = null;
+            if (meter instanceof Timer timer) {
+                stat = stat(meter, timer.takeSnapshot(), "ms");
+            } else if (meter instanceof DistributionSummary summary) {
+                stat = stat(meter, summary.takeSnapshot(), meter.getId().getBaseUnit());
+            }
+            if (stat != null && stat.count() > 0) {
+                stats.add(stat);
+            }
+        }
+        stats.sort(Comparator.comparing(Stat::meter));
+        return stats;
+    }
+
+    private static Stat stat(Meter meter, HistogramSnapshot snapshot, String unit) {
+        boolean time = "ms".equals(unit);
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            percentiles.put("p" + Math.round(value.percentile() * 100),
+                    time ? value.value(TimeUnit.MILLISECONDS) : value.value());
+        }
+        return new Stat(name(meter), snapshot.count(), unit,
+                time ? snapshot.mean(TimeUnit.MILLISECONDS) : snapshot.mean(),
+                time ? snapshot.max(TimeUnit.MILLISECONDS) : snapshot.max(),
+                percentiles);
+    }
+
+    private static String name(Meter meter) {
+        List<Tag> tags = meter.getId().getTags();
+        if (tags.isEmpty()) {
+            return meter.getId().getName();
+        }
+        return meter.getId().getName() + tags.stream()
+                .map(tag -> tag.getKey() + "=" + tag.getValue())
+                .collect(Collectors.joining(",", "{", "}"));
+    }
+
+    private static String format(double value, String unit) {
+        String number = value >= 100 ? String.format("%.0f", value) : String.format("%.3f", value);
+        return unit == null ? number : number + " " + unit;
+    }
+
+    /**
+     * One timer's or distribution summary's statistics, as printed and exported.
+     */
+    record Stat(String meter, long count, String unit, double mean, double max, Map<String, Double> percentiles) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.preponderous.parpt.command;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ProjectAnswers;
+import com.preponderous.parpt.domain.ScoreRevision;
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.score.ScoreCalculator;
+import com.preponderous.parpt.service.ProjectService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@ShellComponent
+public class UpdateProjectCommand {
+
+    private static final String[] DIMENSION_NAMES = {"Impact", "Confidence", "Ease", "Reach", "Effort"};
+
+    private final ProjectService projectService;
+    private final ScoreCalculator scoreCalculator;
+    private final Timer timer;
+
+    public UpdateProjectCommand(ProjectService projectService, ScoreCalculator scoreCalculator, MeterRegistry meterRegistry) {
+        this.projectService = projectService;
+        this.scoreCalculator = scoreCalculator;
+        this.timer = CommandMetrics.timer(meterRegistry, "update");
+    }
+
+    @ShellMethod(key = "update", value = "Updates the scores of a project, keeping a history of the changes.")
+    public String execute(
+            @ShellOption(value = {"-n", "--name"}, help = "The name of the project", valueProvider = ProjectNameValueProvider.class) String projectName,
+            @ShellOption(value = {"-i", "--impact"}, help = "New impact score (1-5)", defaultValue = ShellOption.NULL) Integer impact,
+            @ShellOption(value = {"-c", "--confidence"}, help = "New confidence score (1-5)", defaultValue = ShellOption.NULL) Integer confidence,
+            @ShellOption(value = {"-e", "--ease"}, help = "New ease score (1-5)", defaultValue = ShellOption.NULL) Integer ease,
+            @ShellOption(value = {"-r", "--reach"}, help = "New reach score (1-5)", defaultValue = ShellOption.NULL) Integer reach,
+            @ShellOption(value = {"-f", "--effort"}, help = "New effort score (1-5)", defaultValue = ShellOption.NULL) Integer effort
+    ) {
+        return timer.record(() -> update(projectName, impact, confidence, ease, reach, effort));
+    }
+
+    private String update(String projectName, Integer impact, Integer confidence, Integer ease, Integer reach, Integer effort) {
+        Integer[] scores = {impact, confidence, ease, reach, effort};
+        boolean any = false;
+        for (Integer score : scores) {
+            if (score != null && (score < 1 || score > 5)) {
+                return "All scores must be between 1 and 5.";
+            }
+            any |= score != null;
+        }
+        if (!any) {
+            return "Nothing to update. Give at least one of --impact, --confidence, --ease, --reach or --effort.";
+        }
+        Optional<Project> found = projectService.findProject(projectName);
+        if (found.isEmpty()) {
+            return "Project not found: " + projectName;
+        }
+        ProjectRepository.ScoreUpdate update;
+        try {
+            // Unspecified scores are filled in by the repository under its lock, so an update
+            // of other scores made meanwhile by another shell is kept
+            update = projectService.updateProject(found.get().getName(), impact, confidence, ease, reach, effort);
+        } catch (ProjectRepository.ProjectNotFoundException e) {
+            return "Project not found: " + projectName;
+        }
+        Project project = update.project();
+        if (!update.changed()) {
+            return "No scores changed for " + project.getName() + ".";
+        }
+        return String.format("Project updated successfully: %s (%s)\nICE Score: %.2f\nRICE Score: %.2f",
+                project.getName(), describeChanges(update.previous(), project),
+                scoreCalculator.ice(project), scoreCalculator.rice(project));
+    }
+
+    /**
+     * Lists the scores that differ between two versions of a project, such as
+     * {@code Impact 3 -> 5, Effort 2 -> 1}.
+     */
+    static String describeChanges(Project before, Project after) {
+        List<String> changes = new ArrayList<>();
+        for (int dimension = 0; dimension < ProjectAnswers.DIMENSIONS; dimension++) {
+            int from = ScoreRevision.score(before, dimension);
+            int to = ScoreRevision.score(after, dimension);
+            if (from != to) {
+                changes.add(DIMENSION_NAMES[dimension] + " " + from + " -> " + to);
+            }
+        }
+        return String.join(", ", changes);
+    }
+}
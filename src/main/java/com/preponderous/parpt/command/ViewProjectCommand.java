@@ -2,23 +2,28 @@
 package com.preponderous.parpt.command;
 
 import com.preponderous.parpt.domain.Project;
-import com.preponderous.parpt.repo.ProjectRepository;
 import com.preponderous.parpt.score.ScoreCalculator;
 import com.preponderous.parpt.service.ProjectService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
 
-import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 
 @ShellComponent
 public class ViewProjectCommand {
 
     private final ProjectService projectService;
     private final ScoreCalculator scoreCalculator;
+    private final Timer timer;
 
-    public ViewProjectCommand(ProjectService projectService, ScoreCalculator scoreCalculator) {
+    public ViewProjectCommand(ProjectService projectService, ScoreCalculator scoreCalculator, MeterRegistry meterRegistry) {
         this.projectService = projectService;
         this.scoreCalculator = scoreCalculator;
+        this.timer = CommandMetrics.timer(meterRegistry, "view");
     }
 
     private String getScoreDescription(int score) {
@@ -33,14 +38,23 @@ public class ViewProjectCommand {
     }
 
     @ShellMethod(key = "view", value = "Views a specific project by name.")
-    public String execute(String projectName) {
-        Project project;
-        try {
-            project = projectService.getProject(projectName);
-        } catch (ProjectRepository.ProjectNotFoundException e) {
+    public String execute(
+            @ShellOption(help = "The name of the project", valueProvider = ProjectNameValueProvider.class) String projectName
+    ) {
+        return timer.record(() -> view(projectName));
+    }
+
+    private String view(String projectName) {
+        Optional<Project> found = projectService.findProject(projectName);
+        if (found.isEmpty()) {
             return "Project not found: " + projectName;
         }
+        Project project = found.get();
 
+        StringBuilder customScores = new StringBuilder();
+        for (String model : scoreCalculator.customModels()) {
+            customScores.append(String.format("%s Score: %.2f\n", model.toUpperCase(Locale.ROOT), scoreCalculator.score(model, project)));
+        }
         return String.format("Project: %s\n", project.getName()) +
                 String.format("Description: %s\n", project.getDescription()) +
                 String.format("Impact: %s\n", getScoreDescription(project.getImpact())) +
@@ -49,6 +63,7 @@ public class ViewProjectCommand {
                 String.format("Reach: %s\n", getScoreDescription(project.getReach())) +
                 String.format("Effort: %s\n", getScoreDescription(project.getEffort())) +
                 String.format("ICE Score: %.2f\n", scoreCalculator.ice(project)) +
-                String.format("RICE Score: %.2f\n", scoreCalculator.rice(project));
+                String.format("RICE Score: %.2f\n", scoreCalculator.rice(project)) +
+                customScores;
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.preponderous.parpt.config;
+
+import com.preponderous.parpt.repo.CompactProjectStore;
+import com.preponderous.parpt.repo.ObjectProjectStore;
+import com.preponderous.parpt.repo.ProjectStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ProjectStoreConfig {
+
+    /**
+     * Selects how the repository keeps projects in memory: {@code objects} holds regular
+     * {@code Project} instances, {@code compact} packs them into primitive columns.
+     */
+    @Bean
+    public ProjectStore.Factory projectStoreFactory(@Value("${app.projects.store:objects}") String type) {
+        return switch (type) {
+            case "objects" -> ObjectProjectStore::new;
+            case "compact" -> CompactProjectStore::new;
+            default -> throw new IllegalArgumentException("Unknown project store: " + type);
+        };
+    }
+}
@@ -8,6 +8,11 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 @ConfigurationProperties(prefix = "parpt.prompts")
 public class PromptProperties {
+    /**
+     * Identifies this set of questions. Stored with the answers given to it, so it must
+     * change whenever the questions change in meaning or order.
+     */
+    private int version;
     private String projectName;
     private String projectDescription;
     private String[] impact;
@@ -0,0 +1,19 @@
+package com.preponderous.parpt.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "parpt.scoring")
+public class ScoringProperties {
+    /**
+     * Scoring models offered alongside ICE and RICE, each an arithmetic expression over
+     * impact, confidence, ease, reach and effort keyed by the model's name.
+     */
+    private Map<String, String> models = new LinkedHashMap<>();
+}
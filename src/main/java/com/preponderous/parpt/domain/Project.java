@@ -1,5 +1,6 @@
 package com.preponderous.parpt.domain;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,6 +10,11 @@ import lombok.NoArgsConstructor;
  * Represents a project with various attributes including its impact, confidence, ease,
  * reach, and effort. This class is typically used to define and evaluate a project's
  * characteristics and its potential effectiveness.
+ * <p>
+ * When the scores were worked out from prompted questions, the raw answers are kept
+ * packed by {@link ProjectAnswers} together with the version of the prompt set that asked
+ * them, so the project can later be re-scored without asking again. Both are zero for
+ * projects whose scores were given directly and are then left out of the JSON.
  */
 @Data
 @Builder
@@ -22,4 +28,8 @@ public class Project {
     private int ease;
     private int reach;
     private int effort;
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private long answers;
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private int promptSetVersion;
 }
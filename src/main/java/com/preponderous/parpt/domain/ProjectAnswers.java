@@ -0,0 +1,129 @@
+package com.preponderous.parpt.domain;
+
+/**
+ * Packs the raw answers behind a project's scores into a single {@code long}. Each of the
+ * five dimensions has up to four questions, answered from 1 to 5, so an answer fits in
+ * three bits and all twenty take sixty. Answer {@code q} of dimension {@code d} sits at
+ * bit {@code 3 * (4 * d + q)}; a zero field marks a question that was not answered, so a
+ * project created without prompting has no answers at all.
+ */
+public final class ProjectAnswers {
+
+    public static final long NONE = 0L;
+
+    public static final int IMPACT = 0;
+    public static final int CONFIDENCE = 1;
+    public static final int EASE = 2;
+    public static final int REACH = 3;
+    public static final int EFFORT = 4;
+    public static final int DIMENSIONS = 5;
+    public static final int QUESTIONS_PER_DIMENSION = 4;
+
+    private static final int BITS_PER_ANSWER = 3;
+    private static final int ANSWER_MASK = (1 << BITS_PER_ANSWER) - 1;
+    private static final int MIN_ANSWER = 1;
+    private static final int MAX_ANSWER = 5;
+
+    private ProjectAnswers() {
+    }
+
+    /**
+     * Packs the answers given to each dimension's questions, in question order. A null
+     * array leaves its dimension unanswered.
+     *
+     * @param answers the answers by dimension, at most {@link #DIMENSIONS} of them
+     * @throws IllegalArgumentException if a dimension has more than
+     *                                  {@link #QUESTIONS_PER_DIMENSION} answers or an answer is out of range
+     */
+    public static long encode(int[]... answers) {
+        if (answers.length > DIMENSIONS) {
+            throw new IllegalArgumentException("At most " + DIMENSIONS + " dimensions can be answered");
+        }
+        long packed = NONE;
+        for (int dimension = 0; dimension < answers.length; dimension++) {
+            if (answers[dimension] == null) {
+                continue;
+            }
+            if (answers[dimension].length > QUESTIONS_PER_DIMENSION) {
+                throw new IllegalArgumentException("At most " + QUESTIONS_PER_DIMENSION
+                        + " answers per dimension can be stored, got " + answers[dimension].length);
+            }
+            for (int question = 0; question < answers[dimension].length; question++) {
+                int answer = answers[dimension][question];
+                if (answer < MIN_ANSWER || answer > MAX_ANSWER) {
+                    throw new IllegalArgumentException("Answer out of range: " + answer);
+                }
+                packed |= (long) answer << shift(dimension, question);
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * Returns the answer to the given question, or 0 if it was not answered.
+     */
+    public static int answer(long answers, int dimension, int question) {
+        return (int) (answers >>> shift(dimension, question)) & ANSWER_MASK;
+    }
+
+    /**
+     * Returns the answers given for a dimension in question order, skipping unanswered
+     * questions.
+     */
+    public static int[] answers(long answers, int dimension) {
+        int[] given = new int[count(answers, dimension)];
+        int size = 0;
+        for (int question = 0; question < QUESTIONS_PER_DIMENSION; question++) {
+            int answer = answer(answers, dimension, question);
+            if (answer != 0) {
+                given[size++] = answer;
+            }
+        }
+        return given;
+    }
+
+    /**
+     * Returns the answers with those given for a dimension removed.
+     */
+    public static long without(long answers, int dimension) {
+        long fields = (1L << (BITS_PER_ANSWER * QUESTIONS_PER_DIMENSION)) - 1;
+        return answers & ~(fields << shift(dimension, 0));
+    }
+
+    /**
+     * Returns how many of a dimension's questions were answered.
+     */
+    public static int count(long answers, int dimension) {
+        int count = 0;
+        for (int question = 0; question < QUESTIONS_PER_DIMENSION; question++) {
+            if (answer(answers, dimension, question) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the score a dimension's answers average to, rounded half up as when the
+     * project was created, or 0 if none of its questions were answered.
+     */
+    public static int score(long answers, int dimension) {
+        int total = 0;
+        int count = 0;
+        for (int question = 0; question < QUESTIONS_PER_DIMENSION; question++) {
+            int answer = answer(answers, dimension, question);
+            if (answer != 0) {
+                total += answer;
+                count++;
+            }
+        }
+        return count == 0 ? 0 : Math.round((float) total / count);
+    }
+
+    private static int shift(int dimension, int question) {
+        if (dimension < 0 || dimension >= DIMENSIONS || question < 0 || question >= QUESTIONS_PER_DIMENSION) {
+            throw new IndexOutOfBoundsException("No answer slot for dimension " + dimension + ", question " + question);
+        }
+        return BITS_PER_ANSWER * (QUESTIONS_PER_DIMENSION * dimension + question);
+    }
+}
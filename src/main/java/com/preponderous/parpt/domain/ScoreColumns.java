@@ -0,0 +1,63 @@
+package com.preponderous.parpt.domain;
+
+/**
+ * Column-oriented view of the five scores of a set of projects. Row {@code i} of every
+ * column belongs to the same project, so whole portfolios can be scored in one pass
+ * over primitive arrays instead of walking {@link Project} objects.
+ */
+public class ScoreColumns {
+    private final int size;
+    private final byte[] impact;
+    private final byte[] confidence;
+    private final byte[] ease;
+    private final byte[] reach;
+    private final byte[] effort;
+
+    public ScoreColumns(int size) {
+        this(size, new byte[size], new byte[size], new byte[size], new byte[size], new byte[size]);
+    }
+
+    public ScoreColumns(int size, byte[] impact, byte[] confidence, byte[] ease, byte[] reach, byte[] effort) {
+        this.size = size;
+        this.impact = impact;
+        this.confidence = confidence;
+        this.ease = ease;
+        this.reach = reach;
+        this.effort = effort;
+    }
+
+    /**
+     * Copies the scores of the given project into row {@code row}.
+     */
+    public void set(int row, Project project) {
+        impact[row] = (byte) project.getImpact();
+        confidence[row] = (byte) project.getConfidence();
+        ease[row] = (byte) project.getEase();
+        reach[row] = (byte) project.getReach();
+        effort[row] = (byte) project.getEffort();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] impact() {
+        return impact;
+    }
+
+    public byte[] confidence() {
+        return confidence;
+    }
+
+    public byte[] ease() {
+        return ease;
+    }
+
+    public byte[] reach() {
+        return reach;
+    }
+
+    public byte[] effort() {
+        return effort;
+    }
+}
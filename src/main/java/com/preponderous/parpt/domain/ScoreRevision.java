@@ -0,0 +1,83 @@
+package com.preponderous.parpt.domain;
+
+/**
+ * One entry of the score history: either a run of projects being added or one project's
+ * scores changing. A change keeps only what changed, as the difference from the previous
+ * score of each dimension, four bits apiece in {@code deltas}. Dimensions are numbered as
+ * in {@link ProjectAnswers}, and dimension {@code d} sits at bit {@code 4 * d}; a zero
+ * field marks a dimension that did not change. Scores range from 1 to 5, so every
+ * difference fits, and past scores can be worked out backwards from the current ones.
+ *
+ * @param timestamp when the revision was made, in milliseconds since the epoch
+ * @param ordinal   the ordinal of the changed project, or of the first added one
+ * @param added     how many projects were added, or 0 for a change of scores
+ * @param deltas    the packed differences, or 0 for an addition
+ */
+public record ScoreRevision(long timestamp, int ordinal, int added, int deltas) {
+
+    private static final int BITS_PER_DELTA = 4;
+    private static final int DELTA_MASK = (1 << BITS_PER_DELTA) - 1;
+    private static final int MIN_DELTA = -(1 << (BITS_PER_DELTA - 1));
+    private static final int MAX_DELTA = (1 << (BITS_PER_DELTA - 1)) - 1;
+
+    public static ScoreRevision added(long timestamp, int firstOrdinal, int count) {
+        return new ScoreRevision(timestamp, firstOrdinal, count, 0);
+    }
+
+    public static ScoreRevision updated(long timestamp, int ordinal, int deltas) {
+        return new ScoreRevision(timestamp, ordinal, 0, deltas);
+    }
+
+    public boolean isAddition() {
+        return added > 0;
+    }
+
+    /**
+     * Returns how much the given dimension changed, or 0 if it did not.
+     */
+    public int delta(int dimension) {
+        return delta(deltas, dimension);
+    }
+
+    /**
+     * Packs the differences between two sets of scores.
+     *
+     * @throws IllegalArgumentException if a score changes by more than fits in four bits
+     */
+    public static int deltas(Project previous, Project project) {
+        int deltas = 0;
+        for (int dimension = 0; dimension < ProjectAnswers.DIMENSIONS; dimension++) {
+            int delta = score(project, dimension) - score(previous, dimension);
+            if (delta < MIN_DELTA || delta > MAX_DELTA) {
+                throw new IllegalArgumentException("Score change out of range: " + delta);
+            }
+            deltas |= (delta & DELTA_MASK) << (BITS_PER_DELTA * dimension);
+        }
+        return deltas;
+    }
+
+    /**
+     * Returns how much the given dimension changed in the packed differences.
+     */
+    public static int delta(int deltas, int dimension) {
+        if (dimension < 0 || dimension >= ProjectAnswers.DIMENSIONS) {
+            throw new IndexOutOfBoundsException("No such dimension: " + dimension);
+        }
+        // Shift the field to the top and back down to extend its sign
+        return deltas << (Integer.SIZE - BITS_PER_DELTA * (dimension + 1)) >> (Integer.SIZE - BITS_PER_DELTA);
+    }
+
+    /**
+     * Returns the score of a project in the given dimension.
+     */
+    public static int score(Project project, int dimension) {
+        return switch (dimension) {
+            case ProjectAnswers.IMPACT -> project.getImpact();
+            case ProjectAnswers.CONFIDENCE -> project.getConfidence();
+            case ProjectAnswers.EASE -> project.getEase();
+            case ProjectAnswers.REACH -> project.getReach();
+            case ProjectAnswers.EFFORT -> project.getEffort();
+            default -> throw new IndexOutOfBoundsException("No such dimension: " + dimension);
+        };
+    }
+}
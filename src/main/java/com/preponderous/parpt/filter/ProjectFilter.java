@@ -0,0 +1,312 @@
+package com.preponderous.parpt.filter;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.DoublePredicate;
+
+/**
+ * Compiled form of a filter expression such as {@code impact>=4 and effort<=2 and rice>10}.
+ * <p>
+ * An expression compares scores with numbers using {@code <}, {@code <=}, {@code >},
+ * {@code >=}, {@code =} and {@code !=}, and combines comparisons with {@code and},
+ * {@code or}, {@code not} and parentheses; {@code and} binds tighter than {@code or}.
+ * A score is one of the five dimensions of a project or the name of a scoring model.
+ * <p>
+ * Parsing turns the expression into a plan once. Dimension comparisons become unions of
+ * the {@link ScoreBitmapIndex}'s value bitmaps and are evaluated before model
+ * comparisons within a conjunction, so the latter only look at projects still in play.
+ */
+public final class ProjectFilter {
+
+    /**
+     * Project score dimensions, in the order the index keeps their bitmaps.
+     */
+    static final List<String> DIMENSIONS = List.of("impact", "confidence", "ease", "reach", "effort");
+
+    private final String expression;
+    private final Node plan;
+
+    private ProjectFilter(String expression, Node plan) {
+        this.expression = expression;
+        this.plan = plan;
+    }
+
+    /**
+     * Compiles an expression, accepting comparisons on the project dimensions and on
+     * the given scoring models.
+     *
+     * @throws IllegalArgumentException if the expression is malformed or names an unknown score
+     */
+    public static ProjectFilter parse(String expression, Collection<String> models) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("The filter is empty.");
+        }
+        Parser parser = new Parser(tokenize(expression), models);
+        Node plan = parser.parseOr();
+        if (!parser.atEnd()) {
+            throw new IllegalArgumentException("Unexpected '" + parser.peek().text + "' at position " + parser.peek().position + ".");
+        }
+        return new ProjectFilter(expression, plan);
+    }
+
+    /**
+     * Returns the ordinals in {@code within} that pass the filter.
+     */
+    BitSet evaluate(ScoreBitmapIndex index, BitSet within) {
+        return plan.evaluate(index, within);
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private static List<Token> tokenize(String expression) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < expression.length()) {
+            char c = expression.charAt(i);
+            int start = i;
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (Character.isLetter(c)) {
+                while (i < expression.length() && Character.isLetterOrDigit(expression.charAt(i))) {
+                    i++;
+                }
+            } else if (Character.isDigit(c) || c == '.' || c == '-') {
+                i++;
+                while (i < expression.length() && (Character.isDigit(expression.charAt(i)) || expression.charAt(i) == '.')) {
+                    i++;
+                }
+            } else if ((c == '<' || c == '>' || c == '!' || c == '=')
+                    && i + 1 < expression.length() && expression.charAt(i + 1) == '=') {
+                i += 2;
+            } else if (c == '<' || c == '>' || c == '=' || c == '(' || c == ')') {
+                i++;
+            } else {
+                throw new IllegalArgumentException("Unexpected '" + c + "' at position " + (start + 1) + ".");
+            }
+            tokens.add(new Token(expression.substring(start, i), start + 1));
+        }
+        return tokens;
+    }
+
+    private record Token(String text, int position) {
+        boolean isKeyword(String keyword) {
+            return text.equalsIgnoreCase(keyword);
+        }
+    }
+
+    /**
+     * Recursive descent over {@code or := and ("or" and)*}, {@code and := unary ("and" unary)*}
+     * and {@code unary := "not" unary | "(" or ")" | score operator number}.
+     */
+    private static final class Parser {
+        private final List<Token> tokens;
+        private final Collection<String> models;
+        private int next;
+
+        Parser(List<Token> tokens, Collection<String> models) {
+            this.tokens = tokens;
+            this.models = models;
+        }
+
+        Node parseOr() {
+            List<Node> operands = new ArrayList<>();
+            operands.add(parseAnd());
+            while (!atEnd() && peek().isKeyword("or")) {
+                next++;
+                operands.add(parseAnd());
+            }
+            return operands.size() == 1 ? operands.get(0) : new Or(operands);
+        }
+
+        Node parseAnd() {
+            List<Node> operands = new ArrayList<>();
+            operands.add(parseUnary());
+            while (!atEnd() && peek().isKeyword("and")) {
+                next++;
+                operands.add(parseUnary());
+            }
+            if (operands.size() == 1) {
+                return operands.get(0);
+            }
+            // Cheap bitmap unions first, narrowing what the score comparisons must scan
+            operands.sort(Comparator.comparingInt(Node::cost));
+            return new And(operands);
+        }
+
+        Node parseUnary() {
+            Token token = expect("a comparison such as impact>=4");
+            if (token.isKeyword("not")) {
+                return new Not(parseUnary());
+            }
+            if (token.text.equals("(")) {
+                Node inner = parseOr();
+                Token close = expect("')'");
+                if (!close.text.equals(")")) {
+                    throw unexpected(close, "')'");
+                }
+                return inner;
+            }
+            return parseComparison(token);
+        }
+
+        private Node parseComparison(Token token) {
+            String name = token.text.toLowerCase(Locale.ROOT);
+            int dimension = DIMENSIONS.indexOf(name);
+            if (dimension < 0 && !models.contains(name)) {
+                List<String> scores = new ArrayList<>(DIMENSIONS);
+                scores.addAll(models);
+                throw new IllegalArgumentException("Unknown score '" + token.text + "' at position " + token.position
+                        + ". Available scores: " + String.join(", ", scores) + ".");
+            }
+            Token operator = expect("a comparison operator");
+            Token number = expect("a number");
+            double value = parseNumber(number);
+            DoublePredicate test = switch (operator.text) {
+                case "<" -> score -> score < value;
+                case "<=" -> score -> score <= value;
+                case ">" -> score -> score > value;
+                case ">=" -> score -> score >= value;
+                case "=", "==" -> score -> score == value;
+                case "!=" -> score -> score != value;
+                default -> throw unexpected(operator, "a comparison operator");
+            };
+            return dimension >= 0 ? new DimensionTest(dimension, test) : new ScoreTest(name, test);
+        }
+
+        private static double parseNumber(Token token) {
+            try {
+                return Double.parseDouble(token.text);
+            } catch (NumberFormatException e) {
+                throw unexpected(token, "a number");
+            }
+        }
+
+        boolean atEnd() {
+            return next == tokens.size();
+        }
+
+        Token peek() {
+            return tokens.get(next);
+        }
+
+        private Token expect(String what) {
+            if (atEnd()) {
+                throw new IllegalArgumentException("Expected " + what + " at the end of the filter.");
+            }
+            return tokens.get(next++);
+        }
+
+        private static IllegalArgumentException unexpected(Token token, String expected) {
+            return new IllegalArgumentException("Expected " + expected + " at position " + token.position
+                    + " but found '" + token.text + "'.");
+        }
+    }
+
+    private interface Node {
+        /**
+         * Returns the ordinals in {@code within} that pass this node, leaving {@code within} unchanged.
+         */
+        BitSet evaluate(ScoreBitmapIndex index, BitSet within);
+
+        int cost();
+    }
+
+    private record DimensionTest(int dimension, DoublePredicate test) implements Node {
+        @Override
+        public BitSet evaluate(ScoreBitmapIndex index, BitSet within) {
+            BitSet result = index.matching(dimension, test);
+            result.and(within);
+            return result;
+        }
+
+        @Override
+        public int cost() {
+            return 1;
+        }
+    }
+
+    private record ScoreTest(String model, DoublePredicate test) implements Node {
+        @Override
+        public BitSet evaluate(ScoreBitmapIndex index, BitSet within) {
+            double[] scores = index.scores(model);
+            // Word at a time, clearing the bits of the ordinals that fail
+            long[] words = within.toLongArray();
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                long kept = 0;
+                while (word != 0) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    if (test.test(scores[(w << 6) + bit])) {
+                        kept |= 1L << bit;
+                    }
+                    word &= word - 1;
+                }
+                words[w] = kept;
+            }
+            return BitSet.valueOf(words);
+        }
+
+        @Override
+        public int cost() {
+            return 2;
+        }
+    }
+
+    private record And(List<Node> operands) implements Node {
+        @Override
+        public BitSet evaluate(ScoreBitmapIndex index, BitSet within) {
+            BitSet result = within;
+            for (Node operand : operands) {
+                if (result.isEmpty()) {
+                    break;
+                }
+                result = operand.evaluate(index, result);
+            }
+            return result == within ? (BitSet) within.clone() : result;
+        }
+
+        @Override
+        public int cost() {
+            return operands.stream().mapToInt(Node::cost).max().orElse(0);
+        }
+    }
+
+    private record Or(List<Node> operands) implements Node {
+        @Override
+        public BitSet evaluate(ScoreBitmapIndex index, BitSet within) {
+            BitSet result = new BitSet();
+            for (Node operand : operands) {
+                result.or(operand.evaluate(index, within));
+            }
+            return result;
+        }
+
+        @Override
+        public int cost() {
+            return operands.stream().mapToInt(Node::cost).max().orElse(0);
+        }
+    }
+
+    private record Not(Node operand) implements Node {
+        @Override
+        public BitSet evaluate(ScoreBitmapIndex index, BitSet within) {
+            BitSet result = (BitSet) within.clone();
+            result.andNot(operand.evaluate(index, within));
+            return result;
+        }
+
+        @Override
+        public int cost() {
+            return operand.cost();
+        }
+    }
+}
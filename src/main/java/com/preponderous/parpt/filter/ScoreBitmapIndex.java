@@ -0,0 +1,171 @@
+package com.preponderous.parpt.filter;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ScoreColumns;
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.repo.ProjectRepositoryListener;
+import com.preponderous.parpt.score.ScoreCalculator;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.DoublePredicate;
+
+/**
+ * Bitmap index over the five score dimensions of the repository's projects. Scores only
+ * take a handful of values, so every (dimension, value) pair gets a bitmap of the
+ * ordinals having that value, and a comparison such as {@code impact>=4} is the union of
+ * two bitmaps. Scores under each model are kept in a primitive column alongside, for the
+ * comparisons on them that bitmaps cannot answer directly.
+ * <p>
+ * Like the ranked index, the index is built on first use from the repository's score
+ * columns, afterwards updated as projects are added or rescored and rebuilt after the
+ * repository is cleared.
+ */
+@Component
+public class ScoreBitmapIndex implements ProjectRepositoryListener {
+
+    private static final int VALUES = 256;
+
+    private final ProjectRepository projectRepository;
+    private final ScoreCalculator scoreCalculator;
+    private final BitSet[][] bitmaps = new BitSet[ProjectFilter.DIMENSIONS.size()][VALUES];
+    private final Map<String, double[]> scores = new HashMap<>();
+    private int indexed;
+    private boolean built;
+
+    public ScoreBitmapIndex(ProjectRepository projectRepository, ScoreCalculator scoreCalculator) {
+        this.projectRepository = projectRepository;
+        this.scoreCalculator = scoreCalculator;
+        projectRepository.addListener(this);
+    }
+
+    /**
+     * Compiles a filter expression over the project dimensions and the known scoring models.
+     *
+     * @throws IllegalArgumentException if the expression is malformed or names an unknown score
+     */
+    public ProjectFilter compile(String expression) {
+        return ProjectFilter.parse(expression, scoreCalculator.models());
+    }
+
+    /**
+     * Returns the ordinals of the projects passing the filter.
+     */
+    public BitSet select(ProjectFilter filter) {
+        // Repository read lock before this index's monitor, as in RankedProjectIndex
+        return projectRepository.read(snapshot -> evaluate(snapshot, filter));
+    }
+
+    private synchronized BitSet evaluate(ProjectRepository.Snapshot snapshot, ProjectFilter filter) {
+        if (!built) {
+            build(snapshot);
+        }
+        BitSet all = new BitSet(indexed);
+        all.set(0, indexed);
+        return filter.evaluate(this, all);
+    }
+
+    /**
+     * Returns the ordinals whose value in the given dimension passes the test. Called by
+     * the filter while this index's monitor is held.
+     */
+    BitSet matching(int dimension, DoublePredicate test) {
+        BitSet result = new BitSet(indexed);
+        for (int value = 0; value < VALUES; value++) {
+            BitSet bitmap = bitmaps[dimension][value];
+            if (bitmap != null && test.test(value)) {
+                result.or(bitmap);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the scores under the given model, indexed by ordinal. Called by the filter
+     * while this index's monitor is held.
+     */
+    double[] scores(String model) {
+        return scores.get(model);
+    }
+
+    @Override
+    public synchronized void projectAdded(int ordinal, Project project) {
+        if (!built) {
+            return;
+        }
+        int[] values = values(project);
+        for (int dimension = 0; dimension < values.length; dimension++) {
+            bitmap(dimension, values[dimension] & 0xFF).set(ordinal);
+        }
+        for (Map.Entry<String, double[]> column : scores.entrySet()) {
+            double[] modelScores = column.getValue();
+            if (ordinal >= modelScores.length) {
+                modelScores = Arrays.copyOf(modelScores, Math.max(16, ordinal * 2));
+                column.setValue(modelScores);
+            }
+            modelScores[ordinal] = scoreCalculator.score(column.getKey(), project);
+        }
+        indexed = ordinal + 1;
+    }
+
+    @Override
+    public synchronized void projectUpdated(int ordinal, Project previous, Project project) {
+        if (!built) {
+            return;
+        }
+        int[] before = values(previous);
+        int[] after = values(project);
+        for (int dimension = 0; dimension < after.length; dimension++) {
+            bitmap(dimension, before[dimension] & 0xFF).clear(ordinal);
+            bitmap(dimension, after[dimension] & 0xFF).set(ordinal);
+        }
+        for (Map.Entry<String, double[]> column : scores.entrySet()) {
+            column.getValue()[ordinal] = scoreCalculator.score(column.getKey(), project);
+        }
+    }
+
+    @Override
+    public synchronized void projectsCleared() {
+        // The repository may have been replaced rather than emptied, so rebuild on next use
+        for (BitSet[] dimension : bitmaps) {
+            Arrays.fill(dimension, null);
+        }
+        scores.clear();
+        indexed = 0;
+        built = false;
+    }
+
+    private void build(ProjectRepository.Snapshot snapshot) {
+        ScoreColumns columns = snapshot.scoreColumns();
+        byte[][] dimensions = {columns.impact(), columns.confidence(), columns.ease(), columns.reach(), columns.effort()};
+        for (int dimension = 0; dimension < dimensions.length; dimension++) {
+            byte[] column = dimensions[dimension];
+            for (int ordinal = 0; ordinal < columns.size(); ordinal++) {
+                bitmap(dimension, column[ordinal] & 0xFF).set(ordinal);
+            }
+        }
+        for (String model : scoreCalculator.models()) {
+            double[] modelScores = new double[columns.size()];
+            scoreCalculator.score(model, columns, modelScores);
+            scores.put(model, modelScores);
+        }
+        indexed = columns.size();
+        built = true;
+    }
+
+    private static int[] values(Project project) {
+        return new int[]{project.getImpact(), project.getConfidence(), project.getEase(), project.getReach(), project.getEffort()};
+    }
+
+    private BitSet bitmap(int dimension, int value) {
+        BitSet bitmap = bitmaps[dimension][value];
+        if (bitmap == null) {
+            bitmap = new BitSet();
+            bitmaps[dimension][value] = bitmap;
+        }
+        return bitmap;
+    }
+}
@@ -0,0 +1,429 @@
+package com.preponderous.parpt.repo;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ScoreColumns;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Read-only, memory-mapped snapshot of a project portfolio. Records are addressed by
+ * ordinal and decoded on demand, so opening a snapshot costs a few header reads no
+ * matter how many projects it holds.
+ * <p>
+ * Layout (all integers big-endian):
+ * <pre>
+ * header   magic, version, count, tableSize, scoresOffset, offsetsOffset, tableOffset, heapOffset,
+ *          answersOffset, versionsOffset, generation (a long)
+ * scores   five columns of count bytes each: impact, confidence, ease, reach, effort
+ * answers  count longs of answers packed by ProjectAnswers, 8-byte aligned
+ * versions count ints of prompt-set versions
+ * offsets  2 * count + 1 ints into the heap; name i spans [2i, 2i+1), description i spans [2i+1, 2i+2)
+ * table    open-addressing hash table of (hash, ordinal + 1) int pairs keyed by the case-folded name
+ * heap     UTF-8 bytes of every name and description
+ * </pre>
+ * The answers and versions columns are only written when some project has answers, and
+ * their offsets are 0 otherwise. The generation is one more than that of the snapshot
+ * the file replaced, so other processes can tell each rewrite apart even when the file's
+ * modification time does not change. Version 2 snapshots end the header after
+ * {@code versionsOffset} and version 1 snapshots after {@code heapOffset}, which never
+ * have answers; both are still read, with generation 0.
+ * <p>
+ * A null description is stored as an empty string.
+ */
+public final class BinaryProjectSnapshot {
+
+    static final int MAGIC = 0x50525054; // "PRPT"
+    static final int VERSION = 3;
+    private static final int VERSION_WITHOUT_GENERATION = 2;
+    private static final int VERSION_WITHOUT_ANSWERS = 1;
+    private static final int HEADER_SIZE = 10 * Integer.BYTES + Long.BYTES;
+    private static final int HEADER_SIZE_WITHOUT_GENERATION = 10 * Integer.BYTES;
+    private static final int HEADER_SIZE_WITHOUT_ANSWERS = 8 * Integer.BYTES;
+    private static final int GENERATION_OFFSET = 40;
+    private static final int SCORE_COLUMNS = 5;
+
+    private static final BinaryProjectSnapshot EMPTY = new BinaryProjectSnapshot(encode(List.of(), 0));
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int tableMask;
+    private final int scoresOffset;
+    private final int offsetsOffset;
+    private final int tableOffset;
+    private final int heapOffset;
+    private final int answersOffset;
+    private final int versionsOffset;
+    private final long generation;
+
+    private BinaryProjectSnapshot(ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_SIZE_WITHOUT_ANSWERS || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a binary project snapshot");
+        }
+        int version = buffer.getInt(4);
+        if (buffer.capacity() < headerSize(version)) {
+            throw new IllegalArgumentException("Not a binary project snapshot");
+        }
+        this.buffer = buffer;
+        this.count = buffer.getInt(8);
+        this.tableMask = buffer.getInt(12) - 1;
+        this.scoresOffset = buffer.getInt(16);
+        this.offsetsOffset = buffer.getInt(20);
+        this.tableOffset = buffer.getInt(24);
+        this.heapOffset = buffer.getInt(28);
+        this.answersOffset = version == VERSION_WITHOUT_ANSWERS ? 0 : buffer.getInt(32);
+        this.versionsOffset = version == VERSION_WITHOUT_ANSWERS ? 0 : buffer.getInt(36);
+        this.generation = version == VERSION ? buffer.getLong(GENERATION_OFFSET) : 0;
+    }
+
+    private static int headerSize(int version) {
+        return switch (version) {
+            case VERSION -> HEADER_SIZE;
+            case VERSION_WITHOUT_GENERATION -> HEADER_SIZE_WITHOUT_GENERATION;
+            case VERSION_WITHOUT_ANSWERS -> HEADER_SIZE_WITHOUT_ANSWERS;
+            default -> throw new IllegalArgumentException("Unsupported binary project snapshot version: " + version);
+        };
+    }
+
+    /**
+     * Returns a snapshot containing no projects.
+     */
+    public static BinaryProjectSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Maps the given snapshot file into memory.
+     *
+     * @param file the snapshot file
+     * @return the mapped snapshot
+     * @throws IOException if the file cannot be mapped
+     */
+    public static BinaryProjectSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Binary project snapshot is too large to map: " + file);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new BinaryProjectSnapshot(mapped);
+        }
+    }
+
+    /**
+     * Reads only the generation of the snapshot in the given file, without mapping it.
+     *
+     * @param file the snapshot file
+     * @return the generation, or 0 if the file is not a snapshot that records one
+     * @throws IOException if the file cannot be read
+     */
+    public static long readGeneration(Path file) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            ByteBuffer header = ByteBuffer.wrap(input.readNBytes(HEADER_SIZE));
+            if (header.capacity() < HEADER_SIZE || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                return 0;
+            }
+            return header.getLong(GENERATION_OFFSET);
+        }
+    }
+
+    /**
+     * Writes the projects to the given file, replacing it atomically with a snapshot one
+     * generation newer than the one it replaces. The list is read twice by index, so a
+     * lazily materializing view keeps only one record in memory.
+     *
+     * @param file     the snapshot file
+     * @param projects the projects to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path file, List<Project> projects) throws IOException {
+        long generation = Files.exists(file) ? readGeneration(file) + 1 : 1;
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Layout layout = layout(projects);
+        if (layout.size > Integer.MAX_VALUE) {
+            throw new IOException("Binary project snapshot would be too large to map: " + layout.size + " bytes");
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, layout.size);
+            encode(projects, layout, generation, mapped);
+            mapped.force();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns 1 for the first snapshot written to a file and one more for each rewrite,
+     * or 0 for snapshots that predate generations.
+     */
+    public long generation() {
+        return generation;
+    }
+
+    public int impact(int ordinal) {
+        return score(0, ordinal);
+    }
+
+    public int confidence(int ordinal) {
+        return score(1, ordinal);
+    }
+
+    public int ease(int ordinal) {
+        return score(2, ordinal);
+    }
+
+    public int reach(int ordinal) {
+        return score(3, ordinal);
+    }
+
+    public int effort(int ordinal) {
+        return score(4, ordinal);
+    }
+
+    /**
+     * Returns the raw answers packed by {@link com.preponderous.parpt.domain.ProjectAnswers},
+     * or 0 if the project has none.
+     */
+    public long answers(int ordinal) {
+        checkOrdinal(ordinal);
+        return answersOffset == 0 ? 0 : buffer.getLong(answersOffset + ordinal * Long.BYTES);
+    }
+
+    public int promptSetVersion(int ordinal) {
+        checkOrdinal(ordinal);
+        return versionsOffset == 0 ? 0 : buffer.getInt(versionsOffset + ordinal * Integer.BYTES);
+    }
+
+    public String name(int ordinal) {
+        return string(2 * ordinal);
+    }
+
+    public String description(int ordinal) {
+        return string(2 * ordinal + 1);
+    }
+
+    /**
+     * Decodes the project at the given ordinal into a new {@link Project}.
+     */
+    public Project get(int ordinal) {
+        checkOrdinal(ordinal);
+        return Project.builder()
+                .name(name(ordinal))
+                .description(description(ordinal))
+                .impact(impact(ordinal))
+                .confidence(confidence(ordinal))
+                .ease(ease(ordinal))
+                .reach(reach(ordinal))
+                .effort(effort(ordinal))
+                .answers(answers(ordinal))
+                .promptSetVersion(promptSetVersion(ordinal))
+                .build();
+    }
+
+    /**
+     * Bulk-copies every score column into the first {@link #size()} rows of the target.
+     */
+    public void copyScores(ScoreColumns target) {
+        buffer.get(scoresOffset, target.impact(), 0, count);
+        buffer.get(scoresOffset + count, target.confidence(), 0, count);
+        buffer.get(scoresOffset + 2 * count, target.ease(), 0, count);
+        buffer.get(scoresOffset + 3 * count, target.reach(), 0, count);
+        buffer.get(scoresOffset + 4 * count, target.effort(), 0, count);
+    }
+
+    /**
+     * Finds the ordinal of the project with exactly the given name.
+     *
+     * @return the ordinal, or -1 if there is no such project
+     */
+    public int indexOf(String projectName) {
+        if (projectName == null || count == 0) {
+            return -1;
+        }
+        byte[] nameBytes = projectName.getBytes(StandardCharsets.UTF_8);
+        int hash = ProjectRepository.normalize(projectName).hashCode();
+        for (int slot = hash & tableMask; ; slot = (slot + 1) & tableMask) {
+            int ordinal = buffer.getInt(tableOffset + slot * 8 + 4) - 1;
+            if (ordinal < 0) {
+                return -1;
+            }
+            if (buffer.getInt(tableOffset + slot * 8) == hash && bytesEqual(2 * ordinal, nameBytes)) {
+                return ordinal;
+            }
+        }
+    }
+
+    /**
+     * Finds the ordinal of the first project whose name matches ignoring case.
+     *
+     * @return the ordinal, or -1 if there is no such project
+     */
+    public int indexOfIgnoreCase(String projectName) {
+        if (projectName == null || count == 0) {
+            return -1;
+        }
+        String normalized = ProjectRepository.normalize(projectName);
+        int hash = normalized.hashCode();
+        int match = -1;
+        for (int slot = hash & tableMask; ; slot = (slot + 1) & tableMask) {
+            int ordinal = buffer.getInt(tableOffset + slot * 8 + 4) - 1;
+            if (ordinal < 0) {
+                return match;
+            }
+            if (buffer.getInt(tableOffset + slot * 8) == hash
+                    && (match < 0 || ordinal < match)
+                    && ProjectRepository.normalize(name(ordinal)).equals(normalized)) {
+                match = ordinal;
+            }
+        }
+    }
+
+    private int score(int column, int ordinal) {
+        checkOrdinal(ordinal);
+        return buffer.get(scoresOffset + column * count + ordinal);
+    }
+
+    private String string(int slot) {
+        int start = buffer.getInt(offsetsOffset + slot * Integer.BYTES);
+        int end = buffer.getInt(offsetsOffset + (slot + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        buffer.get(heapOffset + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean bytesEqual(int slot, byte[] expected) {
+        int start = buffer.getInt(offsetsOffset + slot * Integer.BYTES);
+        int end = buffer.getInt(offsetsOffset + (slot + 1) * Integer.BYTES);
+        if (end - start != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer.get(heapOffset + start + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= count) {
+            throw new IndexOutOfBoundsException("Ordinal " + ordinal + " out of bounds for snapshot of size " + count);
+        }
+    }
+
+    private static ByteBuffer encode(List<Project> projects, long generation) {
+        Layout layout = layout(projects);
+        ByteBuffer buffer = ByteBuffer.allocate((int) layout.size);
+        encode(projects, layout, generation, buffer);
+        return buffer;
+    }
+
+    private static void encode(List<Project> projects, Layout layout, long generation, ByteBuffer out) {
+        int count = projects.size();
+        out.putInt(0, MAGIC);
+        out.putInt(4, VERSION);
+        out.putInt(8, count);
+        out.putInt(12, layout.tableSize);
+        out.putInt(16, layout.scoresOffset);
+        out.putInt(20, layout.offsetsOffset);
+        out.putInt(24, layout.tableOffset);
+        out.putInt(28, layout.heapOffset);
+        out.putInt(32, layout.answersOffset);
+        out.putInt(36, layout.versionsOffset);
+        out.putLong(GENERATION_OFFSET, generation);
+
+        int heapPosition = 0;
+        int tableMask = layout.tableSize - 1;
+        out.putInt(layout.offsetsOffset, 0);
+        for (int i = 0; i < count; i++) {
+            Project project = projects.get(i);
+            out.put(layout.scoresOffset + i, (byte) project.getImpact());
+            out.put(layout.scoresOffset + count + i, (byte) project.getConfidence());
+            out.put(layout.scoresOffset + 2 * count + i, (byte) project.getEase());
+            out.put(layout.scoresOffset + 3 * count + i, (byte) project.getReach());
+            out.put(layout.scoresOffset + 4 * count + i, (byte) project.getEffort());
+            if (layout.answersOffset != 0) {
+                out.putLong(layout.answersOffset + i * Long.BYTES, project.getAnswers());
+                out.putInt(layout.versionsOffset + i * Integer.BYTES, project.getPromptSetVersion());
+            }
+
+            byte[] name = project.getName().getBytes(StandardCharsets.UTF_8);
+            out.put(layout.heapOffset + heapPosition, name);
+            heapPosition += name.length;
+            out.putInt(layout.offsetsOffset + (2 * i + 1) * Integer.BYTES, heapPosition);
+
+            byte[] description = descriptionBytes(project);
+            out.put(layout.heapOffset + heapPosition, description);
+            heapPosition += description.length;
+            out.putInt(layout.offsetsOffset + (2 * i + 2) * Integer.BYTES, heapPosition);
+
+            int hash = ProjectRepository.normalize(project.getName()).hashCode();
+            int slot = hash & tableMask;
+            while (out.getInt(layout.tableOffset + slot * 8 + 4) != 0) {
+                slot = (slot + 1) & tableMask;
+            }
+            out.putInt(layout.tableOffset + slot * 8, hash);
+            out.putInt(layout.tableOffset + slot * 8 + 4, i + 1);
+        }
+    }
+
+    private static Layout layout(List<Project> projects) {
+        int count = projects.size();
+        long heapSize = 0;
+        boolean answered = false;
+        for (Project project : projects) {
+            heapSize += project.getName().getBytes(StandardCharsets.UTF_8).length;
+            heapSize += descriptionBytes(project).length;
+            answered |= project.getAnswers() != 0 || project.getPromptSetVersion() != 0;
+        }
+        // Keep the load factor at or below one half so probe sequences stay short
+        int tableSize = Integer.highestOneBit(Math.max(2, count * 2 - 1)) << 1;
+        Layout layout = new Layout();
+        layout.tableSize = tableSize;
+        layout.scoresOffset = HEADER_SIZE;
+        int scoresEnd = layout.scoresOffset + SCORE_COLUMNS * count;
+        if (answered) {
+            layout.answersOffset = align(scoresEnd, Long.BYTES);
+            layout.versionsOffset = layout.answersOffset + count * Long.BYTES;
+            layout.offsetsOffset = layout.versionsOffset + count * Integer.BYTES;
+        } else {
+            layout.offsetsOffset = align(scoresEnd, Integer.BYTES);
+        }
+        layout.tableOffset = layout.offsetsOffset + (2 * count + 1) * Integer.BYTES;
+        layout.heapOffset = layout.tableOffset + tableSize * 8;
+        layout.size = layout.heapOffset + heapSize;
+        return layout;
+    }
+
+    private static byte[] descriptionBytes(Project project) {
+        String description = project.getDescription();
+        return description == null ? new byte[0] : description.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int align(int offset, int alignment) {
+        return (offset + alignment - 1) & -alignment;
+    }
+
+    private static final class Layout {
+        int tableSize;
+        int scoresOffset;
+        int offsetsOffset;
+        int tableOffset;
+        int heapOffset;
+        int answersOffset;
+        int versionsOffset;
+        long size;
+    }
+}
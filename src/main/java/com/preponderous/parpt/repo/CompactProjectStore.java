@@ -0,0 +1,224 @@
+package com.preponderous.parpt.repo;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ScoreColumns;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Struct-of-arrays project storage. The five scores of a project are packed three bits
+ * apiece into a single {@code short}, names and descriptions live as UTF-8 in one shared
+ * byte heap addressed through an offset table, and names are indexed by an
+ * open-addressing table of primitive ints. No per-project objects are retained;
+ * {@link #get(int)} decodes a fresh {@link Project} on every call.
+ * <p>
+ * Raw answers and their prompt-set versions take two more primitive columns, which are
+ * only allocated once a project with answers is added.
+ * <p>
+ * A null description is stored as an empty string.
+ */
+public class CompactProjectStore implements ProjectStore {
+
+    private static final int BITS_PER_SCORE = 3;
+    private static final int SCORE_MASK = (1 << BITS_PER_SCORE) - 1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int size;
+    private short[] scores = new short[INITIAL_CAPACITY];
+    // Null until the first project with answers is added
+    private long[] answers;
+    private int[] promptSetVersions;
+    // Name of row i spans [offsets[2i], offsets[2i+1]), its description [offsets[2i+1], offsets[2i+2])
+    private int[] offsets = new int[2 * INITIAL_CAPACITY + 1];
+    private byte[] heap = new byte[INITIAL_CAPACITY * 32];
+    private int heapSize;
+    // Hash of the case-folded name and row + 1 (0 marks a free slot), kept at most half full
+    private int[] tableHashes = new int[2 * INITIAL_CAPACITY];
+    private int[] tableRows = new int[2 * INITIAL_CAPACITY];
+
+    @Override
+    public int add(Project project) {
+        if (size == scores.length) {
+            int capacity = scores.length * 2;
+            scores = Arrays.copyOf(scores, capacity);
+            offsets = Arrays.copyOf(offsets, 2 * capacity + 1);
+            if (answers != null) {
+                answers = Arrays.copyOf(answers, capacity);
+                promptSetVersions = Arrays.copyOf(promptSetVersions, capacity);
+            }
+        }
+        if (2 * (size + 1) > tableRows.length) {
+            rehash(tableRows.length * 2);
+        }
+
+        int row = size;
+        scores[row] = pack(project);
+        if (answers == null && (project.getAnswers() != 0 || project.getPromptSetVersion() != 0)) {
+            answers = new long[scores.length];
+            promptSetVersions = new int[scores.length];
+        }
+        if (answers != null) {
+            answers[row] = project.getAnswers();
+            promptSetVersions[row] = project.getPromptSetVersion();
+        }
+        appendString(row * 2, project.getName());
+        appendString(row * 2 + 1, project.getDescription());
+        insert(ProjectRepository.normalize(project.getName()).hashCode(), row);
+        size++;
+        return row;
+    }
+
+    @Override
+    public Project get(int row) {
+        checkRow(row);
+        int packed = scores[row];
+        return Project.builder()
+                .name(string(2 * row))
+                .description(string(2 * row + 1))
+                .impact(unpack(packed, 0))
+                .confidence(unpack(packed, 1))
+                .ease(unpack(packed, 2))
+                .reach(unpack(packed, 3))
+                .effort(unpack(packed, 4))
+                .answers(answers == null ? 0 : answers[row])
+                .promptSetVersion(promptSetVersions == null ? 0 : promptSetVersions[row])
+                .build();
+    }
+
+    @Override
+    public int indexOf(String projectName) {
+        if (projectName == null || size == 0) {
+            return -1;
+        }
+        byte[] nameBytes = projectName.getBytes(StandardCharsets.UTF_8);
+        int hash = ProjectRepository.normalize(projectName).hashCode();
+        int mask = tableRows.length - 1;
+        for (int slot = hash & mask; tableRows[slot] != 0; slot = (slot + 1) & mask) {
+            int row = tableRows[slot] - 1;
+            if (tableHashes[slot] == hash && bytesEqual(2 * row, nameBytes)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int indexOfIgnoreCase(String projectName) {
+        if (projectName == null || size == 0) {
+            return -1;
+        }
+        String normalized = ProjectRepository.normalize(projectName);
+        int hash = normalized.hashCode();
+        int mask = tableRows.length - 1;
+        int match = -1;
+        for (int slot = hash & mask; tableRows[slot] != 0; slot = (slot + 1) & mask) {
+            int row = tableRows[slot] - 1;
+            if (tableHashes[slot] == hash
+                    && (match < 0 || row < match)
+                    && ProjectRepository.normalize(string(2 * row)).equals(normalized)) {
+                match = row;
+            }
+        }
+        return match;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        heapSize = 0;
+        scores = new short[INITIAL_CAPACITY];
+        answers = null;
+        promptSetVersions = null;
+        offsets = new int[2 * INITIAL_CAPACITY + 1];
+        heap = new byte[INITIAL_CAPACITY * 32];
+        tableHashes = new int[2 * INITIAL_CAPACITY];
+        tableRows = new int[2 * INITIAL_CAPACITY];
+    }
+
+    @Override
+    public void copyScores(ScoreColumns target, int offset, int rows) {
+        byte[] impact = target.impact();
+        byte[] confidence = target.confidence();
+        byte[] ease = target.ease();
+        byte[] reach = target.reach();
+        byte[] effort = target.effort();
+        for (int row = 0; row < rows; row++) {
+            int packed = scores[row];
+            impact[offset + row] = (byte) unpack(packed, 0);
+            confidence[offset + row] = (byte) unpack(packed, 1);
+            ease[offset + row] = (byte) unpack(packed, 2);
+            reach[offset + row] = (byte) unpack(packed, 3);
+            effort[offset + row] = (byte) unpack(packed, 4);
+        }
+    }
+
+    private static short pack(Project project) {
+        int[] values = {project.getImpact(), project.getConfidence(), project.getEase(),
+                project.getReach(), project.getEffort()};
+        int packed = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] < 0 || values[i] > SCORE_MASK) {
+                throw new IllegalArgumentException("Score out of range for compact storage: " + values[i]);
+            }
+            packed |= values[i] << (i * BITS_PER_SCORE);
+        }
+        return (short) packed;
+    }
+
+    private static int unpack(int packed, int index) {
+        return (packed >>> (index * BITS_PER_SCORE)) & SCORE_MASK;
+    }
+
+    private void appendString(int slot, String value) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        if (heapSize + bytes.length > heap.length) {
+            heap = Arrays.copyOf(heap, Math.max(heap.length * 2, heapSize + bytes.length));
+        }
+        System.arraycopy(bytes, 0, heap, heapSize, bytes.length);
+        heapSize += bytes.length;
+        offsets[slot + 1] = heapSize;
+    }
+
+    private String string(int slot) {
+        return new String(heap, offsets[slot], offsets[slot + 1] - offsets[slot], StandardCharsets.UTF_8);
+    }
+
+    private boolean bytesEqual(int slot, byte[] expected) {
+        int start = offsets[slot];
+        return Arrays.equals(heap, start, offsets[slot + 1], expected, 0, expected.length);
+    }
+
+    private void insert(int hash, int row) {
+        int mask = tableRows.length - 1;
+        int slot = hash & mask;
+        while (tableRows[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        tableHashes[slot] = hash;
+        tableRows[slot] = row + 1;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldHashes = tableHashes;
+        int[] oldRows = tableRows;
+        tableHashes = new int[capacity];
+        tableRows = new int[capacity];
+        for (int slot = 0; slot < oldRows.length; slot++) {
+            if (oldRows[slot] != 0) {
+                insert(oldHashes[slot], oldRows[slot] - 1);
+            }
+        }
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for store of size " + size);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.preponderous.parpt.repo;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs flushes on a dedicated writer thread and coalesces bursts: a flush requested
+ * while the same flush is already pending is merged into it, so a burst of mutations
+ * costs one flush that starts at most {@code max-delay-ms} after the first of them.
+ * <p>
+ * A max delay of zero runs every flush on the calling thread instead.
+ * <p>
+ * By the time a flush is requested, the write that requested it has been committed and
+ * journaled, so a flush that fails is logged and counted rather than thrown at whichever
+ * caller comes next. Flushes only ever sync or compact what is on disk, so the next
+ * flush requested covers whatever the failed one left undone.
+ */
+@Component
+public class FlushScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(FlushScheduler.class);
+
+    private final long maxDelayMillis;
+    private final Set<Runnable> pending = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService executor;
+    private final AtomicLong failures = new AtomicLong();
+
+    public FlushScheduler(@Value("${app.projects.flush.max-delay-ms:100}") long maxDelayMillis) {
+        this.maxDelayMillis = maxDelayMillis;
+        ScheduledThreadPoolExecutor writer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "parpt-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.executor = writer;
+    }
+
+    /**
+     * Schedules the flush unless it is already pending. Callers must pass the same
+     * instance every time for requests to be merged.
+     */
+    public void request(Runnable flush) {
+        if (maxDelayMillis <= 0) {
+            runReportingFailure(flush);
+            return;
+        }
+        if (pending.add(flush)) {
+            executor.schedule(() -> run(flush), maxDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Runs every pending flush now and waits for them to finish.
+     */
+    public void drain() {
+        try {
+            executor.submit(() -> pending.forEach(this::run)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to drain pending flushes", e.getCause());
+        }
+    }
+
+    /**
+     * Returns how many flushes have failed since startup.
+     */
+    public long failures() {
+        return failures.get();
+    }
+
+    @PreDestroy
+    public void close() {
+        drain();
+        executor.shutdown();
+    }
+
+    private void run(Runnable flush) {
+        // Removed before running so that a request arriving mid-flush schedules another one
+        if (!pending.remove(flush)) {
+            return;
+        }
+        runReportingFailure(flush);
+    }
+
+    private void runReportingFailure(Runnable flush) {
+        try {
+            flush.run();
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            log.warn("A flush failed; the next one will retry it", e);
+        }
+    }
+}
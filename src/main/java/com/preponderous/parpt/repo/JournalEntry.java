@@ -0,0 +1,43 @@
+package com.preponderous.parpt.repo;
+
+import com.preponderous.parpt.domain.Project;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single mutation recorded in the project journal. Entries are appended in the
+ * order the mutations happened and replayed on top of the last snapshot at startup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalEntry {
+    private Operation operation;
+    private Project project;
+
+    public static JournalEntry add(Project project) {
+        return new JournalEntry(Operation.ADD, project);
+    }
+
+    /**
+     * Records new scores for the project with the same name.
+     */
+    public static JournalEntry update(Project project) {
+        return new JournalEntry(Operation.UPDATE, project);
+    }
+
+    /**
+     * Records that every project was removed. Replay finishes the clear if the process
+     * that journaled it stopped before rewriting the snapshots.
+     */
+    public static JournalEntry clear() {
+        return new JournalEntry(Operation.CLEAR, null);
+    }
+
+    public enum Operation {
+        ADD,
+        UPDATE,
+        CLEAR
+    }
+}
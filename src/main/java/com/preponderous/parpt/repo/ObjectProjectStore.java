@@ -0,0 +1,62 @@
+package com.preponderous.parpt.repo;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ScoreColumns;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores projects as regular {@link Project} objects with hash indexes on the exact and
+ * case-folded name.
+ */
+public class ObjectProjectStore implements ProjectStore {
+    private final List<Project> projects = new ArrayList<>();
+    private final Map<String, Integer> rowsByName = new HashMap<>();
+    private final Map<String, Integer> rowsByNormalizedName = new HashMap<>();
+
+    @Override
+    public int add(Project project) {
+        int row = projects.size();
+        projects.add(project);
+        rowsByName.put(project.getName(), row);
+        rowsByNormalizedName.putIfAbsent(ProjectRepository.normalize(project.getName()), row);
+        return row;
+    }
+
+    @Override
+    public Project get(int row) {
+        return projects.get(row);
+    }
+
+    @Override
+    public int indexOf(String projectName) {
+        return rowsByName.getOrDefault(projectName, -1);
+    }
+
+    @Override
+    public int indexOfIgnoreCase(String projectName) {
+        return rowsByNormalizedName.getOrDefault(ProjectRepository.normalize(projectName), -1);
+    }
+
+    @Override
+    public int size() {
+        return projects.size();
+    }
+
+    @Override
+    public void clear() {
+        projects.clear();
+        rowsByName.clear();
+        rowsByNormalizedName.clear();
+    }
+
+    @Override
+    public void copyScores(ScoreColumns target, int offset, int rows) {
+        for (int row = 0; row < rows; row++) {
+            target.set(offset + row, projects.get(row));
+        }
+    }
+}
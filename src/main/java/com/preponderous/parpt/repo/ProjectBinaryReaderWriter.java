@@ -0,0 +1,35 @@
+package com.preponderous.parpt.repo;
+
+import com.preponderous.parpt.domain.Project;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interface for reading and writing the memory-mapped binary project snapshot.
+ * The binary snapshot is the fast-start store; JSON remains the interchange format.
+ */
+public interface ProjectBinaryReaderWriter {
+    /**
+     * Writes the projects to the binary snapshot, replacing any previous snapshot.
+     *
+     * @param projects the projects to be written; read by index, possibly twice
+     */
+    void writeBinary(List<Project> projects);
+
+    /**
+     * Maps the binary snapshot into memory if it exists and is at least as recent as
+     * the JSON snapshot.
+     *
+     * @return the mapped snapshot, or empty if the JSON snapshot should be read instead
+     */
+    Optional<BinaryProjectSnapshot> readBinary();
+
+    /**
+     * Returns a value that changes whenever either snapshot file is rewritten, so a
+     * process can tell that another one compacted or replaced the snapshots. It does not
+     * depend on the binary snapshot's modification time, which may not change between
+     * two compactions close together.
+     */
+    String snapshotVersion();
+}
@@ -0,0 +1,73 @@
+package com.preponderous.parpt.repo;
+
+import com.preponderous.parpt.domain.Project;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+public class ProjectBinaryReaderWriterImpl implements ProjectBinaryReaderWriter {
+
+    private final Path binaryFile;
+    private final Path jsonFile;
+
+    public ProjectBinaryReaderWriterImpl(
+            @Value("${app.projects.binary.file:${app.projects.file}.bin}") String binaryFilePath,
+            @Value("${app.projects.file}") String jsonFilePath) {
+        this.binaryFile = Path.of(binaryFilePath);
+        this.jsonFile = Path.of(jsonFilePath);
+    }
+
+    @Override
+    public void writeBinary(List<Project> projects) {
+        if (projects == null) {
+            throw new IllegalArgumentException("Projects list cannot be null");
+        }
+
+        try {
+            BinaryProjectSnapshot.write(binaryFile, projects);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write binary project snapshot", e);
+        }
+    }
+
+    @Override
+    public Optional<BinaryProjectSnapshot> readBinary() {
+        try {
+            if (!Files.exists(binaryFile)) {
+                return Optional.empty();
+            }
+            // The JSON snapshot is written first during compaction, so a JSON file that is
+            // newer than the binary one was changed by something else and takes precedence
+            if (Files.exists(jsonFile)
+                    && Files.getLastModifiedTime(jsonFile).compareTo(Files.getLastModifiedTime(binaryFile)) > 0) {
+                return Optional.empty();
+            }
+            return Optional.of(BinaryProjectSnapshot.open(binaryFile));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read binary project snapshot", e);
+        }
+    }
+
+    @Override
+    public String snapshotVersion() {
+        try {
+            // Every compaction bumps the binary generation, which still tells two compactions
+            // apart when they land within one tick of a coarse modification time. The JSON
+            // time only catches the JSON file being replaced by hand.
+            String generation = Files.exists(binaryFile) ? Long.toString(BinaryProjectSnapshot.readGeneration(binaryFile)) : "-";
+            return lastModified(jsonFile) + "/" + generation;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read project snapshot version", e);
+        }
+    }
+
+    private static String lastModified(Path file) throws IOException {
+        return Files.exists(file) ? Files.getLastModifiedTime(file).toString() : "-";
+    }
+}
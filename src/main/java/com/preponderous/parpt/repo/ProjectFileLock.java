@@ -0,0 +1,20 @@
+package com.preponderous.parpt.repo;
+
+/**
+ * Advisory lock shared by every process that works on the same project files. Holding it
+ * guarantees that no other process appends to the journal or rewrites the snapshots.
+ * The lock is not reentrant and must not be acquired twice by the same process.
+ */
+public interface ProjectFileLock {
+    /**
+     * Blocks until the lock is held.
+     *
+     * @return a handle that releases the lock when closed
+     */
+    Handle acquire();
+
+    interface Handle extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
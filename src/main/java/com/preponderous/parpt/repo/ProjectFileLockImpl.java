@@ -0,0 +1,52 @@
+package com.preponderous.parpt.repo;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+@Component
+public class ProjectFileLockImpl implements ProjectFileLock {
+
+    private final Path lockFile;
+
+    public ProjectFileLockImpl(@Value("${app.projects.lock.file:${app.projects.file}.lock}") String lockFilePath) {
+        this.lockFile = Path.of(lockFilePath);
+    }
+
+    @Override
+    public Handle acquire() {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock = channel.lock();
+            FileChannel lockedChannel = channel;
+            return () -> {
+                try {
+                    lock.release();
+                    lockedChannel.close();
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to release project file lock", e);
+                }
+            };
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new RuntimeException("Failed to lock project files", e);
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Already failing; the original exception is more useful
+        }
+    }
+}
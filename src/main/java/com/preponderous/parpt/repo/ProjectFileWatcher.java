@@ -0,0 +1,112 @@
+package com.preponderous.parpt.repo;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Watches the project files for changes made by other processes and merges them into
+ * the {@link ProjectRepository} as they happen, so sessions sharing the same files see
+ * each other's projects without restarting.
+ */
+@Component
+public class ProjectFileWatcher {
+
+    private final ProjectRepository projectRepository;
+    private final List<Path> watchedFiles;
+    private final boolean enabled;
+    private WatchService watchService;
+    private Thread thread;
+
+    public ProjectFileWatcher(
+            ProjectRepository projectRepository,
+            @Value("${app.projects.file}") String jsonFilePath,
+            @Value("${app.projects.binary.file:${app.projects.file}.bin}") String binaryFilePath,
+            @Value("${app.projects.journal.file:${app.projects.file}.journal}") String journalFilePath,
+            @Value("${app.projects.watch.enabled:true}") boolean enabled) {
+        this.projectRepository = projectRepository;
+        this.watchedFiles = List.of(
+                Path.of(jsonFilePath).toAbsolutePath(),
+                Path.of(binaryFilePath).toAbsolutePath(),
+                Path.of(journalFilePath).toAbsolutePath());
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            Set<Path> directories = new HashSet<>();
+            for (Path file : watchedFiles) {
+                if (directories.add(file.getParent())) {
+                    file.getParent().register(watchService,
+                            StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to watch project files", e);
+        }
+        thread = new Thread(this::run, "parpt-project-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to stop watching project files", e);
+        }
+        thread.join();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                            || watchedFiles.contains(((Path) key.watchable()).resolve((Path) event.context()))) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    refresh();
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Stopped
+        }
+    }
+
+    private void refresh() {
+        try {
+            // Our own writes are reported too; refreshing after them finds nothing new
+            projectRepository.refresh();
+        } catch (RuntimeException e) {
+            // A file caught mid-rewrite; every write catches up anyway, as does the next event
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.preponderous.parpt.repo;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Append-only log of project mutations. Each mutation is stored as one record so that
+ * persisting a change costs the size of the change rather than the size of the portfolio.
+ * The log is periodically folded into the JSON snapshot and truncated.
+ * <p>
+ * Several processes may share one journal. The journal remembers how far this process
+ * has read or written it, so entries appended by others can be picked up with
+ * {@link #replayNew(Consumer)} without rereading the whole file.
+ * <p>
+ * Every entry carries a checksum. Replay skips entries that fail it, so a damaged
+ * journal loses only the damaged entries, and returns how many it skipped.
+ */
+public interface ProjectJournal {
+    /**
+     * Appends a single entry to the end of the journal.
+     *
+     * @param entry the entry to append
+     */
+    void append(JournalEntry entry);
+
+    /**
+     * Appends several entries to the end of the journal in a single write.
+     *
+     * @param entries the entries to append, in order
+     */
+    void appendAll(List<JournalEntry> entries);
+
+    /**
+     * Replays every entry in the journal, oldest first.
+     *
+     * @param consumer receives each entry in order
+     * @return the number of damaged entries skipped
+     */
+    int replay(Consumer<JournalEntry> consumer);
+
+    /**
+     * Replays the entries appended since this process last replayed or appended to the
+     * journal, oldest first. A trailing entry that is still being written is left for
+     * the next call.
+     *
+     * @param consumer receives each new entry in order
+     * @return the number of damaged entries skipped
+     */
+    int replayNew(Consumer<JournalEntry> consumer);
+
+    /**
+     * Forces appended entries to disk. Appends only reach the operating system, so a
+     * process crash cannot lose them, but a power failure can until they are synced.
+     */
+    void sync();
+
+    /**
+     * Returns the number of entries in the journal as of the last replay or append.
+     *
+     * @return the number of journaled entries
+     */
+    int size();
+
+    /**
+     * Discards all entries, typically after they have been written to a snapshot.
+     */
+    void truncate();
+}
@@ -0,0 +1,221 @@
+package com.preponderous.parpt.repo;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Stores one entry per line as {@code <crc32 in hex> <json>}. Lines without a checksum,
+ * as written by earlier versions, are still accepted.
+ */
+@Component
+public class ProjectJournalImpl implements ProjectJournal {
+
+    private static final int CHECKSUM_LENGTH = 8;
+
+    private final Path journalFile;
+    private final ObjectMapper objectMapper;
+    private int size;
+    // Byte offset up to which this process has read or written the journal
+    private long position;
+
+    public ProjectJournalImpl(
+            @Value("${app.projects.journal.file:${app.projects.file}.journal}") String journalFilePath,
+            ObjectMapper objectMapper) {
+        this.journalFile = Path.of(journalFilePath);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void append(JournalEntry entry) {
+        if (entry == null) {
+            throw new IllegalArgumentException("Journal entry cannot be null");
+        }
+
+        appendAll(List.of(entry));
+    }
+
+    @Override
+    public void appendAll(List<JournalEntry> entries) {
+        if (entries == null) {
+            throw new IllegalArgumentException("Journal entries cannot be null");
+        }
+
+        try (FileChannel channel = FileChannel.open(journalFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            dropTornTail(channel);
+            ByteArrayOutputStream lines = new ByteArrayOutputStream();
+            for (JournalEntry entry : entries) {
+                lines.write(encode(entry));
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            long offset = channel.size();
+            while (buffer.hasRemaining()) {
+                offset += channel.write(buffer, offset);
+            }
+            size += entries.size();
+            position = offset;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to append to project journal", e);
+        }
+    }
+
+    @Override
+    public int replay(Consumer<JournalEntry> consumer) {
+        size = 0;
+        position = 0;
+        return replayNew(consumer);
+    }
+
+    @Override
+    public int replayNew(Consumer<JournalEntry> consumer) {
+        if (!Files.exists(journalFile)) {
+            size = 0;
+            position = 0;
+            return 0;
+        }
+
+        int skipped = 0;
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.READ)) {
+            if (channel.size() < position) {
+                // Truncated by another process since we last looked
+                size = 0;
+                position = 0;
+            }
+            channel.position(position);
+            InputStream input = new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024);
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = input.read()) != -1) {
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                position += line.size() + 1;
+                String text = line.toString(StandardCharsets.UTF_8).strip();
+                line.reset();
+                if (text.isEmpty()) {
+                    continue;
+                }
+                JournalEntry entry = decode(text);
+                if (entry != null) {
+                    consumer.accept(entry);
+                    size++;
+                } else {
+                    skipped++;
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to replay project journal", e);
+        }
+        return skipped;
+    }
+
+    @Override
+    public void sync() {
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+            channel.force(false);
+        } catch (NoSuchFileException e) {
+            // Truncated after compaction; the snapshots it was folded into are synced
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to sync project journal", e);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void truncate() {
+        try {
+            Files.deleteIfExists(journalFile);
+            size = 0;
+            position = 0;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to truncate project journal", e);
+        }
+    }
+
+    private byte[] encode(JournalEntry entry) throws JsonProcessingException {
+        byte[] json = objectMapper.writeValueAsBytes(entry);
+        byte[] prefix = (HexFormat.of().toHexDigits(checksum(json)) + " ").getBytes(StandardCharsets.US_ASCII);
+        byte[] line = new byte[prefix.length + json.length + 1];
+        System.arraycopy(prefix, 0, line, 0, prefix.length);
+        System.arraycopy(json, 0, line, prefix.length, json.length);
+        line[line.length - 1] = '\n';
+        return line;
+    }
+
+    /**
+     * Parses a journal line, returning null if it is damaged.
+     */
+    private JournalEntry decode(String line) {
+        String json = line;
+        if (!line.startsWith("{")) {
+            if (line.length() <= CHECKSUM_LENGTH || line.charAt(CHECKSUM_LENGTH) != ' ') {
+                return null;
+            }
+            json = line.substring(CHECKSUM_LENGTH + 1);
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            try {
+                if (HexFormat.fromHexDigits(line, 0, CHECKSUM_LENGTH) != checksum(bytes)) {
+                    return null;
+                }
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        try {
+            return objectMapper.readValue(json, JournalEntry.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Cuts off a last line without a line break, left behind by a writer that crashed
+     * mid-append. Callers hold the file lock, so no other writer can be mid-append.
+     */
+    private static void dropTornTail(FileChannel channel) throws IOException {
+        long end = channel.size();
+        ByteBuffer one = ByteBuffer.allocate(1);
+        long keep = end;
+        while (keep > 0) {
+            one.clear();
+            channel.read(one, keep - 1);
+            if (one.get(0) == '\n') {
+                break;
+            }
+            keep--;
+        }
+        if (keep < end) {
+            channel.truncate(keep);
+        }
+    }
+
+    private static int checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
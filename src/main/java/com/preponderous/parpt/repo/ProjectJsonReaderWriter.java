@@ -3,7 +3,9 @@ package com.preponderous.parpt.repo;
 
 import com.preponderous.parpt.domain.Project;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interface for reading and writing project data to/from JSON format.
@@ -18,10 +20,28 @@ public interface ProjectJsonReaderWriter {
      */
     void writeJson(List<Project> projects);
 
+    /**
+     * Writes projects to JSON format one at a time as they are pulled from the iterator,
+     * so the full document is never held in memory.
+     *
+     * @param projects the projects to be written to JSON
+     */
+    void writeJson(Iterator<Project> projects);
+
     /**
      * Reads and deserializes projects from JSON format.
      *
      * @return a list of projects read from JSON
      */
     List<Project> readJson();
-}
\ No newline at end of file
+
+    /**
+     * Reads projects from JSON format one at a time, handing each to the consumer as
+     * soon as it has been parsed. Damaged projects are skipped rather than failing the
+     * whole read.
+     *
+     * @param consumer receives each project in file order
+     * @return the number of damaged projects skipped
+     */
+    int readJson(Consumer<Project> consumer);
+}
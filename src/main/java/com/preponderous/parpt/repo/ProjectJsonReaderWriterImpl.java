@@ -1,27 +1,91 @@
 
 package com.preponderous.parpt.repo;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.preponderous.parpt.domain.Project;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
 
+/**
+ * Writes the projects as a JSON array with one project per line, each closed by a
+ * {@code "crc32"} property holding the checksum of the project's JSON without it. A
+ * read skips the projects whose line fails its checksum or does not parse, so a damaged
+ * file loses only the damaged projects. Projects without a checksum, and files written
+ * on a single line by earlier versions, are still read.
+ */
 @Component
 public class ProjectJsonReaderWriterImpl implements ProjectJsonReaderWriter {
 
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final byte[] CHECKSUM_PREFIX = ",\"crc32\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final int CHECKSUM_LENGTH = 8;
+    // The checksum property and the closing brace that follows it
+    private static final int CHECKSUM_SUFFIX_LENGTH = CHECKSUM_PREFIX.length + CHECKSUM_LENGTH + 2;
+
     private final String projectsFilePath;
     private final ObjectMapper objectMapper;
+    private final ObjectReader projectReader;
+    private final ObjectWriter projectWriter;
+    private final Timer readTimer;
+    private final Timer writeTimer;
+    private final DistributionSummary bytesRead;
+    private final DistributionSummary bytesWritten;
 
     public ProjectJsonReaderWriterImpl(
             @Value("${app.projects.file}") String projectsFilePath,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
         this.projectsFilePath = projectsFilePath;
         this.objectMapper = objectMapper;
+        this.projectReader = objectMapper.readerFor(Project.class);
+        // Flushing after every record would defeat the write buffer
+        this.projectWriter = objectMapper.writerFor(Project.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(SerializationFeature.INDENT_OUTPUT);
+        this.readTimer = Timer.builder("parpt.json.read")
+                .description("Time spent reading the JSON snapshot")
+                .register(meterRegistry);
+        this.writeTimer = Timer.builder("parpt.json.write")
+                .description("Time spent writing the JSON snapshot, including forcing it to disk")
+                .register(meterRegistry);
+        this.bytesRead = DistributionSummary.builder("parpt.json.read.bytes")
+                .description("Size of the JSON snapshots read")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.bytesWritten = DistributionSummary.builder("parpt.json.write.bytes")
+                .description("Size of the JSON snapshots written")
+                .baseUnit("bytes")
+                .register(meterRegistry);
     }
 
     @Override
@@ -30,26 +94,257 @@ public class ProjectJsonReaderWriterImpl implements ProjectJsonReaderWriter {
             throw new IllegalArgumentException("Projects list cannot be null");
         }
 
+        writeJson(projects.iterator());
+    }
+
+    @Override
+    public void writeJson(Iterator<Project> projects) {
+        if (projects == null) {
+            throw new IllegalArgumentException("Projects iterator cannot be null");
+        }
+
+        // Written next to the target and renamed over it, so a crash leaves either the old
+        // or the new file in place but never a partial one
+        Path file = Path.of(projectsFilePath);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Timer.Sample sample = Timer.start();
         try {
-            objectMapper.writeValue(new File(projectsFilePath), projects);
+            try (FileChannel channel = FileChannel.open(temp,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE);
+                out.write('[');
+                boolean first = true;
+                while (projects.hasNext()) {
+                    out.write(first ? '\n' : ',');
+                    if (!first) {
+                        out.write('\n');
+                    }
+                    first = false;
+                    writeRecord(out, projectWriter.writeValueAsBytes(projects.next()));
+                }
+                if (!first) {
+                    out.write('\n');
+                }
+                out.write(']');
+                out.write('\n');
+                // Flushed rather than closed, so the channel stays open to be forced
+                out.flush();
+                channel.force(true);
+                bytesWritten.record(channel.size());
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
             throw new RuntimeException("Failed to write projects to JSON file", e);
+        } finally {
+            sample.stop(writeTimer);
         }
     }
 
     @Override
     public List<Project> readJson() {
+        List<Project> projects = new ArrayList<>();
+        readJson(projects::add);
+        return projects;
+    }
+
+    @Override
+    public int readJson(Consumer<Project> consumer) {
         File file = new File(projectsFilePath);
 
         if (!file.exists() || file.length() == 0) {
-            return new ArrayList<>();
+            return 0;
         }
 
+        Timer.Sample sample = Timer.start();
         try {
-            return objectMapper.readValue(file,
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, Project.class));
+            int skipped = isOneProjectPerLine(file) ? readLines(file, consumer) : readDocument(file, consumer);
+            bytesRead.record(file.length());
+            return skipped;
         } catch (IOException e) {
             throw new RuntimeException("Failed to read projects from JSON file", e);
+        } finally {
+            sample.stop(readTimer);
+        }
+    }
+
+    /**
+     * Writes a project's JSON with its checksum spliced in before the closing brace. A
+     * project always has its scores, so its JSON is never an empty object.
+     */
+    private static void writeRecord(OutputStream out, byte[] json) throws IOException {
+        out.write(json, 0, json.length - 1);
+        out.write(CHECKSUM_PREFIX);
+        out.write(HexFormat.of().toHexDigits(checksum(json, json.length)).getBytes(StandardCharsets.US_ASCII));
+        out.write('"');
+        out.write('}');
+    }
+
+    /**
+     * Tells files written one checksummed project per line from those written on a
+     * single line by earlier versions, or reformatted by hand, by their first project.
+     */
+    private static boolean isOneProjectPerLine(File file) throws IOException {
+        try (LineReader lines = new LineReader(Files.newInputStream(file.toPath()))) {
+            byte[] first = lines.next();
+            if (first == null || first.length == 0 || first[0] != '[' || recordLength(first) != 0) {
+                return false;
+            }
+            byte[] second = lines.next();
+            return second != null && hasChecksum(second, recordLength(second));
+        }
+    }
+
+    private int readLines(File file, Consumer<Project> consumer) throws IOException {
+        int skipped = 0;
+        try (LineReader lines = new LineReader(Files.newInputStream(file.toPath()))) {
+            byte[] line;
+            while ((line = lines.next()) != null) {
+                int length = recordLength(line);
+                if (length == 0) {
+                    continue;
+                }
+                Project project = decode(line, length);
+                if (project != null) {
+                    consumer.accept(project);
+                } else {
+                    skipped++;
+                }
+            }
+        }
+        return skipped;
+    }
+
+    /**
+     * Returns the length of the project on a line, leaving out the comma that separates
+     * it from the next one, or 0 if the line holds no project.
+     */
+    private static int recordLength(byte[] line) {
+        int length = line.length;
+        while (length > 0 && (line[length - 1] == ',' || line[length - 1] == '\r' || line[length - 1] == ' ')) {
+            length--;
+        }
+        if (length == 0 || (length == 1 && (line[0] == '[' || line[0] == ']'))) {
+            return 0;
+        }
+        return length;
+    }
+
+    /**
+     * Parses a project line, returning null if it is damaged.
+     */
+    private Project decode(byte[] line, int length) {
+        int jsonLength = length;
+        if (hasChecksum(line, length)) {
+            int digits = length - CHECKSUM_LENGTH - 2;
+            int recorded;
+            try {
+                recorded = HexFormat.fromHexDigits(new String(line, digits, CHECKSUM_LENGTH, StandardCharsets.US_ASCII));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            // Undo the splice: the checksum covers the JSON as it was before the property
+            jsonLength = length - CHECKSUM_SUFFIX_LENGTH + 1;
+            line[jsonLength - 1] = '}';
+            if (checksum(line, jsonLength) != recorded) {
+                return null;
+            }
+        }
+        try {
+            return projectReader.readValue(line, 0, jsonLength);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static boolean hasChecksum(byte[] line, int length) {
+        int start = length - CHECKSUM_SUFFIX_LENGTH;
+        if (start < 1 || line[length - 1] != '}' || line[length - 2] != '"') {
+            return false;
+        }
+        for (int i = 0; i < CHECKSUM_PREFIX.length; i++) {
+            if (line[start + i] != CHECKSUM_PREFIX[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a file written on a single line by earlier versions, which carries no
+     * checksums; a damaged one fails as a whole.
+     */
+    private int readDocument(File file, Consumer<Project> consumer) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(file)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of projects");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                consumer.accept(projectReader.readValue(parser));
+            }
+        }
+        return 0;
+    }
+
+    private static int checksum(byte[] bytes, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Splits a stream into lines by scanning a chunk at a time, rather than a byte per call.
+     */
+    private static final class LineReader implements AutoCloseable {
+        private final InputStream input;
+        private final byte[] buffer = new byte[READ_BUFFER_SIZE];
+        private final ByteArrayOutputStream partial = new ByteArrayOutputStream();
+        private int position;
+        private int limit;
+
+        LineReader(InputStream input) {
+            this.input = input;
+        }
+
+        /**
+         * Returns the next line without its line break, or null at the end of the stream.
+         */
+        byte[] next() throws IOException {
+            while (true) {
+                for (int i = position; i < limit; i++) {
+                    if (buffer[i] == '\n') {
+                        byte[] line = line(i);
+                        position = i + 1;
+                        return line;
+                    }
+                }
+                partial.write(buffer, position, limit - position);
+                position = 0;
+                limit = input.read(buffer);
+                if (limit < 0) {
+                    limit = 0;
+                    if (partial.size() == 0) {
+                        return null;
+                    }
+                    byte[] line = partial.toByteArray();
+                    partial.reset();
+                    return line;
+                }
+            }
+        }
+
+        private byte[] line(int end) {
+            if (partial.size() == 0) {
+                return Arrays.copyOfRange(buffer, position, end);
+            }
+            partial.write(buffer, position, end - position);
+            byte[] line = partial.toByteArray();
+            partial.reset();
+            return line;
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,114 @@
+package com.preponderous.parpt.repo;
+
+import com.preponderous.parpt.domain.Project;
+
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Immutable map from ordinal to project, used for the projects updated since the last
+ * compaction. It is a 32-way trie indexed by the bits of the ordinal, so {@link #with}
+ * copies only the few nodes on the path to that ordinal and shares the rest with the
+ * overlay it came from. Snapshots can therefore keep the overlay they were taken with
+ * while updates keep costing the same however many projects were updated before.
+ */
+final class ProjectOverlay {
+
+    static final ProjectOverlay EMPTY = new ProjectOverlay(null, 0, 0);
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    // Null while empty; otherwise nodes of WIDTH children, with projects at shift 0
+    private final Object[] root;
+    private final int shift;
+    private final int size;
+
+    private ProjectOverlay(Object[] root, int shift, int size) {
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+    }
+
+    /**
+     * Returns the number of projects in the overlay.
+     */
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the project at the given ordinal, or null if it was not updated.
+     */
+    Project get(int ordinal) {
+        if (root == null || ordinal < 0 || (long) ordinal >>> shift >= WIDTH) {
+            return null;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(ordinal >>> level) & MASK];
+            if (node == null) {
+                return null;
+            }
+        }
+        return (Project) node[ordinal & MASK];
+    }
+
+    /**
+     * Returns an overlay with the project at the given ordinal set, leaving this one as it is.
+     */
+    ProjectOverlay with(int ordinal, Project project) {
+        if (ordinal < 0) {
+            throw new IllegalArgumentException("Ordinal must not be negative: " + ordinal);
+        }
+        Object[] newRoot = root == null ? new Object[WIDTH] : root;
+        int newShift = shift;
+        // Grow upwards until the ordinal fits, the old root becoming the first child
+        while ((long) ordinal >>> newShift >= WIDTH) {
+            Object[] grown = new Object[WIDTH];
+            grown[0] = newRoot;
+            newRoot = grown;
+            newShift += BITS;
+        }
+        newRoot = newRoot.clone();
+        Object[] node = newRoot;
+        for (int level = newShift; level > 0; level -= BITS) {
+            int slot = (ordinal >>> level) & MASK;
+            Object[] child = (Object[]) node[slot];
+            child = child == null ? new Object[WIDTH] : child.clone();
+            node[slot] = child;
+            node = child;
+        }
+        boolean added = node[ordinal & MASK] == null;
+        node[ordinal & MASK] = project;
+        return new ProjectOverlay(newRoot, newShift, added ? size + 1 : size);
+    }
+
+    /**
+     * Passes every project in the overlay with its ordinal, in ordinal order.
+     */
+    void forEach(ObjIntConsumer<Project> action) {
+        if (root != null) {
+            forEach(root, shift, 0, action);
+        }
+    }
+
+    private static void forEach(Object[] node, int level, int base, ObjIntConsumer<Project> action) {
+        for (int slot = 0; slot < WIDTH; slot++) {
+            Object child = node[slot];
+            if (child == null) {
+                continue;
+            }
+            int ordinal = base | slot << level;
+            if (level == 0) {
+                action.accept((Project) child, ordinal);
+            } else {
+                forEach((Object[]) child, level - BITS, ordinal, action);
+            }
+        }
+    }
+}
@@ -1,52 +1,864 @@
 package com.preponderous.parpt.repo;
 
 import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ProjectAnswers;
+import com.preponderous.parpt.domain.ScoreColumns;
+import com.preponderous.parpt.domain.ScoreRevision;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+/**
+ * Project store made of a memory-mapped binary snapshot plus the projects added since,
+ * which are kept in a {@link ProjectStore} and recorded in an append-only journal. Once
+ * the journal reaches the compaction threshold both snapshots are rewritten and the
+ * journal is truncated. Projects in the binary snapshot are only decoded when they are
+ * read. Lookups by name go through the exact and case-folded hash indexes that the
+ * binary snapshot and the store each maintain.
+ * Every project has a stable ordinal, its position in {@link #findAll()}, which
+ * registered {@link ProjectRepositoryListener}s use to maintain their own indexes.
+ * <p>
+ * Projects keep their name and description, but their scores can be updated. As rows
+ * are never rewritten, updated projects are kept in an overlay by ordinal until the next
+ * compaction writes them into the snapshots. Additions and updates are also recorded in
+ * the {@link ScoreHistory}, which compaction leaves alone.
+ * <p>
+ * The repository is thread-safe. Writers are serialized by a {@link StampedLock};
+ * readers first try an optimistic read and only take the read lock if a write got in
+ * the way. Neither the binary snapshot nor a store ever changes a row once written, the
+ * overlay is a persistent {@link ProjectOverlay} whose updates share all but a few
+ * nodes with the previous version, and clearing or compacting swaps in a fresh store
+ * rather than emptying the current one, so {@link #snapshot()} can hand out immutable
+ * views without copying any projects.
+ * <p>
+ * Several processes may share the same files. Every write holds the {@link ProjectFileLock}
+ * and first merges what other processes appended to the journal since, so a name taken
+ * elsewhere is rejected here as well. {@link #refresh()} merges those changes without
+ * writing; if another process compacted the files, the snapshots are remapped and
+ * listeners are told to start over.
+ * <p>
+ * Writes append to the journal before returning, but forcing the journal to disk and
+ * compacting it are left to the {@link FlushScheduler}, which coalesces bursts of
+ * mutations into a single flush.
+ * <p>
+ * Loading can happen on a background thread so that the shell prompt does not wait for
+ * it; every operation then blocks until {@link #loaded()} completes.
+ * <p>
+ * Operations are timed under the {@code parpt.repository} timer, tagged by operation.
+ * Damaged records skipped while reading the JSON snapshot or the journal are logged.
+ */
 @Repository
 public class ProjectRepository {
-    private final List<Project> projects;
+    private static final Logger log = LoggerFactory.getLogger(ProjectRepository.class);
+
+    private final StampedLock lock = new StampedLock();
+    private final ProjectStore.Factory storeFactory;
+    private final List<ProjectRepositoryListener> listeners = new CopyOnWriteArrayList<>();
     private final ProjectJsonReaderWriter projectJsonReaderWriter;
+    private final ProjectBinaryReaderWriter projectBinaryReaderWriter;
+    private final ProjectJournal projectJournal;
+    private final ScoreHistory scoreHistory;
+    private final ProjectFileLock projectFileLock;
+    private final FlushScheduler flushScheduler;
+    private final Runnable journalSync;
+    private final Runnable compaction;
+    private final int compactionThreshold;
+    private final CompletableFuture<Void> loaded;
+    private final Timer loadTimer;
+    private final Timer addTimer;
+    private final Timer addAllTimer;
+    private final Timer updateTimer;
+    private final Timer findTimer;
+    private final Timer findAllTimer;
+    private final Timer refreshTimer;
+    private final Timer compactTimer;
+    private BinaryProjectSnapshot snapshot;
+    private ProjectStore store;
+    // Updated projects by ordinal, replaced as a whole on every update
+    private ProjectOverlay updated = ProjectOverlay.EMPTY;
+    private long version;
+    private String snapshotVersion;
+    // Set when replay meets a clear that was journaled but not yet folded into the snapshots
+    private boolean clearReplayed;
 
-    public ProjectRepository(ProjectJsonReaderWriter projectJsonReaderWriter) {
+    public ProjectRepository(
+            ProjectJsonReaderWriter projectJsonReaderWriter,
+            ProjectBinaryReaderWriter projectBinaryReaderWriter,
+            ProjectJournal projectJournal,
+            ScoreHistory scoreHistory,
+            ProjectFileLock projectFileLock,
+            FlushScheduler flushScheduler,
+            ProjectStore.Factory storeFactory,
+            MeterRegistry meterRegistry,
+            @Value("${app.projects.journal.compaction-threshold:1000}") int compactionThreshold,
+            @Value("${app.projects.load.async:true}") boolean asyncLoad) {
+        this.storeFactory = storeFactory;
         this.projectJsonReaderWriter = projectJsonReaderWriter;
-        this.projects = projectJsonReaderWriter.readJson();
+        this.projectBinaryReaderWriter = projectBinaryReaderWriter;
+        this.projectJournal = projectJournal;
+        this.scoreHistory = scoreHistory;
+        this.projectFileLock = projectFileLock;
+        this.flushScheduler = flushScheduler;
+        this.journalSync = () -> {
+            projectJournal.sync();
+            scoreHistory.sync();
+        };
+        this.compaction = () -> {
+            compactIfDue();
+            scoreHistory.sync();
+        };
+        this.compactionThreshold = compactionThreshold;
+        this.loadTimer = timer(meterRegistry, "load");
+        this.addTimer = timer(meterRegistry, "add");
+        this.addAllTimer = timer(meterRegistry, "addAll");
+        this.updateTimer = timer(meterRegistry, "update");
+        this.findTimer = timer(meterRegistry, "find");
+        this.findAllTimer = timer(meterRegistry, "findAll");
+        this.refreshTimer = timer(meterRegistry, "refresh");
+        this.compactTimer = timer(meterRegistry, "compact");
+        Runnable load = () -> {
+            try (ProjectFileLock.Handle ignored = projectFileLock.acquire()) {
+                loadLocked();
+            }
+        };
+        if (asyncLoad) {
+            this.loaded = CompletableFuture.runAsync(load, runnable -> {
+                Thread thread = new Thread(runnable, "parpt-loader");
+                thread.setDaemon(true);
+                thread.start();
+            });
+        } else {
+            load.run();
+            this.loaded = CompletableFuture.completedFuture(null);
+        }
     }
 
+    /**
+     * Completes once the projects have been loaded, or exceptionally if loading failed.
+     */
+    public CompletableFuture<Void> loaded() {
+        return loaded.copy();
+    }
+
+    /**
+     * Returns an immutable view of every project. No projects are copied.
+     */
     public List<Project> findAll() {
-        return new ArrayList<>(projects);
+        return findAllTimer.record(this::snapshot);
+    }
+
+    /**
+     * Returns an immutable view of the projects as of this call, tagged with the
+     * repository version it was taken at.
+     */
+    public Snapshot snapshot() {
+        return readOptimistic(this::snapshotLocked);
+    }
+
+    /**
+     * Runs the reader against a snapshot while holding the read lock, so nothing is
+     * added or cleared until it returns and listeners are only told about changes made
+     * after the snapshot. The reader must not modify the repository.
+     */
+    public <T> T read(Function<Snapshot, T> reader) {
+        awaitLoaded();
+        long stamp = lock.readLock();
+        try {
+            return reader.apply(snapshotLocked());
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns at most {@code limit} projects starting at the given ordinal, so callers can
+     * page through the repository without copying all of it.
+     */
+    public List<Project> findRange(int offset, int limit) {
+        List<Project> all = snapshot();
+        int from = Math.min(offset, all.size());
+        int to = (int) Math.min((long) from + limit, all.size());
+        return new ArrayList<>(all.subList(from, to));
+    }
+
+    public int size() {
+        return readOptimistic(this::sizeLocked);
+    }
+
+    /**
+     * Returns the project at the given ordinal.
+     */
+    public Project get(int ordinal) {
+        return readOptimistic(() -> allProjects().get(ordinal));
+    }
+
+    /**
+     * Returns the scores of every project as primitive columns indexed by ordinal.
+     */
+    public ScoreColumns scoreColumns() {
+        return snapshot().scoreColumns();
+    }
+
+    /**
+     * Registers a listener. Listeners are called while the repository is locked for
+     * writing, in ordinal order, and must not call back into the repository.
+     */
+    public void addListener(ProjectRepositoryListener listener) {
+        listeners.add(listener);
     }
 
     public void clear() {
-        projects.clear();
-        projectJsonReaderWriter.writeJson(projects);
+        long stamp = writeLock();
+        try (ProjectFileLock.Handle ignored = projectFileLock.acquire()) {
+            // Journal the clear before touching anything else, so a crash part way through
+            // replays to an empty portfolio rather than bringing back journaled projects
+            projectJournal.append(JournalEntry.clear());
+            projectJournal.sync();
+            emptyLocked();
+            version++;
+            finishClearLocked();
+            listeners.forEach(ProjectRepositoryListener::projectsCleared);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     public void add(Project project) throws NameTakenException {
-        if (projects.stream().anyMatch(p -> p.getName().equals(project.getName()))) {
-            throw new NameTakenException("Project with the same name already exists");
+        Timer.Sample sample = Timer.start();
+        try {
+            boolean compactionDue;
+            long stamp = writeLock();
+            try (ProjectFileLock.Handle ignored = projectFileLock.acquire()) {
+                syncLocked();
+                if (existsLocked(project.getName())) {
+                    throw new NameTakenException("Project with the same name already exists",
+                            List.of(project.getName()));
+                }
+                store.add(project);
+                version++;
+                projectJournal.append(JournalEntry.add(project));
+                scoreHistory.appendAdded(sizeLocked() - 1, 1);
+                compactionDue = projectJournal.size() >= compactionThreshold;
+                notifyAdded(sizeLocked() - 1, project);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            // Outside the locks: with no flush delay the flush runs right here and takes them itself
+            flushScheduler.request(compactionDue ? compaction : journalSync);
+        } finally {
+            sample.stop(addTimer);
+        }
+    }
+
+    /**
+     * Adds a batch of projects with a single persistence flush. Either every project is
+     * added or, if any name is taken or repeated within the batch, none are and the
+     * exception lists every such name, so the caller can drop those and retry. A batch
+     * that would fill the journal is compacted straight away, since journaling it would
+     * write as much as the snapshots do.
+     */
+    public void addAll(List<Project> batch) throws NameTakenException {
+        Timer.Sample sample = Timer.start();
+        try {
+            long stamp = writeLock();
+            try (ProjectFileLock.Handle ignored = projectFileLock.acquire()) {
+                syncLocked();
+                Set<String> batchNames = new HashSet<>();
+                List<String> taken = new ArrayList<>();
+                for (Project project : batch) {
+                    if (existsLocked(project.getName()) || !batchNames.add(project.getName())) {
+                        taken.add(project.getName());
+                    }
+                }
+                if (!taken.isEmpty()) {
+                    throw new NameTakenException("Project with the same name already exists: "
+                            + String.join(", ", taken), taken);
+                }
+                int firstOrdinal = sizeLocked();
+                batch.forEach(store::add);
+                version++;
+                if (projectJournal.size() + batch.size() < compactionThreshold) {
+                    projectJournal.appendAll(batch.stream().map(JournalEntry::add).toList());
+                } else {
+                    compactLocked();
+                }
+                if (!batch.isEmpty()) {
+                    scoreHistory.appendAdded(firstOrdinal, batch.size());
+                }
+                for (int i = 0; i < batch.size(); i++) {
+                    notifyAdded(firstOrdinal + i, batch.get(i));
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            // Even after compacting, the score history still needs syncing
+            flushScheduler.request(journalSync);
+        } finally {
+            sample.stop(addAllTimer);
+        }
+    }
+
+    /**
+     * Replaces the given scores of the named project, recording what changed in the
+     * score history. Scores passed as null keep their current value, which is read after
+     * merging what other processes wrote, so concurrent updates of different scores
+     * don't undo each other. The raw answers behind a changed score no longer apply and
+     * are dropped. Nothing is recorded if no score changes.
+     *
+     * @return the project as it was before and after the update
+     */
+    public ScoreUpdate update(String projectName, Integer impact, Integer confidence, Integer ease, Integer reach,
+                              Integer effort) throws ProjectNotFoundException {
+        Timer.Sample sample = Timer.start();
+        try {
+            Project previous;
+            Project project;
+            boolean compactionDue;
+            long stamp = writeLock();
+            try (ProjectFileLock.Handle ignored = projectFileLock.acquire()) {
+                syncLocked();
+                int ordinal = indexOfLocked(projectName);
+                if (ordinal < 0) {
+                    throw new ProjectNotFoundException("Project not found: " + projectName);
+                }
+                previous = projectLocked(ordinal);
+                project = rescored(previous,
+                        impact == null ? previous.getImpact() : impact,
+                        confidence == null ? previous.getConfidence() : confidence,
+                        ease == null ? previous.getEase() : ease,
+                        reach == null ? previous.getReach() : reach,
+                        effort == null ? previous.getEffort() : effort);
+                int deltas = ScoreRevision.deltas(previous, project);
+                if (deltas == 0) {
+                    return new ScoreUpdate(previous, previous);
+                }
+                updated = updated.with(ordinal, project);
+                version++;
+                projectJournal.append(JournalEntry.update(project));
+                scoreHistory.appendUpdated(ordinal, deltas);
+                compactionDue = projectJournal.size() >= compactionThreshold;
+                notifyUpdated(ordinal, previous, project);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            flushScheduler.request(compactionDue ? compaction : journalSync);
+            return new ScoreUpdate(previous, project);
+        } finally {
+            sample.stop(updateTimer);
         }
-        projects.add(project);
-        projectJsonReaderWriter.writeJson(projects);
     }
 
     public Project findByName(String projectName) throws ProjectNotFoundException {
-        Project retrievedProject = projects.stream()
-                .filter(project -> project.getName().equals(projectName))
-                .findFirst()
-                .orElse(null);
-        if (retrievedProject == null) {
-            throw new ProjectNotFoundException("Project not found: " + projectName);
+        return findOptional(projectName)
+                .orElseThrow(() -> new ProjectNotFoundException("Project not found: " + projectName));
+    }
+
+    public Optional<Project> findOptional(String projectName) {
+        return findTimer.record(() -> readOptimistic(() -> {
+            int ordinal = indexOfLocked(projectName);
+            return ordinal < 0 ? Optional.empty() : Optional.of(projectLocked(ordinal));
+        }));
+    }
+
+    /**
+     * Looks up a project by name ignoring case. An exact match wins; otherwise the
+     * first project added under the case-folded name is returned.
+     */
+    public Optional<Project> findOptionalIgnoreCase(String projectName) {
+        if (projectName == null) {
+            return Optional.empty();
+        }
+        Optional<Project> exact = findOptional(projectName);
+        if (exact.isPresent()) {
+            return exact;
+        }
+        return readOptimistic(() -> {
+            int ordinal = snapshot.indexOfIgnoreCase(projectName);
+            if (ordinal >= 0) {
+                return Optional.of(projectLocked(ordinal));
+            }
+            int row = store.indexOfIgnoreCase(projectName);
+            return row < 0 ? Optional.empty() : Optional.of(projectLocked(snapshot.size() + row));
+        });
+    }
+
+    public boolean exists(String projectName) {
+        return readOptimistic(() -> existsLocked(projectName));
+    }
+
+    /**
+     * Rewrites the JSON and binary snapshots from the current projects, truncates the
+     * journal and switches over to the freshly mapped binary snapshot.
+     */
+    public void compact() {
+        long stamp = writeLock();
+        try (ProjectFileLock.Handle ignored = projectFileLock.acquire()) {
+            syncLocked();
+            compactLocked();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Merges the changes other processes made to the project files since this
+     * repository last looked at them.
+     */
+    public void refresh() {
+        refreshTimer.record(() -> {
+            long stamp = writeLock();
+            try (ProjectFileLock.Handle ignored = projectFileLock.acquire()) {
+                syncLocked();
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        if (loaded.isCompletedExceptionally()) {
+            // Nothing was loaded, so there is nothing to save
+            return;
+        }
+        long stamp = writeLock();
+        try (ProjectFileLock.Handle ignored = projectFileLock.acquire()) {
+            syncLocked();
+            if (projectJournal.size() > 0) {
+                compactLocked();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("parpt.repository")
+                .description("Time spent in project repository operations")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    static String normalize(String projectName) {
+        return projectName.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Runs a read, first optimistically and, if a writer interfered, again under the
+     * read lock. Stores are not thread-safe, so an optimistic read that races a writer
+     * may fail or return garbage; either way the stamp no longer validates and the
+     * result is discarded.
+     */
+    private <T> T readOptimistic(Supplier<T> reader) {
+        awaitLoaded();
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private long writeLock() {
+        awaitLoaded();
+        return lock.writeLock();
+    }
+
+    private void awaitLoaded() {
+        try {
+            loaded.join();
+        } catch (CompletionException e) {
+            // Never fall back to an empty repository: a later compaction would wipe the files
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Failed to load projects", e.getCause());
+        }
+    }
+
+    private int sizeLocked() {
+        return snapshot.size() + store.size();
+    }
+
+    private boolean existsLocked(String projectName) {
+        return store.indexOf(projectName) >= 0 || snapshot.indexOf(projectName) >= 0;
+    }
+
+    private int indexOfLocked(String projectName) {
+        int row = store.indexOf(projectName);
+        return row >= 0 ? snapshot.size() + row : snapshot.indexOf(projectName);
+    }
+
+    private Project projectLocked(int ordinal) {
+        Project project = updated.get(ordinal);
+        if (project != null) {
+            return project;
+        }
+        return ordinal < snapshot.size() ? snapshot.get(ordinal) : store.get(ordinal - snapshot.size());
+    }
+
+    private Snapshot snapshotLocked() {
+        return new Snapshot(snapshot, store, updated, scoreHistory.size(), version);
+    }
+
+    private static Project rescored(Project previous, int impact, int confidence, int ease, int reach, int effort) {
+        Project project = Project.builder()
+                .name(previous.getName())
+                .description(previous.getDescription())
+                .impact(impact)
+                .confidence(confidence)
+                .ease(ease)
+                .reach(reach)
+                .effort(effort)
+                .build();
+        long answers = previous.getAnswers();
+        for (int dimension = 0; dimension < ProjectAnswers.DIMENSIONS; dimension++) {
+            if (ScoreRevision.score(previous, dimension) != ScoreRevision.score(project, dimension)) {
+                answers = ProjectAnswers.without(answers, dimension);
+            }
+        }
+        project.setAnswers(answers);
+        project.setPromptSetVersion(answers == ProjectAnswers.NONE ? 0 : previous.getPromptSetVersion());
+        return project;
+    }
+
+    private void loadLocked() {
+        loadTimer.record(this::readFilesLocked);
+    }
+
+    private void readFilesLocked() {
+        snapshotVersion = projectBinaryReaderWriter.snapshotVersion();
+        snapshot = projectBinaryReaderWriter.readBinary().orElse(null);
+        store = storeFactory.create();
+        updated = ProjectOverlay.EMPTY;
+        if (snapshot == null) {
+            snapshot = BinaryProjectSnapshot.empty();
+            int skipped = projectJsonReaderWriter.readJson(store::add);
+            if (skipped > 0) {
+                log.warn("Skipped {} damaged projects while reading the JSON snapshot", skipped);
+            }
+        }
+        reportSkippedEntries(projectJournal.replay(entry -> apply(entry, false)));
+        if (clearReplayed) {
+            finishClearLocked();
+        }
+        scoreHistory.replay();
+    }
+
+    /**
+     * Catches up with other processes. Must be called while holding both locks.
+     */
+    private void syncLocked() {
+        if (!projectBinaryReaderWriter.snapshotVersion().equals(snapshotVersion)) {
+            // Another process compacted or replaced the snapshots, so the journal we have
+            // been following is gone and ordinals may have moved
+            loadLocked();
+            version++;
+            listeners.forEach(ProjectRepositoryListener::projectsCleared);
+            return;
+        }
+        reportSkippedEntries(projectJournal.replayNew(entry -> {
+            if (apply(entry, true)) {
+                version++;
+            }
+        }));
+        if (clearReplayed) {
+            finishClearLocked();
+        }
+        scoreHistory.replayNew();
+    }
+
+    private void emptyLocked() {
+        snapshot = BinaryProjectSnapshot.empty();
+        store = storeFactory.create();
+        updated = ProjectOverlay.EMPTY;
+    }
+
+    /**
+     * Completes a clear once the journal records it: drops the score history, which
+     * refers to projects that are gone, then rewrites the snapshots and truncates the
+     * journal. Each step can be repeated, so a crash in between is finished by the next
+     * replay.
+     */
+    private void finishClearLocked() {
+        clearReplayed = false;
+        scoreHistory.truncate();
+        compactLocked();
+    }
+
+    private static void reportSkippedEntries(int skipped) {
+        if (skipped > 0) {
+            log.warn("Skipped {} damaged journal entries", skipped);
+        }
+    }
+
+    private void compactIfDue() {
+        long stamp = writeLock();
+        try (ProjectFileLock.Handle ignored = projectFileLock.acquire()) {
+            syncLocked();
+            if (projectJournal.size() >= compactionThreshold) {
+                compactLocked();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void compactLocked() {
+        compactTimer.record(this::writeFilesLocked);
+    }
+
+    private void writeFilesLocked() {
+        List<Project> all = allProjects();
+        // JSON first: a binary snapshot older than the JSON one is ignored on startup
+        projectJsonReaderWriter.writeJson(all.iterator());
+        projectBinaryReaderWriter.writeBinary(all);
+        projectJournal.truncate();
+        snapshotVersion = projectBinaryReaderWriter.snapshotVersion();
+        BinaryProjectSnapshot written = projectBinaryReaderWriter.readBinary().orElse(null);
+        if (written != null && written.size() == all.size()) {
+            snapshot = written;
+            store = storeFactory.create();
+            updated = ProjectOverlay.EMPTY;
+        }
+    }
+
+    /**
+     * Returns a read-through view over the snapshot followed by the projects added since.
+     * Only for use while holding the lock.
+     */
+    private List<Project> allProjects() {
+        BinaryProjectSnapshot base = snapshot;
+        ProjectStore added = store;
+        ProjectOverlay overlay = updated;
+        return new AbstractList<>() {
+            @Override
+            public Project get(int index) {
+                Project project = overlay.get(index);
+                if (project != null) {
+                    return project;
+                }
+                return index < base.size() ? base.get(index) : added.get(index - base.size());
+            }
+
+            @Override
+            public int size() {
+                return base.size() + added.size();
+            }
+        };
+    }
+
+    /**
+     * Applies a journal entry to the in-memory projects.
+     *
+     * @param notify whether to tell listeners about the change
+     * @return whether the entry changed anything
+     */
+    private boolean apply(JournalEntry entry, boolean notify) {
+        Project project = entry.getProject();
+        return switch (entry.getOperation()) {
+            case ADD -> {
+                // A crash between writing the snapshot and truncating the journal leaves
+                // entries that are already part of the snapshot, so replay must be idempotent.
+                if (existsLocked(project.getName())) {
+                    yield false;
+                }
+                store.add(project);
+                if (notify) {
+                    notifyAdded(sizeLocked() - 1, project);
+                }
+                yield true;
+            }
+            case UPDATE -> {
+                int ordinal = indexOfLocked(project.getName());
+                if (ordinal < 0) {
+                    yield false;
+                }
+                // Likewise, the snapshot may already hold the new scores
+                Project previous = projectLocked(ordinal);
+                if (ScoreRevision.deltas(previous, project) == 0) {
+                    yield false;
+                }
+                updated = updated.with(ordinal, project);
+                if (notify) {
+                    notifyUpdated(ordinal, previous, project);
+                }
+                yield true;
+            }
+            case CLEAR -> {
+                emptyLocked();
+                clearReplayed = true;
+                if (notify) {
+                    listeners.forEach(ProjectRepositoryListener::projectsCleared);
+                }
+                yield true;
+            }
+        };
+    }
+
+    private void notifyAdded(int ordinal, Project project) {
+        for (ProjectRepositoryListener listener : listeners) {
+            listener.projectAdded(ordinal, project);
+        }
+    }
+
+    private void notifyUpdated(int ordinal, Project previous, Project project) {
+        for (ProjectRepositoryListener listener : listeners) {
+            listener.projectUpdated(ordinal, previous, project);
+        }
+    }
+
+    /**
+     * Immutable view of the projects at one repository version. Rows added to the
+     * underlying store after the view was taken are not visible through it.
+     */
+    public final class Snapshot extends AbstractList<Project> implements RandomAccess {
+        private final BinaryProjectSnapshot base;
+        private final ProjectStore added;
+        private final int addedSize;
+        private final ProjectOverlay overlay;
+        private final int revisions;
+        private final long version;
+
+        private Snapshot(BinaryProjectSnapshot base, ProjectStore added, ProjectOverlay overlay,
+                         int revisions, long version) {
+            this.base = base;
+            this.added = added;
+            this.addedSize = added.size();
+            this.overlay = overlay;
+            this.revisions = revisions;
+            this.version = version;
+        }
+
+        /**
+         * Returns the repository version this view was taken at. The version changes
+         * whenever projects are added, updated or cleared.
+         */
+        public long version() {
+            return version;
+        }
+
+        @Override
+        public Project get(int index) {
+            Objects.checkIndex(index, size());
+            Project project = overlay.get(index);
+            if (project != null) {
+                return project;
+            }
+            if (index < base.size()) {
+                return base.get(index);
+            }
+            return readOptimistic(() -> added.get(index - base.size()));
+        }
+
+        /**
+         * Returns the ordinal of the project with exactly the given name, or -1 if there
+         * is no such project in this view.
+         */
+        public int indexOf(String projectName) {
+            int row = readOptimistic(() -> added.indexOf(projectName));
+            if (row >= 0) {
+                return row < addedSize ? base.size() + row : -1;
+            }
+            return base.indexOf(projectName);
+        }
+
+        /**
+         * Returns the number of score revisions recorded as of this view.
+         */
+        public int revisions() {
+            return revisions;
+        }
+
+        /**
+         * Returns a score revision, oldest first.
+         */
+        public ScoreRevision revision(int index) {
+            Objects.checkIndex(index, revisions);
+            return readOptimistic(() -> scoreHistory.get(index));
+        }
+
+        @Override
+        public int size() {
+            return base.size() + addedSize;
+        }
+
+        /**
+         * Returns the scores of the projects in this view as primitive columns indexed
+         * by ordinal.
+         */
+        public ScoreColumns scoreColumns() {
+            ScoreColumns columns = new ScoreColumns(size());
+            base.copyScores(columns);
+            readOptimistic(() -> {
+                added.copyScores(columns, base.size(), addedSize);
+                return null;
+            });
+            overlay.forEach((project, ordinal) -> {
+                if (ordinal < columns.size()) {
+                    columns.set(ordinal, project);
+                }
+            });
+            return columns;
+        }
+    }
+
+    /**
+     * A project as it was before and after {@link #update}; the same project twice if no
+     * score changed.
+     */
+    public record ScoreUpdate(Project previous, Project project) {
+        public boolean changed() {
+            return previous != project;
         }
-        return retrievedProject;
     }
 
     public static class NameTakenException extends Exception {
-        public NameTakenException(String message) {
+        private final List<String> names;
+
+        public NameTakenException(String message, List<String> names) {
             super(message);
+            this.names = List.copyOf(names);
+        }
+
+        /**
+         * Returns the names that were taken, in the order they were given.
+         */
+        public List<String> getNames() {
+            return names;
         }
     }
 
@@ -55,4 +867,4 @@ public class ProjectRepository {
             super(message);
         }
     }
-}
\ No newline at end of file
+}
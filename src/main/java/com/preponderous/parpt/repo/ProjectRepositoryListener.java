@@ -0,0 +1,33 @@
+package com.preponderous.parpt.repo;
+
+import com.preponderous.parpt.domain.Project;
+
+/**
+ * Receives notifications about mutations of the {@link ProjectRepository} so that
+ * derived indexes can be kept up to date incrementally instead of being rebuilt.
+ */
+public interface ProjectRepositoryListener {
+    /**
+     * Called after a project has been added.
+     *
+     * @param ordinal the position of the project in the repository
+     * @param project the project that was added
+     */
+    void projectAdded(int ordinal, Project project);
+
+    /**
+     * Called after the scores of a project have been updated. Its name and description
+     * stay the same.
+     *
+     * @param ordinal  the position of the project in the repository
+     * @param previous the project as it was before the update
+     * @param project  the project as it is now
+     */
+    void projectUpdated(int ordinal, Project previous, Project project);
+
+    /**
+     * Called after all projects have been removed or replaced, for instance by another
+     * process compacting the shared files. Ordinals seen before are no longer valid.
+     */
+    void projectsCleared();
+}
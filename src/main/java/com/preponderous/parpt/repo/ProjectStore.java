@@ -0,0 +1,59 @@
+package com.preponderous.parpt.repo;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ScoreColumns;
+
+/**
+ * Growable in-memory storage for projects, addressed by row. Implementations decide
+ * how projects are laid out in memory and maintain their own name index.
+ * <p>
+ * Stores are not thread-safe; {@link ProjectRepository} guards them with its lock.
+ * Rows are only ever appended, so a row below a previously observed size never changes.
+ */
+public interface ProjectStore {
+    /**
+     * Appends a project.
+     *
+     * @param project the project to store
+     * @return the row the project was stored at
+     */
+    int add(Project project);
+
+    /**
+     * Returns the project stored at the given row. Implementations may return a new
+     * instance on every call.
+     */
+    Project get(int row);
+
+    /**
+     * Finds the row of the project with exactly the given name.
+     *
+     * @return the row, or -1 if there is no such project
+     */
+    int indexOf(String projectName);
+
+    /**
+     * Finds the row of the first project whose name matches ignoring case.
+     *
+     * @return the row, or -1 if there is no such project
+     */
+    int indexOfIgnoreCase(String projectName);
+
+    int size();
+
+    void clear();
+
+    /**
+     * Copies the scores of the first {@code rows} stored projects into the target
+     * columns, starting at row {@code offset} of the target.
+     */
+    void copyScores(ScoreColumns target, int offset, int rows);
+
+    /**
+     * Creates empty stores of one kind.
+     */
+    @FunctionalInterface
+    interface Factory {
+        ProjectStore create();
+    }
+}
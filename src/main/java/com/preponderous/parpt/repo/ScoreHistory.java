@@ -0,0 +1,65 @@
+package com.preponderous.parpt.repo;
+
+import com.preponderous.parpt.domain.ScoreRevision;
+
+/**
+ * Append-only log of {@link ScoreRevision}s: when projects were added and how their
+ * scores changed since. Unlike the journal it is never folded into the snapshots, as it
+ * is the only record of past scores, so revisions are stored in a few bytes each. Every
+ * revision read or written is also kept in memory, in the order it was recorded, for
+ * answering questions about the past.
+ * <p>
+ * Timestamps never decrease along the log, even if the clock does, so the revisions made
+ * up to some moment are always a prefix of it.
+ * <p>
+ * Like the journal, several processes may share one history, and it remembers how far
+ * this process has read or written it so that revisions appended by others can be
+ * picked up with {@link #replayNew()}.
+ */
+public interface ScoreHistory {
+    /**
+     * Records that {@code count} projects were added, starting at the given ordinal.
+     *
+     * @return the recorded revision
+     */
+    ScoreRevision appendAdded(int firstOrdinal, int count);
+
+    /**
+     * Records that the scores of the project at the given ordinal changed.
+     *
+     * @param deltas the changes as packed by {@link ScoreRevision#deltas}
+     * @return the recorded revision
+     */
+    ScoreRevision appendUpdated(int ordinal, int deltas);
+
+    /**
+     * Forgets the revisions in memory and reads the whole history again.
+     */
+    void replay();
+
+    /**
+     * Reads the revisions appended since this process last read or appended to the
+     * history. A trailing revision that is still being written is left for the next call.
+     */
+    void replayNew();
+
+    /**
+     * Returns the number of revisions read or written so far.
+     */
+    int size();
+
+    /**
+     * Returns the revision at the given position, oldest first.
+     */
+    ScoreRevision get(int index);
+
+    /**
+     * Forces appended revisions to disk.
+     */
+    void sync();
+
+    /**
+     * Discards every revision, for when the projects they refer to are gone.
+     */
+    void truncate();
+}
@@ -0,0 +1,285 @@
+package com.preponderous.parpt.repo;
+
+import com.preponderous.parpt.domain.ProjectAnswers;
+import com.preponderous.parpt.domain.ScoreRevision;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Stores revisions after an eight-byte header as three unsigned varints each: the
+ * milliseconds since the previous revision (or since the epoch for the first), the
+ * ordinal, and a payload. The low bit of the payload tells additions, whose remaining
+ * bits are the count, from changes, whose remaining bits are a five-bit mask of the
+ * changed dimensions followed by four bits for each of them. Changing one score thus
+ * takes around eight bytes.
+ * <p>
+ * Revisions carry no checksum. A revision cut short by a crash is recognized by its
+ * unfinished varint, ignored and cut off before the next append.
+ */
+@Component
+public class ScoreHistoryImpl implements ScoreHistory {
+
+    static final int MAGIC = 0x50525048; // "PRPH"
+    static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int BITS_PER_DELTA = 4;
+    private static final int DELTA_MASK = (1 << BITS_PER_DELTA) - 1;
+
+    private final Path historyFile;
+    private final Clock clock;
+    private long[] timestamps = new long[16];
+    private int[] ordinals = new int[16];
+    // The packed deltas of a change, or the negated count of an addition
+    private int[] changes = new int[16];
+    private int size;
+    // Byte offset up to which this process has read or written the history
+    private long position;
+
+    @Autowired
+    public ScoreHistoryImpl(@Value("${app.projects.history.file:${app.projects.file}.history}") String historyFilePath) {
+        this(historyFilePath, Clock.systemUTC());
+    }
+
+    public ScoreHistoryImpl(String historyFilePath, Clock clock) {
+        this.historyFile = Path.of(historyFilePath);
+        this.clock = clock;
+    }
+
+    @Override
+    public ScoreRevision appendAdded(int firstOrdinal, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("At least one project must be added");
+        }
+        return get(append(firstOrdinal, -count));
+    }
+
+    @Override
+    public ScoreRevision appendUpdated(int ordinal, int deltas) {
+        if (deltas == 0) {
+            throw new IllegalArgumentException("A change must change at least one score");
+        }
+        return get(append(ordinal, deltas));
+    }
+
+    @Override
+    public void replay() {
+        size = 0;
+        position = 0;
+        replayNew();
+    }
+
+    @Override
+    public void replayNew() {
+        if (!Files.exists(historyFile)) {
+            size = 0;
+            position = 0;
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(historyFile, StandardOpenOption.READ)) {
+            if (channel.size() < position) {
+                // Truncated by another process since we last looked
+                size = 0;
+                position = 0;
+            }
+            channel.position(position);
+            InputStream input = new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024);
+            if (position == 0) {
+                byte[] header = input.readNBytes(HEADER_SIZE);
+                if (header.length < HEADER_SIZE) {
+                    // The header itself is still being written
+                    return;
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(header);
+                if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                    throw new IOException("Not a score history: " + historyFile);
+                }
+                position = HEADER_SIZE;
+            }
+            long[] fields = new long[3];
+            while (true) {
+                int length = readRevision(input, fields);
+                if (length < 0) {
+                    break;
+                }
+                long previous = size == 0 ? 0 : timestamps[size - 1];
+                add(previous + fields[0], (int) fields[1], decodePayload((int) fields[2]));
+                position += length;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to replay score history", e);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public ScoreRevision get(int index) {
+        Objects.checkIndex(index, size);
+        return changes[index] < 0
+                ? ScoreRevision.added(timestamps[index], ordinals[index], -changes[index])
+                : ScoreRevision.updated(timestamps[index], ordinals[index], changes[index]);
+    }
+
+    @Override
+    public void sync() {
+        try (FileChannel channel = FileChannel.open(historyFile, StandardOpenOption.WRITE)) {
+            channel.force(false);
+        } catch (NoSuchFileException e) {
+            // Nothing has been recorded yet
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to sync score history", e);
+        }
+    }
+
+    @Override
+    public void truncate() {
+        try {
+            Files.deleteIfExists(historyFile);
+            size = 0;
+            position = 0;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to truncate score history", e);
+        }
+    }
+
+    /**
+     * Writes a revision stamped with the current time, or with the previous revision's
+     * time if the clock went back. Callers hold the file lock and have caught up with the
+     * history, so anything past {@link #position} is a torn revision.
+     *
+     * @return the index of the new revision
+     */
+    private int append(int ordinal, int change) {
+        long previous = size == 0 ? 0 : timestamps[size - 1];
+        long timestamp = Math.max(clock.millis(), previous);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16);
+        if (position == 0) {
+            bytes.writeBytes(ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).array());
+        }
+        writeVarint(bytes, timestamp - previous);
+        writeVarint(bytes, ordinal);
+        writeVarint(bytes, Integer.toUnsignedLong(encodePayload(change)));
+
+        try (FileChannel channel = FileChannel.open(historyFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() > position) {
+                channel.truncate(position);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            long offset = position;
+            while (buffer.hasRemaining()) {
+                offset += channel.write(buffer, offset);
+            }
+            position = offset;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to append to score history", e);
+        }
+        add(timestamp, ordinal, change);
+        return size - 1;
+    }
+
+    private void add(long timestamp, int ordinal, int change) {
+        if (size == timestamps.length) {
+            int capacity = size * 2;
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            ordinals = Arrays.copyOf(ordinals, capacity);
+            changes = Arrays.copyOf(changes, capacity);
+        }
+        timestamps[size] = timestamp;
+        ordinals[size] = ordinal;
+        changes[size] = change;
+        size++;
+    }
+
+    private static int encodePayload(int change) {
+        if (change < 0) {
+            return -change << 1 | 1;
+        }
+        int mask = 0;
+        int packed = 0;
+        int bits = 0;
+        for (int dimension = 0; dimension < ProjectAnswers.DIMENSIONS; dimension++) {
+            int field = change >>> (BITS_PER_DELTA * dimension) & DELTA_MASK;
+            if (field != 0) {
+                mask |= 1 << dimension;
+                packed |= field << bits;
+                bits += BITS_PER_DELTA;
+            }
+        }
+        return (packed << ProjectAnswers.DIMENSIONS | mask) << 1;
+    }
+
+    private static int decodePayload(int payload) {
+        if ((payload & 1) != 0) {
+            return -(payload >>> 1);
+        }
+        int mask = payload >>> 1 & (1 << ProjectAnswers.DIMENSIONS) - 1;
+        int packed = payload >>> (1 + ProjectAnswers.DIMENSIONS);
+        int change = 0;
+        for (int dimension = 0; dimension < ProjectAnswers.DIMENSIONS; dimension++) {
+            if ((mask & 1 << dimension) != 0) {
+                change |= (packed & DELTA_MASK) << (BITS_PER_DELTA * dimension);
+                packed >>>= BITS_PER_DELTA;
+            }
+        }
+        return change;
+    }
+
+    /**
+     * Reads the three varints of a revision into {@code fields}.
+     *
+     * @return the number of bytes read, or -1 if the stream ends before the revision does
+     */
+    private static int readRevision(InputStream input, long[] fields) throws IOException {
+        int length = 0;
+        for (int field = 0; field < fields.length; field++) {
+            long value = 0;
+            int shift = 0;
+            while (true) {
+                int b = input.read();
+                if (b < 0) {
+                    return -1;
+                }
+                length++;
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+                shift += 7;
+                if (shift >= Long.SIZE) {
+                    throw new IOException("Malformed revision in score history");
+                }
+            }
+            fields[field] = value;
+        }
+        return length;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
@@ -0,0 +1,366 @@
+package com.preponderous.parpt.score;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ScoreColumns;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A scoring model defined by an arithmetic expression over the five dimensions of a
+ * project, such as {@code impact^2 * confidence / effort} or
+ * {@code 0.6 * impact + 0.4 * reach}.
+ * <p>
+ * An expression combines numbers and dimensions with {@code +}, {@code -}, {@code *},
+ * {@code /}, {@code ^} (power, binding tightest and to the right), unary minus,
+ * parentheses and the functions {@code min}, {@code max}, {@code sqrt} and {@code log}.
+ * <p>
+ * Parsing compiles the expression once into a tree of lambdas, one per operator, with
+ * constant subexpressions folded. As scores only range from 1 to 5, the tree is then run
+ * over all 3125 combinations of scores into a table, and scoring a project is a single
+ * lookup. Only projects holding scores outside that range go through the tree.
+ */
+final class ExpressionScoreModel {
+
+    /**
+     * Project score dimensions, in the order the table's digits and the evaluator's
+     * arguments take them.
+     */
+    static final List<String> DIMENSIONS = List.of("impact", "confidence", "ease", "reach", "effort");
+
+    private static final List<String> FUNCTIONS = List.of("min", "max", "sqrt", "log");
+    private static final int MIN_SCORE = 1;
+    private static final int MAX_SCORE = 5;
+    private static final int VALUES = MAX_SCORE - MIN_SCORE + 1;
+    private static final int TUPLES = VALUES * VALUES * VALUES * VALUES * VALUES;
+
+    private final String expression;
+    private final Evaluator evaluator;
+    private final int[] dimensions;
+    private final double[] table = new double[TUPLES];
+
+    private ExpressionScoreModel(String expression, Evaluator evaluator, int[] dimensions) {
+        this.expression = expression;
+        this.evaluator = evaluator;
+        this.dimensions = dimensions;
+        double[] scores = new double[DIMENSIONS.size()];
+        for (int tuple = 0; tuple < TUPLES; tuple++) {
+            int rest = tuple;
+            for (int dimension = DIMENSIONS.size() - 1; dimension >= 0; dimension--) {
+                scores[dimension] = MIN_SCORE + rest % VALUES;
+                rest /= VALUES;
+            }
+            table[tuple] = evaluator.evaluate(scores);
+            if (!Double.isFinite(table[tuple])) {
+                throw new IllegalArgumentException("The expression is not a finite number for impact "
+                        + (int) scores[0] + ", confidence " + (int) scores[1] + ", ease " + (int) scores[2]
+                        + ", reach " + (int) scores[3] + " and effort " + (int) scores[4] + ".");
+            }
+        }
+    }
+
+    /**
+     * Compiles an expression.
+     *
+     * @throws IllegalArgumentException if the expression is malformed, names an unknown
+     *                                  dimension or function, or is not finite for some valid scores
+     */
+    static ExpressionScoreModel compile(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("The expression is empty.");
+        }
+        Parser parser = new Parser(tokenize(expression));
+        Evaluator evaluator = parser.parseSum();
+        if (!parser.atEnd()) {
+            throw new IllegalArgumentException("Unexpected '" + parser.peek().text + "' at position " + parser.peek().position + ".");
+        }
+        return new ExpressionScoreModel(expression, evaluator, parser.dimensions());
+    }
+
+    /**
+     * Returns the dimensions the expression reads, in ascending order.
+     */
+    int[] dimensions() {
+        return dimensions.clone();
+    }
+
+    double score(Project project) {
+        return score(project.getImpact(), project.getConfidence(), project.getEase(), project.getReach(), project.getEffort());
+    }
+
+    /**
+     * Scores the first {@code length} rows of the columns into {@code out}.
+     */
+    void score(ScoreColumns columns, double[] out, int length) {
+        byte[] impact = columns.impact();
+        byte[] confidence = columns.confidence();
+        byte[] ease = columns.ease();
+        byte[] reach = columns.reach();
+        byte[] effort = columns.effort();
+        for (int i = 0; i < length; i++) {
+            out[i] = score(impact[i], confidence[i], ease[i], reach[i], effort[i]);
+        }
+    }
+
+    /**
+     * Evaluates the expression at arbitrary, possibly fractional, dimension values.
+     */
+    double evaluate(double impact, double confidence, double ease, double reach, double effort) {
+        return evaluator.evaluate(new double[]{impact, confidence, ease, reach, effort});
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private double score(int impact, int confidence, int ease, int reach, int effort) {
+        int tuple = digit(impact);
+        tuple = tuple * VALUES + digit(confidence);
+        tuple = tuple * VALUES + digit(ease);
+        tuple = tuple * VALUES + digit(reach);
+        tuple = tuple * VALUES + digit(effort);
+        if (tuple < 0) {
+            return evaluate(impact, confidence, ease, reach, effort);
+        }
+        return table[tuple];
+    }
+
+    /**
+     * Returns the table digit of a score, or a value that makes the whole tuple negative
+     * if the score is outside the table.
+     */
+    private static int digit(int score) {
+        return score >= MIN_SCORE && score <= MAX_SCORE ? score - MIN_SCORE : -TUPLES;
+    }
+
+    private static List<Token> tokenize(String expression) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < expression.length()) {
+            char c = expression.charAt(i);
+            int start = i;
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (Character.isLetter(c)) {
+                while (i < expression.length() && Character.isLetterOrDigit(expression.charAt(i))) {
+                    i++;
+                }
+            } else if (Character.isDigit(c) || c == '.') {
+                while (i < expression.length() && (Character.isDigit(expression.charAt(i)) || expression.charAt(i) == '.')) {
+                    i++;
+                }
+            } else if ("+-*/^(),".indexOf(c) >= 0) {
+                i++;
+            } else {
+                throw new IllegalArgumentException("Unexpected '" + c + "' at position " + (start + 1) + ".");
+            }
+            tokens.add(new Token(expression.substring(start, i), start + 1));
+        }
+        return tokens;
+    }
+
+    private record Token(String text, int position) {
+        boolean is(String symbol) {
+            return text.equals(symbol);
+        }
+    }
+
+    /**
+     * Computes the value of a subexpression from the dimension values, indexed as in
+     * {@link #DIMENSIONS}.
+     */
+    @FunctionalInterface
+    private interface Evaluator {
+        double evaluate(double[] scores);
+    }
+
+    private record Constant(double value) implements Evaluator {
+        @Override
+        public double evaluate(double[] scores) {
+            return value;
+        }
+    }
+
+    /**
+     * Recursive descent over {@code sum := product (("+" | "-") product)*},
+     * {@code product := unary (("*" | "/") unary)*}, {@code unary := "-" unary | power},
+     * {@code power := atom ("^" unary)?} and
+     * {@code atom := number | dimension | function "(" sum ("," sum)* ")" | "(" sum ")"}.
+     */
+    private static final class Parser {
+        private final List<Token> tokens;
+        private final boolean[] used = new boolean[DIMENSIONS.size()];
+        private int position;
+
+        Parser(List<Token> tokens) {
+            this.tokens = tokens;
+        }
+
+        boolean atEnd() {
+            return position == tokens.size();
+        }
+
+        Token peek() {
+            return tokens.get(position);
+        }
+
+        int[] dimensions() {
+            int count = 0;
+            for (boolean dimension : used) {
+                count += dimension ? 1 : 0;
+            }
+            int[] dimensions = new int[count];
+            count = 0;
+            for (int dimension = 0; dimension < used.length; dimension++) {
+                if (used[dimension]) {
+                    dimensions[count++] = dimension;
+                }
+            }
+            return dimensions;
+        }
+
+        Evaluator parseSum() {
+            Evaluator result = parseProduct();
+            while (!atEnd() && (peek().is("+") || peek().is("-"))) {
+                char operator = tokens.get(position++).text.charAt(0);
+                result = binary(operator, result, parseProduct());
+            }
+            return result;
+        }
+
+        private Evaluator parseProduct() {
+            Evaluator result = parseUnary();
+            while (!atEnd() && (peek().is("*") || peek().is("/"))) {
+                char operator = tokens.get(position++).text.charAt(0);
+                result = binary(operator, result, parseUnary());
+            }
+            return result;
+        }
+
+        private Evaluator parseUnary() {
+            if (!atEnd() && peek().is("-")) {
+                position++;
+                Evaluator operand = parseUnary();
+                if (operand instanceof Constant constant) {
+                    return new Constant(-constant.value());
+                }
+                return scores -> -operand.evaluate(scores);
+            }
+            return parsePower();
+        }
+
+        private Evaluator parsePower() {
+            Evaluator base = parseAtom();
+            if (!atEnd() && peek().is("^")) {
+                position++;
+                return binary('^', base, parseUnary());
+            }
+            return base;
+        }
+
+        private Evaluator parseAtom() {
+            if (atEnd()) {
+                throw new IllegalArgumentException("Expected a number, dimension or '(' at the end of the expression.");
+            }
+            Token token = tokens.get(position++);
+            if (token.is("(")) {
+                Evaluator inner = parseSum();
+                expect(")");
+                return inner;
+            }
+            char first = token.text.charAt(0);
+            if (Character.isDigit(first) || first == '.') {
+                try {
+                    return new Constant(Double.parseDouble(token.text));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Expected a number at position " + token.position + " but found '" + token.text + "'.");
+                }
+            }
+            if (Character.isLetter(first)) {
+                String name = token.text.toLowerCase(Locale.ROOT);
+                int dimension = DIMENSIONS.indexOf(name);
+                if (dimension >= 0) {
+                    used[dimension] = true;
+                    return scores -> scores[dimension];
+                }
+                if (FUNCTIONS.contains(name)) {
+                    return parseCall(name, token);
+                }
+                throw new IllegalArgumentException("Unknown name '" + token.text + "' at position " + token.position
+                        + ". Available names: " + String.join(", ", DIMENSIONS) + ", " + String.join(", ", FUNCTIONS) + ".");
+            }
+            throw new IllegalArgumentException("Expected a number, dimension or '(' at position " + token.position
+                    + " but found '" + token.text + "'.");
+        }
+
+        private Evaluator parseCall(String function, Token token) {
+            expect("(");
+            List<Evaluator> arguments = new ArrayList<>();
+            arguments.add(parseSum());
+            while (!atEnd() && peek().is(",")) {
+                position++;
+                arguments.add(parseSum());
+            }
+            expect(")");
+
+            boolean unary = function.equals("sqrt") || function.equals("log");
+            if (unary && arguments.size() != 1) {
+                throw new IllegalArgumentException("Function '" + function + "' at position " + token.position
+                        + " takes one argument but was given " + arguments.size() + ".");
+            }
+            Evaluator result = arguments.get(0);
+            if (unary) {
+                Evaluator operand = result;
+                Evaluator call = function.equals("sqrt")
+                        ? scores -> Math.sqrt(operand.evaluate(scores))
+                        : scores -> Math.log(operand.evaluate(scores));
+                return operand instanceof Constant ? new Constant(call.evaluate(null)) : call;
+            }
+            for (Evaluator argument : arguments.subList(1, arguments.size())) {
+                result = binary(function.equals("min") ? 'm' : 'M', result, argument);
+            }
+            return result;
+        }
+
+        private void expect(String symbol) {
+            if (atEnd()) {
+                throw new IllegalArgumentException("Expected '" + symbol + "' at the end of the expression.");
+            }
+            Token token = tokens.get(position++);
+            if (!token.is(symbol)) {
+                throw new IllegalArgumentException("Expected '" + symbol + "' at position " + token.position
+                        + " but found '" + token.text + "'.");
+            }
+        }
+
+        /**
+         * Builds the evaluator of one operator, folding it away when both operands are
+         * constant. {@code m} and {@code M} stand for min and max.
+         */
+        private static Evaluator binary(char operator, Evaluator left, Evaluator right) {
+            Evaluator result = switch (operator) {
+                case '+' -> scores -> left.evaluate(scores) + right.evaluate(scores);
+                case '-' -> scores -> left.evaluate(scores) - right.evaluate(scores);
+                case '*' -> scores -> left.evaluate(scores) * right.evaluate(scores);
+                case '/' -> scores -> left.evaluate(scores) / right.evaluate(scores);
+                case '^' -> right instanceof Constant exponent && exponent.value() == 2
+                        ? scores -> {
+                            double base = left.evaluate(scores);
+                            return base * base;
+                        }
+                        : scores -> Math.pow(left.evaluate(scores), right.evaluate(scores));
+                case 'm' -> scores -> Math.min(left.evaluate(scores), right.evaluate(scores));
+                case 'M' -> scores -> Math.max(left.evaluate(scores), right.evaluate(scores));
+                default -> throw new IllegalStateException("Unknown operator: " + operator);
+            };
+            if (left instanceof Constant && right instanceof Constant) {
+                return new Constant(result.evaluate(null));
+            }
+            return result;
+        }
+    }
+}
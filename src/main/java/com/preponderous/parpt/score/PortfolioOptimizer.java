@@ -0,0 +1,300 @@
+package com.preponderous.parpt.score;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ScoreColumns;
+import com.preponderous.parpt.repo.ProjectRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Picks the set of projects with the highest total score whose efforts fit within a
+ * budget, solving the 0/1 knapsack with effort as weight and a scoring model as value.
+ * <p>
+ * Efforts range from 1 to 5, so projects fall into five classes of equal weight, and
+ * within a class the best choice of {@code k} projects is always its {@code k} highest
+ * scoring ones. The dynamic program therefore runs over the five classes rather than
+ * every project, choosing how many to take from each. As a class's best total grows by
+ * less with every further project, the best count for a budget never decreases as the
+ * budget grows, so every budget is solved by divide and conquer over the budgets sharing
+ * a remainder modulo the class weight, split across the fork/join pool.
+ * <p>
+ * The table holds a count per class and budget, so budgets above a configured limit are
+ * instead filled greedily by score per unit of effort, which is fast but not always best.
+ */
+@Component
+public class PortfolioOptimizer {
+
+    private static final int MIN_EFFORT = 1;
+    private static final int MAX_EFFORT = 5;
+    private static final int SEQUENTIAL_THRESHOLD = 4096;
+
+    private final ProjectRepository projectRepository;
+    private final ScoreCalculator scoreCalculator;
+    private final int exactBudgetLimit;
+
+    public PortfolioOptimizer(ProjectRepository projectRepository, ScoreCalculator scoreCalculator,
+                              @Value("${app.optimize.exact-budget-limit:1048576}") int exactBudgetLimit) {
+        this.projectRepository = projectRepository;
+        this.scoreCalculator = scoreCalculator;
+        this.exactBudgetLimit = exactBudgetLimit;
+    }
+
+    /**
+     * Returns the projects with the highest total score under the given model whose
+     * efforts add up to at most {@code budget}, in the order in which they were added.
+     * Efforts outside the valid range are treated as the nearest valid effort.
+     *
+     * @throws IllegalArgumentException if the model is unknown
+     */
+    public Portfolio optimize(String model, int budget) {
+        if (!scoreCalculator.models().contains(model)) {
+            throw new IllegalArgumentException("Unknown scoring model: " + model);
+        }
+        return projectRepository.read(snapshot -> optimize(snapshot, model, budget));
+    }
+
+    private Portfolio optimize(ProjectRepository.Snapshot snapshot, String model, int budget) {
+        ScoreColumns columns = snapshot.scoreColumns();
+        double[] scores = new double[columns.size()];
+        scoreCalculator.score(model, columns, scores);
+        int[][] classes = classes(columns, scores);
+
+        long totalEffort = 0;
+        for (int weight = MIN_EFFORT; weight <= MAX_EFFORT; weight++) {
+            totalEffort += (long) weight * classes[weight].length;
+        }
+        int capacity = (int) Math.min(Math.max(budget, 0), totalEffort);
+        int[] counts;
+        boolean exact = true;
+        if (capacity == totalEffort) {
+            counts = new int[MAX_EFFORT + 1];
+            for (int weight = MIN_EFFORT; weight <= MAX_EFFORT; weight++) {
+                counts[weight] = classes[weight].length;
+            }
+        } else if (capacity <= exactBudgetLimit) {
+            counts = solve(classes, scores, capacity);
+        } else {
+            counts = greedy(classes, scores, capacity);
+            exact = false;
+        }
+
+        int[] chosen = new int[Arrays.stream(counts).sum()];
+        int size = 0;
+        int effort = 0;
+        double value = 0;
+        for (int weight = MIN_EFFORT; weight <= MAX_EFFORT; weight++) {
+            for (int i = 0; i < counts[weight]; i++) {
+                int ordinal = classes[weight][i];
+                chosen[size++] = ordinal;
+                value += scores[ordinal];
+            }
+            effort += weight * counts[weight];
+        }
+        Arrays.sort(chosen);
+        List<Project> projects = new ArrayList<>(chosen.length);
+        for (int ordinal : chosen) {
+            projects.add(snapshot.get(ordinal));
+        }
+        return new Portfolio(projects, effort, value, exact);
+    }
+
+    /**
+     * Splits the ordinals by effort, each class sorted by descending score and then by
+     * ordinal. Sorting packs a score's rank among the distinct scores and the ordinal into
+     * one primitive key.
+     */
+    private static int[][] classes(ScoreColumns columns, double[] scores) {
+        double[] distinct = scores.clone();
+        Arrays.parallelSort(distinct);
+        int distinctCount = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            if (i == 0 || distinct[i] != distinct[i - 1]) {
+                distinct[distinctCount++] = distinct[i];
+            }
+        }
+        int uniqueScores = distinctCount;
+
+        int[] classSizes = new int[MAX_EFFORT + 1];
+        for (int ordinal = 0; ordinal < columns.size(); ordinal++) {
+            classSizes[weight(columns.effort()[ordinal])]++;
+        }
+        long[][] keys = new long[MAX_EFFORT + 1][];
+        for (int weight = MIN_EFFORT; weight <= MAX_EFFORT; weight++) {
+            keys[weight] = new long[classSizes[weight]];
+        }
+        int[] filled = new int[MAX_EFFORT + 1];
+        for (int ordinal = 0; ordinal < columns.size(); ordinal++) {
+            int weight = weight(columns.effort()[ordinal]);
+            long rank = uniqueScores - 1 - Arrays.binarySearch(distinct, 0, uniqueScores, scores[ordinal]);
+            keys[weight][filled[weight]++] = rank << 32 | ordinal;
+        }
+
+        int[][] classes = new int[MAX_EFFORT + 1][];
+        for (int weight = MIN_EFFORT; weight <= MAX_EFFORT; weight++) {
+            long[] classKeys = keys[weight];
+            Arrays.parallelSort(classKeys);
+            classes[weight] = new int[classKeys.length];
+            for (int i = 0; i < classKeys.length; i++) {
+                classes[weight][i] = (int) classKeys[i];
+            }
+        }
+        return classes;
+    }
+
+    private static int weight(byte effort) {
+        return Math.min(Math.max(effort, MIN_EFFORT), MAX_EFFORT);
+    }
+
+    /**
+     * Returns how many of the best projects of each class to take for the highest total
+     * score within the capacity.
+     */
+    private static int[] solve(int[][] classes, double[] scores, int capacity) {
+        double[] best = new double[capacity + 1];
+        int[][] taken = new int[MAX_EFFORT + 1][];
+        for (int weight = MIN_EFFORT; weight <= MAX_EFFORT; weight++) {
+            double[] prefix = prefixSums(classes[weight], scores);
+            double[] next = new double[capacity + 1];
+            int[] counts = new int[capacity + 1];
+            List<ForkJoinTask<Void>> residues = new ArrayList<>();
+            for (int residue = 0; residue < weight && residue <= capacity; residue++) {
+                int length = (capacity - residue) / weight + 1;
+                residues.add(new Convolution(best, next, counts, prefix, weight, residue, 0, length - 1, 0, length - 1));
+            }
+            ForkJoinTask.invokeAll(residues);
+            best = next;
+            taken[weight] = counts;
+        }
+
+        int[] result = new int[MAX_EFFORT + 1];
+        int remaining = capacity;
+        for (int weight = MAX_EFFORT; weight >= MIN_EFFORT; weight--) {
+            result[weight] = taken[weight][remaining];
+            remaining -= weight * result[weight];
+        }
+        return result;
+    }
+
+    private static double[] prefixSums(int[] ordinals, double[] scores) {
+        double[] prefix = new double[ordinals.length + 1];
+        for (int i = 0; i < ordinals.length; i++) {
+            prefix[i + 1] = prefix[i] + scores[ordinals[i]];
+        }
+        return prefix;
+    }
+
+    /**
+     * Adds one class to the table for the budgets {@code residue + i * weight}: the best
+     * total for step {@code i} is the best of taking {@code i - j} projects of the class
+     * on top of the previous best for step {@code j}. The best {@code j} never decreases
+     * with {@code i}, so solving the middle step bounds the search for both halves.
+     */
+    private static final class Convolution extends RecursiveAction {
+        private final double[] previous;
+        private final double[] next;
+        private final int[] counts;
+        private final double[] prefix;
+        private final int weight;
+        private final int residue;
+        private final int from;
+        private final int to;
+        private final int optFrom;
+        private final int optTo;
+
+        Convolution(double[] previous, double[] next, int[] counts, double[] prefix, int weight, int residue,
+                    int from, int to, int optFrom, int optTo) {
+            this.previous = previous;
+            this.next = next;
+            this.counts = counts;
+            this.prefix = prefix;
+            this.weight = weight;
+            this.residue = residue;
+            this.from = from;
+            this.to = to;
+            this.optFrom = optFrom;
+            this.optTo = optTo;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from < SEQUENTIAL_THRESHOLD) {
+                solveRange(from, to, optFrom, optTo);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            int opt = solveStep(mid, optFrom, optTo);
+            invokeAll(
+                    new Convolution(previous, next, counts, prefix, weight, residue, from, mid - 1, optFrom, opt),
+                    new Convolution(previous, next, counts, prefix, weight, residue, mid + 1, to, opt, optTo));
+        }
+
+        private void solveRange(int from, int to, int optFrom, int optTo) {
+            if (from > to) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            int opt = solveStep(mid, optFrom, optTo);
+            solveRange(from, mid - 1, optFrom, opt);
+            solveRange(mid + 1, to, opt, optTo);
+        }
+
+        /**
+         * Solves step {@code i} and returns the step {@code j} its best total builds on.
+         */
+        private int solveStep(int i, int optFrom, int optTo) {
+            int available = prefix.length - 1;
+            int bestJ = -1;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int j = Math.max(optFrom, i - available); j <= Math.min(i, optTo); j++) {
+                double value = previous[residue + j * weight] + prefix[i - j];
+                if (value > bestValue) {
+                    bestValue = value;
+                    bestJ = j;
+                }
+            }
+            next[residue + i * weight] = bestValue;
+            counts[residue + i * weight] = i - bestJ;
+            return bestJ;
+        }
+    }
+
+    /**
+     * Repeatedly takes the project with the highest score per unit of effort that still
+     * fits, looking only at the best remaining project of each class.
+     */
+    private static int[] greedy(int[][] classes, double[] scores, int capacity) {
+        int[] counts = new int[MAX_EFFORT + 1];
+        int remaining = capacity;
+        while (true) {
+            int bestWeight = -1;
+            double bestDensity = Double.NEGATIVE_INFINITY;
+            for (int weight = MIN_EFFORT; weight <= Math.min(MAX_EFFORT, remaining); weight++) {
+                if (counts[weight] < classes[weight].length) {
+                    double density = scores[classes[weight][counts[weight]]] / weight;
+                    if (density > bestDensity) {
+                        bestDensity = density;
+                        bestWeight = weight;
+                    }
+                }
+            }
+            if (bestWeight < 0) {
+                return counts;
+            }
+            counts[bestWeight]++;
+            remaining -= bestWeight;
+        }
+    }
+
+    /**
+     * The projects chosen for a budget, the effort they take and their total score.
+     * {@code exact} is false when the budget was too large to solve exactly.
+     */
+    public record Portfolio(List<Project> projects, int effort, double value, boolean exact) {
+    }
+}
@@ -0,0 +1,161 @@
+package com.preponderous.parpt.score;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ScoreColumns;
+import com.preponderous.parpt.repo.ProjectRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Computes the Pareto frontier of the repository's projects over impact, confidence,
+ * ease, reach and inverse effort. A project dominates another when it is at least as
+ * good in every dimension and better in one; the frontier, or first tier, holds the
+ * projects no other project dominates. Tier {@code k + 1} is the frontier of what is left
+ * after removing the first {@code k} tiers.
+ * <p>
+ * Scores range from 1 to 5, so there are only 3125 distinct score tuples. Projects are
+ * bucketed by tuple in parallel ranges, and the tiers are worked out once per occupied
+ * tuple rather than per project: walking the tuple grid from the best corner down, a
+ * tuple's tier is one more than the highest tier found among the tuples above it.
+ */
+@Component
+public class ProjectFrontier {
+
+    private static final int MIN_SCORE = 1;
+    private static final int MAX_SCORE = 5;
+
+    private static final int VALUES = MAX_SCORE - MIN_SCORE + 1;
+    private static final int DIMENSIONS = 5;
+    private static final int TUPLES = VALUES * VALUES * VALUES * VALUES * VALUES;
+    // The longest chain of strictly better tuples climbs one step at a time from the
+    // worst corner of the grid to the best, so there are never more tiers than this
+    private static final int MAX_TIERS = DIMENSIONS * (VALUES - 1) + 1;
+    private static final int BUILD_CHUNK_SIZE = 16 * 1024;
+
+    private final ProjectRepository projectRepository;
+
+    public ProjectFrontier(ProjectRepository projectRepository) {
+        this.projectRepository = projectRepository;
+    }
+
+    /**
+     * Returns the first {@code count} tiers, best first, each in the order in which its
+     * projects were added. Fewer tiers are returned when the projects run out.
+     */
+    public List<List<Project>> tiers(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Tier count must not be negative.");
+        }
+        return projectRepository.read(snapshot -> tiers(snapshot, Math.min(count, MAX_TIERS)));
+    }
+
+    private static List<List<Project>> tiers(ProjectRepository.Snapshot snapshot, int count) {
+        ScoreColumns columns = snapshot.scoreColumns();
+        int size = columns.size();
+        int chunks = (size + BUILD_CHUNK_SIZE - 1) / BUILD_CHUNK_SIZE;
+
+        short[] tuples = new short[size];
+        boolean[] occupied = new boolean[TUPLES];
+        IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> {
+                    boolean[] partial = new boolean[TUPLES];
+                    int end = Math.min(size, (chunk + 1) * BUILD_CHUNK_SIZE);
+                    for (int ordinal = chunk * BUILD_CHUNK_SIZE; ordinal < end; ordinal++) {
+                        tuples[ordinal] = tuple(columns, ordinal);
+                        partial[tuples[ordinal]] = true;
+                    }
+                    return partial;
+                })
+                .forEachOrdered(partial -> {
+                    for (int tuple = 0; tuple < TUPLES; tuple++) {
+                        occupied[tuple] |= partial[tuple];
+                    }
+                });
+        int[] tupleTiers = tupleTiers(occupied);
+
+        // Collecting each range's ordinals and joining the ranges in order keeps every
+        // tier in insertion order
+        List<int[][]> partials = IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> {
+                    int[][] partial = new int[count][];
+                    int[] partialSizes = new int[count];
+                    int end = Math.min(size, (chunk + 1) * BUILD_CHUNK_SIZE);
+                    for (int ordinal = chunk * BUILD_CHUNK_SIZE; ordinal < end; ordinal++) {
+                        int tier = tupleTiers[tuples[ordinal]] - 1;
+                        if (tier < count) {
+                            if (partial[tier] == null) {
+                                partial[tier] = new int[16];
+                            } else if (partialSizes[tier] == partial[tier].length) {
+                                partial[tier] = Arrays.copyOf(partial[tier], partialSizes[tier] * 2);
+                            }
+                            partial[tier][partialSizes[tier]++] = ordinal;
+                        }
+                    }
+                    for (int tier = 0; tier < count; tier++) {
+                        partial[tier] = partial[tier] == null ? new int[0] : Arrays.copyOf(partial[tier], partialSizes[tier]);
+                    }
+                    return partial;
+                })
+                .toList();
+        List<List<Project>> tiers = new ArrayList<>();
+        for (int tier = 0; tier < count; tier++) {
+            List<Project> projects = new ArrayList<>();
+            for (int[][] partial : partials) {
+                for (int ordinal : partial[tier]) {
+                    projects.add(snapshot.get(ordinal));
+                }
+            }
+            if (projects.isEmpty()) {
+                break;
+            }
+            tiers.add(projects);
+        }
+        return tiers;
+    }
+
+    /**
+     * Encodes a project's scores as a base-5 number whose digits grow with how good the
+     * project is in each dimension, so effort counts down rather than up. Scores outside
+     * the valid range are treated as the nearest valid score.
+     */
+    private static short tuple(ScoreColumns columns, int ordinal) {
+        int tuple = digit(columns.impact()[ordinal]);
+        tuple = tuple * VALUES + digit(columns.confidence()[ordinal]);
+        tuple = tuple * VALUES + digit(columns.ease()[ordinal]);
+        tuple = tuple * VALUES + digit(columns.reach()[ordinal]);
+        tuple = tuple * VALUES + (VALUES - 1 - digit(columns.effort()[ordinal]));
+        return (short) tuple;
+    }
+
+    private static int digit(byte score) {
+        return Math.min(Math.max(score, MIN_SCORE), MAX_SCORE) - MIN_SCORE;
+    }
+
+    /**
+     * Returns the tier of every occupied tuple, or 0 for tuples no project has.
+     */
+    private static int[] tupleTiers(boolean[] occupied) {
+        int[] tiers = new int[TUPLES];
+        // Highest tier among the occupied tuples at least as good as each tuple
+        int[] above = new int[TUPLES];
+        for (int tuple = TUPLES - 1; tuple >= 0; tuple--) {
+            // Every strictly better tuple is at least as good as one of the tuples that
+            // are one step better in a single dimension, all of which come later
+            int best = 0;
+            for (int dimension = 0, stride = 1; dimension < DIMENSIONS; dimension++, stride *= VALUES) {
+                if ((tuple / stride) % VALUES < VALUES - 1) {
+                    best = Math.max(best, above[tuple + stride]);
+                }
+            }
+            tiers[tuple] = occupied[tuple] ? best + 1 : 0;
+            above[tuple] = Math.max(best, tiers[tuple]);
+        }
+        return tiers;
+    }
+}
@@ -0,0 +1,360 @@
+package com.preponderous.parpt.score;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ProjectAnswers;
+import com.preponderous.parpt.domain.ScoreColumns;
+import com.preponderous.parpt.repo.ProjectRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Estimates how certain the ranking under a scoring model is by drawing every project's
+ * scores at random many times over and ranking each draw.
+ * <p>
+ * A stored score is the rounded average of the answers to four questions, so the
+ * average itself is a multiple of a quarter somewhere in the half-point either side of
+ * it. Where a project kept all four answers to a dimension, each draw resamples them with
+ * replacement and averages the resample; otherwise it picks one of the averages that
+ * round to the score, uniformly. A project's rank in a draw is one more than the number
+ * of projects scoring strictly higher.
+ * <p>
+ * Averages counted in quarters take 17 values, so even a model over all five dimensions
+ * has under 1.5 million combinations of them. Every combination is scored once up front
+ * through {@link ScoreCalculator}, with its batch kernels for ICE and RICE. Unless there
+ * are far more combinations than projects, each is then replaced by the rank of its
+ * score among the distinct scores, and a draw ranks the portfolio by counting those keys
+ * rather than sorting scores.
+ * <p>
+ * Draws are split into batches run on the fork/join pool, each with its own
+ * {@link SplittableRandom} split from the seed up front, so a seed always produces the
+ * same estimates however the batches are scheduled.
+ */
+@Component
+public class RankSimulator {
+
+    private static final int MIN_QUARTERS = 4;
+    private static final int MAX_QUARTERS = 20;
+    private static final int QUARTERS = MAX_QUARTERS - MIN_QUARTERS + 1;
+    private static final int BATCH_SIZE = 32;
+    private static final int DRAW_BITS = 12;
+    private static final int DRAW_MASK = (1 << DRAW_BITS) - 1;
+    private static final int FIELD_BITS = 12;
+    private static final int FIELD_MASK = (1 << FIELD_BITS) - 1;
+    // Cap on the cells of the per-project rank histograms; larger portfolios get
+    // coarser rank buckets and so wider intervals
+    private static final int HISTOGRAM_CELLS = 1 << 23;
+
+    private final ProjectRepository projectRepository;
+    private final ScoreCalculator scoreCalculator;
+
+    public RankSimulator(ProjectRepository projectRepository, ScoreCalculator scoreCalculator) {
+        this.projectRepository = projectRepository;
+        this.scoreCalculator = scoreCalculator;
+    }
+
+    /**
+     * Ranks {@code samples} random draws of every project's scores under the given model
+     * and returns an estimate per project, lowest expected rank first. Projects with equal
+     * expected ranks keep the order in which they were added.
+     *
+     * @param top the rank a project must reach to count as being in the top
+     * @throws IllegalArgumentException if the model is unknown
+     */
+    public List<RankEstimate> simulate(String model, int samples, int top, long seed) {
+        if (!scoreCalculator.models().contains(model)) {
+            throw new IllegalArgumentException("Unknown scoring model: " + model);
+        }
+        return projectRepository.read(snapshot -> simulate(snapshot, model, samples, top, seed));
+    }
+
+    private List<RankEstimate> simulate(ProjectRepository.Snapshot snapshot, String model, int samples, int top, long seed) {
+        ScoreColumns columns = snapshot.scoreColumns();
+        int size = columns.size();
+        if (size == 0 || samples <= 0) {
+            return List.of();
+        }
+        Project[] projects = new Project[size];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            projects[ordinal] = snapshot.get(ordinal);
+        }
+        RankKeys rankKeys = rankKeys(model, size);
+        long[] averages = averages(columns, projects, rankKeys.dimensions());
+
+        int batches = (samples + BATCH_SIZE - 1) / BATCH_SIZE;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[batches];
+        for (int batch = 0; batch < batches; batch++) {
+            randoms[batch] = root.split();
+        }
+        Tally tally = new Tally(size, top);
+        IntStream.range(0, batches)
+                .parallel()
+                .forEach(batch -> {
+                    int count = Math.min(BATCH_SIZE, samples - batch * BATCH_SIZE);
+                    tally.add(drawRanks(rankKeys, averages, count, randoms[batch]), count);
+                });
+
+        double[] current = new double[size];
+        scoreCalculator.score(model, columns, current);
+        List<RankEstimate> estimates = new ArrayList<>(size);
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            estimates.add(new RankEstimate(
+                    projects[ordinal],
+                    current[ordinal],
+                    (double) tally.rankSums[ordinal] / samples,
+                    tally.percentile(ordinal, 0.05, samples, false),
+                    tally.percentile(ordinal, 0.95, samples, true),
+                    (double) tally.topCounts[ordinal] / samples));
+        }
+        // Stable, so equal expectations keep insertion order
+        estimates.sort(Comparator.comparingDouble(RankEstimate::expectedRank));
+        return estimates;
+    }
+
+    /**
+     * Packs, for every project, how to draw the average of each of the model's dimensions
+     * into a 12-bit field. Either the field holds the four answers to resample, three bits
+     * each, or the lowest possible average in quarters above the minimum is in the low
+     * five bits and the number of possible averages in the next three. Answers are never
+     * 0, so the top three bits tell the two apart.
+     */
+    private static long[] averages(ScoreColumns columns, Project[] projects, int[] dimensions) {
+        byte[][] scores = {columns.impact(), columns.confidence(), columns.ease(), columns.reach(), columns.effort()};
+        long[] averages = new long[columns.size()];
+        for (int i = 0; i < dimensions.length; i++) {
+            byte[] column = scores[dimensions[i]];
+            for (int ordinal = 0; ordinal < averages.length; ordinal++) {
+                long answers = projects[ordinal].getAnswers();
+                int field;
+                if (ProjectAnswers.count(answers, dimensions[i]) == ProjectAnswers.QUESTIONS_PER_DIMENSION) {
+                    field = 0;
+                    for (int question = 0; question < ProjectAnswers.QUESTIONS_PER_DIMENSION; question++) {
+                        field |= ProjectAnswers.answer(answers, dimensions[i], question) << (question * 3);
+                    }
+                } else {
+                    int score = Math.min(Math.max(column[ordinal], 1), 5);
+                    // Averages of four answers that round half up to the score
+                    int low = Math.max(MIN_QUARTERS, score * 4 - 2);
+                    int high = Math.min(MAX_QUARTERS, score * 4 + 1);
+                    field = (high - low + 1) << 5 | (low - MIN_QUARTERS);
+                }
+                averages[ordinal] |= (long) field << (i * FIELD_BITS);
+            }
+        }
+        return averages;
+    }
+
+    /**
+     * Scores every combination of quarter averages over the model's dimensions and, if
+     * counting will be cheaper than sorting, keys each by the rank of its score among the
+     * distinct scores, lowest first.
+     */
+    private RankKeys rankKeys(String model, int size) {
+        int[] dimensions = scoreCalculator.dimensions(model);
+        int combinations = 1;
+        for (int i = 0; i < dimensions.length; i++) {
+            combinations *= QUARTERS;
+        }
+        int[][] values = new int[dimensions.length][combinations];
+        for (int combination = 0; combination < combinations; combination++) {
+            int rest = combination;
+            for (int i = dimensions.length - 1; i >= 0; i--) {
+                values[i][combination] = MIN_QUARTERS + rest % QUARTERS;
+                rest /= QUARTERS;
+            }
+        }
+        double[] scores = new double[combinations];
+        // Scaling every dimension by four scales ICE and RICE scores without reordering
+        // them, so their kernels can take the quarters as they are
+        if (ScoreCalculator.ICE.equals(model)) {
+            scoreCalculator.ice(values[0], values[1], values[2], scores, combinations);
+        } else if (ScoreCalculator.RICE.equals(model)) {
+            scoreCalculator.rice(values[2], values[0], values[1], values[3], scores, combinations);
+        } else {
+            double[] point = new double[ProjectAnswers.DIMENSIONS];
+            for (int combination = 0; combination < combinations; combination++) {
+                for (int i = 0; i < dimensions.length; i++) {
+                    point[dimensions[i]] = values[i][combination] / 4.0;
+                }
+                scores[combination] = scoreCalculator.score(model, point[0], point[1], point[2], point[3], point[4]);
+            }
+        }
+
+        // Counting walks every key once per draw, where sorting costs about n log n
+        if (combinations > 2L * size * (32 - Integer.numberOfLeadingZeros(size))) {
+            return new RankKeys(dimensions, scores, null, 0);
+        }
+        double[] distinct = scores.clone();
+        Arrays.parallelSort(distinct);
+        int distinctCount = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            if (i == 0 || distinct[i] != distinct[i - 1]) {
+                distinct[distinctCount++] = distinct[i];
+            }
+        }
+        int[] keys = new int[combinations];
+        for (int combination = 0; combination < combinations; combination++) {
+            keys[combination] = Arrays.binarySearch(distinct, 0, distinctCount, scores[combination]);
+        }
+        return new RankKeys(dimensions, scores, keys, distinctCount);
+    }
+
+    private static int[][] drawRanks(RankKeys rankKeys, long[] averages, int count, SplittableRandom random) {
+        int size = averages.length;
+        int dimensions = rankKeys.dimensions().length;
+        int[] keys = rankKeys.keys();
+        double[] scores = rankKeys.scores();
+        boolean counting = keys != null;
+        int[] sampleKeys = new int[counting ? size : 0];
+        double[] sampleScores = new double[counting ? 0 : size];
+        int[] higher = new int[rankKeys.keyCount()];
+        int[][] ranks = new int[count][];
+        for (int sample = 0; sample < count; sample++) {
+            Arrays.fill(higher, 0);
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                // One random long covers every dimension; mapping 12 random bits onto at
+                // most four averages is off from uniform by well under a tenth of a percent
+                long bits = random.nextLong();
+                long packed = averages[ordinal];
+                int combination = 0;
+                for (int i = 0; i < dimensions; i++) {
+                    int field = (int) (bits >>> (i * DRAW_BITS)) & DRAW_MASK;
+                    int average = (int) (packed >>> (i * FIELD_BITS)) & FIELD_MASK;
+                    int quarters;
+                    if (average >>> 9 != 0) {
+                        // Four picks of two random bits each, summing the answers picked
+                        quarters = -MIN_QUARTERS;
+                        for (int pick = 0; pick < ProjectAnswers.QUESTIONS_PER_DIMENSION; pick++) {
+                            quarters += (average >>> (((field >>> (pick * 2)) & 3) * 3)) & 7;
+                        }
+                    } else {
+                        quarters = (average & 0x1F) + ((field * (average >>> 5)) >>> DRAW_BITS);
+                    }
+                    combination = combination * QUARTERS + quarters;
+                }
+                if (counting) {
+                    sampleKeys[ordinal] = keys[combination];
+                } else {
+                    sampleScores[ordinal] = scores[combination];
+                }
+            }
+            int[] sampleRanks = new int[size];
+            if (counting) {
+                for (int ordinal = 0; ordinal < size; ordinal++) {
+                    higher[sampleKeys[ordinal]]++;
+                }
+                // Turn the count of each key into the count of projects above it
+                int above = 0;
+                for (int key = higher.length - 1; key >= 0; key--) {
+                    int atKey = higher[key];
+                    higher[key] = above;
+                    above += atKey;
+                }
+                for (int ordinal = 0; ordinal < size; ordinal++) {
+                    sampleRanks[ordinal] = higher[sampleKeys[ordinal]] + 1;
+                }
+            } else {
+                double[] sorted = sampleScores.clone();
+                Arrays.sort(sorted);
+                for (int ordinal = 0; ordinal < size; ordinal++) {
+                    sampleRanks[ordinal] = size - upperBound(sorted, sampleScores[ordinal]) + 1;
+                }
+            }
+            ranks[sample] = sampleRanks;
+        }
+        return ranks;
+    }
+
+    /**
+     * Returns the index of the first element of the sorted array greater than the key.
+     */
+    private static int upperBound(double[] sorted, double key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Scores of every combination of quarter averages over a model's dimensions, with
+     * their rank keys when draws are ranked by counting, or null keys otherwise.
+     */
+    private record RankKeys(int[] dimensions, double[] scores, int[] keys, int keyCount) {
+    }
+
+    /**
+     * Rank statistics summed over every draw. Batches add their ranks under the monitor,
+     * so only one copy of the histograms exists however many batches run at once.
+     */
+    private static final class Tally {
+        final long[] rankSums;
+        final int[] topCounts;
+        final int[] histogram;
+        final int buckets;
+        final int bucketWidth;
+        final int size;
+        final int top;
+
+        Tally(int size, int top) {
+            this.size = size;
+            this.top = top;
+            this.buckets = Math.max(1, Math.min(size, HISTOGRAM_CELLS / size));
+            this.bucketWidth = (size + buckets - 1) / buckets;
+            this.rankSums = new long[size];
+            this.topCounts = new int[size];
+            this.histogram = new int[size * buckets];
+        }
+
+        synchronized void add(int[][] ranks, int count) {
+            for (int sample = 0; sample < count; sample++) {
+                int[] sampleRanks = ranks[sample];
+                for (int ordinal = 0; ordinal < size; ordinal++) {
+                    int rank = sampleRanks[ordinal];
+                    rankSums[ordinal] += rank;
+                    if (rank <= top) {
+                        topCounts[ordinal]++;
+                    }
+                    histogram[ordinal * buckets + (rank - 1) / bucketWidth]++;
+                }
+            }
+        }
+
+        /**
+         * Returns the rank below which the given share of draws fall, rounded out to the
+         * edge of its histogram bucket.
+         */
+        int percentile(int ordinal, double share, int samples, boolean upper) {
+            long needed = Math.max(1, (long) Math.ceil(share * samples));
+            long seen = 0;
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                seen += histogram[ordinal * buckets + bucket];
+                if (seen >= needed) {
+                    return upper ? Math.min(size, (bucket + 1) * bucketWidth) : bucket * bucketWidth + 1;
+                }
+            }
+            return size;
+        }
+    }
+
+    /**
+     * How a project ranked across the draws: its score as stored, its mean rank, the
+     * ranks bounding the middle 90% of draws, and the share of draws ranking it within
+     * the top.
+     */
+    public record RankEstimate(Project project, double score, double expectedRank,
+                               int rankLow, int rankHigh, double topProbability) {
+    }
+}
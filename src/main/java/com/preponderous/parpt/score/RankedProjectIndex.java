@@ -0,0 +1,218 @@
+package com.preponderous.parpt.score;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ScoreColumns;
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.repo.ProjectRepositoryListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Keeps the repository's projects ordered by score for every scoring model. Scores
+ * only take a handful of distinct values, so each ranking is a sorted map from score
+ * to the ordinals that share it, in insertion order. Reading the top K projects walks
+ * the highest buckets and touches K entries.
+ * <p>
+ * The index is built on first use by batch-scoring the repository's score columns,
+ * afterwards updated as projects are added or rescored and rebuilt after the repository
+ * is cleared.
+ */
+@Component
+public class RankedProjectIndex implements ProjectRepositoryListener {
+
+    private final ProjectRepository projectRepository;
+    private final ScoreCalculator scoreCalculator;
+    private final Map<String, NavigableMap<Double, Ordinals>> rankings = new HashMap<>();
+    private boolean built;
+
+    public RankedProjectIndex(ProjectRepository projectRepository, ScoreCalculator scoreCalculator) {
+        this.projectRepository = projectRepository;
+        this.scoreCalculator = scoreCalculator;
+        for (String model : scoreCalculator.models()) {
+            rankings.put(model, new TreeMap<>(Collections.reverseOrder()));
+        }
+        projectRepository.addListener(this);
+    }
+
+    /**
+     * Returns up to {@code limit} projects with the highest score under the given model.
+     * Projects with equal scores keep the order in which they were added.
+     *
+     * @throws IllegalArgumentException if the model is unknown
+     */
+    public List<Project> top(String model, int limit) {
+        return top(model, 0, limit);
+    }
+
+    /**
+     * Returns up to {@code limit} projects of the ranking under the given model, skipping
+     * the {@code offset} highest. Whole buckets are skipped at once, so the cost of a page
+     * does not depend on how deep into the ranking it starts.
+     *
+     * @throws IllegalArgumentException if the model is unknown
+     */
+    public List<Project> top(String model, int offset, int limit) {
+        NavigableMap<Double, Ordinals> ranking = rankings.get(model);
+        if (ranking == null) {
+            throw new IllegalArgumentException("Unknown scoring model: " + model);
+        }
+        // Holding the repository's read lock before this index's monitor matches the
+        // order in which listener callbacks take them, and keeps the snapshot in step
+        // with the ordinals the index has seen.
+        return projectRepository.read(snapshot -> collect(snapshot, ranking, offset, limit));
+    }
+
+    /**
+     * Returns the given ordinals ordered by their score under the given model, highest
+     * first. Ordinals with equal scores keep the order in which they were added.
+     *
+     * @throws IllegalArgumentException if the model is unknown
+     */
+    public int[] rank(String model, BitSet ordinals) {
+        NavigableMap<Double, Ordinals> ranking = rankings.get(model);
+        if (ranking == null) {
+            throw new IllegalArgumentException("Unknown scoring model: " + model);
+        }
+        return projectRepository.read(snapshot -> rank(snapshot, ranking, ordinals));
+    }
+
+    private synchronized int[] rank(ProjectRepository.Snapshot snapshot, NavigableMap<Double, Ordinals> ranking,
+                                    BitSet ordinals) {
+        if (!built) {
+            build(snapshot);
+        }
+
+        int[] result = new int[ordinals.cardinality()];
+        int count = 0;
+        for (Ordinals bucket : ranking.values()) {
+            for (int i = 0; i < bucket.size && count < result.length; i++) {
+                if (ordinals.get(bucket.values[i])) {
+                    result[count++] = bucket.values[i];
+                }
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    private synchronized List<Project> collect(ProjectRepository.Snapshot snapshot,
+                                               NavigableMap<Double, Ordinals> ranking,
+                                               int offset, int limit) {
+        if (!built) {
+            build(snapshot);
+        }
+
+        List<Project> result = new ArrayList<>(Math.min(limit, Math.max(snapshot.size() - offset, 0)));
+        int skip = offset;
+        for (Ordinals bucket : ranking.values()) {
+            if (skip >= bucket.size) {
+                skip -= bucket.size;
+                continue;
+            }
+            for (int i = skip; i < bucket.size && result.size() < limit; i++) {
+                result.add(snapshot.get(bucket.values[i]));
+            }
+            skip = 0;
+            if (result.size() >= limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void projectAdded(int ordinal, Project project) {
+        if (built) {
+            insert(ordinal, project);
+        }
+    }
+
+    @Override
+    public synchronized void projectUpdated(int ordinal, Project previous, Project project) {
+        if (!built) {
+            return;
+        }
+        for (Map.Entry<String, NavigableMap<Double, Ordinals>> ranking : rankings.entrySet()) {
+            double before = scoreCalculator.score(ranking.getKey(), previous);
+            double after = scoreCalculator.score(ranking.getKey(), project);
+            if (Double.compare(before, after) == 0) {
+                continue;
+            }
+            Ordinals bucket = ranking.getValue().get(before);
+            bucket.remove(ordinal);
+            if (bucket.size == 0) {
+                ranking.getValue().remove(before);
+            }
+            ranking.getValue().computeIfAbsent(after, s -> new Ordinals()).insert(ordinal);
+        }
+    }
+
+    @Override
+    public synchronized void projectsCleared() {
+        // The repository may have been replaced rather than emptied, so rebuild on next use
+        rankings.values().forEach(Map::clear);
+        built = false;
+    }
+
+    private void build(ProjectRepository.Snapshot snapshot) {
+        ScoreColumns columns = snapshot.scoreColumns();
+        double[] scores = new double[columns.size()];
+        for (Map.Entry<String, NavigableMap<Double, Ordinals>> ranking : rankings.entrySet()) {
+            ranking.getValue().clear();
+            scoreCalculator.score(ranking.getKey(), columns, scores);
+            for (int ordinal = 0; ordinal < scores.length; ordinal++) {
+                ranking.getValue().computeIfAbsent(scores[ordinal], s -> new Ordinals()).add(ordinal);
+            }
+        }
+        built = true;
+    }
+
+    private void insert(int ordinal, Project project) {
+        for (Map.Entry<String, NavigableMap<Double, Ordinals>> ranking : rankings.entrySet()) {
+            double score = scoreCalculator.score(ranking.getKey(), project);
+            ranking.getValue().computeIfAbsent(score, s -> new Ordinals()).add(ordinal);
+        }
+    }
+
+    /**
+     * Growable list of primitive ordinals in ascending order.
+     */
+    private static final class Ordinals {
+        int[] values = new int[8];
+        int size;
+
+        /**
+         * Appends an ordinal higher than any in the list.
+         */
+        void add(int ordinal) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = ordinal;
+        }
+
+        void insert(int ordinal) {
+            int index = -Arrays.binarySearch(values, 0, size, ordinal) - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = ordinal;
+            size++;
+        }
+
+        void remove(int ordinal) {
+            int index = Arrays.binarySearch(values, 0, size, ordinal);
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+        }
+    }
+}
@@ -1,11 +1,72 @@
 package com.preponderous.parpt.score;
 
+import com.preponderous.parpt.config.ScoringProperties;
 import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ScoreColumns;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Scores projects under the built-in ICE and RICE models and under any custom models
+ * declared as expressions in {@code parpt.scoring.models}. Custom models are compiled
+ * once, when the calculator is created, by {@link ExpressionScoreModel}.
+ */
 @Component
 public class ScoreCalculator {
 
+    public static final String ICE = "ice";
+    public static final String RICE = "rice";
+
+    private static final boolean VECTORIZED = vectorApiAvailable();
+    private static final Pattern MODEL_NAME = Pattern.compile("[a-z][a-z0-9]*");
+    private static final List<String> RESERVED_NAMES = List.of("and", "or", "not");
+
+    private final Map<String, ExpressionScoreModel> customModels = new LinkedHashMap<>();
+    private final List<String> models;
+
+    /**
+     * Creates a calculator offering only the built-in models.
+     */
+    public ScoreCalculator() {
+        this(new ScoringProperties());
+    }
+
+    /**
+     * Creates a calculator offering the built-in models and the configured custom ones.
+     *
+     * @throws IllegalArgumentException if a custom model has an invalid name or expression
+     */
+    @Autowired
+    public ScoreCalculator(ScoringProperties scoringProperties) {
+        List<String> names = new ArrayList<>(List.of(ICE, RICE));
+        Map<String, String> configured = scoringProperties.getModels() == null ? Map.of() : scoringProperties.getModels();
+        for (Map.Entry<String, String> entry : configured.entrySet()) {
+            String name = entry.getKey().toLowerCase(Locale.ROOT);
+            if (!MODEL_NAME.matcher(name).matches()) {
+                throw new IllegalArgumentException("Invalid scoring model name '" + entry.getKey()
+                        + "': names start with a letter and contain only letters and digits.");
+            }
+            if (names.contains(name) || RESERVED_NAMES.contains(name) || ExpressionScoreModel.DIMENSIONS.contains(name)) {
+                throw new IllegalArgumentException("Invalid scoring model name '" + entry.getKey() + "': the name is already in use.");
+            }
+            try {
+                customModels.put(name, ExpressionScoreModel.compile(entry.getValue()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid scoring model '" + name + "': " + e.getMessage(), e);
+            }
+            names.add(name);
+        }
+        this.models = Collections.unmodifiableList(names);
+    }
+
     public double ice(Project project) {
         return (project.getImpact() * project.getConfidence() * project.getEase());
     }
@@ -13,4 +74,173 @@ public class ScoreCalculator {
     public double rice(Project project) {
         return (double) (project.getReach() * project.getImpact() * project.getConfidence()) / project.getEffort();
     }
+
+    /**
+     * Returns the names of the scoring models accepted by {@link #score(String, Project)}.
+     */
+    public List<String> models() {
+        return models;
+    }
+
+    /**
+     * Returns the names of the configured custom models, in the order they were declared.
+     */
+    public List<String> customModels() {
+        return models.subList(2, models.size());
+    }
+
+    public double score(String model, Project project) {
+        return switch (model) {
+            case ICE -> ice(project);
+            case RICE -> rice(project);
+            default -> customModel(model).score(project);
+        };
+    }
+
+    /**
+     * Scores fractional dimension values, such as averages of answers, under the given
+     * model. Batch scoring is the faster choice for the scores projects actually hold.
+     */
+    public double score(String model, double impact, double confidence, double ease, double reach, double effort) {
+        return switch (model) {
+            case ICE -> impact * confidence * ease;
+            case RICE -> reach * impact * confidence / effort;
+            default -> customModel(model).evaluate(impact, confidence, ease, reach, effort);
+        };
+    }
+
+    /**
+     * Returns the dimensions a model reads, in ascending order, numbering impact,
+     * confidence, ease, reach and effort from 0.
+     */
+    public int[] dimensions(String model) {
+        return switch (model) {
+            case ICE -> new int[]{0, 1, 2};
+            case RICE -> new int[]{0, 1, 3, 4};
+            default -> customModel(model).dimensions();
+        };
+    }
+
+    /**
+     * Scores every row of the columns under the given model into {@code out}.
+     */
+    public void score(String model, ScoreColumns columns, double[] out) {
+        switch (model) {
+            case ICE -> ice(columns.impact(), columns.confidence(), columns.ease(), out, columns.size());
+            case RICE -> rice(columns.reach(), columns.impact(), columns.confidence(), columns.effort(), out, columns.size());
+            default -> {
+                ExpressionScoreModel custom = customModel(model);
+                checkLength(columns.size(), out, columns.impact(), columns.confidence(), columns.ease(),
+                        columns.reach(), columns.effort());
+                custom.score(columns, out, columns.size());
+            }
+        }
+    }
+
+    private ExpressionScoreModel customModel(String model) {
+        ExpressionScoreModel custom = customModels.get(model);
+        if (custom == null) {
+            throw new IllegalArgumentException("Unknown scoring model: " + model);
+        }
+        return custom;
+    }
+
+    /**
+     * Computes the ICE score of the first {@code length} rows of the score columns.
+     */
+    public void ice(byte[] impact, byte[] confidence, byte[] ease, double[] out, int length) {
+        checkLength(length, out, impact, confidence, ease);
+        if (VECTORIZED) {
+            VectorScoreKernels.ice(impact, confidence, ease, out, length);
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            out[i] = impact[i] * confidence[i] * ease[i];
+        }
+    }
+
+    /**
+     * Computes the RICE score of the first {@code length} rows of the score columns.
+     */
+    public void rice(byte[] reach, byte[] impact, byte[] confidence, byte[] effort, double[] out, int length) {
+        checkLength(length, out, reach, impact, confidence, effort);
+        if (VECTORIZED) {
+            VectorScoreKernels.rice(reach, impact, confidence, effort, out, length);
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            out[i] = (double) (reach[i] * impact[i] * confidence[i]) / effort[i];
+        }
+    }
+
+    /**
+     * Computes the ICE score of the first {@code length} rows of the score columns.
+     */
+    public void ice(int[] impact, int[] confidence, int[] ease, double[] out, int length) {
+        checkLength(length, out, impact.length, confidence.length, ease.length);
+        if (VECTORIZED) {
+            VectorScoreKernels.ice(impact, confidence, ease, out, length);
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            out[i] = impact[i] * confidence[i] * ease[i];
+        }
+    }
+
+    /**
+     * Computes the RICE score of the first {@code length} rows of the score columns.
+     */
+    public void rice(int[] reach, int[] impact, int[] confidence, int[] effort, double[] out, int length) {
+        checkLength(length, out, reach.length, impact.length, confidence.length, effort.length);
+        if (VECTORIZED) {
+            VectorScoreKernels.rice(reach, impact, confidence, effort, out, length);
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            out[i] = (double) (reach[i] * impact[i] * confidence[i]) / effort[i];
+        }
+    }
+
+    /**
+     * Returns whether batch scoring runs on the Vector API rather than the scalar loops.
+     */
+    public boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    private static void checkLength(int length, double[] out, byte[]... columns) {
+        int[] lengths = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            lengths[i] = columns[i].length;
+        }
+        checkLength(length, out, lengths);
+    }
+
+    private static void checkLength(int length, double[] out, int... columnLengths) {
+        if (length < 0 || length > out.length) {
+            throw new IllegalArgumentException("Output holds " + out.length + " scores but " + length + " were requested");
+        }
+        for (int columnLength : columnLengths) {
+            if (columnLength < length) {
+                throw new IllegalArgumentException("Score column holds " + columnLength + " rows but " + length + " were requested");
+            }
+        }
+    }
+
+    /**
+     * The Vector API is an incubator module that is only resolved when the JVM is
+     * started with {@code --add-modules jdk.incubator.vector}; without it, or with
+     * {@code -Dparpt.scoring.scalar=true}, batch scoring uses plain loops.
+     */
+    private static boolean vectorApiAvailable() {
+        if (Boolean.getBoolean("parpt.scoring.scalar")
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+        try {
+            return VectorScoreKernels.supported();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
 }
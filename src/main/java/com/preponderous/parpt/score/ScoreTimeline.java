@@ -0,0 +1,425 @@
+package com.preponderous.parpt.score;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ProjectAnswers;
+import com.preponderous.parpt.domain.ScoreColumns;
+import com.preponderous.parpt.domain.ScoreRevision;
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.repo.ProjectRepositoryListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Answers questions about past scores from the repository's {@link ScoreRevision}s: how
+ * a project's scores changed over time, and what every project scored at some moment.
+ * <p>
+ * Revisions only record differences, so the scores each project was added with, or had
+ * when the history began, are worked out once by taking its changes off its current
+ * scores. Replaying every revision from there would make a question about last week
+ * cost as much as the whole history, so the scores of all projects are also checkpointed
+ * every {@code max(1024, projects)} revisions, and the scores at any moment are those of
+ * the nearest earlier checkpoint plus the revisions after it. Restoring a checkpoint then
+ * costs about as much as reading the current scores, and checkpoints take about five
+ * bytes per revision.
+ * <p>
+ * Like the other indexes, the timeline is built on first use, catches up with the
+ * revisions made since whenever it is asked again and is rebuilt after the repository
+ * is cleared.
+ */
+@Component
+public class ScoreTimeline implements ProjectRepositoryListener {
+
+    private static final int MIN_CHECKPOINT_INTERVAL = 1024;
+    private static final int DIMENSIONS = ProjectAnswers.DIMENSIONS;
+
+    private final ProjectRepository projectRepository;
+    private final ScoreCalculator scoreCalculator;
+
+    // Revisions and projects taken into account so far
+    private int revisions;
+    private int projects;
+    // Scores of every project as added, by dimension and ordinal
+    private byte[][] baseline;
+    // Latest change of each project's scores and, by revision, the change before it, or -1
+    private int[] latestChange;
+    private int[] previousChange;
+    // Revisions that added projects, and the first ordinal each added
+    private int[] additions;
+    private int[] additionOrdinals;
+    private int additionCount;
+    // Scores of the projects present after checkpointRevisions[i] revisions
+    private int[] checkpointRevisions;
+    private ScoreColumns[] checkpoints;
+    private int checkpointCount;
+    private boolean built;
+
+    public ScoreTimeline(ProjectRepository projectRepository, ScoreCalculator scoreCalculator) {
+        this.projectRepository = projectRepository;
+        this.scoreCalculator = scoreCalculator;
+        reset();
+        projectRepository.addListener(this);
+    }
+
+    /**
+     * Returns how the scores of the project with exactly the given name changed.
+     */
+    public ProjectHistory history(String projectName) throws ProjectRepository.ProjectNotFoundException {
+        // Repository read lock before this index's monitor, as in RankedProjectIndex
+        ProjectHistory history = projectRepository.read(snapshot -> history(snapshot, projectName));
+        if (history == null) {
+            throw new ProjectRepository.ProjectNotFoundException("Project not found: " + projectName);
+        }
+        return history;
+    }
+
+    /**
+     * Returns the projects that existed at the given moment with the scores they had
+     * then, in the order in which they were added or, if a model is given, ranked under
+     * it highest first. Projects added before the history began are taken to have
+     * always existed. The returned projects carry no raw answers.
+     *
+     * @throws IllegalArgumentException if the model is unknown
+     */
+    public List<Project> asOf(Instant instant, String model) {
+        if (model != null && !scoreCalculator.models().contains(model)) {
+            throw new IllegalArgumentException("Unknown scoring model: " + model);
+        }
+        return projectRepository.read(snapshot -> asOf(snapshot, instant.toEpochMilli(), model));
+    }
+
+    private synchronized ProjectHistory history(ProjectRepository.Snapshot snapshot, String projectName) {
+        int ordinal = snapshot.indexOf(projectName);
+        if (ordinal < 0) {
+            return null;
+        }
+        catchUp(snapshot);
+
+        int count = 0;
+        for (int change = latestChange[ordinal]; change >= 0; change = previousChange[change]) {
+            count++;
+        }
+        int[] chain = new int[count];
+        for (int change = latestChange[ordinal]; change >= 0; change = previousChange[change]) {
+            chain[--count] = change;
+        }
+
+        Project current = snapshot.get(ordinal);
+        int[] scores = new int[DIMENSIONS];
+        for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+            scores[dimension] = baseline[dimension][ordinal];
+        }
+        Project initial = withScores(current, scores);
+        List<Change> changes = new ArrayList<>(chain.length);
+        Project before = initial;
+        for (int change : chain) {
+            ScoreRevision revision = snapshot.revision(change);
+            for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+                scores[dimension] += revision.delta(dimension);
+            }
+            Project after = withScores(current, scores);
+            changes.add(new Change(Instant.ofEpochMilli(revision.timestamp()), before, after));
+            before = after;
+        }
+        return new ProjectHistory(initial, addedAt(snapshot, ordinal), changes);
+    }
+
+    private synchronized List<Project> asOf(ProjectRepository.Snapshot snapshot, long timestamp, String model) {
+        catchUp(snapshot);
+        ScoreColumns scores = stateAfter(snapshot, revisionsUntil(snapshot, timestamp));
+        return new PastProjects(snapshot, scores, model == null ? null : rank(scores, model));
+    }
+
+    @Override
+    public void projectAdded(int ordinal, Project project) {
+        // Picked up from the score history on next use
+    }
+
+    @Override
+    public void projectUpdated(int ordinal, Project previous, Project project) {
+        // Picked up from the score history on next use
+    }
+
+    @Override
+    public synchronized void projectsCleared() {
+        // The history may have been truncated along with the projects
+        reset();
+    }
+
+    private void reset() {
+        revisions = 0;
+        projects = 0;
+        baseline = new byte[DIMENSIONS][0];
+        latestChange = new int[0];
+        previousChange = new int[0];
+        additions = new int[0];
+        additionOrdinals = new int[0];
+        additionCount = 0;
+        checkpointRevisions = new int[0];
+        checkpoints = new ScoreColumns[0];
+        checkpointCount = 0;
+        built = false;
+    }
+
+    /**
+     * Takes in the revisions and projects added since the last call.
+     */
+    private void catchUp(ProjectRepository.Snapshot snapshot) {
+        if (snapshot.revisions() < revisions || snapshot.size() < projects) {
+            reset();
+        }
+        if (built && snapshot.revisions() == revisions && snapshot.size() == projects) {
+            return;
+        }
+
+        int size = snapshot.size();
+        int target = snapshot.revisions();
+        if (latestChange.length < size) {
+            int from = latestChange.length;
+            latestChange = Arrays.copyOf(latestChange, Math.max(size, from * 2));
+            Arrays.fill(latestChange, from, latestChange.length, -1);
+        }
+        if (previousChange.length < target) {
+            previousChange = Arrays.copyOf(previousChange, Math.max(target, previousChange.length * 2));
+        }
+        for (int index = revisions; index < target; index++) {
+            ScoreRevision revision = snapshot.revision(index);
+            if (revision.isAddition()) {
+                if (additionCount == additions.length) {
+                    additions = Arrays.copyOf(additions, Math.max(16, additionCount * 2));
+                    additionOrdinals = Arrays.copyOf(additionOrdinals, additions.length);
+                }
+                additions[additionCount] = index;
+                additionOrdinals[additionCount++] = revision.ordinal();
+            } else if (revision.ordinal() < size) {
+                previousChange[index] = latestChange[revision.ordinal()];
+                latestChange[revision.ordinal()] = index;
+            }
+        }
+        revisions = target;
+
+        if (projects < size) {
+            // Take the changes of the new projects off their current scores
+            ScoreColumns current = snapshot.scoreColumns();
+            byte[][] columns = columns(current);
+            for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+                baseline[dimension] = Arrays.copyOf(baseline[dimension], Math.max(size, baseline[dimension].length * 2));
+                System.arraycopy(columns[dimension], projects, baseline[dimension], projects, size - projects);
+            }
+            for (int ordinal = projects; ordinal < size; ordinal++) {
+                for (int change = latestChange[ordinal]; change >= 0; change = previousChange[change]) {
+                    ScoreRevision revision = snapshot.revision(change);
+                    for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+                        baseline[dimension][ordinal] -= (byte) revision.delta(dimension);
+                    }
+                }
+            }
+            projects = size;
+        }
+
+        int interval = Math.max(MIN_CHECKPOINT_INTERVAL, size);
+        int last = checkpointCount == 0 ? 0 : checkpointRevisions[checkpointCount - 1];
+        while (target - last >= interval) {
+            last += interval;
+            ScoreColumns checkpoint = stateAfter(snapshot, last);
+            if (checkpointCount == checkpoints.length) {
+                checkpoints = Arrays.copyOf(checkpoints, Math.max(4, checkpointCount * 2));
+                checkpointRevisions = Arrays.copyOf(checkpointRevisions, checkpoints.length);
+            }
+            checkpoints[checkpointCount] = checkpoint;
+            checkpointRevisions[checkpointCount++] = last;
+        }
+        built = true;
+    }
+
+    /**
+     * Returns the scores of the projects present after the first {@code revision}
+     * revisions, starting from the nearest checkpoint.
+     */
+    private ScoreColumns stateAfter(ProjectRepository.Snapshot snapshot, int revision) {
+        int size = presentAfter(revision);
+        int checkpoint = upperBound(checkpointRevisions, checkpointCount, revision) - 1;
+        int from = checkpoint < 0 ? 0 : checkpointRevisions[checkpoint];
+
+        ScoreColumns state = new ScoreColumns(size);
+        byte[][] columns = columns(state);
+        int restored = 0;
+        if (checkpoint >= 0) {
+            byte[][] saved = columns(checkpoints[checkpoint]);
+            restored = Math.min(size, checkpoints[checkpoint].size());
+            for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+                System.arraycopy(saved[dimension], 0, columns[dimension], 0, restored);
+            }
+        }
+        // Projects added since the checkpoint start out with the scores they were added with
+        for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+            System.arraycopy(baseline[dimension], restored, columns[dimension], restored, size - restored);
+        }
+        for (int index = from; index < revision; index++) {
+            ScoreRevision change = snapshot.revision(index);
+            if (change.isAddition() || change.ordinal() >= size) {
+                continue;
+            }
+            for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+                columns[dimension][change.ordinal()] += (byte) change.delta(dimension);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Returns how many projects were present after the first {@code revision} revisions:
+     * everything before the first project added later.
+     */
+    private int presentAfter(int revision) {
+        int next = upperBound(additions, additionCount, revision - 1);
+        return next < additionCount ? additionOrdinals[next] : projects;
+    }
+
+    /**
+     * Returns when the project at the given ordinal was added, or null if that was
+     * before the history began.
+     */
+    private Instant addedAt(ProjectRepository.Snapshot snapshot, int ordinal) {
+        int addition = upperBound(additionOrdinals, additionCount, ordinal) - 1;
+        if (addition < 0) {
+            return null;
+        }
+        ScoreRevision revision = snapshot.revision(additions[addition]);
+        return ordinal < revision.ordinal() + revision.added() ? Instant.ofEpochMilli(revision.timestamp()) : null;
+    }
+
+    /**
+     * Returns the number of revisions made at or before the given time. Timestamps never
+     * decrease along the history, so these are a prefix of it.
+     */
+    private static int revisionsUntil(ProjectRepository.Snapshot snapshot, long timestamp) {
+        int low = 0;
+        int high = snapshot.revisions();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (snapshot.revision(mid).timestamp() <= timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the ordinals ordered by their score under the given model, highest first,
+     * then by ordinal. Sorting packs a score's rank among the distinct scores and the
+     * ordinal into one primitive key.
+     */
+    private int[] rank(ScoreColumns scores, String model) {
+        double[] values = new double[scores.size()];
+        scoreCalculator.score(model, scores, values);
+        double[] distinct = values.clone();
+        Arrays.parallelSort(distinct);
+        int unique = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            if (i == 0 || distinct[i] != distinct[i - 1]) {
+                distinct[unique++] = distinct[i];
+            }
+        }
+        long[] keys = new long[values.length];
+        for (int ordinal = 0; ordinal < values.length; ordinal++) {
+            long rank = unique - 1 - Arrays.binarySearch(distinct, 0, unique, values[ordinal]);
+            keys[ordinal] = rank << 32 | ordinal;
+        }
+        Arrays.parallelSort(keys);
+        int[] order = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    /**
+     * Returns the number of leading values that are at most the key.
+     */
+    private static int upperBound(int[] values, int size, int key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static byte[][] columns(ScoreColumns scores) {
+        return new byte[][]{scores.impact(), scores.confidence(), scores.ease(), scores.reach(), scores.effort()};
+    }
+
+    private static Project withScores(Project project, int[] scores) {
+        return Project.builder()
+                .name(project.getName())
+                .description(project.getDescription())
+                .impact(scores[ProjectAnswers.IMPACT])
+                .confidence(scores[ProjectAnswers.CONFIDENCE])
+                .ease(scores[ProjectAnswers.EASE])
+                .reach(scores[ProjectAnswers.REACH])
+                .effort(scores[ProjectAnswers.EFFORT])
+                .build();
+    }
+
+    /**
+     * How the scores of a project changed over time.
+     *
+     * @param initial the project with the scores it was added with, or had when the history began
+     * @param added   when the project was added, or null if that was before the history began
+     * @param changes every change of its scores, oldest first
+     */
+    public record ProjectHistory(Project initial, Instant added, List<Change> changes) {
+    }
+
+    /**
+     * One change of a project's scores, with the project as it was before and after.
+     */
+    public record Change(Instant timestamp, Project before, Project after) {
+    }
+
+    /**
+     * Read-through view of the projects of a snapshot with their past scores.
+     */
+    private static final class PastProjects extends AbstractList<Project> implements RandomAccess {
+        private final List<Project> projects;
+        private final ScoreColumns scores;
+        private final int[] order;
+
+        PastProjects(List<Project> projects, ScoreColumns scores, int[] order) {
+            this.projects = projects;
+            this.scores = scores;
+            this.order = order;
+        }
+
+        @Override
+        public Project get(int index) {
+            Objects.checkIndex(index, size());
+            int ordinal = order == null ? index : order[index];
+            byte[][] columns = columns(scores);
+            int[] past = new int[DIMENSIONS];
+            for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+                past[dimension] = columns[dimension][ordinal];
+            }
+            return withScores(projects.get(ordinal), past);
+        }
+
+        @Override
+        public int size() {
+            return scores.size();
+        }
+    }
+}
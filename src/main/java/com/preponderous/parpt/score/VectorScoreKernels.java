@@ -0,0 +1,108 @@
+package com.preponderous.parpt.score;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD implementations of the batch scoring loops on top of the incubating Vector API.
+ * Only referenced once {@link ScoreCalculator} has checked that the
+ * {@code jdk.incubator.vector} module is present, so this class is never loaded on a
+ * JVM started without it.
+ */
+final class VectorScoreKernels {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    // Eight byte lanes expand into one or more double vectors, one part at a time
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_64;
+    private static final int BYTE_PARTS = BYTES.length() / DOUBLES.length();
+    // Int vectors with as many lanes as the double vectors convert in a single step
+    private static final VectorSpecies<Integer> INTS =
+            IntVector.SPECIES_PREFERRED.withShape(VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    private VectorScoreKernels() {
+    }
+
+    /**
+     * Returns whether the preferred vector shape holds more than one double lane.
+     */
+    static boolean supported() {
+        return DOUBLES.length() > 1;
+    }
+
+    static void ice(byte[] impact, byte[] confidence, byte[] ease, double[] out, int length) {
+        int i = 0;
+        for (int bound = BYTES.loopBound(length); i < bound; i += BYTES.length()) {
+            ByteVector im = ByteVector.fromArray(BYTES, impact, i);
+            ByteVector co = ByteVector.fromArray(BYTES, confidence, i);
+            ByteVector ea = ByteVector.fromArray(BYTES, ease, i);
+            for (int part = 0; part < BYTE_PARTS; part++) {
+                toDoubles(im, part)
+                        .mul(toDoubles(co, part))
+                        .mul(toDoubles(ea, part))
+                        .intoArray(out, i + part * DOUBLES.length());
+            }
+        }
+        for (; i < length; i++) {
+            out[i] = impact[i] * confidence[i] * ease[i];
+        }
+    }
+
+    static void rice(byte[] reach, byte[] impact, byte[] confidence, byte[] effort, double[] out, int length) {
+        int i = 0;
+        for (int bound = BYTES.loopBound(length); i < bound; i += BYTES.length()) {
+            ByteVector re = ByteVector.fromArray(BYTES, reach, i);
+            ByteVector im = ByteVector.fromArray(BYTES, impact, i);
+            ByteVector co = ByteVector.fromArray(BYTES, confidence, i);
+            ByteVector ef = ByteVector.fromArray(BYTES, effort, i);
+            for (int part = 0; part < BYTE_PARTS; part++) {
+                toDoubles(re, part)
+                        .mul(toDoubles(im, part))
+                        .mul(toDoubles(co, part))
+                        .div(toDoubles(ef, part))
+                        .intoArray(out, i + part * DOUBLES.length());
+            }
+        }
+        for (; i < length; i++) {
+            out[i] = (double) (reach[i] * impact[i] * confidence[i]) / effort[i];
+        }
+    }
+
+    static void ice(int[] impact, int[] confidence, int[] ease, double[] out, int length) {
+        int i = 0;
+        for (int bound = INTS.loopBound(length); i < bound; i += INTS.length()) {
+            toDoubles(IntVector.fromArray(INTS, impact, i))
+                    .mul(toDoubles(IntVector.fromArray(INTS, confidence, i)))
+                    .mul(toDoubles(IntVector.fromArray(INTS, ease, i)))
+                    .intoArray(out, i);
+        }
+        for (; i < length; i++) {
+            out[i] = impact[i] * confidence[i] * ease[i];
+        }
+    }
+
+    static void rice(int[] reach, int[] impact, int[] confidence, int[] effort, double[] out, int length) {
+        int i = 0;
+        for (int bound = INTS.loopBound(length); i < bound; i += INTS.length()) {
+            toDoubles(IntVector.fromArray(INTS, reach, i))
+                    .mul(toDoubles(IntVector.fromArray(INTS, impact, i)))
+                    .mul(toDoubles(IntVector.fromArray(INTS, confidence, i)))
+                    .div(toDoubles(IntVector.fromArray(INTS, effort, i)))
+                    .intoArray(out, i);
+        }
+        for (; i < length; i++) {
+            out[i] = (double) (reach[i] * impact[i] * confidence[i]) / effort[i];
+        }
+    }
+
+    private static DoubleVector toDoubles(ByteVector vector, int part) {
+        return (DoubleVector) vector.convertShape(VectorOperators.B2D, DOUBLES, part);
+    }
+
+    private static DoubleVector toDoubles(IntVector vector) {
+        return (DoubleVector) vector.convertShape(VectorOperators.I2D, DOUBLES, 0);
+    }
+}
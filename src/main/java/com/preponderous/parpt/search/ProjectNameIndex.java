@@ -0,0 +1,63 @@
+package com.preponderous.parpt.search;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.repo.ProjectRepositoryListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Completes project names from a {@link ProjectNameTrie} kept in step with the
+ * repository. Like the other indexes it is built on first use, afterwards updated as
+ * projects are added and rebuilt after the repository is cleared.
+ */
+@Component
+public class ProjectNameIndex implements ProjectRepositoryListener {
+
+    private final ProjectRepository projectRepository;
+    private ProjectNameTrie trie = new ProjectNameTrie();
+    private boolean built;
+
+    public ProjectNameIndex(ProjectRepository projectRepository) {
+        this.projectRepository = projectRepository;
+        projectRepository.addListener(this);
+    }
+
+    /**
+     * Returns up to {@code limit} project names starting with the prefix, ignoring case,
+     * in alphabetical order.
+     */
+    public List<String> complete(String prefix, int limit) {
+        // Repository read lock before this index's monitor, as in RankedProjectIndex
+        return projectRepository.read(snapshot -> collect(snapshot, prefix == null ? "" : prefix, limit));
+    }
+
+    private synchronized List<String> collect(ProjectRepository.Snapshot snapshot, String prefix, int limit) {
+        if (!built) {
+            for (Project project : snapshot) {
+                trie.add(project.getName());
+            }
+            built = true;
+        }
+        return trie.complete(prefix, limit);
+    }
+
+    @Override
+    public synchronized void projectAdded(int ordinal, Project project) {
+        if (built) {
+            trie.add(project.getName());
+        }
+    }
+
+    @Override
+    public void projectUpdated(int ordinal, Project previous, Project project) {
+        // Names never change
+    }
+
+    @Override
+    public synchronized void projectsCleared() {
+        trie = new ProjectNameTrie();
+        built = false;
+    }
+}
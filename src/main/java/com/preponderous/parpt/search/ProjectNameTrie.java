@@ -0,0 +1,148 @@
+package com.preponderous.parpt.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Radix tree of project names keyed by their lower-cased form. Every edge holds a whole
+ * run of characters rather than one, and children are kept sorted by their first
+ * character, so completing a prefix costs the prefix length plus the number of names
+ * returned, however many names there are. Not thread-safe.
+ */
+final class ProjectNameTrie {
+
+    private final Node root = new Node("");
+    private int size;
+
+    /**
+     * Adds a name. Names differing only in case share a key and are returned together.
+     */
+    void add(String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        Node node = root;
+        int offset = 0;
+        while (offset < key.length()) {
+            int index = node.childIndex(key.charAt(offset));
+            if (index < 0) {
+                node.insertChild(-index - 1, new Node(key.substring(offset)));
+                index = -index - 1;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, offset);
+            if (common < child.label.length()) {
+                // The key leaves this edge part way along, so split it there
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children = new Node[]{child};
+                node.children[index] = split;
+                child = split;
+            }
+            node = child;
+            offset += common;
+        }
+        node.addName(name);
+        size++;
+    }
+
+    /**
+     * Returns up to {@code limit} names starting with the prefix, ignoring case, in the
+     * order of their lower-cased forms.
+     */
+    List<String> complete(String prefix, int limit) {
+        List<String> names = new ArrayList<>(Math.min(limit, 64));
+        String key = prefix.toLowerCase(Locale.ROOT);
+        Node node = root;
+        int offset = 0;
+        while (offset < key.length()) {
+            int index = node.childIndex(key.charAt(offset));
+            if (index < 0) {
+                return names;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, offset);
+            if (offset + common < key.length() && common < child.label.length()) {
+                return names;
+            }
+            node = child;
+            offset += common;
+        }
+        collect(node, names, limit);
+        return names;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static void collect(Node node, List<String> names, int limit) {
+        for (int i = 0; i < node.nameCount && names.size() < limit; i++) {
+            names.add(node.names[i]);
+        }
+        for (Node child : node.children) {
+            if (names.size() >= limit) {
+                return;
+            }
+            collect(child, names, limit);
+        }
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int length = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final String[] NO_NAMES = new String[0];
+
+        String label;
+        Node[] children = NO_CHILDREN;
+        String[] names = NO_NAMES;
+        int nameCount;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Binary search by first character, returning {@code -(insertion point) - 1} if absent.
+         */
+        int childIndex(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char c = children[mid].label.charAt(0);
+                if (c < first) {
+                    low = mid + 1;
+                } else if (c > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -low - 1;
+        }
+
+        void insertChild(int index, Node child) {
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, index);
+            grown[index] = child;
+            System.arraycopy(children, index, grown, index + 1, children.length - index);
+            children = grown;
+        }
+
+        void addName(String name) {
+            if (nameCount == names.length) {
+                names = Arrays.copyOf(names, Math.max(1, nameCount * 2));
+            }
+            names[nameCount++] = name;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.preponderous.parpt.search;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.repo.ProjectRepositoryListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Inverted index over the names and descriptions of the repository's projects. Text is
+ * split into lower-cased runs of letters and digits; every term maps to the ordinals of
+ * the projects containing it, in ordinal order, along with the fields it occurs in.
+ * Terms are kept sorted, so a query term also matches every term it is a prefix of.
+ * <p>
+ * A project matches when every query term matches one of its terms. Hits are ranked by
+ * the sum, over the query terms, of the best matching term's weight: name matches
+ * outweigh description matches, exact matches outweigh prefix matches, and rarer terms
+ * outweigh common ones.
+ * <p>
+ * Like the ranked index, the index is built on first use, splitting the repository into
+ * ranges that are tokenized in parallel, afterwards updated as projects are added and
+ * rebuilt after the repository is cleared.
+ */
+@Component
+public class ProjectSearchIndex implements ProjectRepositoryListener {
+
+    private static final byte NAME = 1;
+    private static final byte DESCRIPTION = 2;
+
+    private static final float NAME_WEIGHT = 3;
+    private static final float DESCRIPTION_WEIGHT = 1;
+    private static final float PREFIX_WEIGHT = 0.5f;
+    private static final int BUILD_CHUNK_SIZE = 16 * 1024;
+
+    private final ProjectRepository projectRepository;
+    private NavigableMap<String, Postings> terms = new TreeMap<>();
+    private int indexed;
+    private boolean built;
+
+    public ProjectSearchIndex(ProjectRepository projectRepository) {
+        this.projectRepository = projectRepository;
+        projectRepository.addListener(this);
+    }
+
+    /**
+     * Returns up to {@code limit} projects matching every term of the query, best first.
+     * Projects ranked equally keep the order in which they were added. A query without
+     * any letters or digits matches nothing.
+     */
+    public List<Project> search(String query, int limit) {
+        // Matches are counted in a byte per project
+        List<String> queryTerms = tokenize(query).stream().distinct().limit(Byte.MAX_VALUE).toList();
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // Repository read lock before this index's monitor, as in RankedProjectIndex
+        return projectRepository.read(snapshot -> collect(snapshot, queryTerms, limit));
+    }
+
+    private synchronized List<Project> collect(ProjectRepository.Snapshot snapshot, List<String> queryTerms, int limit) {
+        if (!built) {
+            build(snapshot);
+        }
+
+        int size = indexed;
+        // Rarest query term first, so the candidates only shrink from there
+        Map<String, Long> postingsCounts = new HashMap<>();
+        queryTerms.forEach(queryTerm -> postingsCounts.put(queryTerm, postingsCount(prefixRange(queryTerm))));
+        List<String> ordered = queryTerms.stream()
+                .sorted(Comparator.comparing(postingsCounts::get))
+                .toList();
+        float[] scores = new float[size];
+        byte[] matched = new byte[size];
+        float[] best = new float[size];
+        int[] candidates = new int[0];
+        int candidateCount = 0;
+        for (int t = 0; t < ordered.size(); t++) {
+            String queryTerm = ordered.get(t);
+            int[] touched = new int[t == 0 ? 16 : candidateCount];
+            int touchedCount = 0;
+            for (Map.Entry<String, Postings> term : prefixRange(queryTerm).entrySet()) {
+                Postings postings = term.getValue();
+                float termWeight = idf(postings.size, size) * (term.getKey().length() == queryTerm.length() ? 1 : PREFIX_WEIGHT);
+                // Once few candidates are left, looking them up beats scanning the postings
+                boolean lookUp = t > 0 && (long) candidateCount * 32 < postings.size;
+                int count = lookUp ? candidateCount : postings.size;
+                for (int i = 0; i < count; i++) {
+                    int index = lookUp ? Arrays.binarySearch(postings.ordinals, 0, postings.size, candidates[i]) : i;
+                    if (index < 0) {
+                        continue;
+                    }
+                    int ordinal = postings.ordinals[index];
+                    // Only projects that matched every earlier query term can still match
+                    if (matched[ordinal] != t) {
+                        continue;
+                    }
+                    float weight = termWeight * fieldWeight(postings.fields[index]);
+                    if (best[ordinal] == 0) {
+                        if (touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, touchedCount * 2);
+                        }
+                        touched[touchedCount++] = ordinal;
+                    }
+                    best[ordinal] = Math.max(best[ordinal], weight);
+                }
+            }
+            if (touchedCount == 0) {
+                return List.of();
+            }
+            for (int i = 0; i < touchedCount; i++) {
+                int ordinal = touched[i];
+                scores[ordinal] += best[ordinal];
+                matched[ordinal]++;
+                best[ordinal] = 0;
+            }
+            candidates = touched;
+            candidateCount = touchedCount;
+        }
+
+        // Candidates left after the last query term matched all of them
+        Comparator<Integer> ranking = Comparator.<Integer>comparingDouble(ordinal -> scores[ordinal])
+                .thenComparing(Comparator.<Integer>reverseOrder());
+        PriorityQueue<Integer> top = new PriorityQueue<>(Math.min(limit, candidateCount) + 1, ranking);
+        for (int i = 0; i < candidateCount; i++) {
+            int ordinal = candidates[i];
+            if (top.size() == limit && ranking.compare(ordinal, top.peek()) < 0) {
+                // Worse than every hit kept so far
+                continue;
+            }
+            top.add(ordinal);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<Project> hits = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            hits.add(snapshot.get(top.poll()));
+        }
+        Collections.reverse(hits);
+        return hits;
+    }
+
+    @Override
+    public synchronized void projectAdded(int ordinal, Project project) {
+        if (built) {
+            index(terms, ordinal, project);
+            indexed = ordinal + 1;
+        }
+    }
+
+    @Override
+    public void projectUpdated(int ordinal, Project previous, Project project) {
+        // Only scores change, and they are not indexed here
+    }
+
+    @Override
+    public synchronized void projectsCleared() {
+        terms = new TreeMap<>();
+        indexed = 0;
+        built = false;
+    }
+
+    /**
+     * Splits text into lower-cased runs of letters and digits.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letterOrDigit = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letterOrDigit && start < 0) {
+                start = i;
+            } else if (!letterOrDigit && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static long postingsCount(NavigableMap<String, Postings> range) {
+        long count = 0;
+        for (Postings postings : range.values()) {
+            count += postings.size;
+        }
+        return count;
+    }
+
+    private NavigableMap<String, Postings> prefixRange(String prefix) {
+        return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private void build(ProjectRepository.Snapshot snapshot) {
+        int size = snapshot.size();
+        int chunks = (size + BUILD_CHUNK_SIZE - 1) / BUILD_CHUNK_SIZE;
+        // Each range gets its own partial index; merging them in range order keeps every
+        // posting list sorted by ordinal
+        List<Map<String, Postings>> partials = IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> {
+                    Map<String, Postings> partial = new HashMap<>();
+                    int end = Math.min(size, (chunk + 1) * BUILD_CHUNK_SIZE);
+                    for (int ordinal = chunk * BUILD_CHUNK_SIZE; ordinal < end; ordinal++) {
+                        index(partial, ordinal, snapshot.get(ordinal));
+                    }
+                    return partial;
+                })
+                .toList();
+        Map<String, Postings> merged = new HashMap<>();
+        for (Map<String, Postings> partial : partials) {
+            partial.forEach((term, postings) -> merged.merge(term, postings, Postings::append));
+        }
+        terms = new TreeMap<>(merged);
+        indexed = size;
+        built = true;
+    }
+
+    private static void index(Map<String, Postings> terms, int ordinal, Project project) {
+        Map<String, Byte> fields = new LinkedHashMap<>();
+        for (String token : tokenize(project.getName())) {
+            fields.merge(token, NAME, (a, b) -> (byte) (a | b));
+        }
+        for (String token : tokenize(project.getDescription())) {
+            fields.merge(token, DESCRIPTION, (a, b) -> (byte) (a | b));
+        }
+        fields.forEach((token, field) -> terms.computeIfAbsent(token, t -> new Postings()).add(ordinal, field));
+    }
+
+    private static float fieldWeight(byte fields) {
+        return ((fields & NAME) != 0 ? NAME_WEIGHT : 0) + ((fields & DESCRIPTION) != 0 ? DESCRIPTION_WEIGHT : 0);
+    }
+
+    private static float idf(int documentFrequency, int documents) {
+        return (float) Math.log(1 + (double) documents / documentFrequency);
+    }
+
+    /**
+     * Growable posting list: ordinals in ascending order and the fields the term occurs in.
+     */
+    private static final class Postings {
+        int[] ordinals = new int[4];
+        byte[] fields = new byte[4];
+        int size;
+
+        void add(int ordinal, byte field) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            ordinals[size] = ordinal;
+            fields[size] = field;
+            size++;
+        }
+
+        Postings append(Postings other) {
+            if (size + other.size > ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size + other.size);
+                fields = Arrays.copyOf(fields, size + other.size);
+            }
+            System.arraycopy(other.ordinals, 0, ordinals, size, other.size);
+            System.arraycopy(other.fields, 0, fields, size, other.size);
+            size += other.size;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.preponderous.parpt.service;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.score.ScoreCalculator;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exports projects as an Obsidian vault: one Markdown note per project, with its scores
+ * as note properties, and an index note linking to all of them.
+ * <p>
+ * Every note is rendered on each export, but only written if its content hash differs
+ * from the one recorded in a manifest inside the vault, or the note is missing or has
+ * a different size, so re-exporting after a single change writes a single note. Edits
+ * that keep a note's size are not noticed; a full export rewrites every note and is
+ * the way to repair those. The index only lists names and therefore changes only
+ * when projects are added or cleared. Notes listed in the manifest whose project is gone
+ * are deleted; other files in the vault are never touched. Notes are rendered, hashed
+ * and written in chunks on a fixed pool of {@code app.export.threads} threads.
+ */
+@Service
+public class ProjectExportService {
+
+    private static final String INDEX_NOTE = "projects.md";
+    private static final String MANIFEST = ".parpt-export";
+    private static final String MANIFEST_HEADER = "parpt-export 1";
+    private static final String NOTE_EXTENSION = ".md";
+    // Characters that file systems or Obsidian links do not allow in note names
+    private static final String RESERVED_CHARACTERS = "\\/:*?\"<>|#^[]";
+    private static final int MAX_NAME_LENGTH = 200;
+    private static final int CHUNK_SIZE = 512;
+    private static final int HASH_BYTES = 16;
+
+    private final ProjectService projectService;
+    private final ScoreCalculator scoreCalculator;
+    private final Path defaultVault;
+    private final ExecutorService executor;
+
+    public ProjectExportService(
+            ProjectService projectService,
+            ScoreCalculator scoreCalculator,
+            @Value("${app.export.vault:vault}") String defaultVault,
+            @Value("${app.export.threads:4}") int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Export threads must be at least 1.");
+        }
+        this.projectService = projectService;
+        this.scoreCalculator = scoreCalculator;
+        this.defaultVault = Path.of(defaultVault);
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "parpt-export-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the vault exported to when none is given.
+     */
+    public Path defaultVault() {
+        return defaultVault;
+    }
+
+    /**
+     * Brings the vault up to date with the current projects.
+     *
+     * @param full whether to rewrite every note, even those the manifest says are current,
+     *             which repairs notes edited by hand
+     */
+    public ExportResult export(Path vault, boolean full) throws IOException {
+        List<Project> projects = projectService.getProjects();
+        Files.createDirectories(vault);
+        Map<String, String> manifest = readManifest(vault.resolve(MANIFEST));
+        Map<String, String> recorded = full ? Map.of() : manifest;
+
+        String[] fileNames = fileNames(projects);
+        String[] hashes = new String[projects.size()];
+        List<Future<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < projects.size(); from += CHUNK_SIZE) {
+            int start = from;
+            int end = Math.min(from + CHUNK_SIZE, projects.size());
+            chunks.add(executor.submit(() -> {
+                MessageDigest digest = sha256();
+                int written = 0;
+                for (int i = start; i < end; i++) {
+                    byte[] content = note(projects.get(i), fileNames[i]).getBytes(StandardCharsets.UTF_8);
+                    hashes[i] = hash(digest, content);
+                    Path note = vault.resolve(fileNames[i]);
+                    if (!isCurrent(note, content, hashes[i], recorded.get(fileNames[i]))) {
+                        Files.write(note, content);
+                        written++;
+                    }
+                }
+                return written;
+            }));
+        }
+
+        byte[] index = index(projects, fileNames).getBytes(StandardCharsets.UTF_8);
+        String indexHash = hash(sha256(), index);
+        int written = 0;
+        if (!isCurrent(vault.resolve(INDEX_NOTE), index, indexHash, recorded.get(INDEX_NOTE))) {
+            Files.write(vault.resolve(INDEX_NOTE), index);
+            written++;
+        }
+        written += await(chunks);
+
+        Map<String, String> updated = new HashMap<>(projects.size() * 2);
+        updated.put(INDEX_NOTE, indexHash);
+        for (int i = 0; i < fileNames.length; i++) {
+            updated.put(fileNames[i], hashes[i]);
+        }
+        int deleted = 0;
+        for (String fileName : manifest.keySet()) {
+            if (!updated.containsKey(fileName) && Files.deleteIfExists(vault.resolve(fileName))) {
+                deleted++;
+            }
+        }
+        if (written > 0 || deleted > 0 || !updated.equals(manifest)) {
+            writeManifest(vault.resolve(MANIFEST), fileNames, hashes, indexHash);
+        }
+        return new ExportResult(projects.size(), written, fileNames.length + 1 - written, deleted);
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Renders a project's note: its scores as properties, then its name and description.
+     */
+    private String note(Project project, String fileName) {
+        StringBuilder note = new StringBuilder("---\n");
+        if (!fileName.equals(project.getName() + NOTE_EXTENSION)) {
+            // Lets links and searches by the real name find the note
+            note.append("aliases:\n  - ").append(quote(project.getName())).append('\n');
+        }
+        note.append("impact: ").append(project.getImpact()).append('\n')
+                .append("confidence: ").append(project.getConfidence()).append('\n')
+                .append("ease: ").append(project.getEase()).append('\n')
+                .append("reach: ").append(project.getReach()).append('\n')
+                .append("effort: ").append(project.getEffort()).append('\n');
+        for (String model : scoreCalculator.models()) {
+            note.append(model).append(": ").append(scoreCalculator.score(model, project)).append('\n');
+        }
+        note.append("---\n\n# ").append(project.getName()).append("\n\n");
+        if (project.getDescription() != null) {
+            note.append(project.getDescription()).append('\n');
+        }
+        return note.toString();
+    }
+
+    private static String index(List<Project> projects, String[] fileNames) {
+        StringBuilder index = new StringBuilder("# Projects\n\n");
+        for (int i = 0; i < fileNames.length; i++) {
+            String name = projects.get(i).getName();
+            String target = fileNames[i].substring(0, fileNames[i].length() - NOTE_EXTENSION.length());
+            index.append("- [[").append(target);
+            if (!target.equals(name) && name.chars().noneMatch(c -> c == '[' || c == ']' || c == '|')) {
+                index.append('|').append(name);
+            }
+            index.append("]]\n");
+        }
+        return index.toString();
+    }
+
+    /**
+     * Derives a note file name from every project name, replacing characters that cannot
+     * appear in one and numbering names that would clash, ignoring case, in insertion
+     * order. As projects are never removed one by one, a project keeps its file name.
+     */
+    private static String[] fileNames(List<Project> projects) {
+        String[] fileNames = new String[projects.size()];
+        Set<String> taken = new HashSet<>();
+        taken.add(INDEX_NOTE);
+        for (int i = 0; i < fileNames.length; i++) {
+            String base = baseName(projects.get(i).getName());
+            String fileName = base + NOTE_EXTENSION;
+            for (int suffix = 2; !taken.add(fileName.toLowerCase(Locale.ROOT)); suffix++) {
+                fileName = base + " (" + suffix + ")" + NOTE_EXTENSION;
+            }
+            fileNames[i] = fileName;
+        }
+        return fileNames;
+    }
+
+    private static String baseName(String name) {
+        StringBuilder base = new StringBuilder(name.length());
+        name.codePoints().forEach(c -> {
+            if (c < 0x20 || c == 0x7F || RESERVED_CHARACTERS.indexOf(c) >= 0) {
+                base.append('-');
+            } else {
+                base.appendCodePoint(c);
+            }
+        });
+        // Leading dots hide a file; trailing dots and spaces are dropped on Windows
+        int start = 0;
+        int end = base.length();
+        while (start < end && (base.charAt(start) == '.' || base.charAt(start) == ' ')) {
+            start++;
+        }
+        while (end > start && (base.charAt(end - 1) == '.' || base.charAt(end - 1) == ' ')) {
+            end--;
+        }
+        String trimmed = base.substring(start, end);
+        if (trimmed.codePointCount(0, trimmed.length()) > MAX_NAME_LENGTH) {
+            trimmed = trimmed.substring(0, trimmed.offsetByCodePoints(0, MAX_NAME_LENGTH)).stripTrailing();
+        }
+        return trimmed.isEmpty() ? "Untitled" : trimmed;
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\x%02x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * Tells whether a note can be left alone: the last export wrote the same content, and
+     * the note is still there with that content's size. Comparing sizes catches deleted
+     * and most hand-edited notes without reading them back.
+     */
+    private static boolean isCurrent(Path note, byte[] content, String hash, String recordedHash) throws IOException {
+        if (!hash.equals(recordedHash)) {
+            return false;
+        }
+        try {
+            return Files.size(note) == content.length;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads the file names and hashes of the last export. A missing or unrecognized
+     * manifest reads as empty, so every note is written again.
+     */
+    private static Map<String, String> readManifest(Path file) throws IOException {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return Map.of();
+        }
+        if (lines.isEmpty() || !lines.get(0).equals(MANIFEST_HEADER)) {
+            return Map.of();
+        }
+        Map<String, String> manifest = new HashMap<>(lines.size() * 2);
+        for (String line : lines.subList(1, lines.size())) {
+            int tab = line.indexOf('\t');
+            if (tab > 0) {
+                manifest.put(line.substring(tab + 1), line.substring(0, tab));
+            }
+        }
+        return manifest;
+    }
+
+    private static void writeManifest(Path file, String[] fileNames, String[] hashes, String indexHash) throws IOException {
+        StringBuilder manifest = new StringBuilder(MANIFEST_HEADER).append('\n');
+        manifest.append(indexHash).append('\t').append(INDEX_NOTE).append('\n');
+        for (int i = 0; i < fileNames.length; i++) {
+            manifest.append(hashes[i]).append('\t').append(fileNames[i]).append('\n');
+        }
+        // Renamed over the old manifest, so a crash leaves one that matches some export
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(temp, manifest, StandardCharsets.UTF_8);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int await(List<Future<Integer>> chunks) throws IOException {
+        int written = 0;
+        try {
+            for (Future<Integer> chunk : chunks) {
+                written += chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while exporting projects", e);
+        } catch (ExecutionException e) {
+            chunks.forEach(chunk -> chunk.cancel(false));
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof UncheckedIOException cause) {
+                throw cause.getCause();
+            }
+            throw new RuntimeException("Failed to export projects", e.getCause());
+        }
+        return written;
+    }
+
+    private static String hash(MessageDigest digest, byte[] content) {
+        return HexFormat.of().formatHex(Arrays.copyOf(digest.digest(content), HASH_BYTES));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * How many notes an export wrote, left alone because they were current, and deleted
+     * because their project was gone. The index note is counted among the notes.
+     */
+    public record ExportResult(int projects, int written, int unchanged, int deleted) {
+    }
+}
@@ -0,0 +1,370 @@
+package com.preponderous.parpt.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.repo.ProjectRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk-loads projects from CSV or JSON Lines files. Lines are parsed and validated in
+ * parallel, duplicate names are then resolved in file order, and every valid project
+ * is committed with a single persistence flush. A CSV record may span several lines
+ * when a quoted field contains line breaks; errors point at the line it starts on.
+ */
+@Service
+public class ProjectImportService {
+
+    private static final List<String> CSV_COLUMNS =
+            List.of("name", "description", "impact", "confidence", "ease", "reach", "effort");
+
+    private final ProjectService projectService;
+    private final ObjectReader projectReader;
+
+    public ProjectImportService(ProjectService projectService, ObjectMapper objectMapper) {
+        this.projectService = projectService;
+        this.projectReader = objectMapper.readerFor(Project.class);
+    }
+
+    public enum Format {
+        CSV, JSONL;
+
+        /**
+         * Resolves a format from an explicit name or, if that is null, from the file extension.
+         */
+        public static Format of(String name, Path file) {
+            String value = name != null ? name : extension(file);
+            return switch (value.toLowerCase(Locale.ROOT)) {
+                case "csv" -> CSV;
+                case "jsonl", "ndjson" -> JSONL;
+                default -> throw new IllegalArgumentException("Unsupported import format: " + value);
+            };
+        }
+
+        private static String extension(Path file) {
+            String fileName = file.getFileName().toString();
+            int dot = fileName.lastIndexOf('.');
+            return dot < 0 ? "" : fileName.substring(dot + 1);
+        }
+    }
+
+    public ImportResult importFile(Path file, Format format) throws IOException {
+        List<SourceLine> lines = format == Format.CSV
+                ? csvRecords(Files.readString(file, StandardCharsets.UTF_8))
+                : lines(Files.readAllLines(file, StandardCharsets.UTF_8));
+        int firstLine = 0;
+        int[] columns = defaultColumns();
+        if (format == Format.CSV && !lines.isEmpty() && isCsvHeader(lines.get(0).text())) {
+            columns = headerColumns(lines.get(0).text());
+            firstLine = 1;
+        }
+
+        int[] csvColumns = columns;
+        ParsedLine[] parsed = IntStream.range(firstLine, lines.size())
+                .parallel()
+                .mapToObj(i -> parseLine(lines.get(i).number(), lines.get(i).text(), format, csvColumns))
+                .toArray(ParsedLine[]::new);
+
+        List<ParsedLine> accepted = new ArrayList<>();
+        List<LineError> errors = new ArrayList<>();
+        Map<String, Integer> firstSeen = new HashMap<>();
+        for (ParsedLine line : parsed) {
+            if (line == null) {
+                continue;
+            }
+            if (line.error != null) {
+                errors.add(new LineError(line.lineNumber, line.error));
+                continue;
+            }
+            String name = line.project.getName();
+            Integer previous = firstSeen.putIfAbsent(name, line.lineNumber);
+            if (previous != null) {
+                errors.add(new LineError(line.lineNumber, "Duplicate project name '" + name + "' (first seen on line " + previous + ")."));
+            } else if (projectService.isNameTaken(name)) {
+                errors.add(new LineError(line.lineNumber, "Project name '" + name + "' is already taken."));
+            } else {
+                accepted.add(line);
+            }
+        }
+
+        int imported = commit(accepted, errors);
+        errors.sort(Comparator.comparingInt(LineError::getLineNumber));
+        return new ImportResult(imported, errors);
+    }
+
+    /**
+     * Adds the accepted projects in one batch and returns how many were added. Names were
+     * checked above, so a batch is only refused if another process took some of them
+     * since; those rows are then rejected and the rest of the batch is tried again.
+     */
+    private int commit(List<ParsedLine> accepted, List<LineError> errors) {
+        List<ParsedLine> remaining = accepted;
+        while (!remaining.isEmpty()) {
+            try {
+                projectService.createProjects(remaining.stream().map(line -> line.project).toList());
+                return remaining.size();
+            } catch (ProjectRepository.NameTakenException e) {
+                Set<String> taken = new HashSet<>(e.getNames());
+                List<ParsedLine> kept = new ArrayList<>();
+                for (ParsedLine line : remaining) {
+                    if (taken.contains(line.project.getName())) {
+                        errors.add(new LineError(line.lineNumber, "Project name '" + line.project.getName() + "' is already taken."));
+                    } else {
+                        kept.add(line);
+                    }
+                }
+                if (kept.size() == remaining.size()) {
+                    // Nothing to drop, so trying again would fail the same way
+                    remaining.forEach(line -> errors.add(new LineError(line.lineNumber, e.getMessage())));
+                    return 0;
+                }
+                remaining = kept;
+            }
+        }
+        return 0;
+    }
+
+    private ParsedLine parseLine(int lineNumber, String line, Format format, int[] columns) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            Project project = format == Format.CSV ? parseCsv(line, columns) : parseJson(line);
+            String error = validate(project);
+            return error == null ? new ParsedLine(lineNumber, project, null) : new ParsedLine(lineNumber, null, error);
+        } catch (IllegalArgumentException e) {
+            return new ParsedLine(lineNumber, null, e.getMessage());
+        }
+    }
+
+    private Project parseJson(String line) {
+        try {
+            return projectReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private Project parseCsv(String line, int[] columns) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() < CSV_COLUMNS.size()) {
+            throw new IllegalArgumentException("Expected " + CSV_COLUMNS.size() + " fields but found " + fields.size() + ".");
+        }
+        return Project.builder()
+                .name(fields.get(columns[0]).trim())
+                .description(fields.get(columns[1]).trim())
+                .impact(parseScore(fields.get(columns[2]), "impact"))
+                .confidence(parseScore(fields.get(columns[3]), "confidence"))
+                .ease(parseScore(fields.get(columns[4]), "ease"))
+                .reach(parseScore(fields.get(columns[5]), "reach"))
+                .effort(parseScore(fields.get(columns[6]), "effort"))
+                .build();
+    }
+
+    private static int parseScore(String value, String dimension) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + dimension + " score '" + value.trim() + "'. Must be a number between 1 and 5.");
+        }
+    }
+
+    private static String validate(Project project) {
+        if (project.getName() == null || project.getName().isEmpty()) {
+            return "Project name cannot be empty.";
+        }
+        if (project.getDescription() == null || project.getDescription().isEmpty()) {
+            return "Project description cannot be empty.";
+        }
+        for (int score : new int[]{project.getImpact(), project.getConfidence(), project.getEase(),
+                project.getReach(), project.getEffort()}) {
+            if (score < 1 || score > 5) {
+                return "All scores must be between 1 and 5.";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Tells a header from a data row: every field of a header names a known column, in
+     * any order. A project that happens to be called "name" is still data, since its
+     * scores are not column names. A header that leaves out a column is then rejected
+     * by {@link #headerColumns} rather than imported as a broken row.
+     */
+    private static boolean isCsvHeader(String line) {
+        List<String> fields;
+        try {
+            fields = splitCsv(line);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return fields.stream().allMatch(field -> CSV_COLUMNS.contains(field.trim().toLowerCase(Locale.ROOT)));
+    }
+
+    private static int[] defaultColumns() {
+        return IntStream.range(0, CSV_COLUMNS.size()).toArray();
+    }
+
+    private static int[] headerColumns(String header) {
+        List<String> fields = splitCsv(header);
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < CSV_COLUMNS.size(); i++) {
+            int column = -1;
+            for (int j = 0; j < fields.size(); j++) {
+                if (fields.get(j).trim().equalsIgnoreCase(CSV_COLUMNS.get(i))) {
+                    column = j;
+                }
+            }
+            if (column < 0) {
+                throw new IllegalArgumentException("CSV header is missing the '" + CSV_COLUMNS.get(i) + "' column.");
+            }
+            columns[i] = column;
+        }
+        return columns;
+    }
+
+    private static List<SourceLine> lines(List<String> lines) {
+        List<SourceLine> numbered = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            numbered.add(new SourceLine(i + 1, lines.get(i)));
+        }
+        return numbered;
+    }
+
+    /**
+     * Splits CSV content into records at line breaks outside quoted fields, numbering
+     * each record by the line it starts on. A quote left open runs to the end of the
+     * content, which {@link #splitCsv} then reports.
+     */
+    static List<SourceLine> csvRecords(String content) {
+        List<SourceLine> records = new ArrayList<>();
+        int line = 1;
+        int start = 0;
+        int startLine = 1;
+        boolean quoted = false;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c == '"') {
+                // A doubled quote inside a quoted field toggles twice and stays quoted
+                quoted = !quoted;
+            } else if (c == '\n' || c == '\r') {
+                if (!quoted) {
+                    records.add(new SourceLine(startLine, content.substring(start, i)));
+                }
+                if (c == '\r' && i + 1 < content.length() && content.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                line++;
+                if (!quoted) {
+                    start = i + 1;
+                    startLine = line;
+                }
+            }
+        }
+        if (start < content.length()) {
+            records.add(new SourceLine(startLine, content.substring(start)));
+        }
+        return records;
+    }
+
+    /**
+     * Splits a single CSV record following RFC 4180 quoting. Quoted fields may contain
+     * commas, doubled quotes and line breaks.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field.");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    record SourceLine(int number, String text) {
+    }
+
+    private static final class ParsedLine {
+        final int lineNumber;
+        final Project project;
+        final String error;
+
+        ParsedLine(int lineNumber, Project project, String error) {
+            this.lineNumber = lineNumber;
+            this.project = project;
+            this.error = error;
+        }
+    }
+
+    public static class LineError {
+        private final int lineNumber;
+        private final String message;
+
+        public LineError(int lineNumber, String message) {
+            this.lineNumber = lineNumber;
+            this.message = message;
+        }
+
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    public static class ImportResult {
+        private final int imported;
+        private final List<LineError> errors;
+
+        public ImportResult(int imported, List<LineError> errors) {
+            this.imported = imported;
+            this.errors = errors;
+        }
+
+        public int getImported() {
+            return imported;
+        }
+
+        public List<LineError> getErrors() {
+            return errors;
+        }
+    }
+}
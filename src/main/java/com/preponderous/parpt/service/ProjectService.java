@@ -1,20 +1,61 @@
 package com.preponderous.parpt.service;
 
 import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ProjectAnswers;
+import com.preponderous.parpt.filter.ProjectFilter;
+import com.preponderous.parpt.filter.ScoreBitmapIndex;
 import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.score.PortfolioOptimizer;
+import com.preponderous.parpt.score.ProjectFrontier;
+import com.preponderous.parpt.score.RankSimulator;
+import com.preponderous.parpt.score.RankedProjectIndex;
+import com.preponderous.parpt.score.ScoreTimeline;
+import com.preponderous.parpt.search.ProjectSearchIndex;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class ProjectService {
     private final ProjectRepository projectRepository;
+    private final RankedProjectIndex rankedProjectIndex;
+    private final ProjectSearchIndex projectSearchIndex;
+    private final ScoreBitmapIndex scoreBitmapIndex;
+    private final ProjectFrontier projectFrontier;
+    private final PortfolioOptimizer portfolioOptimizer;
+    private final RankSimulator rankSimulator;
+    private final ScoreTimeline scoreTimeline;
 
-    public ProjectService(ProjectRepository projectRepository) {
+    public ProjectService(ProjectRepository projectRepository, RankedProjectIndex rankedProjectIndex,
+                          ProjectSearchIndex projectSearchIndex, ScoreBitmapIndex scoreBitmapIndex,
+                          ProjectFrontier projectFrontier, PortfolioOptimizer portfolioOptimizer,
+                          RankSimulator rankSimulator, ScoreTimeline scoreTimeline) {
         this.projectRepository = projectRepository;
+        this.rankedProjectIndex = rankedProjectIndex;
+        this.projectSearchIndex = projectSearchIndex;
+        this.scoreBitmapIndex = scoreBitmapIndex;
+        this.projectFrontier = projectFrontier;
+        this.portfolioOptimizer = portfolioOptimizer;
+        this.rankSimulator = rankSimulator;
+        this.scoreTimeline = scoreTimeline;
     }
 
     public Project createProject(String name, String description, int impact, int confidence, int ease, int reach, int effort) throws ProjectRepository.NameTakenException {
+        return createProject(name, description, impact, confidence, ease, reach, effort, ProjectAnswers.NONE, 0);
+    }
+
+    /**
+     * Creates a project, keeping the raw answers its scores were worked out from.
+     *
+     * @param answers          the answers as packed by {@link ProjectAnswers}
+     * @param promptSetVersion the version of the prompt set the answers were given to
+     */
+    public Project createProject(String name, String description, int impact, int confidence, int ease, int reach, int effort,
+                                 long answers, int promptSetVersion) throws ProjectRepository.NameTakenException {
         Project project = Project.builder()
                 .name(name)
                 .description(description)
@@ -23,25 +64,163 @@ public class ProjectService {
                 .ease(ease)
                 .reach(reach)
                 .effort(effort)
+                .answers(answers)
+                .promptSetVersion(promptSetVersion)
                 .build();
         projectRepository.add(project);
         return project;
     }
 
+    /**
+     * Replaces the given scores of a project, keeping a record of what changed. Scores
+     * passed as null are left as they are.
+     *
+     * @return the project as it was before and after the update
+     */
+    public ProjectRepository.ScoreUpdate updateProject(String projectName, Integer impact, Integer confidence,
+                                                       Integer ease, Integer reach, Integer effort)
+            throws ProjectRepository.ProjectNotFoundException {
+        return projectRepository.update(projectName, impact, confidence, ease, reach, effort);
+    }
+
+    /**
+     * Returns how the scores of the project with exactly the given name changed over time.
+     */
+    public ScoreTimeline.ProjectHistory getHistory(String projectName) throws ProjectRepository.ProjectNotFoundException {
+        return scoreTimeline.history(projectName);
+    }
+
+    /**
+     * Returns the projects as they were at the given moment, in insertion order or, if a
+     * model is given, ranked under it highest first.
+     *
+     * @throws IllegalArgumentException if the model is unknown
+     */
+    public List<Project> getProjectsAsOf(Instant asOf, String model) {
+        return scoreTimeline.asOf(asOf, model);
+    }
+
+    /**
+     * Persists a batch of already validated projects in one go.
+     */
+    public void createProjects(List<Project> projects) throws ProjectRepository.NameTakenException {
+        projectRepository.addAll(projects);
+    }
+
     public List<Project> getProjects() {
         return projectRepository.findAll();
     }
 
+    /**
+     * Returns at most {@code limit} projects in insertion order, starting at {@code offset}.
+     */
+    public List<Project> getProjects(int offset, int limit) {
+        return projectRepository.findRange(offset, limit);
+    }
+
+    /**
+     * Returns up to {@code limit} projects with the highest score under the given model.
+     *
+     * @throws IllegalArgumentException if the model is unknown
+     */
+    public List<Project> getTopProjects(String model, int limit) {
+        return rankedProjectIndex.top(model, limit);
+    }
+
+    /**
+     * Returns at most {@code limit} projects ranked under the given model, skipping the
+     * {@code offset} highest.
+     *
+     * @throws IllegalArgumentException if the model is unknown
+     */
+    public List<Project> getTopProjects(String model, int offset, int limit) {
+        return rankedProjectIndex.top(model, offset, limit);
+    }
+
+    /**
+     * Returns the first {@code count} tiers of the Pareto frontier over impact, confidence,
+     * ease, reach and inverse effort, best first.
+     */
+    public List<List<Project>> getFrontier(int count) {
+        return projectFrontier.tiers(count);
+    }
+
+    /**
+     * Returns the projects with the highest total score under the given model whose
+     * efforts add up to at most the budget.
+     *
+     * @throws IllegalArgumentException if the model is unknown
+     */
+    public PortfolioOptimizer.Portfolio optimizePortfolio(String model, int budget) {
+        return portfolioOptimizer.optimize(model, budget);
+    }
+
+    /**
+     * Ranks random draws of every project's scores under the given model and returns how
+     * each project ranked, lowest expected rank first.
+     *
+     * @throws IllegalArgumentException if the model is unknown
+     */
+    public List<RankSimulator.RankEstimate> simulateRanks(String model, int samples, int top, long seed) {
+        return rankSimulator.simulate(model, samples, top, seed);
+    }
+
+    /**
+     * Compiles a filter expression such as {@code impact>=4 and rice>10}.
+     *
+     * @throws IllegalArgumentException if the expression is malformed or names an unknown score
+     */
+    public ProjectFilter compileFilter(String expression) {
+        return scoreBitmapIndex.compile(expression);
+    }
+
+    /**
+     * Returns the ordinals of the projects passing the filter, in insertion order or, if a
+     * model is given, ranked under it highest first.
+     *
+     * @throws IllegalArgumentException if the model is unknown
+     */
+    public int[] filterProjects(ProjectFilter filter, String model) {
+        BitSet matches = scoreBitmapIndex.select(filter);
+        return model == null ? matches.stream().toArray() : rankedProjectIndex.rank(model, matches);
+    }
+
+    /**
+     * Returns at most {@code limit} of the projects at the given ordinals, starting at
+     * {@code offset}.
+     */
+    public List<Project> getProjects(int[] ordinals, int offset, int limit) {
+        List<Project> all = projectRepository.snapshot();
+        int from = Math.min(offset, ordinals.length);
+        int to = (int) Math.min((long) from + limit, ordinals.length);
+        List<Project> projects = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            projects.add(all.get(ordinals[i]));
+        }
+        return projects;
+    }
+
+    /**
+     * Returns up to {@code limit} projects whose name or description matches every word
+     * of the query, best match first. Words also match longer words they are a prefix of.
+     */
+    public List<Project> searchProjects(String query, int limit) {
+        return projectSearchIndex.search(query, limit);
+    }
+
     public Project getProject(String projectName) throws ProjectRepository.ProjectNotFoundException {
         return projectRepository.findByName(projectName);
     }
 
+    /**
+     * Finds a project by name, falling back to a case-insensitive match when there is
+     * no project with exactly the given name.
+     */
+    public Optional<Project> findProject(String projectName) {
+        return projectRepository.findOptionalIgnoreCase(projectName);
+    }
+
     public boolean isNameTaken(String projectName) {
-        try {
-            getProject(projectName);
-            return true;
-        } catch (ProjectRepository.ProjectNotFoundException e) {
-            return false;
-        }
+        return projectRepository.exists(projectName);
     }
 }
@@ -1,15 +1,20 @@
 package com.preponderous.parpt.command;
 
 import com.preponderous.parpt.config.PromptProperties;
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ProjectAnswers;
+import com.preponderous.parpt.repo.ProjectRepository;
 import com.preponderous.parpt.score.ScoreCalculator;
 import com.preponderous.parpt.service.ProjectService;
 import com.preponderous.parpt.util.ConsoleInputProvider;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
@@ -29,11 +34,14 @@ class CreateProjectCommandTest {
     @Autowired
     PromptProperties promptProperties;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
     private CreateProjectCommand command;
 
     @BeforeEach
     void setUp() {
-        command = new CreateProjectCommand(projectService, inputProvider, scoreCalculator, promptProperties);
+        command = new CreateProjectCommand(projectService, inputProvider, scoreCalculator, promptProperties, meterRegistry);
     }
 
     @Test
@@ -108,6 +116,27 @@ class CreateProjectCommandTest {
         assertEquals("Project created successfully: Interactive Project\nICE Score: 64.00\nRICE Score: 16.00", result);
     }
 
+    @Test
+    void testInteractiveInputKeepsRawAnswers() throws ProjectRepository.ProjectNotFoundException {
+        // Arrange: impact answers average 3.5 and round up to 4
+        String[] impactAnswers = {"3", "4", "4", "3"};
+        for (int question = 0; question < impactAnswers.length; question++) {
+            when(inputProvider.readLine(promptProperties.getImpact()[question])).thenReturn(impactAnswers[question]);
+        }
+
+        // Act
+        String result = command.execute("Answered Project", "Answered Description", null, 5, 5, 5, 5);
+
+        // Assert
+        assertTrue(result.startsWith("Project created successfully: Answered Project"));
+        Project project = projectService.getProject("Answered Project");
+        assertEquals(4, project.getImpact());
+        assertEquals(promptProperties.getVersion(), project.getPromptSetVersion());
+        assertArrayEquals(new int[]{3, 4, 4, 3}, ProjectAnswers.answers(project.getAnswers(), ProjectAnswers.IMPACT));
+        assertEquals(0, ProjectAnswers.count(project.getAnswers(), ProjectAnswers.CONFIDENCE));
+        assertEquals(project.getImpact(), ProjectAnswers.score(project.getAnswers(), ProjectAnswers.IMPACT));
+    }
+
     @Test
     void testPromptConfiguration() {
         // Verify test prompts are loaded correctly
@@ -0,0 +1,142 @@
+package com.preponderous.parpt.command;
+
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.service.ProjectExportService;
+import com.preponderous.parpt.service.ProjectService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ExportProjectsCommandTest {
+
+    ExportProjectsCommand exportProjectsCommand;
+
+    @Autowired
+    ProjectExportService projectExportService;
+
+    @Autowired
+    ProjectService projectService;
+
+    @Autowired
+    ProjectRepository projectRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        exportProjectsCommand = new ExportProjectsCommand(projectExportService, meterRegistry);
+
+        // Clear any existing projects in the repository before each test
+        projectRepository.clear();
+    }
+
+    @Test
+    void shouldWriteANotePerProjectAndAnIndex() throws Exception {
+        // Given two projects, one with characters that cannot appear in a file name
+        projectService.createProject("Project A", "Description A", 5, 4, 3, 2, 1);
+        projectService.createProject("Client/Server", "Description B", 4, 3, 2, 1, 5);
+
+        // When the command is executed
+        var result = exportProjectsCommand.execute(tempDir.toString(), false);
+
+        // Then each project gets a note with its scores as properties, and the index links them
+        assertEquals("Exported 2 projects to " + tempDir + ": 3 notes written, 0 unchanged, 0 removed.", result);
+        String note = Files.readString(tempDir.resolve("Project A.md"));
+        assertTrue(note.startsWith("---\nimpact: 5\nconfidence: 4\nease: 3\nreach: 2\neffort: 1\nice: 60.0\nrice: 40.0\n"));
+        assertTrue(note.contains("\n# Project A\n\nDescription A\n"));
+        assertTrue(Files.readString(tempDir.resolve("Client-Server.md")).contains("aliases:\n  - \"Client/Server\"\n"));
+        String index = Files.readString(tempDir.resolve("projects.md"));
+        assertTrue(index.contains("- [[Project A]]\n- [[Client-Server|Client/Server]]\n"));
+    }
+
+    @Test
+    void shouldRewriteOnlyNotesThatChanged() throws Exception {
+        // Given an exported vault
+        projectService.createProject("Project A", "Description A", 5, 4, 3, 2, 1);
+        projectService.createProject("Project B", "Description B", 4, 3, 2, 1, 5);
+        exportProjectsCommand.execute(tempDir.toString(), false);
+        FileTime untouched = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(tempDir.resolve("Project A.md"), untouched);
+        Files.setLastModifiedTime(tempDir.resolve("projects.md"), untouched);
+
+        // When one project is rescored and the vault exported again
+        projectService.updateProject("Project B", 4, 3, 2, 1, 1);
+        var result = exportProjectsCommand.execute(tempDir.toString(), false);
+
+        // Then only that project's note is written
+        assertEquals("Exported 2 projects to " + tempDir + ": 1 notes written, 2 unchanged, 0 removed.", result);
+        assertTrue(Files.readString(tempDir.resolve("Project B.md")).contains("effort: 1\n"));
+        assertEquals(untouched, Files.getLastModifiedTime(tempDir.resolve("Project A.md")));
+        assertEquals(untouched, Files.getLastModifiedTime(tempDir.resolve("projects.md")));
+    }
+
+    @Test
+    void shouldRemoveNotesOfProjectsThatAreGone() throws Exception {
+        // Given an exported vault with a note of its owner's
+        projectService.createProject("Project A", "Description A", 5, 4, 3, 2, 1);
+        exportProjectsCommand.execute(tempDir.toString(), false);
+        Files.writeString(tempDir.resolve("Notes.md"), "Kept");
+
+        // When the projects are replaced and the vault exported again
+        projectRepository.clear();
+        projectService.createProject("Project B", "Description B", 4, 3, 2, 1, 5);
+        var result = exportProjectsCommand.execute(tempDir.toString(), false);
+
+        // Then the old note is removed and other files are left alone
+        assertEquals("Exported 1 projects to " + tempDir + ": 2 notes written, 0 unchanged, 1 removed.", result);
+        assertFalse(Files.exists(tempDir.resolve("Project A.md")));
+        assertTrue(Files.exists(tempDir.resolve("Project B.md")));
+        assertEquals("Kept", Files.readString(tempDir.resolve("Notes.md")));
+    }
+
+    @Test
+    void shouldRestoreNotesDeletedOrEditedByHand() throws Exception {
+        // Given an exported vault with one note deleted and another edited by hand
+        projectService.createProject("Project A", "Description A", 5, 4, 3, 2, 1);
+        projectService.createProject("Project B", "Description B", 4, 3, 2, 1, 5);
+        exportProjectsCommand.execute(tempDir.toString(), false);
+        String original = Files.readString(tempDir.resolve("Project B.md"));
+        Files.delete(tempDir.resolve("Project A.md"));
+        Files.writeString(tempDir.resolve("Project B.md"), "Edited");
+
+        // When the vault is exported again
+        var result = exportProjectsCommand.execute(tempDir.toString(), false);
+
+        // Then both notes are written again rather than counted as unchanged
+        assertEquals("Exported 2 projects to " + tempDir + ": 2 notes written, 1 unchanged, 0 removed.", result);
+        assertTrue(Files.readString(tempDir.resolve("Project A.md")).contains("\n# Project A\n"));
+        assertEquals(original, Files.readString(tempDir.resolve("Project B.md")));
+    }
+
+    @Test
+    void shouldRewriteEverythingWhenAskedTo() throws IOException, ProjectRepository.NameTakenException {
+        // Given an exported vault with a note deleted by hand
+        projectService.createProject("Project A", "Description A", 5, 4, 3, 2, 1);
+        exportProjectsCommand.execute(tempDir.toString(), false);
+        Files.delete(tempDir.resolve("Project A.md"));
+
+        // When the vault is exported in full
+        var result = exportProjectsCommand.execute(tempDir.toString(), true);
+
+        // Then the note is back
+        assertEquals("Exported 1 projects to " + tempDir + ": 2 notes written, 0 unchanged, 0 removed.", result);
+        assertTrue(Files.exists(tempDir.resolve("Project A.md")));
+    }
+}
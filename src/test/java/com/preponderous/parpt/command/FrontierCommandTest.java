@@ -0,0 +1,98 @@
+package com.preponderous.parpt.command;
+
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.score.ScoreCalculator;
+import com.preponderous.parpt.service.ProjectService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class FrontierCommandTest {
+
+    FrontierCommand frontierCommand;
+
+    @Autowired
+    ProjectService projectService;
+
+    @Autowired
+    ProjectRepository projectRepository;
+
+    @Autowired
+    ScoreCalculator scoreCalculator;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        frontierCommand = new FrontierCommand(projectService, scoreCalculator, meterRegistry);
+
+        // Clear any existing projects in the repository before each test
+        projectRepository.clear();
+    }
+
+    @Test
+    void shouldReportWhenNoProjectsExist() {
+        // When the command is executed without projects
+        var result = frontierCommand.execute(1, null);
+
+        // Then nothing should be listed
+        assertEquals("No projects found.", result);
+    }
+
+    @Test
+    void shouldListEachTierOfTheFrontier() throws ProjectRepository.NameTakenException {
+        // Given two projects with a trade-off and one beaten by both
+        projectService.createProject("High impact", "Big but slow", 5, 3, 3, 3, 4);
+        projectService.createProject("Low effort", "Small but quick", 3, 3, 3, 3, 1);
+        projectService.createProject("Dominated", "Neither", 3, 3, 3, 3, 4);
+
+        // When the command is executed with two tiers
+        var result = frontierCommand.execute(2, null);
+
+        // Then the trade-offs form the first tier and the rest the second
+        assertTrue(result.startsWith("Tier 1:\n- High impact: Big but slow"));
+        assertTrue(result.contains("- Low effort: Small but quick"));
+        assertTrue(result.indexOf("Tier 2:") < result.indexOf("- Dominated: Neither"));
+        assertTrue(result.indexOf("Low effort") < result.indexOf("Tier 2:"));
+    }
+
+    @Test
+    void shouldLimitProjectsPerTier() throws ProjectRepository.NameTakenException {
+        // Given three equally good projects
+        for (int i = 0; i < 3; i++) {
+            projectService.createProject("Project " + i, "Description " + i, 4, 4, 4, 4, 2);
+        }
+
+        // When the command is executed with a limit of one
+        var result = frontierCommand.execute(1, 1);
+
+        // Then only the first project is listed along with how many were left out
+        assertTrue(result.contains("- Project 0: Description 0"));
+        assertFalse(result.contains("Project 1"));
+        assertTrue(result.endsWith("... and 2 more"));
+        assertEquals("Tiers must be at least 1.", frontierCommand.execute(0, null));
+    }
+
+    @Test
+    void shouldListEveryTierWhenAskedForFarMoreThanExist() throws ProjectRepository.NameTakenException {
+        // Given a project and a project it beats
+        projectService.createProject("Better", "Description A", 4, 4, 4, 4, 2);
+        projectService.createProject("Worse", "Description B", 3, 4, 4, 4, 2);
+
+        // When the command is executed with a huge number of tiers
+        var result = frontierCommand.execute(2_000_000_000, null);
+
+        // Then both tiers are listed and nothing more
+        assertEquals("Tier 1:\n- Better: Description A (ICE: 64.0 | RICE: 32.0)\n"
+                + "Tier 2:\n- Worse: Description B (ICE: 48.0 | RICE: 24.0)", result);
+        assertEquals("Tiers must be at least 1.", frontierCommand.execute(-5, null));
+    }
+}
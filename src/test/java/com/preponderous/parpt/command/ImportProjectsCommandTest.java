@@ -0,0 +1,248 @@
+package com.preponderous.parpt.command;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.repo.ObjectProjectStore;
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.repo.TestRepositories;
+import com.preponderous.parpt.service.ProjectImportService;
+import com.preponderous.parpt.service.ProjectService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ImportProjectsCommandTest {
+
+    ImportProjectsCommand importProjectsCommand;
+
+    @Autowired
+    ProjectImportService projectImportService;
+
+    @Autowired
+    ProjectService projectService;
+
+    @Autowired
+    ProjectRepository projectRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @TempDir
+    Path tempDir;
+
+    @Value("${app.projects.file}")
+    String projectsFile;
+
+    @BeforeEach
+    void setUp() {
+        importProjectsCommand = new ImportProjectsCommand(projectImportService, meterRegistry);
+
+        // Clear any existing projects in the repository before each test
+        projectRepository.clear();
+    }
+
+    @Test
+    void shouldImportCsvWithHeaderAndQuotedFields() throws IOException {
+        // Given a CSV file with a header and a quoted description
+        Path file = tempDir.resolve("projects.csv");
+        Files.writeString(file, """
+                name,description,impact,confidence,ease,reach,effort
+                Project A,"Description, with a comma",5,4,3,2,1
+                Project B,Description B,4,3,2,1,5
+                """);
+
+        // When the command is executed
+        var result = importProjectsCommand.execute(file.toString(), null, 50);
+
+        // Then both projects should be imported
+        assertTrue(result.startsWith("Imported 2 projects"));
+        assertEquals("Description, with a comma", projectService.findProject("Project A").orElseThrow().getDescription());
+        assertTrue(projectService.isNameTaken("Project B"));
+    }
+
+    @Test
+    void shouldImportCsvWithColumnsInAnyOrder() throws IOException {
+        // Given a CSV file whose header lists the columns in another order
+        Path file = tempDir.resolve("projects.csv");
+        Files.writeString(file, """
+                Effort,description,name,impact,confidence,ease,reach
+                1,Description A,Project A,5,4,3,2
+                """);
+
+        // When the command is executed
+        var result = importProjectsCommand.execute(file.toString(), null, 50);
+
+        // Then the header is recognised and each field lands in its column
+        assertEquals("Imported 1 projects from " + file + ".", result);
+        var project = projectService.findProject("Project A").orElseThrow();
+        assertEquals("Description A", project.getDescription());
+        assertEquals(5, project.getImpact());
+        assertEquals(1, project.getEffort());
+    }
+
+    @Test
+    void shouldImportAProjectCalledNameInTheFirstRow() throws IOException {
+        // Given a CSV file without a header whose first project is called "name"
+        Path file = tempDir.resolve("projects.csv");
+        Files.writeString(file, """
+                name,Description of name,5,4,3,2,1
+                Project B,Description B,4,3,2,1,5
+                """);
+
+        // When the command is executed
+        var result = importProjectsCommand.execute(file.toString(), null, 50);
+
+        // Then the first row is imported as a project rather than taken as a header
+        assertEquals("Imported 2 projects from " + file + ".", result);
+        assertTrue(projectService.isNameTaken("name"));
+    }
+
+    @Test
+    void shouldRejectHeaderWithoutEveryColumn() throws IOException {
+        // Given a CSV file whose header leaves out the effort column
+        Path file = tempDir.resolve("projects.csv");
+        Files.writeString(file, """
+                name,description,impact,confidence,ease,reach
+                Project A,Description A,5,4,3,2
+                """);
+
+        // When the command is executed
+        var result = importProjectsCommand.execute(file.toString(), null, 50);
+
+        // Then the missing column is named
+        assertEquals("CSV header is missing the 'effort' column.", result);
+    }
+
+    @Test
+    void shouldImportJsonLines() throws IOException {
+        // Given a JSON Lines file
+        Path file = tempDir.resolve("projects.jsonl");
+        Files.writeString(file, """
+                {"name":"Project A","description":"Description A","impact":5,"confidence":4,"ease":3,"reach":2,"effort":1}
+                {"name":"Project B","description":"Description B","impact":4,"confidence":3,"ease":2,"reach":1,"effort":5}
+                """);
+
+        // When the command is executed
+        var result = importProjectsCommand.execute(file.toString(), null, 50);
+
+        // Then both projects should be imported
+        assertTrue(result.startsWith("Imported 2 projects"));
+        assertEquals(2, projectService.getProjects().size());
+    }
+
+    @Test
+    void shouldReportInvalidLinesAndImportTheRest() throws IOException {
+        // Given a CSV file without a header containing invalid lines
+        projectService.createProject("Existing", "Already there", 3, 3, 3, 3, 3);
+        Path file = tempDir.resolve("projects.csv");
+        Files.writeString(file, """
+                Project A,Description A,5,4,3,2,1
+                Project B,Description B,6,3,2,1,5
+                Project A,Again,1,1,1,1,1
+                Existing,Duplicate,1,1,1,1,1
+                Project C,Description C,x,1,1,1,1
+                """);
+
+        // When the command is executed
+        var result = importProjectsCommand.execute(file.toString(), "csv", 50);
+
+        // Then only the valid line should be imported and each error reported by line
+        assertTrue(result.startsWith("Imported 1 projects"));
+        assertTrue(result.contains("4 lines were skipped"));
+        assertTrue(result.contains("line 2: All scores must be between 1 and 5."));
+        assertTrue(result.contains("line 3: Duplicate project name 'Project A' (first seen on line 1)."));
+        assertTrue(result.contains("line 4: Project name 'Existing' is already taken."));
+        assertTrue(result.contains("line 5: Invalid impact score 'x'."));
+    }
+
+    @Test
+    void shouldImportCsvRecordsWithLineBreaksInQuotedFields() throws IOException {
+        // Given a CSV file whose second record has a description spanning two lines
+        Path file = tempDir.resolve("projects.csv");
+        Files.writeString(file, """
+                name,description,impact,confidence,ease,reach,effort
+                Project A,Description A,5,4,3,2,1
+                Project B,"First line
+                second line",4,3,2,1,5
+                Project C,Description C,x,1,1,1,1
+                """);
+
+        // When the command is executed
+        var result = importProjectsCommand.execute(file.toString(), null, 50);
+
+        // Then the record is imported whole and later errors still point at the right line
+        assertTrue(result.startsWith("Imported 2 projects"));
+        assertEquals("First line\nsecond line", projectService.findProject("Project B").orElseThrow().getDescription());
+        assertTrue(result.contains("line 5: Invalid impact score 'x'."));
+    }
+
+    @Test
+    void shouldRejectOnlyRowsWhoseNamesAnotherProcessTook() throws Exception {
+        // Given a CSV file with an invalid line, and a name taken by another process
+        // that this one has not seen yet
+        openSecondProcess().add(Project.builder()
+                .name("Taken").description("Added elsewhere")
+                .impact(3).confidence(3).ease(3).reach(3).effort(3)
+                .build());
+        Path file = tempDir.resolve("projects.csv");
+        Files.writeString(file, """
+                Project A,Description A,5,4,3,2,1
+                Project B,Description B,6,3,2,1,5
+                Taken,Description T,1,1,1,1,1
+                Project C,Description C,4,3,2,1,5
+                """);
+
+        // When the command is executed
+        var result = importProjectsCommand.execute(file.toString(), "csv", 50);
+
+        // Then the other rows are imported and every error is reported
+        assertTrue(result.startsWith("Imported 2 projects"));
+        assertTrue(result.contains("2 lines were skipped"));
+        assertTrue(result.contains("line 2: All scores must be between 1 and 5."));
+        assertTrue(result.contains("line 3: Project name 'Taken' is already taken."));
+        assertTrue(projectService.isNameTaken("Project C"));
+    }
+
+    @Test
+    void shouldRejectUnknownFormat() throws IOException {
+        // Given a file with an unsupported extension
+        Path file = tempDir.resolve("projects.txt");
+        Files.writeString(file, "Project A");
+
+        // When the command is executed
+        var result = importProjectsCommand.execute(file.toString(), null, 50);
+
+        // Then the format should be rejected
+        assertEquals("Unsupported import format: txt", result);
+    }
+
+    @Test
+    void shouldReportMissingFile() {
+        // When the command is executed with a file that does not exist
+        var result = importProjectsCommand.execute(tempDir.resolve("missing.csv").toString(), null, 50);
+
+        // Then the result should say the file was not found
+        assertTrue(result.startsWith("File not found"));
+    }
+
+    /**
+     * Opens a repository over the application's files, the way another process would.
+     */
+    private ProjectRepository openSecondProcess() {
+        return TestRepositories.builder(Path.of(projectsFile))
+                .storeFactory(ObjectProjectStore::new)
+                .compactionThreshold(1000)
+                .build();
+    }
+}
@@ -3,11 +3,23 @@ package com.preponderous.parpt.command;
 import com.preponderous.parpt.repo.ProjectRepository;
 import com.preponderous.parpt.score.ScoreCalculator;
 import com.preponderous.parpt.service.ProjectService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jline.terminal.Terminal;
+import org.jline.terminal.impl.DumbTerminal;
+import org.jline.terminal.impl.ExternalTerminal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
@@ -15,6 +27,10 @@ class ListProjectsCommandTest {
 
     ListProjectsCommand listProjectsCommand;
 
+    ByteArrayOutputStream output;
+
+    Terminal terminal;
+
     @Autowired
     ProjectService projectService;
 
@@ -24,10 +40,15 @@ class ListProjectsCommandTest {
     @Autowired
     ScoreCalculator scoreCalculator;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
     @BeforeEach
-    void setUp() {
-        // Initialize the command with the project service
-        listProjectsCommand = new ListProjectsCommand(projectService, scoreCalculator);
+    void setUp() throws IOException {
+        // Initialize the command with the project service and a terminal that captures its output
+        output = new ByteArrayOutputStream();
+        terminal = new DumbTerminal(new ByteArrayInputStream(new byte[0]), output);
+        listProjectsCommand = new ListProjectsCommand(projectService, scoreCalculator, terminal, meterRegistry);
 
         // Clear any existing projects in the repository before each test
         projectRepository.clear();
@@ -38,7 +59,7 @@ class ListProjectsCommandTest {
         // Given no projects exist
 
         // When the command is executed
-        var result = listProjectsCommand.execute();
+        var result = listProjectsCommand.execute(null, null, 0, null, null, null);
 
         // Then the result should be an empty list
         assertTrue(result.contains("No projects found."));
@@ -51,11 +72,200 @@ class ListProjectsCommandTest {
         projectService.createProject("Project B", "Description B", 4, 3, 2, 1, 5);
 
         // When the command is executed
-        var result = listProjectsCommand.execute();
+        listProjectsCommand.execute(null, null, 0, null, null, null);
+        var result = printed();
 
         // Then the result should contain the projects
         assertTrue(result.contains("Projects:"));
         assertTrue(result.contains("Project A: Description A"));
         assertTrue(result.contains("Project B: Description B"));
     }
+
+    @Test
+    void shouldSortProjectsByScoreAndLimitToTop() throws ProjectRepository.NameTakenException {
+        // Given projects with different RICE scores
+        projectService.createProject("Low", "Low RICE", 1, 1, 1, 1, 5);
+        projectService.createProject("High", "High RICE", 5, 5, 5, 5, 1);
+        projectService.createProject("Medium", "Medium RICE", 3, 3, 3, 3, 3);
+
+        // When the command is executed sorted by RICE with a limit
+        listProjectsCommand.execute("rice", 2, 0, null, null, null);
+        var result = printed();
+
+        // Then only the two highest projects should be listed, highest first
+        assertTrue(result.indexOf("High: High RICE") < result.indexOf("Medium: Medium RICE"));
+        assertTrue(result.contains("Medium: Medium RICE"));
+        assertTrue(!result.contains("Low: Low RICE"));
+    }
+
+    @Test
+    void shouldIncludeProjectsAddedAfterRanking() throws ProjectRepository.NameTakenException {
+        // Given a ranking that has already been computed
+        projectService.createProject("Medium", "Medium ICE", 3, 3, 3, 3, 3);
+        listProjectsCommand.execute("ice", 1, 0, null, null, null);
+        output.reset();
+
+        // When a higher scoring project is added
+        projectService.createProject("High", "High ICE", 5, 5, 5, 5, 1);
+        listProjectsCommand.execute("ice", 1, 0, null, null, null);
+        var result = printed();
+
+        // Then it should be at the top
+        assertTrue(result.contains("High: High ICE"));
+        assertTrue(!result.contains("Medium: Medium ICE"));
+    }
+
+    @Test
+    void shouldRejectUnknownScoringModel() {
+        // When the command is executed with an unknown model
+        var result = listProjectsCommand.execute("wsjf", null, 0, null, null, null);
+
+        // Then the available models should be listed
+        assertEquals("Unknown scoring model: wsjf. Available models: ice, rice", result);
+    }
+
+    @Test
+    void shouldStreamRowsToTerminalAcrossChunks() throws ProjectRepository.NameTakenException {
+        // Given more projects than fit in one chunk
+        int count = ListProjectsCommand.CHUNK_SIZE * 2 + 1;
+        for (int i = 0; i < count; i++) {
+            projectService.createProject("Project " + i, "Description " + i, 3, 3, 3, 3, 3);
+        }
+
+        // When the command is executed
+        var result = listProjectsCommand.execute(null, null, 0, null, null, null);
+
+        // Then nothing is returned and every row is written to the terminal in order
+        assertNull(result);
+        var printed = printed();
+        assertEquals(count, printed.lines().filter(line -> line.startsWith("- ")).count());
+        assertTrue(printed.indexOf("Project 0: Description 0") < printed.indexOf("Project " + (count - 1) + ": "));
+    }
+
+    @Test
+    void shouldApplyOffsetAndLimit() throws ProjectRepository.NameTakenException {
+        // Given projects with different ICE scores
+        projectService.createProject("First", "First ICE", 5, 5, 5, 5, 1);
+        projectService.createProject("Second", "Second ICE", 4, 4, 4, 4, 1);
+        projectService.createProject("Third", "Third ICE", 3, 3, 3, 3, 1);
+        projectService.createProject("Fourth", "Fourth ICE", 2, 2, 2, 2, 1);
+
+        // When the second page of two is listed, sorted and unsorted
+        listProjectsCommand.execute("ice", 2, 1, null, null, null);
+        var sorted = printed();
+        output.reset();
+        listProjectsCommand.execute(null, 1, 3, null, null, null);
+        var unsorted = printed();
+
+        // Then only the requested window is shown
+        assertFalse(sorted.contains("First: First ICE"));
+        assertTrue(sorted.indexOf("Second: Second ICE") < sorted.indexOf("Third: Third ICE"));
+        assertFalse(sorted.contains("Fourth: Fourth ICE"));
+        assertTrue(unsorted.contains("Fourth: Fourth ICE"));
+        assertFalse(unsorted.contains("Third: Third ICE"));
+    }
+
+    @Test
+    void shouldOnlyListProjectsPassingTheFilter() throws ProjectRepository.NameTakenException {
+        // Given projects with different scores
+        projectService.createProject("Quick win", "Cheap and useful", 4, 3, 5, 2, 1);
+        projectService.createProject("Big bet", "Costly and useful", 5, 4, 2, 5, 4);
+        projectService.createProject("Small fix", "Cheap and minor", 2, 2, 5, 1, 1);
+        projectService.createProject("Sure thing", "Cheap and certain", 5, 5, 5, 5, 2);
+
+        // When the command is executed with a filter, sorted by RICE
+        listProjectsCommand.execute("rice", null, 0, null, "impact>=4 and effort<=2 and rice>10", null);
+        var printed = printed();
+
+        // Then only the matching projects are listed, highest RICE first
+        assertTrue(printed.indexOf("Sure thing: Cheap and certain") < printed.indexOf("Quick win: Cheap and useful"));
+        assertFalse(printed.contains("Big bet"));
+        assertFalse(printed.contains("Small fix"));
+    }
+
+    @Test
+    void shouldRejectInvalidFilter() {
+        // When the command is executed with a filter naming an unknown score
+        var result = listProjectsCommand.execute(null, null, 0, null, "wsjf > 3", null);
+
+        // Then the filter should be rejected
+        assertTrue(result.startsWith("Invalid filter: Unknown score 'wsjf'"));
+    }
+
+    @Test
+    void shouldReportNoProjectsWhenOffsetIsPastTheEnd() throws ProjectRepository.NameTakenException {
+        // Given a single project
+        projectService.createProject("Only", "Only project", 3, 3, 3, 3, 3);
+
+        // When the command is executed past the end
+        var result = listProjectsCommand.execute(null, null, 5, null, null, null);
+
+        // Then nothing is listed
+        assertEquals("No projects found.", result);
+    }
+
+    @Test
+    void shouldStopPagingWhenUserQuits() throws Exception {
+        // Given an interactive terminal where the user presses q at the first prompt
+        output.reset();
+        Terminal interactive = new ExternalTerminal("test", "ansi",
+                new ByteArrayInputStream("q".getBytes(StandardCharsets.UTF_8)), output, StandardCharsets.UTF_8);
+        ListProjectsCommand pagedCommand = new ListProjectsCommand(projectService, scoreCalculator, interactive, meterRegistry);
+        for (int i = 0; i < 5; i++) {
+            projectService.createProject("Project " + i, "Description " + i, 3, 3, 3, 3, 3);
+        }
+
+        // When the command is executed with pages of two
+        pagedCommand.execute(null, null, 0, 2, null, null);
+        interactive.close();
+        var printed = output.toString(StandardCharsets.UTF_8);
+
+        // Then only the first page is shown
+        assertTrue(printed.contains("Project 1: Description 1"));
+        assertFalse(printed.contains("Project 2: Description 2"));
+        assertTrue(printed.contains("-- More --"));
+    }
+
+    @Test
+    void shouldRejectInvalidPaging() {
+        // When the command is executed with invalid options
+        var negativeOffset = listProjectsCommand.execute(null, null, -1, null, null, null);
+        var emptyPage = listProjectsCommand.execute(null, null, 0, 0, null, null);
+
+        // Then the options should be rejected
+        assertEquals("Offset cannot be negative.", negativeOffset);
+        assertEquals("Page size must be at least 1.", emptyPage);
+    }
+
+    @Test
+    void shouldListProjectsAsTheyWereAtAGivenTime() throws Exception {
+        // Given a project whose scores have since changed
+        projectService.createProject("Project A", "Description A", 3, 3, 3, 3, 3);
+        projectService.updateProject("Project A", 5, 3, 3, 3, 3);
+
+        // When the command is executed as of a date before and a time after the change
+        var before = listProjectsCommand.execute(null, null, 0, null, null, "2000-01-01");
+        listProjectsCommand.execute(null, null, 0, null, null, "2999-01-01T12:00");
+        var result = printed();
+
+        // Then nothing existed before, and the current scores are shown after
+        assertEquals("No projects found.", before);
+        assertTrue(result.contains("Project A: Description A (ICE: 45.0 | RICE: 15.0"));
+    }
+
+    @Test
+    void shouldRejectInvalidAsOf() {
+        // When the command is executed with an invalid date or together with a filter
+        var invalid = listProjectsCommand.execute(null, null, 0, null, null, "yesterday");
+        var filtered = listProjectsCommand.execute(null, null, 0, null, "impact>=4", "2026-03-01");
+
+        // Then the options should be rejected
+        assertTrue(invalid.startsWith("Invalid date: yesterday."));
+        assertEquals("--where cannot be combined with --as-of.", filtered);
+    }
+
+    private String printed() {
+        terminal.flush();
+        return output.toString(StandardCharsets.UTF_8);
+    }
 }
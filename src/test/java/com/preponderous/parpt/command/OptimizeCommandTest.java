@@ -0,0 +1,80 @@
+package com.preponderous.parpt.command;
+
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.score.ScoreCalculator;
+import com.preponderous.parpt.service.ProjectService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class OptimizeCommandTest {
+
+    OptimizeCommand optimizeCommand;
+
+    @Autowired
+    ProjectService projectService;
+
+    @Autowired
+    ProjectRepository projectRepository;
+
+    @Autowired
+    ScoreCalculator scoreCalculator;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        optimizeCommand = new OptimizeCommand(projectService, scoreCalculator, meterRegistry);
+
+        // Clear any existing projects in the repository before each test
+        projectRepository.clear();
+    }
+
+    @Test
+    void shouldListTheBestProjectsWithinTheBudget() throws ProjectRepository.NameTakenException {
+        // Given projects whose best combination is not the single best ratio
+        projectService.createProject("Dense", "Small and valuable", 2, 2, 3, 3, 1);
+        projectService.createProject("Big", "Large", 5, 2, 3, 3, 5);
+        projectService.createProject("Medium", "Mid-sized", 5, 2, 3, 3, 4);
+
+        // When the command is executed with a budget of five
+        var result = optimizeCommand.execute(5, ScoreCalculator.RICE);
+
+        // Then the best combination is listed with its totals
+        assertTrue(result.startsWith("Selected 2 projects using 5 of 5 effort for a total RICE of 19.50:"));
+        assertTrue(result.contains("- Dense: Small and valuable (Effort: 1 | ICE: 12.0 | RICE: 12.0)"));
+        assertTrue(result.contains("- Medium: Mid-sized"));
+        assertFalse(result.contains("Big"));
+    }
+
+    @Test
+    void shouldReportWhenNothingFits() throws ProjectRepository.NameTakenException {
+        // Given a single project larger than the budget
+        projectService.createProject("Big", "Large", 5, 2, 3, 3, 5);
+
+        // When the command is executed with a smaller budget
+        var result = optimizeCommand.execute(4, ScoreCalculator.ICE);
+
+        // Then nothing is selected
+        assertEquals("No projects fit within an effort budget of 4.", result);
+    }
+
+    @Test
+    void shouldRejectInvalidOptions() {
+        // When the command is executed with invalid options
+        var emptyBudget = optimizeCommand.execute(0, ScoreCalculator.RICE);
+        var unknownModel = optimizeCommand.execute(5, "wsjf");
+
+        // Then the options should be rejected
+        assertEquals("Budget must be at least 1.", emptyBudget);
+        assertTrue(unknownModel.startsWith("Unknown scoring model: wsjf."));
+    }
+}
@@ -0,0 +1,68 @@
+package com.preponderous.parpt.command;
+
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.score.ScoreCalculator;
+import com.preponderous.parpt.service.ProjectService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ProjectHistoryCommandTest {
+
+    ProjectHistoryCommand projectHistoryCommand;
+
+    @Autowired
+    ProjectService projectService;
+
+    @Autowired
+    ProjectRepository projectRepository;
+
+    @Autowired
+    ScoreCalculator scoreCalculator;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        projectHistoryCommand = new ProjectHistoryCommand(projectService, scoreCalculator, meterRegistry);
+
+        // Clear any existing projects in the repository before each test
+        projectRepository.clear();
+    }
+
+    @Test
+    void shouldListCreationAndEveryChange() throws Exception {
+        // Given a project whose scores changed twice
+        projectService.createProject("Test Project", "This is a test project", 3, 3, 3, 3, 2);
+        projectService.updateProject("Test Project", 5, 3, 3, 3, 2);
+        projectService.updateProject("Test Project", 5, 3, 3, 3, 1);
+
+        // When the command is executed
+        var result = projectHistoryCommand.execute("test project");
+
+        // Then the original scores and both changes are listed in order
+        String[] lines = result.split("\n");
+        assertEquals(4, lines.length);
+        assertEquals("History of Test Project:", lines[0]);
+        assertTrue(lines[1].startsWith("- Created "));
+        assertTrue(lines[1].contains("Impact 3, Confidence 3, Ease 3, Reach 3, Effort 2"));
+        assertTrue(lines[2].contains("Impact 3 -> 5 (ICE"));
+        assertTrue(lines[3].contains("Effort 2 -> 1 (ICE"));
+    }
+
+    @Test
+    void shouldReturnProjectNotFoundWhenProjectDoesNotExist() {
+        // When the command is executed with a non-existing project name
+        var result = projectHistoryCommand.execute("NonExistingProject");
+
+        // Then the result should indicate that the project was not found
+        assertEquals("Project not found: NonExistingProject", result);
+    }
+}
@@ -0,0 +1,88 @@
+package com.preponderous.parpt.command;
+
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.search.ProjectNameIndex;
+import com.preponderous.parpt.service.ProjectService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.shell.CompletionContext;
+import org.springframework.shell.CompletionProposal;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class ProjectNameValueProviderTest {
+
+    ProjectNameValueProvider valueProvider;
+
+    @Autowired
+    ProjectService projectService;
+
+    @Autowired
+    ProjectRepository projectRepository;
+
+    @Autowired
+    ProjectNameIndex projectNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        valueProvider = new ProjectNameValueProvider(projectNameIndex);
+
+        // Clear any existing projects in the repository before each test
+        projectRepository.clear();
+    }
+
+    private List<String> complete(String word) {
+        CompletionContext context = mock(CompletionContext.class);
+        when(context.currentWordUpToCursor()).thenReturn(word);
+        return valueProvider.complete(context).stream().map(CompletionProposal::value).toList();
+    }
+
+    @Test
+    void shouldCompleteProjectNamesIgnoringCase() throws ProjectRepository.NameTakenException {
+        // Given projects exist
+        projectService.createProject("Billing portal", "Description", 3, 3, 3, 3, 3);
+        projectService.createProject("Search", "Description", 3, 3, 3, 3, 3);
+
+        // When completing a lower-case prefix
+        var result = complete("bil");
+
+        // Then only the matching project should be proposed
+        assertEquals(List.of("Billing portal"), result);
+    }
+
+    @Test
+    void shouldProposeProjectsAddedAfterFirstCompletion() throws ProjectRepository.NameTakenException {
+        // Given a completion has already been made
+        projectService.createProject("Project A", "Description", 3, 3, 3, 3, 3);
+        complete("");
+
+        // When another project is added
+        projectService.createProject("Project B", "Description", 3, 3, 3, 3, 3);
+
+        // Then it should be proposed as well
+        assertEquals(List.of("Project A", "Project B"), complete("project"));
+    }
+
+    @Test
+    void shouldLimitNumberOfProposals() throws ProjectRepository.NameTakenException {
+        // Given more projects than proposals are shown
+        for (int i = 0; i < ProjectNameValueProvider.MAX_PROPOSALS + 10; i++) {
+            projectService.createProject(String.format("Project %03d", i), "Description", 3, 3, 3, 3, 3);
+        }
+
+        // When completing without a prefix
+        var result = complete(null);
+
+        // Then the proposals should be capped
+        assertEquals(ProjectNameValueProvider.MAX_PROPOSALS, result.size());
+        assertTrue(result.contains("Project 000"));
+    }
+}
@@ -0,0 +1,77 @@
+package com.preponderous.parpt.command;
+
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.score.ScoreCalculator;
+import com.preponderous.parpt.service.ProjectService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SearchProjectsCommandTest {
+
+    SearchProjectsCommand searchProjectsCommand;
+
+    @Autowired
+    ProjectService projectService;
+
+    @Autowired
+    ProjectRepository projectRepository;
+
+    @Autowired
+    ScoreCalculator scoreCalculator;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        searchProjectsCommand = new SearchProjectsCommand(projectService, scoreCalculator, meterRegistry);
+
+        // Clear any existing projects in the repository before each test
+        projectRepository.clear();
+    }
+
+    @Test
+    void shouldReportWhenNothingMatches() throws ProjectRepository.NameTakenException {
+        // Given a project that does not mention the query
+        projectService.createProject("Search", "Find projects quickly", 3, 3, 3, 3, 3);
+
+        // When the command is executed
+        var result = searchProjectsCommand.execute("billing", 20);
+
+        // Then no matches should be reported
+        assertEquals("No projects match: billing", result);
+    }
+
+    @Test
+    void shouldListMatchesBestFirst() throws ProjectRepository.NameTakenException {
+        // Given projects mentioning the query in their description and name
+        projectService.createProject("Invoice export", "Send billing data to accounting", 3, 3, 3, 3, 3);
+        projectService.createProject("Billing portal", "Let customers pay online", 5, 4, 3, 2, 1);
+        projectService.createProject("Search", "Find projects quickly", 3, 3, 3, 3, 3);
+
+        // When the command is executed with a prefix of the word
+        var result = searchProjectsCommand.execute("bill", 20);
+
+        // Then the name match should come first and unrelated projects should be left out
+        assertTrue(result.startsWith("Matches:\n- Billing portal: Let customers pay online (ICE: 60.0"));
+        assertTrue(result.contains("- Invoice export"));
+        assertFalse(result.contains("- Search"));
+    }
+
+    @Test
+    void shouldRejectInvalidLimit() {
+        // When the command is executed with a limit below one
+        var result = searchProjectsCommand.execute("billing", 0);
+
+        // Then the limit should be rejected
+        assertEquals("Limit must be at least 1.", result);
+    }
+}
@@ -0,0 +1,67 @@
+package com.preponderous.parpt.command;
+
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.score.ScoreCalculator;
+import com.preponderous.parpt.service.ProjectService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SimulateCommandTest {
+
+    SimulateCommand simulateCommand;
+
+    @Autowired
+    ProjectService projectService;
+
+    @Autowired
+    ProjectRepository projectRepository;
+
+    @Autowired
+    ScoreCalculator scoreCalculator;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        simulateCommand = new SimulateCommand(projectService, scoreCalculator, meterRegistry);
+
+        // Clear any existing projects in the repository before each test
+        projectRepository.clear();
+    }
+
+    @Test
+    void shouldReportRankEstimates() throws ProjectRepository.NameTakenException {
+        // Given a clear winner and a clear loser
+        projectService.createProject("Winner", "Best", 5, 5, 5, 5, 1);
+        projectService.createProject("Loser", "Worst", 1, 1, 1, 1, 5);
+
+        // When the command is executed with a fixed seed
+        var result = simulateCommand.execute(ScoreCalculator.RICE, 100, 1, 20, 42L);
+
+        // Then both projects are listed with their rank estimates, best first
+        assertTrue(result.startsWith("Ranked 100 draws by RICE (seed 42):"));
+        assertTrue(result.contains("- Winner (RICE: 125.0): expected rank 1.0, 90% between 1 and 1, top 1 in 100.0% of draws"));
+        assertTrue(result.indexOf("Winner") < result.indexOf("Loser"));
+    }
+
+    @Test
+    void shouldRejectInvalidOptions() {
+        // When the command is executed with invalid options
+        var noSamples = simulateCommand.execute(ScoreCalculator.RICE, 0, 10, 20, null);
+        var unknownModel = simulateCommand.execute("wsjf", 100, 10, 20, null);
+        var empty = simulateCommand.execute(ScoreCalculator.ICE, 100, 10, 20, null);
+
+        // Then the options should be rejected, and nothing simulated without projects
+        assertEquals("Samples must be at least 1.", noSamples);
+        assertTrue(unknownModel.startsWith("Unknown scoring model: wsjf."));
+        assertEquals("No projects found.", empty);
+    }
+}
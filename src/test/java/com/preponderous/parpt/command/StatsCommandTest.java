@@ -0,0 +1,85 @@
+package com.preponderous.parpt.command;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.preponderous.parpt.config.MetricsConfig;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatsCommandTest {
+
+    @TempDir
+    Path tempDir;
+
+    MeterRegistry meterRegistry;
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    StatsCommand statsCommand;
+
+    @BeforeEach
+    void setUp() {
+        // Use a registry of its own so meters recorded by other tests do not show up
+        meterRegistry = new MetricsConfig().meterRegistry();
+        statsCommand = new StatsCommand(meterRegistry, objectMapper);
+    }
+
+    @Test
+    void shouldReportWhenNothingWasRecorded() {
+        // Given no command has run
+        CommandMetrics.timer(meterRegistry, "list");
+
+        // When the command is executed
+        var result = statsCommand.execute(null);
+
+        // Then no statistics should be shown
+        assertEquals("No statistics recorded yet.", result);
+    }
+
+    @Test
+    void shouldPrintCountsAndPercentiles() {
+        // Given a command ran twice and a snapshot was written
+        CommandMetrics.timer(meterRegistry, "list").record(10, TimeUnit.MILLISECONDS);
+        CommandMetrics.timer(meterRegistry, "list").record(30, TimeUnit.MILLISECONDS);
+        DistributionSummary.builder("parpt.json.write.bytes").baseUnit("bytes").register(meterRegistry).record(2048);
+
+        // When the command is executed
+        var result = statsCommand.execute(null);
+
+        // Then both meters should be listed with their counts and percentiles
+        assertTrue(result.contains("parpt.command{command=list}  count=2"));
+        assertTrue(result.contains("p95="));
+        assertTrue(result.contains("parpt.json.write.bytes"));
+        assertTrue(result.contains("bytes"));
+        assertFalse(result.contains("command=view"));
+    }
+
+    @Test
+    void shouldExportStatisticsAsJson() throws IOException {
+        // Given a command ran once
+        CommandMetrics.timer(meterRegistry, "view").record(5, TimeUnit.MILLISECONDS);
+        Path export = tempDir.resolve("stats.json");
+
+        // When the command is executed with an export file
+        var result = statsCommand.execute(export.toString());
+
+        // Then the file should hold the same statistics
+        assertTrue(result.endsWith("Exported to " + export + "."));
+        JsonNode stats = objectMapper.readTree(export.toFile());
+        assertEquals(1, stats.size());
+        assertEquals("parpt.command{command=view}", stats.get(0).get("meter").asText());
+        assertEquals(1, stats.get(0).get("count").asLong());
+        assertTrue(stats.get(0).get("percentiles").has("p99"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.preponderous.parpt.command;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.score.ScoreCalculator;
+import com.preponderous.parpt.service.ProjectService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class UpdateProjectCommandTest {
+
+    UpdateProjectCommand updateProjectCommand;
+
+    @Autowired
+    ProjectService projectService;
+
+    @Autowired
+    ProjectRepository projectRepository;
+
+    @Autowired
+    ScoreCalculator scoreCalculator;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        updateProjectCommand = new UpdateProjectCommand(projectService, scoreCalculator, meterRegistry);
+
+        // Clear any existing projects in the repository before each test
+        projectRepository.clear();
+    }
+
+    @Test
+    void shouldUpdateOnlyTheGivenScores() throws ProjectRepository.NameTakenException {
+        // Given a project exists
+        projectService.createProject("Test Project", "This is a test project", 3, 3, 3, 3, 2);
+
+        // When the command is executed with a new impact and effort
+        var result = updateProjectCommand.execute("test project", 5, null, null, null, 1);
+
+        // Then the changed scores are reported and stored, and the others are kept
+        assertTrue(result.startsWith("Project updated successfully: Test Project (Impact 3 -> 5, Effort 2 -> 1)"));
+        assertTrue(result.contains("RICE Score: 45.00"));
+        Project project = projectService.findProject("Test Project").orElseThrow();
+        assertEquals(5, project.getImpact());
+        assertEquals(3, project.getConfidence());
+        assertEquals(1, project.getEffort());
+    }
+
+    @Test
+    void shouldReportWhenNothingChanges() throws ProjectRepository.NameTakenException {
+        // Given a project exists
+        projectService.createProject("Test Project", "This is a test project", 3, 3, 3, 3, 2);
+
+        // When the command is executed with the scores the project already has
+        var result = updateProjectCommand.execute("Test Project", 3, null, null, null, 2);
+
+        // Then nothing is changed
+        assertEquals("No scores changed for Test Project.", result);
+    }
+
+    @Test
+    void shouldRejectInvalidInput() throws ProjectRepository.NameTakenException {
+        // Given a project exists
+        projectService.createProject("Test Project", "This is a test project", 3, 3, 3, 3, 2);
+
+        // When the command is executed with invalid input
+        var outOfRange = updateProjectCommand.execute("Test Project", 6, null, null, null, null);
+        var noScores = updateProjectCommand.execute("Test Project", null, null, null, null, null);
+        var unknown = updateProjectCommand.execute("Other Project", 5, null, null, null, null);
+
+        // Then each is rejected with a message
+        assertEquals("All scores must be between 1 and 5.", outOfRange);
+        assertTrue(noScores.startsWith("Nothing to update."));
+        assertEquals("Project not found: Other Project", unknown);
+    }
+}
@@ -1,8 +1,10 @@
 package com.preponderous.parpt.command;
 
+import com.preponderous.parpt.config.ScoringProperties;
 import com.preponderous.parpt.repo.ProjectRepository;
 import com.preponderous.parpt.score.ScoreCalculator;
 import com.preponderous.parpt.service.ProjectService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,10 +26,13 @@ class ViewProjectCommandTest {
     @Autowired
     ScoreCalculator scoreCalculator;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
         // Initialize the command with the project service
-        viewProjectCommand = new ViewProjectCommand(projectService, scoreCalculator);
+        viewProjectCommand = new ViewProjectCommand(projectService, scoreCalculator, meterRegistry);
 
         // Clear any existing projects in the repository before each test
         projectRepository.clear();
@@ -63,4 +68,31 @@ class ViewProjectCommandTest {
         assertTrue(result.contains("ICE Score"));
         assertTrue(result.contains("RICE Score"));
     }
+
+    @Test
+    void shouldShowScoresUnderConfiguredModels() throws ProjectRepository.NameTakenException {
+        // Given a project and a calculator with a custom model
+        projectService.createProject("Test Project", "This is a test project", 5, 4, 3, 2, 1);
+        ScoringProperties scoringProperties = new ScoringProperties();
+        scoringProperties.getModels().put("wsjf", "(impact + reach) / effort");
+        viewProjectCommand = new ViewProjectCommand(projectService, new ScoreCalculator(scoringProperties), meterRegistry);
+
+        // When the command is executed
+        var result = viewProjectCommand.execute("Test Project");
+
+        // Then the custom score follows the built-in ones
+        assertTrue(result.endsWith("RICE Score: 40.00\nWSJF Score: 7.00\n"));
+    }
+
+    @Test
+    void shouldFindProjectIgnoringCase() throws ProjectRepository.NameTakenException {
+        // Given a project exists
+        projectService.createProject("Test Project", "This is a test project", 5, 4, 3, 2, 1);
+
+        // When the command is executed with a differently cased name
+        var result = viewProjectCommand.execute("test project");
+
+        // Then the project should still be found
+        assertTrue(result.contains("Project: Test Project"));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.preponderous.parpt.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProjectAnswersTest {
+
+    @Test
+    void encode_ShouldPackEveryAnswerIntoOneLong() {
+        // Arrange
+        int[][] answers = {
+                {5, 4, 3, 2},
+                {1, 2, 3, 4},
+                {5, 5, 5, 5},
+                {1, 1, 1, 1},
+                {2, 3, 2, 3}
+        };
+
+        // Act
+        long packed = ProjectAnswers.encode(answers);
+
+        // Assert
+        assertThat(packed >>> 60).isZero();
+        for (int dimension = 0; dimension < ProjectAnswers.DIMENSIONS; dimension++) {
+            assertThat(ProjectAnswers.answers(packed, dimension)).containsExactly(answers[dimension]);
+            assertThat(ProjectAnswers.count(packed, dimension)).isEqualTo(4);
+        }
+        assertThat(ProjectAnswers.answer(packed, ProjectAnswers.EFFORT, 1)).isEqualTo(3);
+    }
+
+    @Test
+    void score_ShouldRoundTheAverageHalfUp() {
+        // Arrange
+        long packed = ProjectAnswers.encode(new int[]{4, 4, 3, 3}, new int[]{2, 2, 2, 3}, null);
+
+        // Act & Assert
+        assertThat(ProjectAnswers.score(packed, ProjectAnswers.IMPACT)).isEqualTo(4);
+        assertThat(ProjectAnswers.score(packed, ProjectAnswers.CONFIDENCE)).isEqualTo(2);
+        assertThat(ProjectAnswers.score(packed, ProjectAnswers.EASE)).isZero();
+        assertThat(ProjectAnswers.answers(packed, ProjectAnswers.EASE)).isEmpty();
+    }
+
+    @Test
+    void without_ShouldDropOnlyThatDimension() {
+        // Arrange
+        long packed = ProjectAnswers.encode(new int[]{4, 4}, new int[]{2, 3}, new int[]{5});
+
+        // Act
+        long dropped = ProjectAnswers.without(packed, ProjectAnswers.CONFIDENCE);
+
+        // Assert
+        assertThat(ProjectAnswers.answers(dropped, ProjectAnswers.IMPACT)).containsExactly(4, 4);
+        assertThat(ProjectAnswers.answers(dropped, ProjectAnswers.CONFIDENCE)).isEmpty();
+        assertThat(ProjectAnswers.answers(dropped, ProjectAnswers.EASE)).containsExactly(5);
+    }
+
+    @Test
+    void encode_ShouldRejectAnswersThatCannotBeStored() {
+        assertThatThrownBy(() -> ProjectAnswers.encode(new int[]{1, 2, 3, 4, 5}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ProjectAnswers.encode(new int[]{0}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ProjectAnswers.encode(new int[]{6}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,25 @@
+package com.preponderous.parpt.domain;
+
+/**
+ * Builds projects for tests.
+ */
+public final class TestProjects {
+
+    private TestProjects() {
+    }
+
+    /**
+     * Returns a project described as "Description of" its name, with the given scores.
+     */
+    public static Project project(String name, int impact, int confidence, int ease, int reach, int effort) {
+        return Project.builder()
+                .name(name)
+                .description("Description of " + name)
+                .impact(impact)
+                .confidence(confidence)
+                .ease(ease)
+                .reach(reach)
+                .effort(effort)
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.preponderous.parpt.filter;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.repo.ObjectProjectStore;
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.repo.TestRepositories;
+import com.preponderous.parpt.score.ScoreCalculator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.preponderous.parpt.domain.TestProjects.project;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScoreBitmapIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ProjectRepository repository;
+    private ScoreBitmapIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = TestRepositories.builder(tempDir.resolve("projects.json"))
+                .storeFactory(ObjectProjectStore::new)
+                .build();
+        index = new ScoreBitmapIndex(repository, new ScoreCalculator());
+    }
+
+    private List<Integer> select(String expression) {
+        return index.select(index.compile(expression)).stream().boxed().toList();
+    }
+
+    @Test
+    void select_ShouldCombineDimensionAndModelComparisons() throws ProjectRepository.NameTakenException {
+        // Arrange: RICE is reach * impact * confidence / effort
+        repository.add(project("Quick win", 4, 3, 5, 2, 1));
+        repository.add(project("Big bet", 5, 4, 2, 5, 4));
+        repository.add(project("Long shot", 2, 1, 1, 5, 5));
+
+        // Act & Assert
+        assertThat(select("impact>=4 and effort<=2 and rice>10")).containsExactly(0);
+        assertThat(select("impact >= 4")).containsExactly(0, 1);
+        assertThat(select("effort=1 or reach=5 and confidence<2")).containsExactly(0, 2);
+        assertThat(select("(effort=1 or reach=5) and confidence<2")).containsExactly(2);
+        assertThat(select("not impact>=4")).containsExactly(2);
+        assertThat(select("ICE != 60 AND ice > 2")).containsExactly(1);
+        assertThat(select("impact > 5")).isEmpty();
+    }
+
+    @Test
+    void select_ShouldReflectProjectsAddedAndClearedAfterBuild() throws ProjectRepository.NameTakenException {
+        // Arrange
+        repository.add(project("First", 5, 5, 5, 5, 1));
+        ProjectFilter filter = index.compile("impact=5 and rice>=25");
+        assertThat(index.select(filter).stream().boxed().toList()).containsExactly(0);
+
+        // Act
+        repository.add(project("Second", 5, 5, 3, 5, 5));
+        repository.add(project("Third", 5, 5, 3, 1, 2));
+
+        // Assert
+        assertThat(index.select(filter).stream().boxed().toList()).containsExactly(0, 1);
+
+        repository.clear();
+        assertThat(index.select(filter).isEmpty()).isTrue();
+    }
+
+    @Test
+    void select_ShouldReflectProjectsRescoredAfterBuild() throws Exception {
+        // Arrange
+        repository.add(project("First", 5, 5, 5, 5, 1));
+        repository.add(project("Second", 3, 3, 3, 3, 3));
+        ProjectFilter filter = index.compile("impact=5 and rice>=25");
+        assertThat(index.select(filter).stream().boxed().toList()).containsExactly(0);
+
+        // Act
+        repository.update("First", 5, 5, 5, 1, 5);
+        repository.update("Second", 5, 5, 3, 5, 1);
+
+        // Assert
+        assertThat(index.select(filter).stream().boxed().toList()).containsExactly(1);
+    }
+
+    @Test
+    void select_OverManyProjects_ShouldMatchEveryMatchingOrdinal() throws ProjectRepository.NameTakenException {
+        // Arrange
+        List<Project> projects = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            projects.add(project("Project " + i, i % 5 + 1, 3, 3, 3, i % 7 % 5 + 1));
+        }
+        repository.addAll(projects);
+
+        // Act
+        List<Integer> matches = select("impact=5 and effort=1");
+
+        // Assert
+        for (int ordinal : matches) {
+            assertThat(ordinal % 5).isEqualTo(4);
+            assertThat(ordinal % 7 % 5).isEqualTo(0);
+        }
+        assertThat(matches).hasSize((int) IntStream.range(0, 10_000)
+                .filter(i -> i % 5 == 4 && i % 7 % 5 == 0)
+                .count());
+    }
+
+    @Test
+    void compile_ShouldRejectMalformedExpressions() {
+        assertThatThrownBy(() -> index.compile("wsjf > 3"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown score 'wsjf'")
+                .hasMessageContaining("impact, confidence, ease, reach, effort, ice, rice");
+        assertThatThrownBy(() -> index.compile("impact >= four"))
+                .hasMessage("Expected a number at position 11 but found 'four'.");
+        assertThatThrownBy(() -> index.compile("(impact > 3"))
+                .hasMessage("Expected ')' at the end of the filter.");
+        assertThatThrownBy(() -> index.compile("impact > 3 effort < 2"))
+                .hasMessage("Unexpected 'effort' at position 12.");
+        assertThatThrownBy(() -> index.compile("impact ~ 3"))
+                .hasMessage("Unexpected '~' at position 8.");
+        assertThatThrownBy(() -> index.compile(" "))
+                .hasMessage("The filter is empty.");
+    }
+}
@@ -0,0 +1,129 @@
+package com.preponderous.parpt.repo;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ProjectAnswers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BinaryProjectSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Project project(String name, int score) {
+        return Project.builder()
+                .name(name)
+                .description("Description of " + name)
+                .impact(score)
+                .confidence(score)
+                .ease(6 - score)
+                .reach(score)
+                .effort(6 - score)
+                .build();
+    }
+
+    @Test
+    void write_ShouldRoundTripAllFields() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("projects.bin");
+        List<Project> projects = List.of(project("Project 1", 1), project("Prøject 2", 5));
+
+        // Act
+        BinaryProjectSnapshot.write(file, projects);
+        BinaryProjectSnapshot snapshot = BinaryProjectSnapshot.open(file);
+
+        // Assert
+        assertThat(snapshot.size()).isEqualTo(2);
+        assertThat(snapshot.get(0)).usingRecursiveComparison().isEqualTo(projects.get(0));
+        assertThat(snapshot.get(1)).usingRecursiveComparison().isEqualTo(projects.get(1));
+        assertThat(snapshot.impact(1)).isEqualTo(5);
+        assertThat(snapshot.effort(1)).isEqualTo(1);
+    }
+
+    @Test
+    void write_ShouldRoundTripAnswersAndPromptSetVersions() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("projects.bin");
+        Project answered = project("Answered", 3);
+        answered.setAnswers(ProjectAnswers.encode(new int[]{3, 3, 2, 4}, null, new int[]{5, 5, 5, 5}));
+        answered.setPromptSetVersion(2);
+        List<Project> projects = List.of(project("Unanswered", 1), answered);
+
+        // Act
+        BinaryProjectSnapshot.write(file, projects);
+        BinaryProjectSnapshot snapshot = BinaryProjectSnapshot.open(file);
+
+        // Assert
+        assertThat(snapshot.get(0)).usingRecursiveComparison().isEqualTo(projects.get(0));
+        assertThat(snapshot.get(1)).usingRecursiveComparison().isEqualTo(answered);
+        assertThat(snapshot.answers(0)).isZero();
+        assertThat(snapshot.promptSetVersion(1)).isEqualTo(2);
+        assertThat(snapshot.indexOf("Answered")).isEqualTo(1);
+    }
+
+    @Test
+    void write_ShouldIncrementGenerationOnEveryRewrite() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("projects.bin");
+        BinaryProjectSnapshot.write(file, List.of(project("Project 1", 1)));
+
+        // Act
+        BinaryProjectSnapshot.write(file, List.of(project("Project 1", 1)));
+
+        // Assert
+        assertThat(BinaryProjectSnapshot.open(file).generation()).isEqualTo(2);
+        assertThat(BinaryProjectSnapshot.readGeneration(file)).isEqualTo(2);
+    }
+
+    @Test
+    void indexOf_ShouldFindProjectsByName() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("projects.bin");
+        List<Project> projects = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            projects.add(project("Project " + i, i % 5 + 1));
+        }
+        BinaryProjectSnapshot.write(file, projects);
+
+        // Act
+        BinaryProjectSnapshot snapshot = BinaryProjectSnapshot.open(file);
+
+        // Assert
+        assertThat(snapshot.indexOf("Project 0")).isZero();
+        assertThat(snapshot.indexOf("Project 999")).isEqualTo(999);
+        assertThat(snapshot.indexOf("project 999")).isEqualTo(-1);
+        assertThat(snapshot.indexOf("Project 1000")).isEqualTo(-1);
+        assertThat(snapshot.indexOfIgnoreCase("PROJECT 42")).isEqualTo(42);
+    }
+
+    @Test
+    void indexOfIgnoreCase_ShouldReturnFirstMatch() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("projects.bin");
+        BinaryProjectSnapshot.write(file, List.of(project("Project", 1), project("PROJECT", 2)));
+
+        // Act
+        BinaryProjectSnapshot snapshot = BinaryProjectSnapshot.open(file);
+
+        // Assert
+        assertThat(snapshot.indexOfIgnoreCase("project")).isZero();
+        assertThat(snapshot.indexOf("PROJECT")).isEqualTo(1);
+    }
+
+    @Test
+    void empty_ShouldContainNoProjects() {
+        BinaryProjectSnapshot snapshot = BinaryProjectSnapshot.empty();
+
+        assertThat(snapshot.size()).isZero();
+        assertThat(snapshot.indexOf("Project")).isEqualTo(-1);
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.get(0));
+    }
+}
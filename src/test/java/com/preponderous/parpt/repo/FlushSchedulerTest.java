@@ -0,0 +1,77 @@
+package com.preponderous.parpt.repo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlushSchedulerTest {
+
+    @Test
+    void request_WithinDelay_ShouldCoalesceIntoOneFlush() {
+        // Arrange
+        FlushScheduler scheduler = new FlushScheduler(60_000);
+        AtomicInteger flushes = new AtomicInteger();
+        Runnable flush = flushes::incrementAndGet;
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            scheduler.request(flush);
+        }
+        scheduler.drain();
+
+        // Assert
+        assertThat(flushes).hasValue(1);
+        scheduler.close();
+    }
+
+    @Test
+    void request_WithoutDelay_ShouldFlushOnCallingThread() {
+        // Arrange
+        FlushScheduler scheduler = new FlushScheduler(0);
+        Thread[] flushedOn = new Thread[1];
+
+        // Act
+        scheduler.request(() -> flushedOn[0] = Thread.currentThread());
+
+        // Assert
+        assertThat(flushedOn[0]).isSameAs(Thread.currentThread());
+        scheduler.close();
+    }
+
+    @Test
+    void request_AfterFailedFlush_ShouldStillScheduleAndRunTheNextFlush() {
+        // Arrange
+        FlushScheduler scheduler = new FlushScheduler(60_000);
+        scheduler.request(() -> {
+            throw new IllegalStateException("disk full");
+        });
+        scheduler.drain();
+        AtomicInteger flushes = new AtomicInteger();
+
+        // Act
+        scheduler.request(flushes::incrementAndGet);
+        scheduler.drain();
+
+        // Assert
+        assertThat(flushes).hasValue(1);
+        assertThat(scheduler.failures()).isEqualTo(1);
+        scheduler.close();
+    }
+
+    @Test
+    void request_WithoutDelay_WhenFlushFails_ShouldNotThrow() {
+        // Arrange
+        FlushScheduler scheduler = new FlushScheduler(0);
+
+        // Act
+        scheduler.request(() -> {
+            throw new IllegalStateException("disk full");
+        });
+
+        // Assert
+        assertThat(scheduler.failures()).isEqualTo(1);
+        scheduler.close();
+    }
+}
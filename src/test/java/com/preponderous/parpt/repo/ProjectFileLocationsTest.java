@@ -0,0 +1,58 @@
+package com.preponderous.parpt.repo;
+
+import com.preponderous.parpt.domain.Project;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that pointing the shell at another projects file moves every file kept
+ * alongside it, so processes sharing that file also share its lock and journal.
+ */
+@SpringBootTest
+class ProjectFileLocationsTest {
+
+    @TempDir
+    static Path tempDir;
+
+    @Autowired
+    ProjectRepository projectRepository;
+
+    @DynamicPropertySource
+    static void projectsFile(DynamicPropertyRegistry registry) {
+        registry.add("app.projects.file", () -> tempDir.resolve("projects.json").toString());
+    }
+
+    @Test
+    void sidecarFiles_ShouldBeCreatedNextToProjectsFile() {
+        // Arrange
+        projectRepository.clear();
+
+        // Act
+        projectRepository.add(Project.builder()
+                .name("Project A")
+                .description("Description of Project A")
+                .impact(3)
+                .confidence(3)
+                .ease(3)
+                .reach(3)
+                .effort(3)
+                .build());
+
+        // Assert
+        assertThat(tempDir.resolve("projects.json.journal")).exists();
+        assertThat(tempDir.resolve("projects.json.lock")).exists();
+        assertThat(tempDir.resolve("projects.json.history")).exists();
+
+        projectRepository.compact();
+        assertThat(tempDir.resolve("projects.json")).exists();
+        assertThat(tempDir.resolve("projects.json.bin")).exists();
+    }
+}
@@ -0,0 +1,198 @@
+package com.preponderous.parpt.repo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.preponderous.parpt.domain.Project;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProjectJournalImplTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ProjectJournalImpl journal;
+    private Project project1;
+    private Project project2;
+
+    @BeforeEach
+    void setUp() {
+        journal = new ProjectJournalImpl(tempDir.resolve("projects.json.journal").toString(), new ObjectMapper());
+
+        project1 = Project.builder()
+                .name("Project 1")
+                .description("First test project")
+                .impact(4)
+                .confidence(5)
+                .ease(3)
+                .reach(4)
+                .effort(2)
+                .build();
+
+        project2 = Project.builder()
+                .name("Project 2")
+                .description("Second test project")
+                .impact(3)
+                .confidence(4)
+                .ease(4)
+                .reach(3)
+                .effort(3)
+                .build();
+    }
+
+    @Test
+    void replay_WhenJournalDoesNotExist_ShouldReplayNothing() {
+        // Act
+        List<JournalEntry> entries = new ArrayList<>();
+        journal.replay(entries::add);
+
+        // Assert
+        assertThat(entries).isEmpty();
+        assertThat(journal.size()).isZero();
+    }
+
+    @Test
+    void append_ShouldReplayEntriesInOrder() {
+        // Arrange
+        journal.append(JournalEntry.add(project1));
+        journal.append(JournalEntry.add(project2));
+
+        // Act
+        ProjectJournalImpl reopened = new ProjectJournalImpl(tempDir.resolve("projects.json.journal").toString(), new ObjectMapper());
+        List<JournalEntry> entries = new ArrayList<>();
+        reopened.replay(entries::add);
+
+        // Assert
+        assertThat(entries)
+                .extracting(JournalEntry::getProject)
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(project1, project2);
+        assertThat(entries).allMatch(entry -> entry.getOperation() == JournalEntry.Operation.ADD);
+        assertThat(reopened.size()).isEqualTo(2);
+    }
+
+    @Test
+    void truncate_ShouldDiscardAllEntries() {
+        // Arrange
+        journal.append(JournalEntry.add(project1));
+
+        // Act
+        journal.truncate();
+        List<JournalEntry> entries = new ArrayList<>();
+        journal.replay(entries::add);
+
+        // Assert
+        assertThat(entries).isEmpty();
+        assertThat(journal.size()).isZero();
+    }
+
+    @Test
+    void replayNew_ShouldOnlyReplayEntriesAppendedByOthersSinceLastRead() {
+        // Arrange
+        ProjectJournalImpl other = new ProjectJournalImpl(tempDir.resolve("projects.json.journal").toString(), new ObjectMapper());
+        journal.append(JournalEntry.add(project1));
+        other.replay(entry -> { });
+
+        // Act
+        journal.append(JournalEntry.add(project2));
+        List<JournalEntry> entries = new ArrayList<>();
+        other.replayNew(entries::add);
+
+        // Assert
+        assertThat(entries)
+                .extracting(JournalEntry::getProject)
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(project2);
+        assertThat(other.size()).isEqualTo(2);
+    }
+
+    @Test
+    void replayNew_AfterTruncateByOthers_ShouldStartOver() {
+        // Arrange
+        ProjectJournalImpl other = new ProjectJournalImpl(tempDir.resolve("projects.json.journal").toString(), new ObjectMapper());
+        journal.append(JournalEntry.add(project1));
+        journal.append(JournalEntry.add(project2));
+        other.replay(entry -> { });
+
+        // Act
+        journal.truncate();
+        journal.append(JournalEntry.add(project1));
+        List<JournalEntry> entries = new ArrayList<>();
+        other.replayNew(entries::add);
+
+        // Assert
+        assertThat(entries).hasSize(1);
+        assertThat(other.size()).isEqualTo(1);
+    }
+
+    @Test
+    void replay_WithDamagedEntry_ShouldSkipOnlyThatEntry() throws IOException {
+        // Arrange
+        journal.append(JournalEntry.add(project1));
+        journal.append(JournalEntry.add(project2));
+        Path file = tempDir.resolve("projects.json.journal");
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        lines.set(0, lines.get(0).replace("Project 1", "Project X"));
+        Files.write(file, lines, StandardCharsets.UTF_8);
+
+        // Act
+        List<JournalEntry> entries = new ArrayList<>();
+        int skipped = journal.replay(entries::add);
+
+        // Assert
+        assertThat(entries)
+                .extracting(JournalEntry::getProject)
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(project2);
+        assertThat(skipped).isEqualTo(1);
+    }
+
+    @Test
+    void replay_ShouldAcceptEntriesWithoutChecksum() throws IOException {
+        // Arrange
+        String json = new ObjectMapper().writeValueAsString(JournalEntry.add(project1));
+        Files.writeString(tempDir.resolve("projects.json.journal"), json + "\n", StandardCharsets.UTF_8);
+
+        // Act
+        List<JournalEntry> entries = new ArrayList<>();
+        journal.replay(entries::add);
+
+        // Assert
+        assertThat(entries).hasSize(1);
+    }
+
+    @Test
+    void append_AfterTornWrite_ShouldDropPartialEntry() throws IOException {
+        // Arrange
+        journal.append(JournalEntry.add(project1));
+        Files.writeString(tempDir.resolve("projects.json.journal"), "0badc0de {\"operation\":\"ADD\",\"proj",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        // Act
+        journal.append(JournalEntry.add(project2));
+        List<JournalEntry> entries = new ArrayList<>();
+        journal.replay(entries::add);
+
+        // Assert
+        assertThat(entries)
+                .extracting(JournalEntry::getProject)
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(project1, project2);
+    }
+
+    @Test
+    void append_WithNullEntry_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> journal.append(null));
+    }
+}
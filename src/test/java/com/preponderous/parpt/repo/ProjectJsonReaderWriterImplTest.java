@@ -1,7 +1,10 @@
 
 package com.preponderous.parpt.repo;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ProjectAnswers;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -9,7 +12,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -170,4 +176,117 @@ class ProjectJsonReaderWriterImplTest {
         assertThat(readProject.getReach()).isEqualTo(project1.getReach());
         assertThat(readProject.getEffort()).isEqualTo(project1.getEffort());
     }
-}
\ No newline at end of file
+
+    @Test
+    void writeJson_ShouldKeepAnswersOnlyForProjectsThatHaveThem() throws IOException {
+        // Arrange
+        project2.setAnswers(ProjectAnswers.encode(new int[]{3, 3, 3, 4}, new int[]{4, 4, 4, 4}));
+        project2.setPromptSetVersion(1);
+
+        // Act
+        readerWriter.writeJson(List.of(project1, project2));
+        List<Project> readProjects = readerWriter.readJson();
+
+        // Assert
+        assertThat(readProjects)
+                .usingRecursiveComparison()
+                .isEqualTo(List.of(project1, project2));
+        String json = Files.readString(Path.of("test-projects.json"));
+        assertThat(json).containsOnlyOnce("answers").containsOnlyOnce("promptSetVersion");
+    }
+
+    @Test
+    void readJson_WithConsumer_ShouldStreamProjectsInOrder() {
+        // Arrange
+        List<Project> projects = Arrays.asList(project1, project2, project3);
+        readerWriter.writeJson(projects);
+
+        // Act
+        List<Project> streamed = new ArrayList<>();
+        readerWriter.readJson(streamed::add);
+
+        // Assert
+        assertThat(streamed)
+                .usingRecursiveComparison()
+                .isEqualTo(projects);
+    }
+
+    @Test
+    void writeJson_WithIterator_ShouldStoreProjects() {
+        // Arrange
+        List<Project> projects = Arrays.asList(project1, project2, project3);
+
+        // Act
+        readerWriter.writeJson(projects.iterator());
+        List<Project> readProjects = readerWriter.readJson();
+
+        // Assert
+        assertThat(readProjects)
+                .hasSize(3)
+                .usingRecursiveComparison()
+                .isEqualTo(projects);
+    }
+
+    @Test
+    void readJson_WhenDocumentIsNotAnArray_ShouldThrowException() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("not-an-array.json");
+        Files.writeString(file, "{\"name\": \"Project 1\"}");
+        ProjectJsonReaderWriterImpl fileReaderWriter = new ProjectJsonReaderWriterImpl(file.toString(), new ObjectMapper(), new SimpleMeterRegistry());
+
+        // Assert
+        assertThrows(RuntimeException.class, fileReaderWriter::readJson);
+    }
+
+    @Test
+    void readJson_WithDamagedProject_ShouldSkipOnlyThatProject() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("projects.json");
+        ProjectJsonReaderWriterImpl fileReaderWriter = new ProjectJsonReaderWriterImpl(file.toString(), new ObjectMapper(), new SimpleMeterRegistry());
+        fileReaderWriter.writeJson(List.of(project1, project2, project3));
+        Files.writeString(file, Files.readString(file).replace("Second test project", "Second test prOject"));
+
+        // Act
+        List<Project> readProjects = new ArrayList<>();
+        int skipped = fileReaderWriter.readJson(readProjects::add);
+
+        // Assert
+        assertThat(readProjects)
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(project1, project3);
+        assertThat(skipped).isEqualTo(1);
+    }
+
+    @Test
+    void readJson_WithoutChecksums_ShouldReadWholeDocument() throws IOException {
+        // Arrange: a file written on one line, as earlier versions did
+        Path file = tempDir.resolve("projects.json");
+        Files.writeString(file, new ObjectMapper().writeValueAsString(List.of(project1, project2)));
+        ProjectJsonReaderWriterImpl fileReaderWriter = new ProjectJsonReaderWriterImpl(file.toString(), new ObjectMapper(), new SimpleMeterRegistry());
+
+        // Act
+        List<Project> readProjects = fileReaderWriter.readJson();
+
+        // Assert
+        assertThat(readProjects)
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(project1, project2);
+    }
+
+    @Test
+    void writeJson_ShouldReplaceFileWithoutLeavingTemporaryFile() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("projects.json");
+        ProjectJsonReaderWriterImpl fileReaderWriter = new ProjectJsonReaderWriterImpl(file.toString(), new ObjectMapper(), new SimpleMeterRegistry());
+        fileReaderWriter.writeJson(List.of(project1, project2));
+
+        // Act
+        fileReaderWriter.writeJson(List.of(project3));
+
+        // Assert
+        assertThat(fileReaderWriter.readJson())
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(project3);
+        assertThat(tempDir.resolve("projects.json.tmp")).doesNotExist();
+    }
+}
@@ -0,0 +1,74 @@
+package com.preponderous.parpt.repo;
+
+import com.preponderous.parpt.domain.Project;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectOverlayTest {
+
+    private Project project(int impact) {
+        return Project.builder()
+                .name("Project " + impact)
+                .description("Description")
+                .impact(impact)
+                .confidence(3)
+                .ease(3)
+                .reach(3)
+                .effort(3)
+                .build();
+    }
+
+    @Test
+    void with_ShouldLeaveTheOriginalAsItWas() {
+        // Arrange
+        ProjectOverlay first = ProjectOverlay.EMPTY.with(3, project(1));
+
+        // Act
+        ProjectOverlay second = first.with(3, project(2)).with(100_000, project(3));
+
+        // Assert
+        assertThat(first.get(3).getImpact()).isEqualTo(1);
+        assertThat(first.get(100_000)).isNull();
+        assertThat(first.size()).isEqualTo(1);
+        assertThat(second.get(3).getImpact()).isEqualTo(2);
+        assertThat(second.get(100_000).getImpact()).isEqualTo(3);
+        assertThat(second.size()).isEqualTo(2);
+        assertThat(ProjectOverlay.EMPTY.isEmpty()).isTrue();
+    }
+
+    @Test
+    void with_AtRandomOrdinals_ShouldMatchAMap() {
+        // Arrange
+        Random random = new Random(42);
+        Map<Integer, Project> expected = new HashMap<>();
+        ProjectOverlay overlay = ProjectOverlay.EMPTY;
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            int ordinal = random.nextInt(i % 2 == 0 ? 1000 : Integer.MAX_VALUE);
+            Project project = project(1 + random.nextInt(5));
+            expected.put(ordinal, project);
+            overlay = overlay.with(ordinal, project);
+        }
+
+        // Assert
+        assertThat(overlay.size()).isEqualTo(expected.size());
+        for (Map.Entry<Integer, Project> entry : expected.entrySet()) {
+            assertThat(overlay.get(entry.getKey())).isSameAs(entry.getValue());
+        }
+        assertThat(overlay.get(1000)).isNull();
+        List<Integer> visited = new ArrayList<>();
+        overlay.forEach((project, ordinal) -> {
+            assertThat(project).isSameAs(expected.get(ordinal));
+            visited.add(ordinal);
+        });
+        assertThat(visited).hasSize(expected.size()).isSorted();
+    }
+}
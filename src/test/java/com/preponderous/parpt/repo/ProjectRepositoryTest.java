@@ -0,0 +1,618 @@
+package com.preponderous.parpt.repo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.preponderous.parpt.domain.Project;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProjectRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ProjectJsonReaderWriterImpl readerWriter;
+    private ProjectBinaryReaderWriterImpl binaryReaderWriter;
+    private ProjectJournalImpl journal;
+    private ScoreHistoryImpl history;
+    private ProjectFileLockImpl fileLock;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        readerWriter = new ProjectJsonReaderWriterImpl(tempDir.resolve("projects.json").toString(), objectMapper, new SimpleMeterRegistry());
+        binaryReaderWriter = new ProjectBinaryReaderWriterImpl(tempDir.resolve("projects.json.bin").toString(),
+                tempDir.resolve("projects.json").toString());
+        journal = new ProjectJournalImpl(tempDir.resolve("projects.json.journal").toString(), objectMapper);
+        history = new ScoreHistoryImpl(tempDir.resolve("projects.json.history").toString());
+        fileLock = new ProjectFileLockImpl(tempDir.resolve("projects.json.lock").toString());
+    }
+
+    private ProjectRepository openRepository(int compactionThreshold) {
+        return new ProjectRepository(readerWriter, binaryReaderWriter, journal, history, fileLock, new FlushScheduler(0), ObjectProjectStore::new, new SimpleMeterRegistry(), compactionThreshold, false);
+    }
+
+    /**
+     * Opens a repository over the same files with its own readers and writers, the way
+     * another process would.
+     */
+    private ProjectRepository openSecondProcess(int compactionThreshold) {
+        return TestRepositories.builder(tempDir.resolve("projects.json"))
+                .storeFactory(ObjectProjectStore::new)
+                .compactionThreshold(compactionThreshold)
+                .build();
+    }
+
+    /**
+     * Gives both snapshots the same modification time after each compaction, the way a
+     * filesystem with coarse timestamps would.
+     */
+    private void resetSnapshotTimes() throws IOException {
+        FileTime time = FileTime.fromMillis(1_700_000_000_000L);
+        Files.setLastModifiedTime(tempDir.resolve("projects.json"), time);
+        Files.setLastModifiedTime(tempDir.resolve("projects.json.bin"), time);
+    }
+
+    private Project project(String name) {
+        return Project.builder()
+                .name(name)
+                .description("Description of " + name)
+                .impact(3)
+                .confidence(3)
+                .ease(3)
+                .reach(3)
+                .effort(3)
+                .build();
+    }
+
+    @Test
+    void add_ShouldAppendToJournalWithoutRewritingSnapshot() throws ProjectRepository.NameTakenException {
+        // Arrange
+        ProjectRepository repository = openRepository(100);
+
+        // Act
+        repository.add(project("Project A"));
+        repository.add(project("Project B"));
+
+        // Assert
+        assertThat(journal.size()).isEqualTo(2);
+        assertThat(readerWriter.readJson()).isEmpty();
+    }
+
+    @Test
+    void constructor_ShouldReplayJournalOnTopOfSnapshot() throws ProjectRepository.NameTakenException {
+        // Arrange
+        readerWriter.writeJson(List.of(project("Project A")));
+        ProjectRepository repository = openRepository(100);
+        repository.add(project("Project B"));
+
+        // Act
+        ProjectRepository reopened = openRepository(100);
+
+        // Assert
+        assertThat(reopened.findAll())
+                .extracting(Project::getName)
+                .containsExactly("Project A", "Project B");
+    }
+
+    @Test
+    void add_WhenThresholdReached_ShouldCompactJournalIntoSnapshot() throws ProjectRepository.NameTakenException {
+        // Arrange
+        ProjectRepository repository = openRepository(2);
+
+        // Act
+        repository.add(project("Project A"));
+        repository.add(project("Project B"));
+
+        // Assert
+        assertThat(journal.size()).isZero();
+        assertThat(readerWriter.readJson())
+                .extracting(Project::getName)
+                .containsExactly("Project A", "Project B");
+    }
+
+    @Test
+    void constructor_WhenJournalOverlapsSnapshot_ShouldNotDuplicateProjects() {
+        // Arrange: simulate a crash after the snapshot was written but before the journal was truncated
+        Project project = project("Project A");
+        readerWriter.writeJson(List.of(project));
+        journal.append(JournalEntry.add(project));
+
+        // Act
+        ProjectRepository repository = openRepository(100);
+
+        // Assert
+        assertThat(repository.findAll()).hasSize(1);
+    }
+
+    @Test
+    void add_WithDuplicateName_ShouldThrowException() throws ProjectRepository.NameTakenException {
+        // Arrange
+        ProjectRepository repository = openRepository(100);
+        repository.add(project("Project A"));
+
+        // Assert
+        assertThrows(ProjectRepository.NameTakenException.class, () -> repository.add(project("Project A")));
+    }
+
+    @Test
+    void clear_ShouldEmptySnapshotAndJournal() throws ProjectRepository.NameTakenException {
+        // Arrange
+        ProjectRepository repository = openRepository(100);
+        repository.add(project("Project A"));
+
+        // Act
+        repository.clear();
+
+        // Assert
+        assertThat(repository.findAll()).isEmpty();
+        assertThat(journal.size()).isZero();
+        assertThat(openRepository(100).findAll()).isEmpty();
+    }
+
+    @Test
+    void constructor_AfterClearInterruptedByCrash_ShouldFinishClearing() throws Exception {
+        // Arrange: the clear was journaled but the process stopped before rewriting the snapshots
+        ProjectRepository repository = openRepository(100);
+        repository.add(project("Project A"));
+        repository.compact();
+        repository.add(project("Project B"));
+        repository.update("Project A", 5, 3, 3, 3, 3);
+        journal.append(JournalEntry.clear());
+
+        // Act
+        ProjectRepository reopened = openRepository(100);
+
+        // Assert
+        assertThat(reopened.findAll()).isEmpty();
+        assertThat(journal.size()).isZero();
+        assertThat(history.size()).isZero();
+        assertThat(openRepository(100).findAll()).isEmpty();
+    }
+
+    @Test
+    void exists_ShouldReflectExactNames() throws ProjectRepository.NameTakenException {
+        // Arrange
+        ProjectRepository repository = openRepository(100);
+        repository.add(project("Project A"));
+
+        // Assert
+        assertThat(repository.exists("Project A")).isTrue();
+        assertThat(repository.exists("project a")).isFalse();
+        assertThat(repository.exists("Project B")).isFalse();
+    }
+
+    @Test
+    void findOptional_ShouldReturnEmptyForUnknownName() throws ProjectRepository.NameTakenException {
+        // Arrange
+        ProjectRepository repository = openRepository(100);
+        repository.add(project("Project A"));
+
+        // Assert
+        assertThat(repository.findOptional("Project A")).isPresent();
+        assertThat(repository.findOptional("Project B")).isEmpty();
+    }
+
+    @Test
+    void findOptionalIgnoreCase_ShouldPreferExactMatch() throws ProjectRepository.NameTakenException {
+        // Arrange
+        ProjectRepository repository = openRepository(100);
+        repository.add(project("Project A"));
+        repository.add(project("PROJECT A"));
+
+        // Assert
+        assertThat(repository.findOptionalIgnoreCase("PROJECT A")).get()
+                .extracting(Project::getName).isEqualTo("PROJECT A");
+        assertThat(repository.findOptionalIgnoreCase("project a")).get()
+                .extracting(Project::getName).isEqualTo("Project A");
+    }
+
+    @Test
+    void clear_ShouldResetNameIndex() throws ProjectRepository.NameTakenException {
+        // Arrange
+        ProjectRepository repository = openRepository(100);
+        repository.add(project("Project A"));
+
+        // Act
+        repository.clear();
+
+        // Assert
+        assertThat(repository.exists("Project A")).isFalse();
+        assertThat(repository.findOptionalIgnoreCase("project a")).isEmpty();
+    }
+
+    @Test
+    void compact_ShouldServeProjectsFromBinarySnapshotAfterRestart() throws ProjectRepository.NameTakenException {
+        // Arrange
+        ProjectRepository repository = openRepository(100);
+        repository.add(project("Project A"));
+        repository.add(project("Project B"));
+        repository.compact();
+
+        // Act
+        ProjectRepository reopened = openRepository(100);
+
+        // Assert
+        assertThat(binaryReaderWriter.readBinary()).get()
+                .extracting(BinaryProjectSnapshot::size).isEqualTo(2);
+        assertThat(reopened.findAll())
+                .extracting(Project::getName)
+                .containsExactly("Project A", "Project B");
+        assertThat(reopened.exists("Project B")).isTrue();
+        assertThat(reopened.findOptionalIgnoreCase("project a")).isPresent();
+    }
+
+    @Test
+    void add_AfterCompaction_ShouldRejectNamesInBinarySnapshot() throws ProjectRepository.NameTakenException {
+        // Arrange
+        ProjectRepository repository = openRepository(100);
+        repository.add(project("Project A"));
+        repository.compact();
+
+        // Assert
+        assertThrows(ProjectRepository.NameTakenException.class, () -> repository.add(project("Project A")));
+    }
+
+    @Test
+    void addAll_ShouldJournalBatchInOneFlush() throws ProjectRepository.NameTakenException {
+        // Arrange
+        ProjectRepository repository = openRepository(100);
+
+        // Act
+        repository.addAll(List.of(project("Project A"), project("Project B")));
+
+        // Assert
+        assertThat(journal.size()).isEqualTo(2);
+        assertThat(openRepository(100).findAll())
+                .extracting(Project::getName)
+                .containsExactly("Project A", "Project B");
+    }
+
+    @Test
+    void addAll_WithDuplicateName_ShouldAddNothing() throws ProjectRepository.NameTakenException {
+        // Arrange
+        ProjectRepository repository = openRepository(100);
+        repository.add(project("Project A"));
+
+        // Act
+        assertThrows(ProjectRepository.NameTakenException.class,
+                () -> repository.addAll(List.of(project("Project B"), project("Project A"))));
+
+        // Assert
+        assertThat(repository.exists("Project B")).isFalse();
+        assertThat(repository.size()).isEqualTo(1);
+    }
+
+    @Test
+    void addAll_WithNamesTakenByAnotherProcess_ShouldReportEachOfThem() throws ProjectRepository.NameTakenException {
+        // Arrange
+        ProjectRepository repository = openRepository(100);
+        ProjectRepository other = openSecondProcess(100);
+        other.addAll(List.of(project("Project A"), project("Project C")));
+
+        // Act
+        ProjectRepository.NameTakenException e = assertThrows(ProjectRepository.NameTakenException.class,
+                () -> repository.addAll(List.of(project("Project A"), project("Project B"), project("Project C"))));
+
+        // Assert
+        assertThat(e.getNames()).containsExactly("Project A", "Project C");
+        assertThat(repository.exists("Project B")).isFalse();
+    }
+
+    @Test
+    void snapshot_ShouldNotSeeLaterChanges() throws ProjectRepository.NameTakenException {
+        // Arrange
+        ProjectRepository repository = openRepository(2);
+        repository.add(project("Project A"));
+        ProjectRepository.Snapshot before = repository.snapshot();
+
+        // Act
+        repository.add(project("Project B"));
+        repository.add(project("Project C"));
+        ProjectRepository.Snapshot afterAdds = repository.snapshot();
+        repository.clear();
+
+        // Assert
+        assertThat(before).extracting(Project::getName).containsExactly("Project A");
+        assertThat(afterAdds).extracting(Project::getName).containsExactly("Project A", "Project B", "Project C");
+        assertThat(afterAdds.version()).isGreaterThan(before.version());
+        assertThat(repository.findAll()).isEmpty();
+    }
+
+    @Test
+    void add_FromManyThreads_ShouldKeepEveryProject() throws Exception {
+        // Arrange
+        ProjectRepository repository = openRepository(50);
+        int threads = 4;
+        int perThread = 250;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    repository.add(project("Project " + thread + "-" + i));
+                }
+                return null;
+            }));
+        }
+        futures.add(executor.submit(() -> {
+            // Every snapshot taken while writers run must be fully readable
+            for (int i = 0; i < 200; i++) {
+                ProjectRepository.Snapshot snapshot = repository.snapshot();
+                assertThat(snapshot).doesNotContainNull();
+            }
+            return null;
+        }));
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertThat(repository.size()).isEqualTo(threads * perThread);
+        assertThat(repository.findAll()).extracting(Project::getName).doesNotHaveDuplicates();
+        assertThat(openRepository(50).size()).isEqualTo(threads * perThread);
+    }
+
+    @Test
+    void refresh_ShouldMergeProjectsAddedByAnotherProcess() throws ProjectRepository.NameTakenException {
+        // Arrange
+        ProjectRepository first = openRepository(100);
+        ProjectRepository second = openSecondProcess(100);
+
+        // Act
+        first.add(project("Project A"));
+        second.refresh();
+        second.add(project("Project B"));
+        first.refresh();
+
+        // Assert
+        assertThat(first.findAll()).extracting(Project::getName).containsExactly("Project A", "Project B");
+        assertThat(second.findAll()).extracting(Project::getName).containsExactly("Project A", "Project B");
+    }
+
+    @Test
+    void add_WithNameTakenByAnotherProcess_ShouldThrow() throws ProjectRepository.NameTakenException {
+        // Arrange
+        ProjectRepository first = openRepository(100);
+        ProjectRepository second = openSecondProcess(100);
+        first.add(project("Project A"));
+
+        // Act & Assert
+        assertThrows(ProjectRepository.NameTakenException.class, () -> second.add(project("Project A")));
+        assertThat(openRepository(100).size()).isEqualTo(1);
+    }
+
+    @Test
+    void refresh_AfterCompactionByAnotherProcess_ShouldReloadAndNotifyListeners() throws ProjectRepository.NameTakenException {
+        // Arrange
+        ProjectRepository first = openRepository(100);
+        ProjectRepository second = openSecondProcess(100);
+        List<String> events = new ArrayList<>();
+        second.addListener(new ProjectRepositoryListener() {
+            @Override
+            public void projectAdded(int ordinal, Project project) {
+                events.add("added " + project.getName());
+            }
+
+            @Override
+            public void projectUpdated(int ordinal, Project previous, Project project) {
+                events.add("updated " + project.getName());
+            }
+
+            @Override
+            public void projectsCleared() {
+                events.add("cleared");
+            }
+        });
+        first.add(project("Project A"));
+        second.refresh();
+
+        // Act
+        first.add(project("Project B"));
+        first.compact();
+        second.refresh();
+
+        // Assert
+        assertThat(second.findAll()).extracting(Project::getName).containsExactly("Project A", "Project B");
+        assertThat(events).containsExactly("added Project A", "cleared");
+    }
+
+    @Test
+    void refresh_AfterTwoCompactionsWithinOneTick_ShouldReload() throws Exception {
+        // Arrange
+        ProjectRepository first = openRepository(100);
+        ProjectRepository second = openSecondProcess(100);
+        first.add(project("Project A"));
+        first.compact();
+        resetSnapshotTimes();
+        second.refresh();
+
+        // Act
+        first.add(project("Project B"));
+        first.compact();
+        first.add(project("Project C"));
+        first.compact();
+        resetSnapshotTimes();
+        first.add(project("Project D"));
+        second.refresh();
+
+        // Assert
+        assertThat(second.findAll()).extracting(Project::getName)
+                .containsExactly("Project A", "Project B", "Project C", "Project D");
+    }
+
+    @Test
+    void update_ShouldSurviveRestartAndCompaction() throws Exception {
+        // Arrange
+        ProjectRepository repository = openRepository(3);
+        repository.add(project("Project A"));
+        repository.add(project("Project B"));
+
+        // Act
+        Project updated = repository.update("Project A", 5, 3, 3, 3, 1).project();
+        ProjectRepository reopened = openRepository(3);
+        reopened.compact();
+        ProjectRepository compacted = openRepository(3);
+
+        // Assert
+        assertThat(updated.getImpact()).isEqualTo(5);
+        assertThat(updated.getEffort()).isEqualTo(1);
+        for (ProjectRepository r : List.of(repository, reopened, compacted)) {
+            Project project = r.findOptional("Project A").orElseThrow();
+            assertThat(project.getImpact()).isEqualTo(5);
+            assertThat(project.getConfidence()).isEqualTo(3);
+            assertThat(project.getEffort()).isEqualTo(1);
+            assertThat(project.getDescription()).isEqualTo("Description of Project A");
+        }
+        assertThat(history.size()).isEqualTo(3);
+    }
+
+    @Test
+    void update_WithUnknownName_ShouldThrow() throws ProjectRepository.NameTakenException {
+        // Arrange
+        ProjectRepository repository = openRepository(100);
+        repository.add(project("Project A"));
+
+        // Act & Assert
+        assertThrows(ProjectRepository.ProjectNotFoundException.class,
+                () -> repository.update("Project B", 5, 3, 3, 3, 1));
+    }
+
+    @Test
+    void update_WithSameScores_ShouldRecordNothing() throws Exception {
+        // Arrange
+        ProjectRepository repository = openRepository(100);
+        repository.add(project("Project A"));
+
+        // Act
+        repository.update("Project A", 3, 3, 3, 3, 3);
+
+        // Assert
+        assertThat(journal.size()).isEqualTo(1);
+        assertThat(history.size()).isEqualTo(1);
+    }
+
+    @Test
+    void snapshot_ShouldNotSeeLaterUpdates() throws Exception {
+        // Arrange
+        ProjectRepository repository = openRepository(100);
+        repository.add(project("Project A"));
+        ProjectRepository.Snapshot before = repository.snapshot();
+
+        // Act
+        repository.update("Project A", 1, 3, 3, 3, 3);
+        ProjectRepository.Snapshot after = repository.snapshot();
+
+        // Assert
+        assertThat(before.get(0).getImpact()).isEqualTo(3);
+        assertThat(after.get(0).getImpact()).isEqualTo(1);
+        assertThat(after.version()).isGreaterThan(before.version());
+        assertThat(after.revisions()).isEqualTo(2);
+    }
+
+    @Test
+    void refresh_ShouldApplyUpdatesByAnotherProcess() throws Exception {
+        // Arrange
+        ProjectRepository first = openRepository(100);
+        ProjectRepository second = openSecondProcess(100);
+        first.add(project("Project A"));
+        second.refresh();
+        List<String> events = new ArrayList<>();
+        second.addListener(new ProjectRepositoryListener() {
+            @Override
+            public void projectAdded(int ordinal, Project project) {
+                events.add("added " + project.getName());
+            }
+
+            @Override
+            public void projectUpdated(int ordinal, Project previous, Project project) {
+                events.add("updated " + previous.getImpact() + " -> " + project.getImpact());
+            }
+
+            @Override
+            public void projectsCleared() {
+                events.add("cleared");
+            }
+        });
+
+        // Act
+        first.update("Project A", 4, 3, 3, 3, 3);
+        second.refresh();
+
+        // Assert
+        assertThat(second.findOptional("Project A").orElseThrow().getImpact()).isEqualTo(4);
+        assertThat(second.snapshot().revisions()).isEqualTo(2);
+        assertThat(events).containsExactly("updated 3 -> 4");
+    }
+
+    @Test
+    void update_OfOtherScoresByAnotherProcess_ShouldKeepBoth() throws Exception {
+        // Arrange
+        ProjectRepository first = openRepository(100);
+        ProjectRepository second = openSecondProcess(100);
+        first.add(project("Project A"));
+        second.refresh();
+        first.update("Project A", 5, null, null, null, null);
+
+        // Act
+        ProjectRepository.ScoreUpdate update = second.update("Project A", null, null, null, null, 1);
+
+        // Assert
+        assertThat(update.previous().getImpact()).isEqualTo(5);
+        assertThat(update.previous().getEffort()).isEqualTo(3);
+        assertThat(update.project().getImpact()).isEqualTo(5);
+        assertThat(update.project().getEffort()).isEqualTo(1);
+        first.refresh();
+        assertThat(first.findOptional("Project A").orElseThrow().getImpact()).isEqualTo(5);
+        assertThat(first.findOptional("Project A").orElseThrow().getEffort()).isEqualTo(1);
+    }
+
+    @Test
+    void open_WithAsyncLoad_ShouldWaitForLoadingBeforeReading() throws ProjectRepository.NameTakenException {
+        // Arrange
+        ProjectRepository writer = openRepository(100);
+        writer.addAll(List.of(project("Project A"), project("Project B")));
+        writer.compact();
+
+        // Act
+        ProjectRepository repository = new ProjectRepository(readerWriter, binaryReaderWriter, journal, history, fileLock,
+                new FlushScheduler(0), ObjectProjectStore::new, new SimpleMeterRegistry(), 100, true);
+
+        // Assert
+        assertThat(repository.findAll()).extracting(Project::getName).containsExactly("Project A", "Project B");
+        assertThat(repository.loaded()).isCompleted();
+    }
+
+    @Test
+    void open_WithAsyncLoadOfDamagedFile_ShouldFailOperations() throws Exception {
+        // Arrange
+        Files.writeString(tempDir.resolve("projects.json"), "not json");
+
+        // Act
+        ProjectRepository repository = new ProjectRepository(readerWriter, binaryReaderWriter, journal, history, fileLock,
+                new FlushScheduler(0), ObjectProjectStore::new, new SimpleMeterRegistry(), 100, true);
+
+        // Assert
+        assertThrows(RuntimeException.class, repository::size);
+        assertThrows(RuntimeException.class, () -> repository.add(project("Project A")));
+        assertThat(Files.readString(tempDir.resolve("projects.json"))).isEqualTo("not json");
+    }
+}
@@ -0,0 +1,136 @@
+package com.preponderous.parpt.repo;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ProjectAnswers;
+import com.preponderous.parpt.domain.ScoreColumns;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectStoreTest {
+
+    static Stream<ProjectStore.Factory> stores() {
+        return Stream.of(ObjectProjectStore::new, CompactProjectStore::new);
+    }
+
+    private Project project(String name, int score) {
+        return Project.builder()
+                .name(name)
+                .description("Description of " + name)
+                .impact(score)
+                .confidence(6 - score)
+                .ease(score)
+                .reach(6 - score)
+                .effort(score)
+                .build();
+    }
+
+    @ParameterizedTest
+    @MethodSource("stores")
+    void add_ShouldStoreProjectsByRow(ProjectStore.Factory factory) {
+        // Arrange
+        ProjectStore store = factory.create();
+        Project first = project("Project 1", 1);
+        Project second = project("Prøject 2", 5);
+
+        // Act
+        int firstRow = store.add(first);
+        int secondRow = store.add(second);
+
+        // Assert
+        assertThat(firstRow).isZero();
+        assertThat(secondRow).isEqualTo(1);
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.get(0)).usingRecursiveComparison().isEqualTo(first);
+        assertThat(store.get(1)).usingRecursiveComparison().isEqualTo(second);
+    }
+
+    @ParameterizedTest
+    @MethodSource("stores")
+    void indexOf_ShouldFindProjectsAcrossGrowth(ProjectStore.Factory factory) {
+        // Arrange
+        ProjectStore store = factory.create();
+        for (int i = 0; i < 1000; i++) {
+            store.add(project("Project " + i, i % 5 + 1));
+        }
+
+        // Assert
+        assertThat(store.indexOf("Project 0")).isZero();
+        assertThat(store.indexOf("Project 999")).isEqualTo(999);
+        assertThat(store.indexOf("project 999")).isEqualTo(-1);
+        assertThat(store.indexOfIgnoreCase("PROJECT 999")).isEqualTo(999);
+        assertThat(store.indexOf("Project 1000")).isEqualTo(-1);
+    }
+
+    @ParameterizedTest
+    @MethodSource("stores")
+    void indexOfIgnoreCase_ShouldReturnFirstMatch(ProjectStore.Factory factory) {
+        // Arrange
+        ProjectStore store = factory.create();
+        store.add(project("Project", 1));
+        store.add(project("PROJECT", 2));
+
+        // Assert
+        assertThat(store.indexOfIgnoreCase("project")).isZero();
+        assertThat(store.indexOf("PROJECT")).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @MethodSource("stores")
+    void add_ShouldKeepAnswersOfProjectsAddedAfterOnesWithout(ProjectStore.Factory factory) {
+        // Arrange
+        ProjectStore store = factory.create();
+        for (int i = 0; i < 20; i++) {
+            store.add(project("Project " + i, i % 5 + 1));
+        }
+        Project answered = project("Answered", 4);
+        answered.setAnswers(ProjectAnswers.encode(new int[]{4, 4, 5, 3}));
+        answered.setPromptSetVersion(1);
+
+        // Act
+        int row = store.add(answered);
+        store.add(project("After", 2));
+
+        // Assert
+        assertThat(store.get(row)).usingRecursiveComparison().isEqualTo(answered);
+        assertThat(store.get(0).getAnswers()).isZero();
+        assertThat(store.get(row + 1).getPromptSetVersion()).isZero();
+    }
+
+    @ParameterizedTest
+    @MethodSource("stores")
+    void copyScores_ShouldFillColumnsFromOffset(ProjectStore.Factory factory) {
+        // Arrange
+        ProjectStore store = factory.create();
+        store.add(project("Project 1", 2));
+        store.add(project("Project 2", 4));
+        ScoreColumns columns = new ScoreColumns(3);
+
+        // Act
+        store.copyScores(columns, 1, 2);
+
+        // Assert
+        assertThat(columns.impact()).containsExactly(0, 2, 4);
+        assertThat(columns.confidence()).containsExactly(0, 4, 2);
+        assertThat(columns.effort()).containsExactly(0, 2, 4);
+    }
+
+    @ParameterizedTest
+    @MethodSource("stores")
+    void clear_ShouldRemoveAllProjects(ProjectStore.Factory factory) {
+        // Arrange
+        ProjectStore store = factory.create();
+        store.add(project("Project 1", 1));
+
+        // Act
+        store.clear();
+
+        // Assert
+        assertThat(store.size()).isZero();
+        assertThat(store.indexOf("Project 1")).isEqualTo(-1);
+        assertThat(store.add(project("Project 1", 1))).isZero();
+    }
+}
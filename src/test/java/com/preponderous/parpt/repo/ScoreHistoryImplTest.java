@@ -0,0 +1,156 @@
+package com.preponderous.parpt.repo;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ScoreRevision;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ScoreHistoryImplTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path historyFile;
+    private TestClock clock;
+    private ScoreHistoryImpl history;
+
+    @BeforeEach
+    void setUp() {
+        historyFile = tempDir.resolve("projects.json.history");
+        clock = new TestClock(1_700_000_000_000L);
+        history = new ScoreHistoryImpl(historyFile.toString(), clock);
+    }
+
+    private Project project(int impact, int effort) {
+        return Project.builder()
+                .name("Project")
+                .description("Description")
+                .impact(impact)
+                .confidence(3)
+                .ease(3)
+                .reach(3)
+                .effort(effort)
+                .build();
+    }
+
+    @Test
+    void replay_WhenHistoryDoesNotExist_ShouldReplayNothing() {
+        // Act
+        history.replay();
+
+        // Assert
+        assertThat(history.size()).isZero();
+    }
+
+    @Test
+    void append_ShouldReplayRevisionsInOrder() {
+        // Arrange
+        int deltas = ScoreRevision.deltas(project(1, 5), project(5, 1));
+        history.appendAdded(0, 3);
+        clock.millis += 1500;
+        history.appendUpdated(2, deltas);
+
+        // Act
+        ScoreHistoryImpl reopened = new ScoreHistoryImpl(historyFile.toString(), clock);
+        reopened.replay();
+
+        // Assert
+        assertThat(reopened.size()).isEqualTo(2);
+        assertThat(reopened.get(0)).isEqualTo(ScoreRevision.added(1_700_000_000_000L, 0, 3));
+        assertThat(reopened.get(1)).isEqualTo(ScoreRevision.updated(1_700_000_001_500L, 2, deltas));
+        assertThat(reopened.get(1).delta(0)).isEqualTo(4);
+        assertThat(reopened.get(1).delta(4)).isEqualTo(-4);
+    }
+
+    @Test
+    void append_ShouldTakeAFewBytesPerChange() throws IOException {
+        // Arrange
+        history.appendAdded(0, 1);
+        long before = Files.size(historyFile);
+
+        // Act
+        clock.millis += 60_000;
+        history.appendUpdated(0, ScoreRevision.deltas(project(3, 3), project(4, 3)));
+
+        // Assert
+        assertThat(Files.size(historyFile) - before).isLessThanOrEqualTo(8);
+    }
+
+    @Test
+    void append_WhenClockGoesBack_ShouldKeepTimestampsInOrder() {
+        // Arrange
+        history.appendAdded(0, 1);
+
+        // Act
+        clock.millis -= 10_000;
+        ScoreRevision revision = history.appendUpdated(0, ScoreRevision.deltas(project(3, 3), project(4, 3)));
+
+        // Assert
+        assertThat(revision.timestamp()).isEqualTo(1_700_000_000_000L);
+    }
+
+    @Test
+    void replay_WithTornRevision_ShouldIgnoreItAndOverwriteItOnAppend() throws IOException {
+        // Arrange
+        history.appendAdded(0, 2);
+        Files.write(historyFile, new byte[]{(byte) 0x85}, StandardOpenOption.APPEND);
+        ScoreHistoryImpl reopened = new ScoreHistoryImpl(historyFile.toString(), clock);
+        reopened.replay();
+
+        // Act
+        reopened.appendAdded(2, 1);
+        ScoreHistoryImpl again = new ScoreHistoryImpl(historyFile.toString(), clock);
+        again.replay();
+
+        // Assert
+        assertThat(again.size()).isEqualTo(2);
+        assertThat(again.get(1).ordinal()).isEqualTo(2);
+    }
+
+    @Test
+    void replayNew_ShouldPickUpRevisionsAppendedByAnotherProcess() {
+        // Arrange
+        ScoreHistoryImpl other = new ScoreHistoryImpl(historyFile.toString(), clock);
+        history.appendAdded(0, 1);
+        other.replayNew();
+
+        // Act
+        history.appendUpdated(0, ScoreRevision.deltas(project(3, 3), project(3, 1)));
+        other.replayNew();
+
+        // Assert
+        assertThat(other.size()).isEqualTo(2);
+        assertThat(other.get(1).delta(4)).isEqualTo(-2);
+    }
+
+    @Test
+    void truncate_ShouldDiscardEveryRevision() {
+        // Arrange
+        history.appendAdded(0, 1);
+
+        // Act
+        history.truncate();
+
+        // Assert
+        assertThat(history.size()).isZero();
+        assertThat(historyFile).doesNotExist();
+    }
+
+    @Test
+    void replay_WithForeignFile_ShouldThrow() throws IOException {
+        // Arrange
+        Files.writeString(historyFile, "not a history");
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, history::replay);
+    }
+}
@@ -0,0 +1,74 @@
+package com.preponderous.parpt.repo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.nio.file.Path;
+import java.time.Clock;
+
+/**
+ * Opens repositories over real files for tests that build their objects by hand. Each
+ * call gets its own readers and writers, so two repositories over the same file behave
+ * like two processes sharing it.
+ */
+public final class TestRepositories {
+
+    private TestRepositories() {
+    }
+
+    /**
+     * Opens a repository over {@code projects.json} and its sidecar files in the directory,
+     * with compact storage, synchronous flushes and eager loading.
+     */
+    public static ProjectRepository inDirectory(Path directory) {
+        return builder(directory.resolve("projects.json")).build();
+    }
+
+    public static Builder builder(Path projectsFile) {
+        return new Builder(projectsFile);
+    }
+
+    public static final class Builder {
+        private final String projectsFile;
+        private ProjectStore.Factory storeFactory = CompactProjectStore::new;
+        private Clock clock = Clock.systemUTC();
+        private int compactionThreshold = 100;
+
+        private Builder(Path projectsFile) {
+            this.projectsFile = projectsFile.toString();
+        }
+
+        public Builder storeFactory(ProjectStore.Factory storeFactory) {
+            this.storeFactory = storeFactory;
+            return this;
+        }
+
+        /**
+         * Sets the clock that timestamps score revisions.
+         */
+        public Builder clock(Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public Builder compactionThreshold(int compactionThreshold) {
+            this.compactionThreshold = compactionThreshold;
+            return this;
+        }
+
+        public ProjectRepository build() {
+            ObjectMapper objectMapper = new ObjectMapper();
+            return new ProjectRepository(
+                    new ProjectJsonReaderWriterImpl(projectsFile, objectMapper, new SimpleMeterRegistry()),
+                    new ProjectBinaryReaderWriterImpl(projectsFile + ".bin", projectsFile),
+                    new ProjectJournalImpl(projectsFile + ".journal", objectMapper),
+                    new ScoreHistoryImpl(projectsFile + ".history", clock),
+                    new ProjectFileLockImpl(projectsFile + ".lock"),
+                    new FlushScheduler(0),
+                    storeFactory,
+                    new SimpleMeterRegistry(),
+                    compactionThreshold,
+                    false);
+        }
+    }
+}
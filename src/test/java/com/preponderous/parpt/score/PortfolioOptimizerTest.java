@@ -0,0 +1,106 @@
+package com.preponderous.parpt.score;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.TestProjects;
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.repo.TestRepositories;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PortfolioOptimizerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ScoreCalculator scoreCalculator = new ScoreCalculator();
+    private ProjectRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = TestRepositories.inDirectory(tempDir);
+    }
+
+    private Project project(String name, int impact, int effort) {
+        return TestProjects.project(name, impact, 2, 3, 3, effort);
+    }
+
+    @Test
+    void optimize_ShouldPreferTheBestCombinationOverTheBestRatio() throws ProjectRepository.NameTakenException {
+        // Arrange: RICE is 6 * impact / effort, so "Dense" has the best RICE per effort
+        repository.add(project("Dense", 2, 1));
+        repository.add(project("Big", 5, 5));
+        repository.add(project("Medium", 5, 4));
+        PortfolioOptimizer optimizer = new PortfolioOptimizer(repository, scoreCalculator, 1024);
+
+        // Act
+        PortfolioOptimizer.Portfolio portfolio = optimizer.optimize(ScoreCalculator.RICE, 5);
+
+        // Assert: Dense and Medium (12 + 7.5) beat Big alone (6) and Dense alone
+        assertThat(portfolio.projects()).extracting(Project::getName).containsExactly("Dense", "Medium");
+        assertThat(portfolio.effort()).isEqualTo(5);
+        assertThat(portfolio.value()).isCloseTo(19.5, within(1e-9));
+        assertThat(portfolio.exact()).isTrue();
+    }
+
+    @Test
+    void optimize_ShouldMatchTheItemByItemKnapsack() throws ProjectRepository.NameTakenException {
+        // Arrange
+        Random random = new Random(11);
+        List<Project> projects = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            projects.add(project("Project " + i, 1 + random.nextInt(5), 1 + random.nextInt(5)));
+        }
+        repository.addAll(projects);
+        PortfolioOptimizer optimizer = new PortfolioOptimizer(repository, scoreCalculator, 1024);
+
+        for (int budget : new int[]{1, 7, 100, 450, 2000}) {
+            // Act
+            PortfolioOptimizer.Portfolio portfolio = optimizer.optimize(ScoreCalculator.ICE, budget);
+
+            // Assert
+            double[] best = new double[budget + 1];
+            for (Project project : projects) {
+                for (int capacity = budget; capacity >= project.getEffort(); capacity--) {
+                    best[capacity] = Math.max(best[capacity], best[capacity - project.getEffort()] + scoreCalculator.ice(project));
+                }
+            }
+            assertThat(portfolio.value()).isCloseTo(best[budget], within(1e-9));
+            assertThat(portfolio.projects().stream().mapToInt(Project::getEffort).sum())
+                    .isEqualTo(portfolio.effort())
+                    .isLessThanOrEqualTo(budget);
+        }
+    }
+
+    @Test
+    void optimize_AboveTheExactLimit_ShouldFillTheBudgetGreedily() throws ProjectRepository.NameTakenException {
+        // Arrange
+        repository.add(project("Dense", 2, 1));
+        repository.add(project("Big", 5, 5));
+        repository.add(project("Medium", 5, 4));
+        PortfolioOptimizer optimizer = new PortfolioOptimizer(repository, scoreCalculator, 2);
+
+        // Act
+        PortfolioOptimizer.Portfolio portfolio = optimizer.optimize(ScoreCalculator.RICE, 5);
+
+        // Assert: Dense first by RICE per effort, then the best of what still fits
+        assertThat(portfolio.projects()).extracting(Project::getName).containsExactly("Dense", "Medium");
+        assertThat(portfolio.exact()).isFalse();
+    }
+
+    @Test
+    void optimize_WithUnknownModel_ShouldThrow() {
+        PortfolioOptimizer optimizer = new PortfolioOptimizer(repository, scoreCalculator, 1024);
+
+        assertThrows(IllegalArgumentException.class, () -> optimizer.optimize("wsjf", 5));
+    }
+}
@@ -0,0 +1,118 @@
+package com.preponderous.parpt.score;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.repo.TestRepositories;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.preponderous.parpt.domain.TestProjects.project;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProjectFrontierTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ProjectRepository repository;
+    private ProjectFrontier frontier;
+
+    @BeforeEach
+    void setUp() {
+        repository = TestRepositories.inDirectory(tempDir);
+        frontier = new ProjectFrontier(repository);
+    }
+
+    private static List<List<String>> names(List<List<Project>> tiers) {
+        return tiers.stream()
+                .map(tier -> tier.stream().map(Project::getName).toList())
+                .toList();
+    }
+
+    @Test
+    void tiers_ShouldKeepTradeOffsOnTheFrontierAndLayerTheRest() throws ProjectRepository.NameTakenException {
+        // Arrange
+        repository.add(project("Dominated", 3, 3, 3, 3, 3));
+        repository.add(project("High impact", 5, 3, 3, 3, 3));
+        repository.add(project("Low effort", 3, 3, 3, 3, 1));
+        repository.add(project("Twin", 5, 3, 3, 3, 3));
+        repository.add(project("Worst", 1, 1, 1, 1, 5));
+
+        // Act
+        List<List<Project>> tiers = frontier.tiers(5);
+
+        // Assert
+        assertThat(names(tiers)).containsExactly(
+                List.of("High impact", "Low effort", "Twin"),
+                List.of("Dominated"),
+                List.of("Worst"));
+        assertThat(names(frontier.tiers(1))).containsExactly(List.of("High impact", "Low effort", "Twin"));
+    }
+
+    @Test
+    void tiers_WithoutProjects_ShouldBeEmpty() {
+        assertThat(frontier.tiers(3)).isEmpty();
+    }
+
+    @Test
+    void tiers_WithHugeCount_ShouldStopAtTheDeepestPossibleTier() throws ProjectRepository.NameTakenException {
+        // Arrange: a chain from the worst scores to the best, one step better each time
+        int[] scores = {1, 1, 1, 1, 5};
+        repository.add(project("Step 0", scores[0], scores[1], scores[2], scores[3], scores[4]));
+        for (int step = 1; step <= 20; step++) {
+            int dimension = (step - 1) / 4;
+            scores[dimension] += dimension == 4 ? -1 : 1;
+            repository.add(project("Step " + step, scores[0], scores[1], scores[2], scores[3], scores[4]));
+        }
+
+        // Act
+        List<List<Project>> tiers = frontier.tiers(2_000_000_000);
+
+        // Assert
+        assertThat(tiers).hasSize(21);
+        assertThat(tiers.get(0)).extracting(Project::getName).containsExactly("Step 20");
+        assertThat(tiers.get(20)).extracting(Project::getName).containsExactly("Step 0");
+        assertThrows(IllegalArgumentException.class, () -> frontier.tiers(-1));
+    }
+
+    @Test
+    void tiers_ShouldMatchPeelingNonDominatedProjects() throws ProjectRepository.NameTakenException {
+        // Arrange
+        Random random = new Random(7);
+        List<Project> projects = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            projects.add(project("Project " + i, 1 + random.nextInt(5), 1 + random.nextInt(5),
+                    1 + random.nextInt(5), 1 + random.nextInt(5), 1 + random.nextInt(5)));
+        }
+        repository.addAll(projects);
+
+        // Act
+        List<List<Project>> tiers = frontier.tiers(3);
+
+        // Assert: remove the non-dominated projects three times over
+        List<Project> remaining = new ArrayList<>(projects);
+        for (List<Project> tier : tiers) {
+            List<Project> expected = remaining.stream()
+                    .filter(project -> remaining.stream().noneMatch(other -> dominates(other, project)))
+                    .toList();
+            assertThat(tier).containsExactlyElementsOf(expected);
+            remaining.removeAll(expected);
+        }
+        assertThat(tiers).hasSize(3);
+    }
+
+    private static boolean dominates(Project a, Project b) {
+        boolean atLeastAsGood = a.getImpact() >= b.getImpact() && a.getConfidence() >= b.getConfidence()
+                && a.getEase() >= b.getEase() && a.getReach() >= b.getReach() && a.getEffort() <= b.getEffort();
+        boolean better = a.getImpact() > b.getImpact() || a.getConfidence() > b.getConfidence()
+                || a.getEase() > b.getEase() || a.getReach() > b.getReach() || a.getEffort() < b.getEffort();
+        return atLeastAsGood && better;
+    }
+}
@@ -0,0 +1,107 @@
+package com.preponderous.parpt.score;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ProjectAnswers;
+import com.preponderous.parpt.domain.TestProjects;
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.repo.TestRepositories;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RankSimulatorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ProjectRepository repository;
+    private RankSimulator simulator;
+
+    @BeforeEach
+    void setUp() {
+        repository = TestRepositories.inDirectory(tempDir);
+        simulator = new RankSimulator(repository, new ScoreCalculator());
+    }
+
+    private Project project(String name, int score, int effort) {
+        return TestProjects.project(name, score, score, score, score, effort);
+    }
+
+    @Test
+    void simulate_ShouldSeparateClearWinnersFromCloseCalls() throws ProjectRepository.NameTakenException {
+        // Arrange
+        repository.add(project("Winner", 5, 1));
+        repository.add(project("Close A", 3, 3));
+        repository.add(project("Close B", 3, 3));
+        repository.add(project("Loser", 1, 5));
+
+        // Act
+        List<RankSimulator.RankEstimate> estimates = simulator.simulate(ScoreCalculator.RICE, 5000, 2, 42);
+
+        // Assert: the winner and the loser never move, the close calls share ranks 2 and 3
+        assertThat(estimates.get(0).project().getName()).isEqualTo("Winner");
+        assertThat(estimates.get(0).expectedRank()).isEqualTo(1.0);
+        assertThat(estimates.get(0).topProbability()).isEqualTo(1.0);
+        assertThat(estimates.get(3).project().getName()).isEqualTo("Loser");
+        assertThat(estimates.get(3).rankLow()).isEqualTo(4);
+        for (RankSimulator.RankEstimate estimate : estimates.subList(1, 3)) {
+            assertThat(estimate.expectedRank()).isCloseTo(2.5, within(0.1));
+            assertThat(estimate.rankLow()).isEqualTo(2);
+            assertThat(estimate.rankHigh()).isEqualTo(3);
+            assertThat(estimate.topProbability()).isCloseTo(0.5, within(0.1));
+        }
+    }
+
+    @Test
+    void simulate_ShouldResampleStoredAnswers() throws ProjectRepository.NameTakenException {
+        // Arrange: unanimous answers leave nothing to resample, so these scores never move,
+        // where the same stored scores without answers would swap places in many draws
+        int[] threes = {3, 3, 3, 3};
+        int[] twos = {2, 2, 2, 2};
+        for (String name : List.of("Steady A", "Steady B")) {
+            Project steady = project(name, 3, 3);
+            steady.setAnswers(ProjectAnswers.encode(threes, threes, threes, threes, threes));
+            repository.add(steady);
+        }
+        Project lower = project("Lower", 2, 2);
+        lower.setAnswers(ProjectAnswers.encode(twos, twos, twos, twos, twos));
+        repository.add(lower);
+
+        // Act
+        List<RankSimulator.RankEstimate> estimates = simulator.simulate(ScoreCalculator.ICE, 2000, 1, 7);
+
+        // Assert
+        assertThat(estimates).extracting(RankSimulator.RankEstimate::expectedRank).containsExactly(1.0, 1.0, 3.0);
+        assertThat(estimates.get(0).topProbability()).isEqualTo(1.0);
+        assertThat(estimates.get(1).rankHigh()).isEqualTo(1);
+        assertThat(estimates.get(2).project().getName()).isEqualTo("Lower");
+    }
+
+    @Test
+    void simulate_WithTheSameSeed_ShouldRepeatItself() throws ProjectRepository.NameTakenException {
+        // Arrange
+        for (int i = 0; i < 50; i++) {
+            repository.add(project("Project " + i, 1 + i % 5, 1 + i % 3));
+        }
+
+        // Act
+        List<RankSimulator.RankEstimate> first = simulator.simulate(ScoreCalculator.ICE, 200, 5, 7);
+        List<RankSimulator.RankEstimate> second = simulator.simulate(ScoreCalculator.ICE, 200, 5, 7);
+
+        // Assert
+        assertThat(second).isEqualTo(first);
+        assertThat(first.stream().mapToDouble(RankSimulator.RankEstimate::topProbability).sum()).isGreaterThanOrEqualTo(5.0);
+    }
+
+    @Test
+    void simulate_WithUnknownModel_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> simulator.simulate("wsjf", 10, 1, 1));
+    }
+}
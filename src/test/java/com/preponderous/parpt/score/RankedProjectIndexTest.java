@@ -0,0 +1,91 @@
+package com.preponderous.parpt.score;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.TestProjects;
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.repo.TestRepositories;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RankedProjectIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ProjectRepository repository;
+    private RankedProjectIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = TestRepositories.inDirectory(tempDir);
+        index = new RankedProjectIndex(repository, new ScoreCalculator());
+    }
+
+    private Project project(String name, int impact, int effort) {
+        return TestProjects.project(name, impact, 3, 3, 3, effort);
+    }
+
+    @Test
+    void top_ShouldOrderByScoreDescendingAndKeepInsertionOrderForTies() throws ProjectRepository.NameTakenException {
+        // Arrange
+        repository.add(project("Tie 1", 3, 3));
+        repository.add(project("Best", 5, 1));
+        repository.add(project("Tie 2", 3, 3));
+        repository.add(project("Worst", 1, 5));
+
+        // Act & Assert
+        assertThat(index.top(ScoreCalculator.RICE, 10))
+                .extracting(Project::getName)
+                .containsExactly("Best", "Tie 1", "Tie 2", "Worst");
+        assertThat(index.top(ScoreCalculator.RICE, 2))
+                .extracting(Project::getName)
+                .containsExactly("Best", "Tie 1");
+    }
+
+    @Test
+    void top_ShouldReflectProjectsAddedAndClearedAfterBuild() throws ProjectRepository.NameTakenException {
+        // Arrange
+        repository.add(project("First", 3, 3));
+        index.top(ScoreCalculator.ICE, 1);
+
+        // Act
+        repository.add(project("Second", 5, 3));
+
+        // Assert
+        assertThat(index.top(ScoreCalculator.ICE, 1))
+                .extracting(Project::getName)
+                .containsExactly("Second");
+
+        repository.clear();
+        assertThat(index.top(ScoreCalculator.ICE, 1)).isEmpty();
+    }
+
+    @Test
+    void top_ShouldReflectProjectsRescoredAfterBuild() throws Exception {
+        // Arrange
+        repository.add(project("First", 5, 3));
+        repository.add(project("Second", 3, 3));
+        repository.add(project("Third", 4, 3));
+        index.top(ScoreCalculator.RICE, 1);
+
+        // Act
+        repository.update("Second", 5, 3, 3, 3, 1);
+        repository.update("First", 1, 3, 3, 3, 3);
+
+        // Assert
+        assertThat(index.top(ScoreCalculator.RICE, 3))
+                .extracting(Project::getName)
+                .containsExactly("Second", "Third", "First");
+    }
+
+    @Test
+    void top_WithUnknownModel_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> index.top("unknown", 1));
+    }
+}
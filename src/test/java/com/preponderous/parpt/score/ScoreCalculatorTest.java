@@ -1,10 +1,18 @@
 package com.preponderous.parpt.score;
 
+import com.preponderous.parpt.config.ScoringProperties;
 import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.ScoreColumns;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 class ScoreCalculatorTest {
@@ -58,4 +66,142 @@ class ScoreCalculatorTest {
         double expectedScore = 40.0; // (5 * 4 * 2) / 1
         assertEquals(expectedScore, score, 0.01, "RICE Score calculation should match expected value");
     }
+
+    @Test
+    void testBatchScoresMatchSingleProjectScores() {
+        // Arrange: an odd row count exercises both the vector loop and the scalar tail
+        int rows = 1003;
+        Random random = new Random(42);
+        ScoreColumns columns = new ScoreColumns(rows);
+        Project[] projects = new Project[rows];
+        for (int i = 0; i < rows; i++) {
+            projects[i] = Project.builder()
+                    .impact(random.nextInt(5) + 1)
+                    .confidence(random.nextInt(5) + 1)
+                    .ease(random.nextInt(5) + 1)
+                    .reach(random.nextInt(5) + 1)
+                    .effort(random.nextInt(5) + 1)
+                    .build();
+            columns.set(i, projects[i]);
+        }
+        double[] expectedIce = new double[rows];
+        double[] expectedRice = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            expectedIce[i] = scoreCalculator.ice(projects[i]);
+            expectedRice[i] = scoreCalculator.rice(projects[i]);
+        }
+
+        // Act
+        double[] ice = new double[rows];
+        double[] rice = new double[rows];
+        scoreCalculator.score(ScoreCalculator.ICE, columns, ice);
+        scoreCalculator.score(ScoreCalculator.RICE, columns, rice);
+
+        // Assert
+        assertArrayEquals(expectedIce, ice);
+        assertArrayEquals(expectedRice, rice);
+    }
+
+    @Test
+    void testBatchScoresFromIntColumns() {
+        // Arrange
+        int[] impact = {5, 1, 3, 2, 4, 5, 1, 3, 2};
+        int[] confidence = {4, 1, 3, 2, 4, 5, 2, 3, 1};
+        int[] ease = {3, 1, 3, 2, 4, 5, 3, 3, 5};
+        int[] reach = {2, 1, 3, 2, 4, 5, 4, 3, 2};
+        int[] effort = {1, 1, 3, 2, 4, 5, 5, 3, 4};
+
+        // Act
+        double[] ice = new double[impact.length];
+        double[] rice = new double[impact.length];
+        scoreCalculator.ice(impact, confidence, ease, ice, impact.length);
+        scoreCalculator.rice(reach, impact, confidence, effort, rice, impact.length);
+
+        // Assert
+        assertEquals(60.0, ice[0], 0.01);
+        assertEquals(40.0, rice[0], 0.01);
+        assertEquals(1.6, rice[6], 0.01); // (4 * 1 * 2) / 5
+        assertEquals(1.0, rice[8], 0.01); // (2 * 2 * 1) / 4
+    }
+
+    @Test
+    void testBatchScoresRejectShortOutput() {
+        byte[] column = {1, 2, 3};
+
+        assertThrows(IllegalArgumentException.class,
+                () -> scoreCalculator.ice(column, column, column, new double[2], 3));
+    }
+
+    private ScoreCalculator withModels(String... namesAndExpressions) {
+        ScoringProperties properties = new ScoringProperties();
+        for (int i = 0; i < namesAndExpressions.length; i += 2) {
+            properties.getModels().put(namesAndExpressions[i], namesAndExpressions[i + 1]);
+        }
+        return new ScoreCalculator(properties);
+    }
+
+    @Test
+    void testCustomModelsScoreLikeTheirExpressions() {
+        // Arrange
+        ScoreCalculator calculator = withModels(
+                "wsjf", "(impact + reach) / effort",
+                "Weighted", "0.5 * impact^2 - -confidence + max(ease, 2) * sqrt(reach) + log(effort)");
+        Project project = Project.builder().impact(4).confidence(2).ease(1).reach(4).effort(2).build();
+
+        // Act & Assert
+        assertEquals(List.of("ice", "rice", "wsjf", "weighted"), calculator.models());
+        assertEquals(List.of("wsjf", "weighted"), calculator.customModels());
+        assertEquals(4.0, calculator.score("wsjf", project), 1e-9);
+        assertEquals(8 + 2 + 2 * 2 + Math.log(2), calculator.score("weighted", project), 1e-9);
+        assertEquals(2.75, calculator.score("wsjf", 2.5, 3, 3, 3, 2), 1e-9);
+        assertArrayEquals(new int[]{0, 3, 4}, calculator.dimensions("wsjf"));
+    }
+
+    @Test
+    void testCustomModelBatchScoresMatchSingleProjectScores() {
+        // Arrange: the last row holds scores outside the precomputed range
+        ScoreCalculator calculator = withModels("weighted", "impact^1.5 * confidence + ease / reach - effort");
+        int rows = 500;
+        Random random = new Random(7);
+        ScoreColumns columns = new ScoreColumns(rows);
+        Project[] projects = new Project[rows];
+        for (int i = 0; i < rows; i++) {
+            int outlier = i == rows - 1 ? 3 : 0;
+            projects[i] = Project.builder()
+                    .impact(random.nextInt(5) + 1 + outlier)
+                    .confidence(random.nextInt(5) + 1)
+                    .ease(random.nextInt(5) + 1)
+                    .reach(random.nextInt(5) + 1)
+                    .effort(random.nextInt(5) + 1)
+                    .build();
+            columns.set(i, projects[i]);
+        }
+
+        // Act
+        double[] scores = new double[rows];
+        calculator.score("weighted", columns, scores);
+
+        // Assert
+        for (int i = 0; i < rows; i++) {
+            Project project = projects[i];
+            double expected = Math.pow(project.getImpact(), 1.5) * project.getConfidence()
+                    + (double) project.getEase() / project.getReach() - project.getEffort();
+            assertEquals(expected, scores[i], 1e-9);
+            assertEquals(expected, calculator.score("weighted", project), 1e-9);
+        }
+    }
+
+    @Test
+    void testCustomModelsRejectInvalidDeclarations() {
+        assertThrows(IllegalArgumentException.class, () -> withModels("ice", "impact"));
+        assertThrows(IllegalArgumentException.class, () -> withModels("effort", "impact"));
+        assertThrows(IllegalArgumentException.class, () -> withModels("two words", "impact"));
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class, () -> withModels("wsjf", "value / effort"));
+        assertEquals("Invalid scoring model 'wsjf': Unknown name 'value' at position 1. "
+                + "Available names: impact, confidence, ease, reach, effort, min, max, sqrt, log.", unknown.getMessage());
+        IllegalArgumentException infinite = assertThrows(IllegalArgumentException.class, () -> withModels("wsjf", "impact / (effort - 3)"));
+        assertTrue(infinite.getMessage().endsWith("not a finite number for impact 1, confidence 1, ease 1, reach 1 and effort 3."));
+        assertThrows(IllegalArgumentException.class, () -> withModels("wsjf", "(impact + reach"));
+        assertThrows(IllegalArgumentException.class, () -> scoreCalculator.score("wsjf", Project.builder().build()));
+    }
 }
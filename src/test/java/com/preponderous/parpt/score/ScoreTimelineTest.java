@@ -0,0 +1,152 @@
+package com.preponderous.parpt.score;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.domain.TestProjects;
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.repo.TestClock;
+import com.preponderous.parpt.repo.TestRepositories;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ScoreTimelineTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @TempDir
+    Path tempDir;
+
+    private TestClock clock;
+    private ProjectRepository repository;
+    private ScoreTimeline timeline;
+
+    @BeforeEach
+    void setUp() {
+        clock = new TestClock(START);
+        repository = openRepository();
+        timeline = new ScoreTimeline(repository, new ScoreCalculator());
+    }
+
+    private ProjectRepository openRepository() {
+        return TestRepositories.builder(tempDir.resolve("projects.json")).clock(clock).build();
+    }
+
+    private Project project(String name, int impact, int effort) {
+        return TestProjects.project(name, impact, 3, 3, 3, effort);
+    }
+
+    @Test
+    void history_ShouldListEveryChangeInOrder() throws Exception {
+        // Arrange
+        repository.add(project("Project A", 3, 3));
+        clock.millis += 1000;
+        repository.update("Project A", 5, 3, 3, 3, 3);
+        clock.millis += 1000;
+        repository.update("Project A", 5, 3, 3, 3, 1);
+
+        // Act
+        ScoreTimeline.ProjectHistory history = timeline.history("Project A");
+
+        // Assert
+        assertThat(history.added()).isEqualTo(Instant.ofEpochMilli(START));
+        assertThat(history.initial().getImpact()).isEqualTo(3);
+        assertThat(history.initial().getEffort()).isEqualTo(3);
+        assertThat(history.changes()).hasSize(2);
+        assertThat(history.changes().get(0).timestamp()).isEqualTo(Instant.ofEpochMilli(START + 1000));
+        assertThat(history.changes().get(0).after().getImpact()).isEqualTo(5);
+        assertThat(history.changes().get(1).before().getEffort()).isEqualTo(3);
+        assertThat(history.changes().get(1).after().getEffort()).isEqualTo(1);
+    }
+
+    @Test
+    void history_WithUnknownName_ShouldThrow() {
+        // Act & Assert
+        assertThrows(ProjectRepository.ProjectNotFoundException.class, () -> timeline.history("Project A"));
+    }
+
+    @Test
+    void asOf_ShouldReturnScoresAndProjectsOfThatMoment() throws Exception {
+        // Arrange
+        repository.add(project("Project A", 3, 3));
+        clock.millis += 1000;
+        repository.add(project("Project B", 4, 3));
+        clock.millis += 1000;
+        repository.update("Project A", 5, 3, 3, 3, 3);
+
+        // Act
+        List<Project> beforeB = timeline.asOf(Instant.ofEpochMilli(START + 500), null);
+        List<Project> beforeUpdate = timeline.asOf(Instant.ofEpochMilli(START + 1500), ScoreCalculator.RICE);
+        List<Project> afterUpdate = timeline.asOf(Instant.ofEpochMilli(START + 2000), ScoreCalculator.RICE);
+
+        // Assert
+        assertThat(beforeB).extracting(Project::getName).containsExactly("Project A");
+        assertThat(beforeUpdate).extracting(Project::getName).containsExactly("Project B", "Project A");
+        assertThat(afterUpdate).extracting(Project::getName).containsExactly("Project A", "Project B");
+        assertThat(afterUpdate.get(0).getImpact()).isEqualTo(5);
+        assertThat(timeline.asOf(Instant.ofEpochMilli(START - 1), null)).isEmpty();
+    }
+
+    @Test
+    void asOf_WithUnknownModel_ShouldThrow() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> timeline.asOf(Instant.now(), "unknown"));
+    }
+
+    @Test
+    void asOf_AcrossManyRevisions_ShouldMatchScoresRecordedAtTheTime() throws Exception {
+        // Arrange
+        List<Project> projects = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            projects.add(project("Project " + i, 3, 3));
+        }
+        repository.addAll(projects);
+        Random random = new Random(42);
+        int[][] impacts = new int[5][50];
+        for (int round = 0; round < 5; round++) {
+            for (int change = 0; change < 1000; change++) {
+                clock.millis++;
+                int i = random.nextInt(50);
+                repository.update("Project " + i, 1 + random.nextInt(5), 3, 3, 3, 3);
+            }
+            for (int i = 0; i < 50; i++) {
+                impacts[round][i] = repository.findOptional("Project " + i).orElseThrow().getImpact();
+            }
+        }
+        ScoreTimeline reopened = new ScoreTimeline(openRepository(), new ScoreCalculator());
+
+        // Act & Assert
+        for (ScoreTimeline candidate : List.of(timeline, reopened)) {
+            for (int round = 4; round >= 0; round--) {
+                List<Project> past = candidate.asOf(Instant.ofEpochMilli(START + 1000L * (round + 1)), null);
+                assertThat(past).extracting(Project::getImpact).containsExactly(
+                        Arrays.stream(impacts[round]).boxed().toArray(Integer[]::new));
+            }
+        }
+    }
+
+    @Test
+    void history_AfterClear_ShouldForgetProjects() throws Exception {
+        // Arrange
+        repository.add(project("Project A", 3, 3));
+        repository.update("Project A", 5, 3, 3, 3, 3);
+        timeline.history("Project A");
+
+        // Act
+        repository.clear();
+        repository.add(project("Project A", 2, 2));
+
+        // Assert
+        assertThat(timeline.history("Project A").changes()).isEmpty();
+        assertThat(timeline.history("Project A").initial().getImpact()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,42 @@
+package com.preponderous.parpt.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectNameTrieTest {
+
+    @Test
+    void complete_ShouldReturnNamesWithPrefixInAlphabeticalOrder() {
+        // Arrange
+        ProjectNameTrie trie = new ProjectNameTrie();
+        trie.add("Search");
+        trie.add("Project B");
+        trie.add("Project");
+        trie.add("Project A");
+        trie.add("Prototype");
+
+        // Act & Assert
+        assertThat(trie.complete("pro", 10)).containsExactly("Project", "Project A", "Project B", "Prototype");
+        assertThat(trie.complete("Project ", 10)).containsExactly("Project A", "Project B");
+        assertThat(trie.complete("", 2)).containsExactly("Project", "Project A");
+        assertThat(trie.complete("projects", 10)).isEmpty();
+        assertThat(trie.complete("x", 10)).isEmpty();
+        assertThat(trie.size()).isEqualTo(5);
+    }
+
+    @Test
+    void complete_ShouldSplitEdgesWhenShorterNamesArrive() {
+        // Arrange
+        ProjectNameTrie trie = new ProjectNameTrie();
+        trie.add("Billing portal");
+        trie.add("Billing");
+        trie.add("Bill");
+        trie.add("BILLING");
+
+        // Act & Assert
+        assertThat(trie.complete("bill", 10)).containsExactly("Bill", "Billing", "BILLING", "Billing portal");
+        assertThat(trie.complete("billi", 10)).containsExactly("Billing", "BILLING", "Billing portal");
+        assertThat(trie.complete("billing p", 10)).containsExactly("Billing portal");
+    }
+}
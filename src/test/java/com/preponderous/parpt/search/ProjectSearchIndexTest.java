@@ -0,0 +1,119 @@
+package com.preponderous.parpt.search;
+
+import com.preponderous.parpt.domain.Project;
+import com.preponderous.parpt.repo.ObjectProjectStore;
+import com.preponderous.parpt.repo.ProjectRepository;
+import com.preponderous.parpt.repo.TestRepositories;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectSearchIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ProjectRepository repository;
+    private ProjectSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = TestRepositories.builder(tempDir.resolve("projects.json"))
+                .storeFactory(ObjectProjectStore::new)
+                .build();
+        index = new ProjectSearchIndex(repository);
+    }
+
+    private Project project(String name, String description) {
+        return Project.builder()
+                .name(name)
+                .description(description)
+                .impact(3)
+                .confidence(3)
+                .ease(3)
+                .reach(3)
+                .effort(3)
+                .build();
+    }
+
+    @Test
+    void tokenize_ShouldSplitOnPunctuationAndLowerCase() {
+        assertThat(ProjectSearchIndex.tokenize("Self-Service BILLING, v2!"))
+                .containsExactly("self", "service", "billing", "v2");
+    }
+
+    @Test
+    void search_ShouldRequireEveryWordAndRankNameMatchesFirst() throws ProjectRepository.NameTakenException {
+        // Arrange
+        repository.add(project("Invoice export", "Send billing data to accounting"));
+        repository.add(project("Billing portal", "Let customers export invoices"));
+        repository.add(project("Search", "Find projects quickly"));
+
+        // Act & Assert
+        assertThat(index.search("billing", 10))
+                .extracting(Project::getName)
+                .containsExactly("Billing portal", "Invoice export");
+        assertThat(index.search("billing accounting", 10))
+                .extracting(Project::getName)
+                .containsExactly("Invoice export");
+        assertThat(index.search("billing quickly", 10)).isEmpty();
+        assertThat(index.search("?!", 10)).isEmpty();
+    }
+
+    @Test
+    void search_ShouldMatchPrefixesBelowExactWords() throws ProjectRepository.NameTakenException {
+        // Arrange
+        repository.add(project("Invoices", "Monthly statements"));
+        repository.add(project("Invoice", "One-off statements"));
+
+        // Act & Assert
+        assertThat(index.search("invoice", 10))
+                .extracting(Project::getName)
+                .containsExactly("Invoice", "Invoices");
+        assertThat(index.search("inv", 1))
+                .extracting(Project::getName)
+                .containsExactly("Invoices");
+    }
+
+    @Test
+    void search_ShouldReflectProjectsAddedAndClearedAfterBuild() throws ProjectRepository.NameTakenException {
+        // Arrange
+        repository.add(project("First", "Alpha feature"));
+        index.search("alpha", 10);
+
+        // Act
+        repository.add(project("Second", "Alpha follow-up"));
+
+        // Assert
+        assertThat(index.search("alpha", 10))
+                .extracting(Project::getName)
+                .containsExactly("First", "Second");
+
+        repository.clear();
+        assertThat(index.search("alpha", 10)).isEmpty();
+    }
+
+    @Test
+    void search_OverManyProjects_ShouldMatchAcrossBuildRanges() throws ProjectRepository.NameTakenException {
+        // Arrange
+        List<Project> projects = new ArrayList<>();
+        for (int i = 0; i < 40_000; i++) {
+            projects.add(project("Project " + i, i % 1000 == 0 ? "Rare milestone" : "Routine work"));
+        }
+        repository.addAll(projects);
+
+        // Act
+        List<Project> hits = index.search("milestone", 100);
+
+        // Assert
+        assertThat(hits).hasSize(40);
+        assertThat(hits.get(0).getName()).isEqualTo("Project 0");
+        assertThat(hits.get(39).getName()).isEqualTo("Project 39000");
+    }
+}